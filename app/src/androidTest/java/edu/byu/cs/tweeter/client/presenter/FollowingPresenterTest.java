@@ -122,6 +122,31 @@ public class FollowingPresenterTest {
         Mockito.verify(followingViewMock).addItems(Arrays.asList(user1, user2, user3, user4, user5));
     }
 
+    /**
+     * Verify that a page shown from a saved copy is replaced in the view when the page loaded
+     * from the server differs, and that the next page is loaded from the end of it.
+     */
+    @Test
+    public void testLoadMoreItems_SavedPageChanged() {
+        Answer<Void> changedPageAnswer = new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                FollowService.GetFollowingObserver observer = invocation.getArgument(4);
+                observer.handleSuccess(Arrays.asList(user1, user2, user3), true);
+                observer.handlePageChanged(null, Arrays.asList(user1, user3, user4), false);
+                return null;
+            }
+        };
+        Mockito.doAnswer(changedPageAnswer).when(followingServiceMock).getFollowees(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any(), Mockito.any());
+
+        followingPresenterSpy.loadMoreItems();
+
+        Assertions.assertEquals(user4, followingPresenterSpy.getLastFollowee());
+        Assertions.assertFalse(followingPresenterSpy.isHasMorePages());
+        Mockito.verify(followingViewMock).addItems(Arrays.asList(user1, user2, user3));
+        Mockito.verify(followingViewMock).refreshPage(null, Arrays.asList(user1, user3, user4));
+    }
+
     /**
      * Verify that {@link FollowingPresenter#loadMoreItems} works correctly when there
      * are between two and three pages of followees.
@@ -148,6 +173,29 @@ public class FollowingPresenterTest {
         Mockito.verify(followingViewMock, Mockito.times(0)).addItems(Mockito.any());
     }
 
+    /**
+     * Verify that the user is sent back to log in when the server rejects the session.
+     */
+    @Test
+    public void testLoadMoreItems_GetFolloweesUnauthorized() {
+        Answer<Void> unauthorizedAnswer = new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                FollowService.GetFollowingObserver observer = invocation.getArgument(4);
+                observer.handleUnauthorized("[Unauthorized] Invalid auth token");
+                return null;
+            }
+        };
+        Mockito.doAnswer(unauthorizedAnswer).when(followingServiceMock).getFollowees(Mockito.any(), Mockito.any(), Mockito.anyInt(), Mockito.any(), Mockito.any());
+
+        followingPresenterSpy.loadMoreItems();
+
+        Assertions.assertFalse(followingPresenterSpy.isLoading());
+        Mockito.verify(followingViewMock).setLoading(false);
+        Mockito.verify(followingViewMock).navigateToLogin(Mockito.anyString());
+        Mockito.verify(followingViewMock, Mockito.times(0)).displayErrorMessage(Mockito.any());
+    }
+
     @Test
     public void testLoadMoreItems_GetFolloweesFailsWithExceptionMessage() throws InterruptedException {
         Answer<Void> exceptionAnswer = new Answer<Void>() {
@@ -0,0 +1,125 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.util.Log;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import edu.byu.cs.tweeter.client.model.service.FollowService;
+import edu.byu.cs.tweeter.client.model.service.backgroundTask.GetFollowingTask;
+import edu.byu.cs.tweeter.client.model.service.backgroundTask.handler.GetFollowingTaskHandler;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Delivers a burst of GetFollowingTask results to the main looper, as a fast scroll through a
+ * long following list does, with an observer that is sometimes slow, and checks that
+ * {@link LooperMonitor} attributes the slow deliveries to the task. The monitor's dump is
+ * logged, so the same setup can be used to look for slow observers.
+ */
+public class MainLooperJankLoadTest {
+
+    private static final String LOG_TAG = "MainLooperJankLoadTest";
+
+    private static final int MESSAGE_COUNT = 200;
+    private static final int SLOW_EVERY = 20;
+    private static final long SLOW_MILLIS = 40;
+
+    private final LooperMonitor monitor = LooperMonitor.getInstance();
+
+    @BeforeEach
+    public void setup() {
+        monitor.install(Looper.getMainLooper());
+        monitor.reset();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Log.i(LOG_TAG, monitor.dump());
+        monitor.uninstall();
+    }
+
+    @Test
+    public void testSlowTaskDeliveriesAreAttributed() throws InterruptedException {
+        final CountDownLatch delivered = new CountDownLatch(MESSAGE_COUNT);
+        GetFollowingTaskHandler handler = new GetFollowingTaskHandler(new FollowService.GetFollowingObserver() {
+            private int count;
+
+            @Override
+            public void handleSuccess(List<User> followees, boolean hasMorePages) {
+                if (++count % SLOW_EVERY == 0) {
+                    busyWait(SLOW_MILLIS);
+                }
+                delivered.countDown();
+            }
+
+            @Override
+            public void handlePageChanged(User lastFollowee, List<User> followees, boolean hasMorePages) {
+            }
+
+            @Override
+            public void handleFailure(String message) {
+            }
+
+            @Override
+            public void handleUnauthorized(String message) {
+            }
+
+            @Override
+            public void handleException(Exception exception) {
+            }
+        });
+
+        ArrayList<User> page = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            page.add(new User("First" + i, "Last" + i, "@user" + i, null));
+        }
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            Bundle bundle = new Bundle();
+            bundle.putBoolean(GetFollowingTask.SUCCESS_KEY, true);
+            bundle.putSerializable(GetFollowingTask.FOLLOWEES_KEY, page);
+            bundle.putBoolean(GetFollowingTask.MORE_PAGES_KEY, true);
+            Message message = handler.obtainMessage();
+            message.setData(bundle);
+            handler.sendMessage(message);
+        }
+        Assertions.assertTrue(delivered.await(30, TimeUnit.SECONDS));
+
+        // The last delivery is recorded once the looper has finished it
+        final CountDownLatch drained = new CountDownLatch(1);
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                drained.countDown();
+            }
+        });
+        Assertions.assertTrue(drained.await(5, TimeUnit.SECONDS));
+
+        int slowTaskEvents = 0;
+        for (LooperMonitor.JankEvent event : monitor.getSlowestEvents()) {
+            if ("GetFollowingTask".equals(event.getTaskType())) {
+                slowTaskEvents++;
+                Assertions.assertTrue(event.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+            }
+        }
+        Assertions.assertEquals(MESSAGE_COUNT / SLOW_EVERY, slowTaskEvents);
+        Assertions.assertTrue(monitor.getDispatchCount() >= MESSAGE_COUNT);
+    }
+
+    private static void busyWait(long millis) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            // Keep the main thread busy, as a slow observer would
+        }
+    }
+}
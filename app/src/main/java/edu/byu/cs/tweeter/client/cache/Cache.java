@@ -1,12 +1,26 @@
 package edu.byu.cs.tweeter.client.cache;
 
+import java.util.List;
+import java.util.Objects;
+
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.Pair;
 
 /**
  * The Cache class stores globally accessible data.
+ * <p>
+ * When a {@link SessionSnapshotStore} has been set, the session (the current user, auth token
+ * and first page of the users they follow) is saved whenever it changes, so that the next time
+ * the app starts it can go straight to the main screen with {@link #restoreSession()}.
  */
 public class Cache {
+
+    /**
+     * Sessions saved longer ago than this are not restored; the user logs in again instead.
+     */
+    static final long MAX_SESSION_AGE_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
     private static final Cache instance = new Cache();
 
     public static Cache getInstance() {
@@ -21,6 +35,22 @@ public class Cache {
      * The auth token for the current user session.
      */
     private AuthToken currUserAuthToken;
+    /**
+     * The first page of the users the current user is following, and whether there are more.
+     */
+    private List<User> currUserFollowees;
+    private boolean currUserFolloweesHasMorePages;
+    /**
+     * Whether the first page of followees was restored from a snapshot and has not been shown
+     * yet.
+     */
+    private boolean followeesRestored;
+    /**
+     * Whether the session was restored from a snapshot rather than started by logging in.
+     */
+    private boolean sessionRestored;
+
+    private SessionSnapshotStore snapshotStore;
 
     private Cache() {
         initialize();
@@ -29,25 +59,123 @@ public class Cache {
     private void initialize() {
         currUser = new User(null, null, null);
         currUserAuthToken = null;
+        currUserFollowees = null;
+        currUserFolloweesHasMorePages = false;
+        followeesRestored = false;
+        sessionRestored = false;
     }
 
-    public void clearCache() {
+    public synchronized void clearCache() {
         initialize();
+        if (snapshotStore != null) {
+            snapshotStore.delete();
+        }
     }
 
-    public User getCurrUser() {
+    public synchronized User getCurrUser() {
         return currUser;
     }
 
-    public void setCurrUser(User currUser) {
+    public synchronized void setCurrUser(User currUser) {
+        if (!isSameUser(currUser, this.currUser)) {
+            // The followees belong to the previous user
+            currUserFollowees = null;
+            followeesRestored = false;
+        }
         this.currUser = currUser;
+        saveSnapshot();
     }
 
-    public AuthToken getCurrUserAuthToken() {
+    public synchronized AuthToken getCurrUserAuthToken() {
         return currUserAuthToken;
     }
 
-    public void setCurrUserAuthToken(AuthToken currUserAuthToken) {
+    public synchronized void setCurrUserAuthToken(AuthToken currUserAuthToken) {
         this.currUserAuthToken = currUserAuthToken;
+        saveSnapshot();
+    }
+
+    /**
+     * Records the first page of the users a user is following, if the user is the current user.
+     *
+     * @param user the user whose followees these are.
+     * @param followees the first page of followees.
+     * @param hasMorePages whether there are more pages.
+     */
+    public synchronized void setFirstPageOfFollowees(User user, List<User> followees, boolean hasMorePages) {
+        if (isSameUser(user, currUser)) {
+            currUserFollowees = followees;
+            currUserFolloweesHasMorePages = hasMorePages;
+            followeesRestored = false;
+            saveSnapshot();
+        }
+    }
+
+    /**
+     * Returns the first page of the users a user is following if it was restored from a
+     * snapshot, so it can be shown before the page has been loaded. The page is only returned
+     * once; later requests load it as usual.
+     *
+     * @param user the user whose followees are being shown.
+     * @return the page and whether there are more pages, or null if no page was restored for
+     *         the user.
+     */
+    public synchronized Pair<List<User>, Boolean> takeRestoredFollowees(User user) {
+        if (!followeesRestored || currUserFollowees == null || !isSameUser(user, currUser)) {
+            return null;
+        }
+        followeesRestored = false;
+        return new Pair<>(currUserFollowees, currUserFolloweesHasMorePages);
+    }
+
+    /**
+     * Sets the store that the session is saved to when it changes.
+     *
+     * @param snapshotStore the store.
+     */
+    public synchronized void setSnapshotStore(SessionSnapshotStore snapshotStore) {
+        this.snapshotStore = snapshotStore;
+    }
+
+    /**
+     * Restores the session saved in the snapshot store.
+     *
+     * @return true if a session was restored, false if there is none (or it is too old).
+     */
+    public synchronized boolean restoreSession() {
+        SessionSnapshot snapshot = (snapshotStore == null) ? null : snapshotStore.read();
+        if (snapshot == null || System.currentTimeMillis() - snapshot.getSavedAtMillis() > MAX_SESSION_AGE_MILLIS) {
+            return false;
+        }
+
+        currUser = snapshot.getUser();
+        currUserAuthToken = snapshot.getAuthToken();
+        currUserFollowees = snapshot.getFollowees();
+        currUserFolloweesHasMorePages = snapshot.getHasMorePages();
+        followeesRestored = (currUserFollowees != null);
+        sessionRestored = true;
+        return true;
+    }
+
+    /**
+     * Indicates whether the current session was restored from a snapshot.
+     *
+     * @return true if the session was restored, false if the user logged in.
+     */
+    public synchronized boolean isSessionRestored() {
+        return sessionRestored;
+    }
+
+    private static boolean isSameUser(User a, User b) {
+        // User.equals can't compare the empty user, which has no alias
+        return Objects.equals(a.getAlias(), b.getAlias());
+    }
+
+    private void saveSnapshot() {
+        // A session needs both a user and a token
+        if (snapshotStore != null && currUser.getAlias() != null && currUserAuthToken != null) {
+            snapshotStore.save(new SessionSnapshot(currUser, currUserAuthToken, currUserFollowees,
+                    currUserFolloweesHasMorePages, System.currentTimeMillis()));
+        }
     }
 }
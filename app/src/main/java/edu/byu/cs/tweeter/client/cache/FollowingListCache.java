@@ -0,0 +1,159 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.byu.cs.tweeter.model.domain.FollowChange;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Keeps the following lists that have been loaded from the server, with the version token each
+ * was loaded at. When a list is opened again only the changes since that version are requested,
+ * and they are merged into the cached list here instead of reloading every page.
+ * <p>
+ * Lists are ordered by alias, as the server returns them. A list that has not been loaded to the
+ * end is kept too; changes that fall after its last loaded user are skipped, since they will
+ * arrive with the later pages.
+ * <p>
+ * Methods are called from background tasks, so access is synchronized.
+ */
+public class FollowingListCache {
+
+    private static final int MAX_LISTS = 8;
+
+    private static final FollowingListCache instance = new FollowingListCache(MAX_LISTS);
+
+    public static FollowingListCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Cached lists keyed by the alias of the user whose following list it is, least recently
+     * used first.
+     */
+    private final Map<String, CachedList> lists;
+
+    FollowingListCache(final int maxLists) {
+        this.lists = new LinkedHashMap<String, CachedList>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedList> eldest) {
+                return size() > maxLists;
+            }
+        };
+    }
+
+    /**
+     * Records a page loaded from the server. The first page starts a new cached list; a later
+     * page is appended if it continues the cached list, and otherwise ignored.
+     *
+     * @param userAlias the user whose following list the page belongs to.
+     * @param lastFollowee the last followee of the previous page, or null for the first page.
+     * @param followees the page.
+     * @param hasMorePages whether there are more pages after this one.
+     * @param version the version token returned with the page (pages without one are not
+     *                cached).
+     */
+    public synchronized void recordPage(String userAlias, User lastFollowee, List<User> followees,
+                                        boolean hasMorePages, String version) {
+        if (lastFollowee == null) {
+            if (version != null) {
+                lists.put(userAlias, new CachedList(new ArrayList<>(followees), !hasMorePages, version));
+            }
+            return;
+        }
+
+        CachedList list = lists.get(userAlias);
+        if (list != null && !list.complete && !list.followees.isEmpty()
+                && list.followees.get(list.followees.size() - 1).equals(lastFollowee)) {
+            list.followees.addAll(followees);
+            list.complete = !hasMorePages;
+        }
+    }
+
+    /**
+     * Returns the version token of a cached list.
+     *
+     * @param userAlias the user whose following list is cached.
+     * @return the version, or null if the list is not cached.
+     */
+    public synchronized String getVersion(String userAlias) {
+        CachedList list = lists.get(userAlias);
+        return (list == null) ? null : list.version;
+    }
+
+    /**
+     * Merges changes from the server into a cached list.
+     *
+     * @param userAlias the user whose following list is cached.
+     * @param changes the changes, oldest first.
+     * @param version the version token after the changes.
+     * @return a copy of the updated list, or null if the list is no longer cached.
+     */
+    public synchronized Snapshot applyChanges(String userAlias, List<FollowChange> changes, String version) {
+        CachedList list = lists.get(userAlias);
+        if (list == null) {
+            return null;
+        }
+
+        for (FollowChange change : changes) {
+            User followee = change.getFollowee();
+            int index = Collections.binarySearch(list.followees, followee);
+            if (change.getType() == FollowChange.Type.FOLLOW) {
+                int insertionPoint = -index - 1;
+                // Past the end of a partly loaded list the user will come with a later page
+                if (index < 0 && (list.complete || insertionPoint < list.followees.size())) {
+                    list.followees.add(insertionPoint, followee);
+                }
+            } else if (index >= 0) {
+                list.followees.remove(index);
+            }
+        }
+        list.version = version;
+
+        return new Snapshot(new ArrayList<>(list.followees), !list.complete);
+    }
+
+    public synchronized void invalidate(String userAlias) {
+        lists.remove(userAlias);
+    }
+
+    public synchronized void clear() {
+        lists.clear();
+    }
+
+    /**
+     * A copy of a cached list.
+     */
+    public static class Snapshot {
+        private final List<User> followees;
+        private final boolean hasMorePages;
+
+        Snapshot(List<User> followees, boolean hasMorePages) {
+            this.followees = followees;
+            this.hasMorePages = hasMorePages;
+        }
+
+        public List<User> getFollowees() {
+            return followees;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+    }
+
+    private static class CachedList {
+        private final ArrayList<User> followees;
+        private boolean complete;
+        private String version;
+
+        CachedList(ArrayList<User> followees, boolean complete, String version) {
+            this.followees = followees;
+            this.complete = complete;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A persistent key-value store for pages loaded from the server (such as pages of a following
+ * list), so they can be shown immediately after the app restarts while fresh copies are loaded.
+ * <p>
+ * Values are appended to a log file, each record with a CRC32 checksum, and an in-memory index
+ * maps each key to its latest record. Overwritten and removed values are left in the log until it
+ * is compacted, which happens on a background thread once most of the log is garbage: the live
+ * records are copied to a new log that then replaces the old one.
+ * <p>
+ * Crash safety:
+ * <ul>
+ *     <li>The index is saved to its own file by {@link #flush()}, {@link #close()} and after
+ *     each compaction. On open, records appended after the saved index are recovered by scanning
+ *     the end of the log.</li>
+ *     <li>A record cut short by a crash fails its checksum; the scan stops there and the log is
+ *     truncated, so the partial record is never returned.</li>
+ *     <li>The index and compacted log are written to temporary files and renamed into place, so
+ *     either the old or the new file is seen, never a mix. Each log has a generation number, and
+ *     an index saved for a different generation is ignored (the log is scanned instead).</li>
+ * </ul>
+ * The total size of the live records is capped; when a put goes over the cap, the least recently
+ * used values are removed.
+ * <p>
+ * All methods are synchronized. Compaction holds the lock while it copies, which is brief for a
+ * store of a few megabytes.
+ */
+public class PageStore implements Closeable {
+
+    public static final long DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+    static final String LOG_FILE_NAME = "pages.log";
+    static final String INDEX_FILE_NAME = "pages.idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int LOG_MAGIC = 0x54504c31;    // "TPL1"
+    private static final int INDEX_MAGIC = 0x54504931;  // "TPI1"
+    static final int LOG_HEADER_BYTES = 12;
+    /**
+     * Key length, value length and checksum.
+     */
+    private static final int RECORD_OVERHEAD_BYTES = 12;
+    private static final int TOMBSTONE = -1;
+    private static final int MAX_KEY_BYTES = 4096;
+    private static final int MAX_VALUE_BYTES = 16 * 1024 * 1024;
+
+    /**
+     * The log is not compacted until it is at least this big, however much of it is garbage.
+     */
+    private static final long MIN_COMPACTION_BYTES = 64 * 1024;
+
+    private static File defaultDirectory;
+    private static PageStore instance;
+
+    /**
+     * Sets the directory that the shared store is kept in. Called when the app starts; the store
+     * itself is opened on first use, from a background thread.
+     *
+     * @param directory the directory (created if needed).
+     */
+    public static synchronized void setDefaultDirectory(File directory) {
+        defaultDirectory = directory;
+    }
+
+    /**
+     * Returns the shared store, opening it if necessary.
+     *
+     * @return the store, or null if no directory has been set or the store could not be opened.
+     */
+    public static synchronized PageStore getInstance() {
+        if (instance == null && defaultDirectory != null) {
+            try {
+                instance = open(defaultDirectory, DEFAULT_MAX_BYTES, createCompactionExecutor());
+            } catch (IOException ex) {
+                // Without a store pages are just loaded from the server
+                defaultDirectory = null;
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Saves the shared store's index, if the store has been opened, so the pages stored since it
+     * was last saved are found without scanning the log when the app next starts. Called when
+     * the app leaves the foreground, after which it may be killed without warning.
+     *
+     * @throws IOException if the index could not be written.
+     */
+    public static void flushInstance() throws IOException {
+        PageStore store;
+        synchronized (PageStore.class) {
+            store = instance;
+        }
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    /**
+     * Opens a store, recovering the values written before it was last closed (or before a
+     * crash).
+     *
+     * @param directory the directory holding the store's files (created if needed).
+     * @param maxBytes the most space the live values (with their keys and record overhead) may
+     *                 use.
+     * @param compactionExecutor runs compactions.
+     * @return the store.
+     * @throws IOException if the store's files could not be read or created.
+     */
+    public static PageStore open(File directory, long maxBytes, Executor compactionExecutor) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+        PageStore store = new PageStore(directory, maxBytes, compactionExecutor);
+        store.load();
+        return store;
+    }
+
+    private final File directory;
+    private final long maxBytes;
+    private final Executor compactionExecutor;
+
+    /**
+     * The latest record of each key, least recently used first.
+     */
+    private final LinkedHashMap<String, Location> index = new LinkedHashMap<>(16, 0.75f, true);
+
+    private RandomAccessFile log;
+    private long generation;
+    private long logLength;
+    private long liveBytes;
+    private boolean compactionScheduled;
+    private boolean closed;
+
+    private PageStore(File directory, long maxBytes, Executor compactionExecutor) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.compactionExecutor = compactionExecutor;
+    }
+
+    /**
+     * Returns a value.
+     *
+     * @param key the key.
+     * @return the value, or null if there is none (or its record is damaged).
+     */
+    public synchronized byte[] get(String key) {
+        Location location = index.get(key);
+        if (location == null || closed) {
+            return null;
+        }
+
+        try {
+            return readValue(location);
+        } catch (IOException ex) {
+            // A damaged record is treated as missing; the next put replaces it
+            forget(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a value, replacing any previous value for the key.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @throws IOException if the value could not be written.
+     */
+    public synchronized void put(String key, byte[] value) throws IOException {
+        checkOpen();
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES || value.length > MAX_VALUE_BYTES) {
+            throw new IllegalArgumentException("Key or value too large for " + key);
+        }
+
+        long offset = append(keyBytes, value);
+        forget(key);
+        Location location = new Location(offset, keyBytes.length, value.length);
+        index.put(key, location);
+        liveBytes += location.getRecordBytes();
+
+        evictToFit();
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the key.
+     * @throws IOException if the removal could not be written.
+     */
+    public synchronized void remove(String key) throws IOException {
+        checkOpen();
+        if (index.containsKey(key)) {
+            appendTombstone(key);
+            forget(key);
+            scheduleCompactionIfNeeded();
+        }
+    }
+
+    /**
+     * Removes every value whose key starts with a prefix (e.g. all the pages of one list).
+     *
+     * @param keyPrefix the prefix.
+     * @throws IOException if the removals could not be written.
+     */
+    public synchronized void removeAll(String keyPrefix) throws IOException {
+        checkOpen();
+        List<String> keys = new ArrayList<>();
+        for (String key : index.keySet()) {
+            if (key.startsWith(keyPrefix)) {
+                keys.add(key);
+            }
+        }
+        for (String key : keys) {
+            appendTombstone(key);
+            forget(key);
+        }
+        scheduleCompactionIfNeeded();
+    }
+
+    /**
+     * Saves the index, so that opening the store again doesn't need to scan the log.
+     *
+     * @throws IOException if the index could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        checkOpen();
+        writeIndex();
+    }
+
+    /**
+     * Copies the live records to a new log that replaces the current one.
+     *
+     * @throws IOException if the new log could not be written. The current log is then kept.
+     */
+    public synchronized void compact() throws IOException {
+        compactionScheduled = false;
+        if (closed) {
+            return;
+        }
+
+        File tempFile = new File(directory, LOG_FILE_NAME + TEMP_SUFFIX);
+        long newGeneration = generation + 1;
+        LinkedHashMap<String, Location> newIndex = new LinkedHashMap<>(16, 0.75f, true);
+        long newLength;
+
+        try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            out.writeInt(LOG_MAGIC);
+            out.writeLong(newGeneration);
+            newLength = LOG_HEADER_BYTES;
+
+            // Copy in LRU order so the new index keeps the same order
+            Iterator<Map.Entry<String, Location>> entries = index.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Location> entry = entries.next();
+                Location location = entry.getValue();
+                byte[] record = new byte[location.getRecordBytes()];
+                log.seek(location.offset);
+                log.readFully(record);
+                if (!isValidRecord(record, location)) {
+                    // Damaged records are dropped rather than copied
+                    liveBytes -= location.getRecordBytes();
+                    entries.remove();
+                    continue;
+                }
+
+                out.write(record);
+                newIndex.put(entry.getKey(), new Location(newLength, location.keyLength, location.valueLength));
+                newLength += record.length;
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+
+        log.close();
+        try {
+            Files.move(tempFile.toPath(), new File(directory, LOG_FILE_NAME).toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            // Either the new log, or the old one if the move failed
+            log = new RandomAccessFile(new File(directory, LOG_FILE_NAME), "rw");
+        }
+
+        index.clear();
+        index.putAll(newIndex);
+        generation = newGeneration;
+        logLength = newLength;
+        writeIndex();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            try {
+                writeIndex();
+            } finally {
+                closed = true;
+                log.close();
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the space used by the live records.
+     */
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * Returns the size of the log file, including records that are no longer live.
+     */
+    public synchronized long getLogBytes() {
+        return logLength;
+    }
+
+    private void load() throws IOException {
+        new File(directory, LOG_FILE_NAME + TEMP_SUFFIX).delete();
+        new File(directory, INDEX_FILE_NAME + TEMP_SUFFIX).delete();
+
+        File logFile = new File(directory, LOG_FILE_NAME);
+        log = new RandomAccessFile(logFile, "rw");
+        generation = (log.length() < LOG_HEADER_BYTES) ? -1 : readLogHeader();
+        if (generation < 0) {
+            // Missing or unreadable, so start a new log
+            generation = System.currentTimeMillis();
+            log.setLength(0);
+            log.writeInt(LOG_MAGIC);
+            log.writeLong(generation);
+            log.getFD().sync();
+        }
+        logLength = log.length();
+
+        long scanFrom = readIndex();
+        scanLog(scanFrom);
+    }
+
+    /**
+     * Returns the generation in the log header, or -1 if the header is invalid.
+     */
+    private long readLogHeader() throws IOException {
+        log.seek(0);
+        if (log.readInt() != LOG_MAGIC) {
+            return -1;
+        }
+        return log.readLong();
+    }
+
+    /**
+     * Loads the saved index if it belongs to the current log.
+     *
+     * @return the length of the log the index covers, from which the rest must be scanned.
+     */
+    private long readIndex() {
+        File indexFile = new File(directory, INDEX_FILE_NAME);
+        if (!indexFile.isFile()) {
+            return LOG_HEADER_BYTES;
+        }
+
+        CRC32 crc = new CRC32();
+        LinkedHashMap<String, Location> savedIndex = new LinkedHashMap<>();
+        long savedLiveBytes = 0;
+        long coveredLength;
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(indexFile)), crc))) {
+            if (in.readInt() != INDEX_MAGIC || in.readLong() != generation) {
+                return LOG_HEADER_BYTES;
+            }
+            coveredLength = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                Location location = new Location(in.readLong(), in.readInt(), in.readInt());
+                savedIndex.put(key, location);
+                savedLiveBytes += location.getRecordBytes();
+            }
+            long expectedCrc = crc.getValue();
+            if (in.readLong() != expectedCrc || coveredLength > logLength) {
+                return LOG_HEADER_BYTES;
+            }
+        } catch (IOException ex) {
+            // A damaged index is rebuilt from the log
+            return LOG_HEADER_BYTES;
+        }
+
+        index.putAll(savedIndex);
+        liveBytes = savedLiveBytes;
+        return coveredLength;
+    }
+
+    /**
+     * Applies the records from a position to the end of the log to the index, and truncates the
+     * log after the last complete record.
+     */
+    private void scanLog(long position) throws IOException {
+        while (position + RECORD_OVERHEAD_BYTES <= logLength) {
+            log.seek(position);
+            int keyLength = log.readInt();
+            int valueLength = log.readInt();
+            if (keyLength < 0 || keyLength > MAX_KEY_BYTES || valueLength < TOMBSTONE || valueLength > MAX_VALUE_BYTES) {
+                break;
+            }
+
+            Location location = new Location(position, keyLength, valueLength);
+            if (position + location.getRecordBytes() > logLength) {
+                break;
+            }
+            byte[] record = new byte[location.getRecordBytes()];
+            log.seek(position);
+            log.readFully(record);
+            if (!isValidRecord(record, location)) {
+                break;
+            }
+
+            String key = new String(record, 8, keyLength, StandardCharsets.UTF_8);
+            forget(key);
+            if (valueLength != TOMBSTONE) {
+                index.put(key, location);
+                liveBytes += location.getRecordBytes();
+            }
+            position += record.length;
+        }
+
+        if (position < logLength) {
+            // The rest is a record that was being written when the app stopped
+            log.setLength(position);
+            logLength = position;
+        }
+    }
+
+    private void writeIndex() throws IOException {
+        File tempFile = new File(directory, INDEX_FILE_NAME + TEMP_SUFFIX);
+        CRC32 crc = new CRC32();
+        try (FileOutputStream fileOut = new FileOutputStream(tempFile)) {
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileOut), crc));
+            out.writeInt(INDEX_MAGIC);
+            out.writeLong(generation);
+            out.writeLong(logLength);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Location> entry : index.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().offset);
+                out.writeInt(entry.getValue().keyLength);
+                out.writeInt(entry.getValue().valueLength);
+            }
+            out.writeLong(crc.getValue());
+            out.flush();
+            // The log must be on disk before an index that points into it
+            log.getFD().sync();
+            fileOut.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), new File(directory, INDEX_FILE_NAME).toPath(),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private byte[] readValue(Location location) throws IOException {
+        byte[] record = new byte[location.getRecordBytes()];
+        log.seek(location.offset);
+        log.readFully(record);
+        if (!isValidRecord(record, location)) {
+            throw new IOException("Checksum mismatch at " + location.offset);
+        }
+
+        byte[] value = new byte[location.valueLength];
+        System.arraycopy(record, 8 + location.keyLength, value, 0, value.length);
+        return value;
+    }
+
+    /**
+     * Appends a record, written with a single write so that a crash leaves at most one partial
+     * record at the end of the log.
+     *
+     * @return the record's offset.
+     */
+    private long append(byte[] keyBytes, byte[] value) throws IOException {
+        int valueLength = (value == null) ? TOMBSTONE : value.length;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(RECORD_OVERHEAD_BYTES + keyBytes.length + Math.max(valueLength, 0));
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(keyBytes.length);
+        out.writeInt(valueLength);
+        out.write(keyBytes);
+        if (value != null) {
+            out.write(value);
+        }
+        out.writeInt((int) checksum(buffer.toByteArray(), buffer.size()));
+
+        long offset = logLength;
+        log.seek(offset);
+        log.write(buffer.toByteArray());
+        logLength += buffer.size();
+        return offset;
+    }
+
+    private void appendTombstone(String key) throws IOException {
+        append(key.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private void forget(String key) {
+        Location old = index.remove(key);
+        if (old != null) {
+            liveBytes -= old.getRecordBytes();
+        }
+    }
+
+    private void evictToFit() throws IOException {
+        // Iterating doesn't change the access order, as get() would
+        Iterator<Map.Entry<String, Location>> entries = index.entrySet().iterator();
+        // The value just put is the most recent, so it is kept even if it alone is too big
+        while (liveBytes > maxBytes && index.size() > 1) {
+            Map.Entry<String, Location> eldest = entries.next();
+            appendTombstone(eldest.getKey());
+            liveBytes -= eldest.getValue().getRecordBytes();
+            entries.remove();
+        }
+    }
+
+    private void scheduleCompactionIfNeeded() {
+        long garbage = logLength - LOG_HEADER_BYTES - liveBytes;
+        if (!compactionScheduled && logLength >= MIN_COMPACTION_BYTES && garbage > liveBytes) {
+            compactionScheduled = true;
+            compactionExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        compact();
+                    } catch (IOException ex) {
+                        // The store keeps working with the old log; the next put tries again
+                    }
+                }
+            });
+        }
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Page store is closed");
+        }
+    }
+
+    private static boolean isValidRecord(byte[] record, Location location) {
+        int length = record.length - 4;
+        return readInt(record, 0) == location.keyLength && readInt(record, 4) == location.valueLength
+                && readInt(record, length) == (int) checksum(record, length);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+                | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+    }
+
+    private static long checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    private static ExecutorService createCompactionExecutor() {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "PageStore-compaction");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Where a record is in the log.
+     */
+    private static class Location {
+        private final long offset;
+        private final int keyLength;
+        private final int valueLength;
+
+        Location(long offset, int keyLength, int valueLength) {
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+
+        int getRecordBytes() {
+            return RECORD_OVERHEAD_BYTES + keyLength + Math.max(valueLength, 0);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+/**
+ * The state needed to show the main screen without logging in again: the current user, the
+ * session's auth token and the first page of the users the current user is following.
+ * <p>
+ * Encoded as:
+ * <pre>
+ * magic(4) payloadLength(4) payload crc32(payload)(4)
+ * payload = savedAt(8) user authToken firstPageLength(4) firstPage
+ * user = string(firstName) string(lastName) string(alias) string(imageUrl)
+ * authToken = string(token) timestamp(8)
+ * string = length(4, -1 for null) UTF-8 bytes
+ * </pre>
+ * The first page uses the {@link UserPageCodec} encoding (length 0 if there is none).
+ */
+public class SessionSnapshot {
+
+    private static final int MAGIC = 0x54535331;  // "TSS1"
+    private static final int HEADER_BYTES = 8;
+    private static final int CHECKSUM_BYTES = 4;
+
+    private final User user;
+    private final AuthToken authToken;
+    private final List<User> followees;
+    private final boolean hasMorePages;
+    private final long savedAtMillis;
+
+    /**
+     * Creates an instance.
+     *
+     * @param user the current user.
+     * @param authToken the session's auth token.
+     * @param followees the first page of the users the current user is following (can be null).
+     * @param hasMorePages whether there are more pages after the first.
+     * @param savedAtMillis when the snapshot was taken.
+     */
+    public SessionSnapshot(User user, AuthToken authToken, List<User> followees, boolean hasMorePages, long savedAtMillis) {
+        this.user = user;
+        this.authToken = authToken;
+        this.followees = followees;
+        this.hasMorePages = hasMorePages;
+        this.savedAtMillis = savedAtMillis;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    /**
+     * Returns the first page of the users the current user is following.
+     *
+     * @return the page, or null if it was not loaded when the snapshot was taken.
+     */
+    public List<User> getFollowees() {
+        return followees;
+    }
+
+    public boolean getHasMorePages() {
+        return hasMorePages;
+    }
+
+    public long getSavedAtMillis() {
+        return savedAtMillis;
+    }
+
+    /**
+     * Encodes the snapshot.
+     *
+     * @return the encoded snapshot.
+     */
+    public byte[] encode() {
+        byte[] page = (followees == null) ? new byte[0] : UserPageCodec.encode(followees, hasMorePages, null);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256 + page.length);
+        try {
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(MAGIC);
+            out.writeInt(0);  // Payload length, filled in below
+            out.writeLong(savedAtMillis);
+            writeString(out, user.getFirstName());
+            writeString(out, user.getLastName());
+            writeString(out, user.getAlias());
+            writeString(out, user.getImageUrl());
+            writeString(out, authToken.getToken());
+            out.writeLong(authToken.getTimestamp());
+            out.writeInt(page.length);
+            out.write(page);
+        } catch (IOException ex) {
+            // Writing to a byte array can't fail
+            throw new IllegalStateException(ex);
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(buffer.size() + CHECKSUM_BYTES);
+        bytes.put(buffer.toByteArray());
+        int payloadLength = buffer.size() - HEADER_BYTES;
+        bytes.putInt(4, payloadLength);
+        bytes.putInt(buffer.size(), (int) checksum(bytes, HEADER_BYTES, payloadLength));
+        return bytes.array();
+    }
+
+    /**
+     * Decodes a snapshot.
+     *
+     * @param bytes the encoded snapshot, from its position to its limit (e.g. a mapped file).
+     * @return the snapshot.
+     * @throws IOException if the bytes are not a complete, undamaged snapshot.
+     */
+    public static SessionSnapshot decode(ByteBuffer bytes) throws IOException {
+        try {
+            ByteBuffer in = bytes.slice();
+            if (in.remaining() < HEADER_BYTES + CHECKSUM_BYTES || in.getInt() != MAGIC) {
+                throw new IOException("Not a session snapshot");
+            }
+            int payloadLength = in.getInt();
+            if (payloadLength < 0 || payloadLength != in.remaining() - CHECKSUM_BYTES
+                    || in.getInt(HEADER_BYTES + payloadLength) != (int) checksum(in, HEADER_BYTES, payloadLength)) {
+                throw new IOException("Damaged session snapshot");
+            }
+
+            long savedAtMillis = in.getLong();
+            User user = new User(readString(in), readString(in), readString(in), readString(in));
+            AuthToken authToken = new AuthToken(readString(in), in.getLong());
+
+            int pageLength = in.getInt();
+            if (pageLength == 0) {
+                return new SessionSnapshot(user, authToken, null, false, savedAtMillis);
+            }
+
+            ByteBuffer page = in.slice();
+            page.limit(pageLength);
+            final List<User> followees = new ArrayList<>();
+            PageParser.PageInfo pageInfo = UserPageCodec.decode(new ByteBufferInputStream(page), new PageParser.ItemHandler<User>() {
+                @Override
+                public void handleItem(User followee) {
+                    followees.add(followee);
+                }
+            });
+            return new SessionSnapshot(user, authToken, Collections.unmodifiableList(followees),
+                    pageInfo.getHasMorePages(), savedAtMillis);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            // A length field pointed past the end
+            throw new IOException("Damaged session snapshot", ex);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        String value;
+        if (in.hasArray()) {
+            value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+            in.position(in.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    private static long checksum(ByteBuffer bytes, int offset, int length) {
+        ByteBuffer region = bytes.duplicate();
+        region.position(offset);
+        region.limit(offset + length);
+
+        CRC32 crc = new CRC32();
+        crc.update(region);
+        return crc.getValue();
+    }
+
+    /**
+     * Reads a byte buffer (such as a mapped file) without copying it.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps a {@link SessionSnapshot} in a file so the session survives the app being restarted.
+ * <p>
+ * The snapshot is written to a temporary file that is synced and then renamed over the old one,
+ * so after a crash the file holds either the old or the new snapshot. Saves are made on a
+ * background executor and coalesced: if several changes are made while a save is waiting, only
+ * the latest snapshot is written. The file is memory-mapped when read, which avoids copying it
+ * through a stream on the startup path.
+ */
+public class SessionSnapshotStore {
+
+    private final File file;
+    private final Executor executor;
+
+    /**
+     * The snapshot waiting to be written (null if there is none).
+     */
+    private SessionSnapshot pending;
+    /**
+     * Whether the file should be deleted instead.
+     */
+    private boolean deletePending;
+    private boolean saveScheduled;
+
+    /**
+     * Creates an instance that writes on its own background thread.
+     *
+     * @param file the snapshot file.
+     */
+    public SessionSnapshotStore(File file) {
+        this(file, Executors.newSingleThreadExecutor());
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param file the snapshot file.
+     * @param executor runs the writes. It must run them one at a time.
+     */
+    public SessionSnapshotStore(File file, Executor executor) {
+        this.file = file;
+        this.executor = executor;
+    }
+
+    /**
+     * Reads the snapshot.
+     *
+     * @return the snapshot, or null if there is none or it is damaged.
+     */
+    public SessionSnapshot read() {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer mapped = in.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, in.length());
+            return SessionSnapshot.decode(mapped);
+        } catch (IOException ex) {
+            // Treated as if there were no snapshot, so the user just logs in again
+            return null;
+        }
+    }
+
+    /**
+     * Saves a snapshot in the background.
+     *
+     * @param snapshot the snapshot.
+     */
+    public synchronized void save(SessionSnapshot snapshot) {
+        pending = snapshot;
+        deletePending = false;
+        scheduleWrite();
+    }
+
+    /**
+     * Deletes the snapshot in the background (e.g. when the user logs out).
+     */
+    public synchronized void delete() {
+        pending = null;
+        deletePending = true;
+        scheduleWrite();
+    }
+
+    /**
+     * Writes a snapshot to the file and waits for it to reach the disk.
+     *
+     * @param snapshot the snapshot.
+     * @throws IOException if the snapshot could not be written.
+     */
+    void write(SessionSnapshot snapshot) throws IOException {
+        File tempFile = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tempFile)) {
+            out.write(snapshot.encode());
+            out.getFD().sync();
+        }
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void scheduleWrite() {
+        if (saveScheduled) {
+            return;
+        }
+
+        saveScheduled = true;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                SessionSnapshot snapshot;
+                boolean delete;
+                synchronized (SessionSnapshotStore.this) {
+                    snapshot = pending;
+                    delete = deletePending;
+                    pending = null;
+                    deletePending = false;
+                    saveScheduled = false;
+                }
+
+                try {
+                    if (delete) {
+                        Files.deleteIfExists(file.toPath());
+                    } else if (snapshot != null) {
+                        write(snapshot);
+                    }
+                } catch (IOException ex) {
+                    // The previous snapshot (if any) is left in place
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package edu.byu.cs.tweeter.client.image;
+
+/**
+ * Identifies an avatar shown at a particular size, which is how decoded avatars are cached.
+ */
+public class AvatarKey {
+
+    private AvatarKey() {
+    }
+
+    /**
+     * Returns the key of an avatar at a size.
+     *
+     * @param imageUrl the avatar's URL.
+     * @param sizePx the width and height it is shown at.
+     * @return the key.
+     */
+    public static String of(String imageUrl, int sizePx) {
+        return imageUrl + '\n' + sizePx;
+    }
+}
@@ -0,0 +1,157 @@
+package edu.byu.cs.tweeter.client.image;
+
+import android.content.Context;
+import android.widget.ImageView;
+
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.Picasso;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Shows users' avatars. Avatars are kept decoded, at the size they are shown, in a memory cache
+ * with a fixed size limit, and as downloaded bytes in a disk cache (see
+ * {@link AvatarRequestHandler}).
+ * <p>
+ * Only used on the main thread.
+ */
+public class AvatarLoader {
+
+    /**
+     * The most memory the decoded avatars may use. A 50dp avatar is about 28 KB at xxhdpi, so
+     * this holds several hundred rows' worth.
+     */
+    private static final int MEMORY_CACHE_BYTES = 8 * 1024 * 1024;
+    private static final long DISK_CACHE_BYTES = 16 * 1024 * 1024;
+    private static final String DISK_CACHE_DIRECTORY = "avatars";
+
+    /**
+     * The number of prefetched URLs remembered, so that a page that is shown again doesn't
+     * prefetch its avatars again.
+     */
+    private static final int RECENT_PREFETCH_COUNT = 256;
+
+    private static AvatarLoader instance;
+
+    /**
+     * Returns the single instance, creating it the first time.
+     *
+     * @param context any context (only its application context is kept).
+     * @return the instance.
+     */
+    public static AvatarLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new AvatarLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private final AvatarMetrics metrics = new AvatarMetrics();
+    private final AvatarRequestHandler requestHandler;
+    private final Picasso picasso;
+
+    private final Map<String, Boolean> recentPrefetches = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_PREFETCH_COUNT;
+        }
+    };
+
+    private AvatarLoader(Context context) {
+        requestHandler = new AvatarRequestHandler(
+                new File(context.getCacheDir(), DISK_CACHE_DIRECTORY), DISK_CACHE_BYTES, metrics);
+        picasso = new Picasso.Builder(context)
+                .memoryCache(new LruCache(MEMORY_CACHE_BYTES))
+                .addRequestHandler(requestHandler)
+                .build();
+    }
+
+    /**
+     * Shows an avatar in a view.
+     *
+     * @param imageUrl the avatar's URL.
+     * @param imageView the view.
+     * @param sizePx the width and height of the view.
+     */
+    public void load(String imageUrl, ImageView imageView, int sizePx) {
+        final boolean[] loading = { true };
+        final boolean[] memoryHit = new boolean[1];
+
+        picasso.load(imageUrl)
+                .resize(sizePx, sizePx)
+                .centerCrop()
+                .onlyScaleDown()
+                .into(imageView, new Callback() {
+                    @Override
+                    public void onSuccess() {
+                        // Picasso calls back before into() returns if the avatar was in memory
+                        memoryHit[0] = loading[0];
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                    }
+                });
+        loading[0] = false;
+        metrics.recordRequest(memoryHit[0]);
+    }
+
+    /**
+     * Stops loading an avatar into a view, e.g. because the view is being reused for a row
+     * without one.
+     *
+     * @param imageView the view.
+     */
+    public void cancel(ImageView imageView) {
+        picasso.cancelRequest(imageView);
+    }
+
+    /**
+     * Loads the avatars of users who are about to be shown into the caches, at low priority, so
+     * they are ready when their rows are bound.
+     *
+     * @param users the users.
+     * @param sizePx the size the avatars will be shown at.
+     */
+    public void prefetch(List<User> users, int sizePx) {
+        for (User user : users) {
+            String imageUrl = user.getImageUrl();
+            if (imageUrl == null) {
+                continue;
+            }
+
+            boolean skipped = recentPrefetches.put(AvatarKey.of(imageUrl, sizePx), Boolean.TRUE) != null;
+            metrics.recordPrefetch(skipped);
+            if (!skipped) {
+                picasso.load(imageUrl)
+                        .resize(sizePx, sizePx)
+                        .centerCrop()
+                        .onlyScaleDown()
+                        .priority(Picasso.Priority.LOW)
+                        .fetch();
+            }
+        }
+    }
+
+    /**
+     * Saves the disk cache's index, so the avatars cached since it was last saved are found
+     * without scanning the cache when the app next starts. Writes a file, so unlike the other
+     * methods it is called on a background thread.
+     *
+     * @throws IOException if the index could not be written.
+     */
+    public void flushDiskCache() throws IOException {
+        requestHandler.flushDiskStore();
+    }
+
+    public AvatarMetrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,159 @@
+package edu.byu.cs.tweeter.client.image;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts where avatars were loaded from and how long decoding them took. Updated from the main
+ * thread and from image loading threads.
+ */
+public class AvatarMetrics {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong networkLoads = new AtomicLong();
+    private final AtomicLong sharedLoads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+    private final AtomicLong decodeNanos = new AtomicLong();
+    private final AtomicLong maxDecodeNanos = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong skippedPrefetches = new AtomicLong();
+
+    /**
+     * Records a request to show an avatar in a view.
+     *
+     * @param memoryHit whether the avatar was already decoded in the memory cache.
+     */
+    public void recordRequest(boolean memoryHit) {
+        requests.incrementAndGet();
+        if (memoryHit) {
+            memoryHits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records the bytes of an avatar being loaded.
+     *
+     * @param fromDisk whether they came from the disk cache rather than the network.
+     * @param shared whether they came from a load already in progress for another request.
+     */
+    public void recordLoad(boolean fromDisk, boolean shared) {
+        if (shared) {
+            sharedLoads.incrementAndGet();
+        } else if (fromDisk) {
+            diskHits.incrementAndGet();
+        } else {
+            networkLoads.incrementAndGet();
+        }
+    }
+
+    public void recordFailure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Records the time taken to decode an avatar.
+     *
+     * @param nanos the decode time.
+     */
+    public void recordDecode(long nanos) {
+        decodes.incrementAndGet();
+        decodeNanos.addAndGet(nanos);
+
+        long max = maxDecodeNanos.get();
+        while (nanos > max && !maxDecodeNanos.compareAndSet(max, nanos)) {
+            max = maxDecodeNanos.get();
+        }
+    }
+
+    /**
+     * Records a request to prefetch an avatar.
+     *
+     * @param skipped whether it was skipped because the avatar was prefetched recently.
+     */
+    public void recordPrefetch(boolean skipped) {
+        if (skipped) {
+            skippedPrefetches.incrementAndGet();
+        } else {
+            prefetches.incrementAndGet();
+        }
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getNetworkLoads() {
+        return networkLoads.get();
+    }
+
+    public long getSharedLoads() {
+        return sharedLoads.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    public long getDecodes() {
+        return decodes.get();
+    }
+
+    public long getPrefetches() {
+        return prefetches.get();
+    }
+
+    public long getSkippedPrefetches() {
+        return skippedPrefetches.get();
+    }
+
+    /**
+     * Returns the fraction of requests to show an avatar that found it in the memory cache.
+     *
+     * @return the hit rate, or 0 if there have been no requests.
+     */
+    public double getMemoryHitRate() {
+        long count = requests.get();
+        return (count == 0) ? 0 : memoryHits.get() / (double) count;
+    }
+
+    /**
+     * Returns the fraction of avatar loads that found the bytes in the disk cache (or in a load
+     * already in progress) instead of going to the network.
+     *
+     * @return the hit rate, or 0 if nothing has been loaded.
+     */
+    public double getDiskHitRate() {
+        long hits = diskHits.get() + sharedLoads.get();
+        long count = hits + networkLoads.get();
+        return (count == 0) ? 0 : hits / (double) count;
+    }
+
+    public double getAverageDecodeMillis() {
+        long count = decodes.get();
+        return (count == 0) ? 0 : decodeNanos.get() / (double) count / 1e6;
+    }
+
+    public double getMaxDecodeMillis() {
+        return maxDecodeNanos.get() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "requests=%d memoryHitRate=%.2f diskHits=%d networkLoads=%d sharedLoads=%d diskHitRate=%.2f "
+                        + "failures=%d decodes=%d avgDecodeMs=%.2f maxDecodeMs=%.2f prefetches=%d skippedPrefetches=%d",
+                getRequests(), getMemoryHitRate(), getDiskHits(), getNetworkLoads(), getSharedLoads(), getDiskHitRate(),
+                getFailures(), getDecodes(), getAverageDecodeMillis(), getMaxDecodeMillis(), getPrefetches(), getSkippedPrefetches());
+    }
+}
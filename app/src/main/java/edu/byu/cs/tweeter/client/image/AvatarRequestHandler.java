@@ -0,0 +1,215 @@
+package edu.byu.cs.tweeter.client.image;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.Request;
+import com.squareup.picasso.RequestHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import edu.byu.cs.tweeter.client.cache.PageStore;
+
+/**
+ * Loads avatar images for Picasso, which keeps the decoded images in its memory cache.
+ * <p>
+ * The downloaded bytes are kept in a {@link PageStore} on disk, so an avatar is downloaded once
+ * and then decoded from disk after it has left the memory cache or the app has restarted. Loads
+ * of the same URL at the same time (e.g. the profile image at two sizes, or a prefetch and a row
+ * that was bound before it finished) share one read or download.
+ * <p>
+ * Images are decoded at the smallest power-of-two reduction that is still at least as large as
+ * the view, rather than at full size, which makes decoding faster and the memory cache hold more
+ * avatars.
+ */
+class AvatarRequestHandler extends RequestHandler {
+
+    private static final String LOG_TAG = "AvatarRequestHandler";
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final int READ_TIMEOUT_MILLIS = 20_000;
+
+    private final File diskDirectory;
+    private final long maxDiskBytes;
+    private final AvatarMetrics metrics;
+    private final SharedLoads<byte[]> sharedLoads = new SharedLoads<>();
+
+    private PageStore diskStore;
+    private boolean diskStoreOpened;
+
+    /**
+     * Creates an instance.
+     *
+     * @param diskDirectory the directory of the disk cache, which is opened by the first load.
+     * @param maxDiskBytes the most space the disk cache may use.
+     * @param metrics records where avatars came from and how long they took to decode.
+     */
+    AvatarRequestHandler(File diskDirectory, long maxDiskBytes, AvatarMetrics metrics) {
+        this.diskDirectory = diskDirectory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean canHandleRequest(Request data) {
+        String scheme = (data.uri == null) ? null : data.uri.getScheme();
+        return "http".equals(scheme) || "https".equals(scheme);
+    }
+
+    /**
+     * Called by Picasso on one of its threads when an avatar isn't in its memory cache.
+     */
+    @Override
+    public Result load(Request request, int networkPolicy) throws IOException {
+        final String url = request.uri.toString();
+        final boolean[] fromDisk = new boolean[1];
+
+        SharedLoads.Result<byte[]> result;
+        try {
+            result = sharedLoads.load(url, new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    PageStore store = getDiskStore();
+                    byte[] bytes = (store == null) ? null : store.get(url);
+                    if (bytes != null) {
+                        fromDisk[0] = true;
+                        return bytes;
+                    }
+
+                    bytes = download(url);
+                    if (store != null) {
+                        try {
+                            store.put(url, bytes);
+                        } catch (IOException ex) {
+                            Log.w(LOG_TAG, "Failed to cache " + url, ex);
+                        }
+                    }
+                    return bytes;
+                }
+            });
+        } catch (IOException ex) {
+            metrics.recordFailure();
+            throw ex;
+        }
+        metrics.recordLoad(fromDisk[0], result.isShared());
+
+        Bitmap bitmap = decode(result.getValue(), request);
+        if (bitmap == null) {
+            metrics.recordFailure();
+            throw new IOException("Can't decode " + url);
+        }
+        return new Result(bitmap, fromDisk[0] || result.isShared() ? Picasso.LoadedFrom.DISK : Picasso.LoadedFrom.NETWORK);
+    }
+
+    /**
+     * Decodes an image at the size it will be shown at. Picasso scales the result the rest of
+     * the way and crops it.
+     */
+    private Bitmap decode(byte[] bytes, Request request) {
+        long start = System.nanoTime();
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        if (request.hasSize()) {
+            // Read only the dimensions first
+            options.inJustDecodeBounds = true;
+            BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+            options.inSampleSize = SampleSize.forTarget(options.outWidth, options.outHeight,
+                    request.targetWidth, request.targetHeight);
+            options.inJustDecodeBounds = false;
+        }
+        if (request.config != null) {
+            options.inPreferredConfig = request.config;
+        }
+
+        Bitmap bitmap = BitmapFactory.decodeByteArray(bytes, 0, bytes.length, options);
+        metrics.recordDecode(System.nanoTime() - start);
+        return bitmap;
+    }
+
+    /**
+     * Returns the disk cache, opening it the first time.
+     *
+     * @return the store, or null if it couldn't be opened (avatars are then always downloaded).
+     */
+    private synchronized PageStore getDiskStore() {
+        if (!diskStoreOpened) {
+            diskStoreOpened = true;
+            try {
+                diskStore = openDiskStore();
+            } catch (IOException ex) {
+                Log.e(LOG_TAG, "Failed to open the avatar disk cache", ex);
+            }
+        }
+        return diskStore;
+    }
+
+    /**
+     * Saves the disk cache's index, if the cache has been opened.
+     *
+     * @throws IOException if the index could not be written.
+     */
+    void flushDiskStore() throws IOException {
+        PageStore store;
+        synchronized (this) {
+            store = diskStore;
+        }
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    // This method is public so it can be accessed by test cases
+    public PageStore openDiskStore() throws IOException {
+        return PageStore.open(diskDirectory, maxDiskBytes, createCompactionExecutor());
+    }
+
+    // This method is public so it can be accessed by test cases
+    public byte[] download(String url) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+            connection.setReadTimeout(READ_TIMEOUT_MILLIS);
+            connection.setRequestMethod("GET");
+
+            int responseCode = connection.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Downloading " + url + " failed with HTTP " + responseCode);
+            }
+
+            int length = connection.getContentLength();
+            ByteArrayOutputStream out = new ByteArrayOutputStream((length > 0) ? length : 16 * 1024);
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[8 * 1024];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, count);
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static Executor createCompactionExecutor() {
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "AvatarCache-compaction");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+}
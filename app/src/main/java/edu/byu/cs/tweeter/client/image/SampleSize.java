@@ -0,0 +1,34 @@
+package edu.byu.cs.tweeter.client.image;
+
+/**
+ * Chooses how much to downsample an image while decoding it for a view of a known size.
+ */
+public class SampleSize {
+
+    private SampleSize() {
+    }
+
+    /**
+     * Returns the largest power of two by which an image can be downsampled while staying at
+     * least as large as the target in both dimensions, which is the value BitmapFactory expects
+     * for {@code inSampleSize}. Decoding at a power of two reads fewer pixels and uses a quarter
+     * of the memory at each step; the result is scaled the rest of the way when it is shown.
+     *
+     * @param width the image width.
+     * @param height the image height.
+     * @param targetWidth the width it will be shown at (0 if not known).
+     * @param targetHeight the height it will be shown at (0 if not known).
+     * @return the sample size (1 for no downsampling).
+     */
+    public static int forTarget(int width, int height, int targetWidth, int targetHeight) {
+        if (width <= 0 || height <= 0 || targetWidth <= 0 || targetHeight <= 0) {
+            return 1;
+        }
+
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+}
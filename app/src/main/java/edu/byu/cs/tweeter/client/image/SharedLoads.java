@@ -0,0 +1,90 @@
+package edu.byu.cs.tweeter.client.image;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs at most one load per key at a time. A thread that asks for a key while it is being loaded
+ * waits for that load and gets its result, instead of loading it again.
+ *
+ * @param <V> the type of the loaded values.
+ */
+public class SharedLoads<V> {
+
+    private final ConcurrentHashMap<String, FutureTask<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The result of a load.
+     *
+     * @param <V> the type of the loaded value.
+     */
+    public static class Result<V> {
+        private final V value;
+        private final boolean shared;
+
+        Result(V value, boolean shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        /**
+         * Indicates whether the value came from a load started by another thread.
+         *
+         * @return true if the load was shared.
+         */
+        public boolean isShared() {
+            return shared;
+        }
+    }
+
+    /**
+     * Loads the value for a key, or waits for the load already in progress.
+     *
+     * @param key the key.
+     * @param loader loads the value if no load is in progress.
+     * @return the value.
+     * @throws IOException if the load failed.
+     */
+    public Result<V> load(String key, Callable<V> loader) throws IOException {
+        FutureTask<V> task = new FutureTask<>(loader);
+        FutureTask<V> existing = inFlight.putIfAbsent(key, task);
+        if (existing == null) {
+            try {
+                task.run();
+            } finally {
+                // Later requests start a new load, e.g. to retry after a failure
+                inFlight.remove(key, task);
+            }
+        }
+
+        FutureTask<V> loading = (existing == null) ? task : existing;
+        try {
+            return new Result<>(loading.get(), existing != null);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + key, ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to load " + key, cause);
+        }
+    }
+
+    /**
+     * Returns the number of loads in progress.
+     *
+     * @return the number of loads.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+}
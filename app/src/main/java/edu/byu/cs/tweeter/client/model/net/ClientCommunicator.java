@@ -0,0 +1,270 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+/**
+ * Sends JSON requests to the server over persistent connections.
+ * <p>
+ * All communicators share one {@link ConnectionPool}, so consecutive requests (such as the pages
+ * of a following list) reuse an open connection instead of paying for a new TCP handshake each
+ * time. Responses are requested gzip-compressed, and the body of each successful response is
+ * cached with its ETag so that repeating a request only downloads the body if it has changed.
+ * Pages of users are requested in the compact {@link UserPageCodec} encoding, falling back to
+ * JSON if the server sends that instead.
+ */
+public class ClientCommunicator {
+
+    private static final int MAX_CONNECTIONS = 4;
+    /**
+     * Shorter than the server's idle timeout, so a pooled connection is normally discarded
+     * before the server closes it.
+     */
+    private static final long KEEP_ALIVE_MILLIS = 20 * 1000;
+    private static final int MAX_CACHED_RESPONSES = 64;
+
+    private static final String ACCEPT_JSON = "application/json";
+    private static final String ACCEPT_USER_PAGE = UserPageCodec.CONTENT_TYPE + ", application/json;q=0.5";
+
+    private static final ConnectionPool sharedConnectionPool = new ConnectionPool(MAX_CONNECTIONS, KEEP_ALIVE_MILLIS);
+    private static final ResponseCache sharedResponseCache = new ResponseCache(MAX_CACHED_RESPONSES);
+
+    private final String host;
+    private final int port;
+    private final String basePath;
+    private final ConnectionPool connectionPool;
+    private final ResponseCache responseCache;
+
+    public ClientCommunicator(String baseUrl) {
+        this(baseUrl, sharedConnectionPool, sharedResponseCache);
+    }
+
+    /**
+     * Creates an instance that uses its own pool and cache.
+     *
+     * @param baseUrl the server's URL, e.g. "http://10.0.2.2:8080".
+     * @param connectionPool the pool to take connections from.
+     * @param responseCache the cache of previous responses.
+     */
+    public ClientCommunicator(String baseUrl, ConnectionPool connectionPool, ResponseCache responseCache) {
+        URI uri = URI.create(baseUrl);
+        if (!"http".equals(uri.getScheme()) || uri.getHost() == null) {
+            throw new IllegalArgumentException("Only http:// server URLs are supported: " + baseUrl);
+        }
+
+        this.host = uri.getHost();
+        this.port = (uri.getPort() > 0) ? uri.getPort() : 80;
+        this.basePath = (uri.getPath() == null || uri.getPath().equals("/")) ? "" : uri.getPath();
+        this.connectionPool = connectionPool;
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Sends a request object as JSON in a POST body and converts the JSON response to an object.
+     *
+     * @param urlPath the path of the endpoint, e.g. "/login".
+     * @param requestInfo the request object.
+     * @param headers extra request headers (can be null).
+     * @param returnType the type of the response object.
+     * @return the response object.
+     * @throws IOException if the server could not be reached.
+     * @throws TweeterRemoteException if the server returned an error.
+     */
+    public <T> T doPost(String urlPath, Object requestInfo, Map<String, String> headers, Class<T> returnType)
+            throws IOException, TweeterRemoteException {
+        try (Reader reader = post(urlPath, requestInfo, headers, ACCEPT_JSON).getReader()) {
+            return JsonSerializer.deserialize(reader, returnType);
+        }
+    }
+
+    /**
+     * Sends a request object as JSON in a POST body and streams the items of the paged response
+     * to a handler as they are decoded.
+     *
+     * @param urlPath the path of the endpoint, e.g. "/getfollowing".
+     * @param requestInfo the request object.
+     * @param headers extra request headers (can be null).
+     * @param parser the parser for the type of page.
+     * @param handler receives each item of the page.
+     * @return the page's envelope fields.
+     * @throws IOException if the server could not be reached.
+     * @throws TweeterRemoteException if the server returned an error.
+     */
+    public <T> PageParser.PageInfo doPostForPage(String urlPath, Object requestInfo, Map<String, String> headers,
+                                                 PageParser<T> parser, PageParser.ItemHandler<T> handler)
+            throws IOException, TweeterRemoteException {
+        try (Reader reader = post(urlPath, requestInfo, headers, ACCEPT_JSON).getReader()) {
+            return parser.parse(reader, handler);
+        }
+    }
+
+    /**
+     * Sends a request object as JSON in a POST body and streams the users of the paged response
+     * to a handler as they are decoded. The page is requested in the compact
+     * {@link UserPageCodec} encoding; if the server answers with JSON instead, the JSON parser
+     * is used.
+     *
+     * @param urlPath the path of the endpoint, e.g. "/getfollowing".
+     * @param requestInfo the request object.
+     * @param headers extra request headers (can be null).
+     * @param jsonParser the parser for a JSON page.
+     * @param handler receives each user of the page.
+     * @return the page's envelope fields.
+     * @throws IOException if the server could not be reached or sent an invalid page.
+     * @throws TweeterRemoteException if the server returned an error.
+     */
+    public PageParser.PageInfo doPostForUserPage(String urlPath, Object requestInfo, Map<String, String> headers,
+                                                 PageParser<User> jsonParser, PageParser.ItemHandler<User> handler)
+            throws IOException, TweeterRemoteException {
+        ResponseBody body = post(urlPath, requestInfo, headers, ACCEPT_USER_PAGE);
+        if (body.hasContentType(UserPageCodec.CONTENT_TYPE)) {
+            return UserPageCodec.decode(new ByteArrayInputStream(body.getBytes()), handler);
+        }
+
+        try (Reader reader = body.getReader()) {
+            return jsonParser.parse(reader, handler);
+        }
+    }
+
+    /**
+     * Sends a request and returns the uncompressed response body.
+     */
+    private ResponseBody post(String urlPath, Object requestInfo, Map<String, String> headers, String accept)
+            throws IOException, TweeterRemoteException {
+        String requestBody = JsonSerializer.serialize(requestInfo);
+        // The same request can be answered in different formats, so the Accept header is part of
+        // the key
+        String cacheKey = urlPath + '\n' + accept + '\n' + requestBody;
+        ResponseCache.CachedResponse cached = responseCache.get(cacheKey);
+
+        Map<String, String> requestHeaders = new LinkedHashMap<>();
+        requestHeaders.put("Content-Type", "application/json; charset=utf-8");
+        requestHeaders.put("Accept", accept);
+        requestHeaders.put("Accept-Encoding", "gzip");
+        if (cached != null) {
+            requestHeaders.put("If-None-Match", cached.getEtag());
+        }
+        if (headers != null) {
+            requestHeaders.putAll(headers);
+        }
+
+        HttpResponse response = execute(basePath + urlPath, requestHeaders, requestBody.getBytes(StandardCharsets.UTF_8));
+        int statusCode = response.getStatusCode();
+
+        if (statusCode == HttpResponse.NOT_MODIFIED && cached != null) {
+            return new ResponseBody(cached.getContentType(), cached.getBody());
+        } else if (statusCode >= 200 && statusCode < 300) {
+            byte[] responseBody = decodeBody(response);
+            String contentType = response.getHeader("Content-Type");
+            String etag = response.getHeader("ETag");
+            if (etag != null) {
+                responseCache.put(cacheKey, etag, contentType, responseBody);
+            }
+            return new ResponseBody(contentType, responseBody);
+        } else {
+            throw createRemoteException(statusCode, new String(decodeBody(response), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Sends a request on a pooled connection. A reused connection may have been closed by the
+     * server while it was idle; the server never saw the request in that case, so it is sent
+     * again on a new connection. Any other failure, such as a timeout, is thrown, since the
+     * server may already have acted on a request like a follow or a post.
+     */
+    private HttpResponse execute(String path, Map<String, String> headers, byte[] body) throws IOException {
+        while (true) {
+            PooledConnection connection = connectionPool.acquire(host, port);
+            try {
+                return connection.execute("POST", path, headers, body);
+            } catch (PooledConnection.StaleConnectionException ex) {
+                // Try again; the failed connection is closed when it is released
+            } finally {
+                connectionPool.release(connection);
+            }
+        }
+    }
+
+    private static byte[] decodeBody(HttpResponse response) throws IOException {
+        byte[] body = response.getBody();
+        if ("gzip".equalsIgnoreCase(response.getHeader("Content-Encoding"))) {
+            body = gunzip(body);
+        }
+        return body;
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, count);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private static TweeterRemoteException createRemoteException(int statusCode, String body) {
+        String message = body;
+        try {
+            Response response = JsonSerializer.deserialize(body, Response.class);
+            if (response != null && response.getMessage() != null) {
+                message = response.getMessage();
+            }
+        } catch (JsonParseException ex) {
+            // Not every error is JSON (e.g. a 404 for an unknown path), so use the body as is
+        }
+
+        if (statusCode >= 400 && statusCode < 500) {
+            return new TweeterRequestException(message, statusCode);
+        }
+        return new TweeterServerException(message, statusCode);
+    }
+
+    /**
+     * An uncompressed response body and its content type.
+     */
+    private static class ResponseBody {
+        private final String contentType;
+        private final byte[] bytes;
+
+        ResponseBody(String contentType, byte[] bytes) {
+            this.contentType = contentType;
+            this.bytes = bytes;
+        }
+
+        /**
+         * Determines whether the body has a media type, ignoring any parameters such as the
+         * charset.
+         */
+        boolean hasContentType(String mediaType) {
+            return contentType != null && contentType.split(";")[0].trim().equalsIgnoreCase(mediaType);
+        }
+
+        byte[] getBytes() {
+            return bytes;
+        }
+
+        Reader getReader() {
+            return new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+        }
+    }
+}
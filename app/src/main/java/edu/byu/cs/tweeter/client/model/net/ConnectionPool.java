@@ -0,0 +1,186 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * A bounded pool of persistent connections. At most {@code maxConnections} connections are open
+ * at any time (idle and in use together); a caller that needs a connection when the pool is full
+ * waits for one to be released. Idle connections are closed after {@code keepAliveMillis}, which
+ * should be shorter than the server's idle timeout so the pool rarely hands out a connection the
+ * server has already closed.
+ */
+public class ConnectionPool {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10 * 1000;
+    private static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 30 * 1000;
+
+    private final int maxConnections;
+    private final long keepAliveMillis;
+    private final int readTimeoutMillis;
+
+    /**
+     * Idle connections, most recently used last. Guarded by this pool's lock.
+     */
+    private final ArrayDeque<PooledConnection> idleConnections = new ArrayDeque<>();
+    private int openConnections;
+    private int createdConnections;
+
+    /**
+     * Creates an instance.
+     *
+     * @param maxConnections the maximum number of open connections.
+     * @param keepAliveMillis how long an idle connection is kept open.
+     */
+    public ConnectionPool(int maxConnections, long keepAliveMillis) {
+        this(maxConnections, keepAliveMillis, READ_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Creates an instance.
+     *
+     * @param maxConnections the maximum number of open connections.
+     * @param keepAliveMillis how long an idle connection is kept open.
+     * @param readTimeoutMillis how long to wait for the server to send a response.
+     */
+    ConnectionPool(int maxConnections, long keepAliveMillis, int readTimeoutMillis) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.maxConnections = maxConnections;
+        this.keepAliveMillis = keepAliveMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    /**
+     * Returns an idle connection to the server, or opens a new one if there is none. Blocks while
+     * the pool is full.
+     *
+     * @param host the server's host.
+     * @param port the server's port.
+     * @return the connection, which must be given back with {@link #release}.
+     * @throws IOException if a connection could not be opened or none became available in time.
+     */
+    PooledConnection acquire(String host, int port) throws IOException {
+        long deadline = System.currentTimeMillis() + ACQUIRE_TIMEOUT_MILLIS;
+
+        synchronized (this) {
+            while (true) {
+                closeExpiredConnections();
+
+                PooledConnection connection = takeIdleConnection(host, port);
+                if (connection != null) {
+                    return connection;
+                }
+
+                if (openConnections >= maxConnections && !idleConnections.isEmpty()) {
+                    // Make room by closing the least recently used connection to another server
+                    idleConnections.poll().close();
+                    openConnections--;
+                }
+
+                if (openConnections < maxConnections) {
+                    openConnections++;
+                    createdConnections++;
+                    break;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new IOException("Timed out waiting for a pooled connection");
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for a pooled connection", ex);
+                }
+            }
+        }
+
+        // Connect outside the lock so a slow connect doesn't hold up other callers
+        try {
+            return new PooledConnection(host, port, CONNECT_TIMEOUT_MILLIS, readTimeoutMillis);
+        } catch (IOException ex) {
+            synchronized (this) {
+                openConnections--;
+                notifyAll();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Gives a connection back to the pool. The connection is kept for reuse if it is still usable;
+     * otherwise it is closed.
+     *
+     * @param connection the connection.
+     */
+    synchronized void release(PooledConnection connection) {
+        if (connection.isReusable()) {
+            idleConnections.add(connection);
+        } else {
+            connection.close();
+            openConnections--;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Closes all idle connections.
+     */
+    public synchronized void evictAll() {
+        for (PooledConnection connection : idleConnections) {
+            connection.close();
+            openConnections--;
+        }
+        idleConnections.clear();
+        notifyAll();
+    }
+
+    public synchronized int getIdleConnectionCount() {
+        return idleConnections.size();
+    }
+
+    public synchronized int getOpenConnectionCount() {
+        return openConnections;
+    }
+
+    /**
+     * Returns the number of connections opened since the pool was created. With persistent
+     * connections this stays far below the number of requests sent.
+     *
+     * @return the number of connections opened.
+     */
+    public synchronized int getCreatedConnectionCount() {
+        return createdConnections;
+    }
+
+    private PooledConnection takeIdleConnection(String host, int port) {
+        // Prefer the most recently used connection, which is the least likely to have timed out
+        Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext()) {
+            PooledConnection connection = iterator.next();
+            if (connection.getPort() == port && connection.getHost().equals(host)) {
+                iterator.remove();
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    private void closeExpiredConnections() {
+        long cutoff = System.currentTimeMillis() - keepAliveMillis;
+        Iterator<PooledConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            PooledConnection connection = iterator.next();
+            if (connection.getLastUsedMillis() < cutoff) {
+                iterator.remove();
+                connection.close();
+                openConnections--;
+            }
+        }
+    }
+}
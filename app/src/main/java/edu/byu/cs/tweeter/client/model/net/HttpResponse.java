@@ -0,0 +1,38 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.util.Map;
+
+/**
+ * A response read from a {@link PooledConnection}. The body is exactly as it was sent, so it may
+ * still be gzip-compressed.
+ */
+class HttpResponse {
+
+    static final int OK = 200;
+    static final int NOT_MODIFIED = 304;
+
+    private final int statusCode;
+    /**
+     * Header values keyed by lower-case header name.
+     */
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    HttpResponse(int statusCode, Map<String, String> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    int getStatusCode() {
+        return statusCode;
+    }
+
+    String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,251 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A persistent HTTP/1.1 connection to one server. A connection handles one request at a time and
+ * is returned to its {@link ConnectionPool} between requests.
+ */
+class PooledConnection {
+
+    private final String host;
+    private final int port;
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    /**
+     * The number of requests sent on this connection.
+     */
+    private int requestCount;
+    private long lastUsedMillis;
+    /**
+     * False once the server has said it will close the connection or a response could not be
+     * read completely.
+     */
+    private boolean reusable = true;
+
+    PooledConnection(String host, int port, int connectTimeoutMillis, int readTimeoutMillis) throws IOException {
+        this.host = host;
+        this.port = port;
+        this.socket = new Socket();
+        socket.setTcpNoDelay(true);
+        socket.setSoTimeout(readTimeoutMillis);
+        socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+        this.lastUsedMillis = System.currentTimeMillis();
+    }
+
+    String getHost() {
+        return host;
+    }
+
+    int getPort() {
+        return port;
+    }
+
+    boolean isReused() {
+        return requestCount > 0;
+    }
+
+    boolean isReusable() {
+        return reusable && !socket.isClosed();
+    }
+
+    long getLastUsedMillis() {
+        return lastUsedMillis;
+    }
+
+    /**
+     * Sends a request and reads the response.
+     *
+     * @param method the request method.
+     * @param path the request path.
+     * @param headers extra request headers.
+     * @param body the request body (can be null).
+     * @return the response.
+     * @throws StaleConnectionException if the server had already closed a reused connection
+     *         without reading the request.
+     * @throws IOException if the request could not be sent or the response could not be read.
+     */
+    HttpResponse execute(String method, String path, Map<String, String> headers, byte[] body) throws IOException {
+        boolean reused = isReused();
+        requestCount++;
+        reusable = false;
+
+        StringBuilder head = new StringBuilder(256);
+        head.append(method).append(' ').append(path).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(host).append(':').append(port).append("\r\n");
+        head.append("Connection: keep-alive\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        head.append("Content-Length: ").append(body != null ? body.length : 0).append("\r\n\r\n");
+
+        try {
+            out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+            if (body != null) {
+                out.write(body);
+            }
+            out.flush();
+        } catch (SocketException ex) {
+            // A server that has closed the connection resets it rather than reading the request
+            throw reused ? new StaleConnectionException(ex) : ex;
+        }
+
+        // Only a reset or end of stream before the first byte of the response shows that the
+        // server closed the connection without reading the request. A timeout, or an error once
+        // the response has started, may come after the server acted on it, so it isn't retried.
+        int first;
+        try {
+            in.mark(1);
+            first = in.read();
+        } catch (SocketException ex) {
+            throw reused ? new StaleConnectionException(ex) : ex;
+        }
+        if (first < 0) {
+            if (reused) {
+                throw new StaleConnectionException(null);
+            }
+            throw new IOException("Server closed the connection without responding");
+        }
+        in.reset();
+
+        String statusLine = readLine();
+
+        String[] statusParts = statusLine.split(" ", 3);
+        if (statusParts.length < 2 || !statusParts[0].startsWith("HTTP/1.")) {
+            throw new IOException("Malformed status line: " + statusLine);
+        }
+        int statusCode = Integer.parseInt(statusParts[1]);
+
+        Map<String, String> responseHeaders = new HashMap<>();
+        String line;
+        while ((line = readLine()) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                responseHeaders.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+        }
+        if (line == null) {
+            throw new IOException("Connection closed while reading response headers");
+        }
+
+        boolean keepAlive = !"close".equalsIgnoreCase(responseHeaders.get("connection"));
+        byte[] responseBody;
+        if (statusCode == HttpResponse.NOT_MODIFIED || statusCode == 204 || statusCode / 100 == 1 || "HEAD".equals(method)) {
+            responseBody = new byte[0];
+        } else if ("chunked".equalsIgnoreCase(responseHeaders.get("transfer-encoding"))) {
+            responseBody = readChunkedBody();
+        } else if (responseHeaders.containsKey("content-length")) {
+            responseBody = readFully(Integer.parseInt(responseHeaders.get("content-length")));
+        } else {
+            // The body ends when the server closes the connection
+            responseBody = readToEnd();
+            keepAlive = false;
+        }
+
+        reusable = keepAlive;
+        lastUsedMillis = System.currentTimeMillis();
+        return new HttpResponse(statusCode, responseHeaders, responseBody);
+    }
+
+    void close() {
+        reusable = false;
+        try {
+            socket.close();
+        } catch (IOException ex) {
+            // Nothing more can be done with the connection
+        }
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int count = in.read(bytes, read, length - read);
+            if (count < 0) {
+                throw new IOException("Connection closed while reading response body");
+            }
+            read += count;
+        }
+        return bytes;
+    }
+
+    private byte[] readChunkedBody() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        while (true) {
+            String sizeLine = readLine();
+            if (sizeLine == null) {
+                throw new IOException("Connection closed while reading chunked body");
+            }
+            int extension = sizeLine.indexOf(';');
+            int size = Integer.parseInt((extension >= 0) ? sizeLine.substring(0, extension).trim() : sizeLine.trim(), 16);
+            if (size == 0) {
+                String trailer;
+                while ((trailer = readLine()) != null && !trailer.isEmpty()) {
+                    // Trailers are not used by the Tweeter API
+                }
+                return body.toByteArray();
+            }
+            body.write(readFully(size));
+            readLine();
+        }
+    }
+
+    private byte[] readToEnd() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int count;
+        while ((count = in.read(buffer)) >= 0) {
+            body.write(buffer, 0, count);
+        }
+        return body.toByteArray();
+    }
+
+    /**
+     * Reads a CRLF-terminated line.
+     *
+     * @return the line without its terminator, or null if the stream ended before any bytes were
+     *         read.
+     */
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') {
+                    line.setLength(length - 1);
+                }
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return (line.length() == 0) ? null : line.toString();
+    }
+
+    /**
+     * Thrown when a reused connection turns out to have been closed by the server while it sat in
+     * the pool: sending the request hit a reset, or the connection was reset or ended before any
+     * of the response arrived. The request was not processed, so it is safe to retry on a new
+     * connection. Timeouts are never reported this way.
+     */
+    static class StaleConnectionException extends IOException {
+        StaleConnectionException(Throwable cause) {
+            super("Pooled connection was closed by the server", cause);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small least-recently-used cache of response bodies and their ETags. When a request is repeated
+ * the cached ETag is sent in If-None-Match, and if the server answers 304 Not Modified the cached
+ * body is used instead of downloading it again.
+ */
+public class ResponseCache {
+
+    private final Map<String, CachedResponse> entries;
+
+    /**
+     * Creates an instance.
+     *
+     * @param maxEntries the number of responses to keep.
+     */
+    public ResponseCache(final int maxEntries) {
+        this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, String etag, String contentType, byte[] body) {
+        entries.put(key, new CachedResponse(etag, contentType, body));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A cached (uncompressed) response body with the ETag and content type the server sent with
+     * it.
+     */
+    static class CachedResponse {
+        private final String etag;
+        private final String contentType;
+        private final byte[] body;
+
+        CachedResponse(String etag, String contentType, byte[] body) {
+            this.etag = etag;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+    }
+}
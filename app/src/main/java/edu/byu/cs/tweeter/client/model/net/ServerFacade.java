@@ -0,0 +1,103 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.io.IOException;
+
+import edu.byu.cs.tweeter.BuildConfig;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.LoginRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowingDeltaResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.LoginResponse;
+import edu.byu.cs.tweeter.util.json.PageParser;
+import edu.byu.cs.tweeter.util.json.TweeterTypeAdapterFactory;
+
+/**
+ * Acts as a Facade to the Tweeter server. All network requests to the server should go through
+ * this class.
+ */
+public class ServerFacade {
+
+    /**
+     * The server's URL, set with the SERVER_URL build config field (e.g. "http://10.0.2.2:8080"
+     * for a server running on the machine hosting the emulator). When it is empty the tasks use
+     * {@link edu.byu.cs.tweeter.util.FakeData} instead of the server.
+     */
+    private static final String SERVER_URL = BuildConfig.SERVER_URL;
+
+    private final ClientCommunicator clientCommunicator;
+
+    public ServerFacade() {
+        this(new ClientCommunicator(SERVER_URL));
+    }
+
+    public ServerFacade(ClientCommunicator clientCommunicator) {
+        this.clientCommunicator = clientCommunicator;
+    }
+
+    /**
+     * Indicates whether a server URL has been configured for this build.
+     *
+     * @return true if requests should be sent to the server.
+     */
+    public static boolean isConfigured() {
+        return SERVER_URL != null && !SERVER_URL.isEmpty();
+    }
+
+    /**
+     * Performs a login and if successful, returns the logged in user and an auth token.
+     *
+     * @param request contains all information needed to perform a login.
+     * @param urlPath the path of the login endpoint.
+     * @return the login response.
+     */
+    public LoginResponse login(LoginRequest request, String urlPath) throws IOException, TweeterRemoteException {
+        return clientCommunicator.doPost(urlPath, request, null, LoginResponse.class);
+    }
+
+    /**
+     * Returns the users that the user specified in the request is following. Uses information in
+     * the request object to limit the number of followees returned and to return the next set of
+     * followees after any that were returned in a previous request.
+     *
+     * @param request contains information about the user whose followees are to be returned and any
+     *                other information required to satisfy the request.
+     * @param urlPath the path of the following endpoint.
+     * @return the followees.
+     */
+    public FollowingResponse getFollowees(FollowingRequest request, String urlPath)
+            throws IOException, TweeterRemoteException {
+        return clientCommunicator.doPost(urlPath, request, null, FollowingResponse.class);
+    }
+
+    /**
+     * Returns the changes to a user's following list since the version in the request, or an
+     * indication that the whole list has to be reloaded.
+     *
+     * @param request contains the user and the version of their following list that the client
+     *                has cached.
+     * @param urlPath the path of the following delta endpoint.
+     * @return the changes.
+     */
+    public FollowingDeltaResponse getFollowingDelta(FollowingDeltaRequest request, String urlPath)
+            throws IOException, TweeterRemoteException {
+        return clientCommunicator.doPost(urlPath, request, null, FollowingDeltaResponse.class);
+    }
+
+    /**
+     * Returns the users that the user specified in the request is following, passing each one to
+     * a handler as soon as it has been read from the response. The page is sent in the compact
+     * user page encoding when the server supports it.
+     *
+     * @param request contains information about the user whose followees are to be returned and any
+     *                other information required to satisfy the request.
+     * @param urlPath the path of the following endpoint.
+     * @param handler receives each followee in order.
+     * @return the page's envelope fields (success, message and whether there are more pages).
+     */
+    public PageParser.PageInfo getFollowees(FollowingRequest request, String urlPath, PageParser.ItemHandler<User> handler)
+            throws IOException, TweeterRemoteException {
+        return clientCommunicator.doPostForUserPage(urlPath, request, null, TweeterTypeAdapterFactory.FOLLOWEES_PARSER, handler);
+    }
+}
@@ -0,0 +1,21 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+/**
+ * Indicates that the server answered a request with an error.
+ */
+public class TweeterRemoteException extends Exception {
+
+    /**
+     * The HTTP status code of the response.
+     */
+    private final int statusCode;
+
+    protected TweeterRemoteException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
@@ -0,0 +1,24 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import java.net.HttpURLConnection;
+
+/**
+ * Indicates that the server rejected a request (a 4xx response), e.g. because a required value
+ * was missing.
+ */
+public class TweeterRequestException extends TweeterRemoteException {
+
+    public TweeterRequestException(String message, int statusCode) {
+        super(message, statusCode);
+    }
+
+    /**
+     * Indicates whether the server rejected the request's auth token (a 401 response), e.g.
+     * because the session has expired.
+     *
+     * @return true if the request was unauthorized.
+     */
+    public boolean isUnauthorized() {
+        return getStatusCode() == HttpURLConnection.HTTP_UNAUTHORIZED;
+    }
+}
@@ -0,0 +1,11 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+/**
+ * Indicates that the server failed while handling a request (a 5xx response).
+ */
+public class TweeterServerException extends TweeterRemoteException {
+
+    public TweeterServerException(String message, int statusCode) {
+        super(message, statusCode);
+    }
+}
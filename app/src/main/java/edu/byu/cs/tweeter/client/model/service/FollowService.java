@@ -2,11 +2,15 @@ package edu.byu.cs.tweeter.client.model.service;
 
 import java.util.List;
 
+import edu.byu.cs.tweeter.client.cache.Cache;
+import edu.byu.cs.tweeter.client.cache.FollowingListCache;
 import edu.byu.cs.tweeter.client.model.service.backgroundTask.BackgroundTaskUtils;
+import edu.byu.cs.tweeter.client.model.service.backgroundTask.GetFollowingDeltaTask;
 import edu.byu.cs.tweeter.client.model.service.backgroundTask.GetFollowingTask;
 import edu.byu.cs.tweeter.client.model.service.backgroundTask.handler.GetFollowingTaskHandler;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.Pair;
 
 /**
  * Contains the business logic for getting the users a user is following.
@@ -19,7 +23,27 @@ public class FollowService {
      */
     public interface GetFollowingObserver {
         void handleSuccess(List<User> followees, boolean hasMorePages);
+
+        /**
+         * Called after {@link #handleSuccess} was passed a saved copy of a page, when the page
+         * loaded from the server turns out to differ from it.
+         *
+         * @param lastFollowee the followee the page starts after (null for the first page).
+         * @param followees the page loaded from the server.
+         * @param hasMorePages whether more pages follow it.
+         */
+        void handlePageChanged(User lastFollowee, List<User> followees, boolean hasMorePages);
+
         void handleFailure(String message);
+
+        /**
+         * Called when the server rejected the session's auth token, e.g. because it has
+         * expired. The saved session has been discarded, so the user has to log in again.
+         *
+         * @param message the server's message.
+         */
+        void handleUnauthorized(String message);
+
         void handleException(Exception exception);
     }
 
@@ -40,12 +64,33 @@ public class FollowService {
      * @param lastFollowee the last followee returned in the previous request (can be null).
      */
     public void getFollowees(AuthToken authToken, User targetUser, int limit, User lastFollowee, GetFollowingObserver observer) {
-        GetFollowingTask followingTask = getGetFollowingTask(authToken, targetUser, limit, lastFollowee, observer);
+        GetFollowingObserver taskObserver = new SessionObserver(observer);
+        Pair<List<User>, Boolean> restoredPage = (lastFollowee == null) ? getCache().takeRestoredFollowees(targetUser) : null;
+        if (restoredPage != null) {
+            // Show the page saved with the session right away, then load it again in the
+            // background. That request also tells us whether the restored auth token is still
+            // accepted.
+            observer.handleSuccess(restoredPage.getFirst(), restoredPage.getSecond());
+            taskObserver = new RevalidationObserver(observer, restoredPage);
+        }
+
+        GetFollowingTask followingTask = getGetFollowingTask(authToken, targetUser, limit, lastFollowee, taskObserver);
         BackgroundTaskUtils.runTask(followingTask);
     }
 
+    // This method is public so it can be accessed by test cases
+    public Cache getCache() {
+        return Cache.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowingListCache getFollowingListCache() {
+        return FollowingListCache.getInstance();
+    }
+
     /**
-     * Returns an instance of {@link GetFollowingTask}. Allows mocking of the
+     * Returns an instance of {@link GetFollowingTask}, or of {@link GetFollowingDeltaTask} when
+     * the first page of the logged-in user's previously loaded list is requested. Allows mocking of the
      * GetFollowingTask class for testing purposes. All usages of GetFollowingTask
      * should get their instance from this method to allow for proper mocking.
      *
@@ -53,6 +98,79 @@ public class FollowService {
      */
     // This method is public so it can be accessed by test cases
     public GetFollowingTask getGetFollowingTask(AuthToken authToken, User targetUser, int limit, User lastFollowee, GetFollowingObserver observer) {
+        if (lastFollowee == null && targetUser.getAlias().equals(getCache().getCurrUser().getAlias())
+                && getFollowingListCache().getVersion(targetUser.getAlias()) != null) {
+            // The list was loaded before, so only the changes since then are needed (the
+            // server only sends the logged-in user's changes)
+            return new GetFollowingDeltaTask(authToken, targetUser, limit, new GetFollowingTaskHandler(observer));
+        }
         return new GetFollowingTask(authToken, targetUser, limit, lastFollowee, new GetFollowingTaskHandler(observer));
     }
+
+    /**
+     * Passes a task's result on to an observer, first discarding the saved session if the
+     * server rejected its auth token, so it isn't restored the next time the app starts.
+     */
+    private class SessionObserver implements GetFollowingObserver {
+
+        protected final GetFollowingObserver observer;
+
+        SessionObserver(GetFollowingObserver observer) {
+            this.observer = observer;
+        }
+
+        @Override
+        public void handleSuccess(List<User> followees, boolean hasMorePages) {
+            observer.handleSuccess(followees, hasMorePages);
+        }
+
+        @Override
+        public void handlePageChanged(User lastFollowee, List<User> followees, boolean hasMorePages) {
+            observer.handlePageChanged(lastFollowee, followees, hasMorePages);
+        }
+
+        @Override
+        public void handleFailure(String message) {
+            observer.handleFailure(message);
+        }
+
+        @Override
+        public void handleUnauthorized(String message) {
+            getCache().clearCache();
+            observer.handleUnauthorized(message);
+        }
+
+        @Override
+        public void handleException(Exception exception) {
+            observer.handleException(exception);
+        }
+    }
+
+    /**
+     * Observes the reload of a page that has already been shown from a restored session. The
+     * reloaded page is passed on as a change to the restored page if it differs from it, and an
+     * exception (e.g. no network) leaves the restored page in place. If the server rejected the
+     * restored auth token, the session has expired, so the user is sent back to log in.
+     */
+    private class RevalidationObserver extends SessionObserver {
+
+        private final Pair<List<User>, Boolean> restoredPage;
+
+        RevalidationObserver(GetFollowingObserver observer, Pair<List<User>, Boolean> restoredPage) {
+            super(observer);
+            this.restoredPage = restoredPage;
+        }
+
+        @Override
+        public void handleSuccess(List<User> followees, boolean hasMorePages) {
+            if (!GetFollowingTask.isSamePage(restoredPage, followees, hasMorePages)) {
+                observer.handlePageChanged(null, followees, hasMorePages);
+            }
+        }
+
+        @Override
+        public void handleException(Exception exception) {
+            // Keep showing the restored page
+        }
+    }
 }
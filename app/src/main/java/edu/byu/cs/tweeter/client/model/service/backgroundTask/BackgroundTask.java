@@ -5,6 +5,10 @@ import android.os.Handler;
 import android.os.Message;
 import android.util.Log;
 
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
+import edu.byu.cs.tweeter.client.trace.Tracer;
+
 public abstract class BackgroundTask implements Runnable {
 
     private static final String LOG_TAG = "Task";
@@ -12,20 +16,35 @@ public abstract class BackgroundTask implements Runnable {
     public static final String SUCCESS_KEY = "success";
     public static final String MESSAGE_KEY = "message";
     public static final String EXCEPTION_KEY = "exception";
+    /**
+     * Marks a failure caused by the server rejecting the session's auth token.
+     */
+    public static final String UNAUTHORIZED_KEY = "unauthorized";
+    public static final String TRACE_CONTEXT_KEY = "trace-context";
 
     protected final Handler messageHandler;
 
+    /**
+     * The trace context of the thread that created the task, so the span for running the task
+     * is recorded as a child of the span that requested it.
+     */
+    private final TraceContext traceContext;
+
     protected BackgroundTask(Handler messageHandler) {
         this.messageHandler = messageHandler;
+        this.traceContext = Tracer.getInstance().currentContext();
     }
 
     @Override
     public void run() {
+        Span span = Tracer.getInstance().startSpan(getClass().getSimpleName() + ".run", traceContext);
         try {
             runTask();
         } catch (Exception ex) {
             Log.e(LOG_TAG, ex.getMessage(), ex);
             sendExceptionMessage(ex);
+        } finally {
+            span.end();
         }
     }
 
@@ -50,6 +69,15 @@ public abstract class BackgroundTask implements Runnable {
         sendMessage(msgBundle);
     }
 
+    // This method is public instead of protected to make it accessible to test cases
+    public void sendUnauthorizedMessage(String message) {
+        Bundle msgBundle = new Bundle();
+        msgBundle.putBoolean(SUCCESS_KEY, false);
+        msgBundle.putBoolean(UNAUTHORIZED_KEY, true);
+        msgBundle.putString(MESSAGE_KEY, message);
+        sendMessage(msgBundle);
+    }
+
     // This method is public instead of protected to make it accessible to test cases
     public void sendExceptionMessage(Exception exception) {
         Bundle msgBundle = new Bundle();
@@ -59,6 +87,9 @@ public abstract class BackgroundTask implements Runnable {
     }
 
     private void sendMessage(Bundle msgBundle) {
+        // Lets the handler record its span as a continuation of this task's span
+        msgBundle.putSerializable(TRACE_CONTEXT_KEY, Tracer.getInstance().currentContext());
+
         Message msg = Message.obtain();
         msg.setData(msgBundle);
 
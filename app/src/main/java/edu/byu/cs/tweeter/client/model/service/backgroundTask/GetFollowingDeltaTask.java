@@ -0,0 +1,83 @@
+package edu.byu.cs.tweeter.client.model.service.backgroundTask;
+
+import android.os.Handler;
+
+import java.io.IOException;
+import java.util.List;
+
+import edu.byu.cs.tweeter.client.cache.FollowingListCache;
+import edu.byu.cs.tweeter.client.model.net.TweeterRemoteException;
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowingDeltaResponse;
+import edu.byu.cs.tweeter.util.Pair;
+
+/**
+ * Background task that brings a cached following list up to date. Instead of reloading the list
+ * from the first page, it asks the server for the follows and unfollows made since the cached
+ * version and merges them into the cached list. If the server no longer has those changes, the
+ * cached list is dropped and the first page is loaded as usual.
+ * <p>
+ * The result is sent like a {@link GetFollowingTask} result, with the whole cached list as the
+ * page, so the same handler and observer are used.
+ */
+public class GetFollowingDeltaTask extends GetFollowingTask {
+
+    static final String DELTA_URL_PATH = "/getfollowingdelta";
+
+    /**
+     * True once the changes have been merged into the cache, which then needs no further update.
+     */
+    private boolean mergedIntoCache;
+
+    public GetFollowingDeltaTask(AuthToken authToken, User targetUser, int limit, Handler messageHandler) {
+        super(authToken, targetUser, limit, null, messageHandler);
+    }
+
+    // This method is public so it can be accessed by test cases
+    @Override
+    public Pair<List<User>, Boolean> getFollowees() throws IOException, TweeterRemoteException {
+        FollowingListCache cache = getFollowingListCache();
+        String cachedVersion = cache.getVersion(targetUser.getAlias());
+
+        if (cachedVersion != null) {
+            FollowingDeltaRequest request = new FollowingDeltaRequest(authToken, targetUser.getAlias(), cachedVersion);
+            FollowingDeltaResponse response = getServerFacade().getFollowingDelta(request, DELTA_URL_PATH);
+
+            if (!response.isResyncRequired()) {
+                FollowingListCache.Snapshot snapshot = cache.applyChanges(targetUser.getAlias(), response.getChanges(), response.getVersion());
+                if (snapshot != null) {
+                    mergedIntoCache = true;
+                    return new Pair<>(snapshot.getFollowees(), snapshot.getHasMorePages());
+                }
+            }
+            cache.invalidate(targetUser.getAlias());
+        }
+
+        return super.getFollowees();
+    }
+
+    /**
+     * The cached list in memory is newer than any stored page, so stored pages are not used.
+     */
+    @Override
+    protected Pair<List<User>, Boolean> loadStoredPage() {
+        return null;
+    }
+
+    @Override
+    protected void cachePage() {
+        if (!mergedIntoCache) {
+            super.cachePage();
+        }
+    }
+
+    @Override
+    protected void storePage() {
+        // The merged result is the whole cached list rather than one page
+        if (!mergedIntoCache) {
+            super.storePage();
+        }
+    }
+}
@@ -4,23 +4,49 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
+import edu.byu.cs.tweeter.client.cache.Cache;
+import edu.byu.cs.tweeter.client.cache.FollowingListCache;
+import edu.byu.cs.tweeter.client.cache.PageStore;
+import edu.byu.cs.tweeter.client.model.net.ServerFacade;
+import edu.byu.cs.tweeter.client.model.net.TweeterRemoteException;
+import edu.byu.cs.tweeter.client.model.net.TweeterRequestException;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
 import edu.byu.cs.tweeter.util.FakeData;
 import edu.byu.cs.tweeter.util.Pair;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
 
 /**
  * Background task that retrieves a page of other users being followed by a specified user.
+ * <p>
+ * Pages loaded from the server are kept in the {@link PageStore}. If the requested page is
+ * already stored (e.g. from before the app was restarted), it is sent immediately, and the task
+ * then loads the page from the server to bring the stored copy up to date. If the loaded page
+ * differs from the stored one, it is sent too, marked with {@link #PAGE_CHANGED_KEY}. If the
+ * server rejects the auth token, that is sent either way, so the user can log in again.
  */
 public class GetFollowingTask extends BackgroundTask {
 
     private static final String LOG_TAG = "GetFollowingTask";
 
+    static final String URL_PATH = "/getfollowing";
+
     public static final String FOLLOWEES_KEY = "followees";
     public static final String MORE_PAGES_KEY = "more-pages";
+    /**
+     * Marks a page loaded from the server that replaces the stored copy already sent.
+     */
+    public static final String PAGE_CHANGED_KEY = "page-changed";
+    public static final String LAST_FOLLOWEE_KEY = "last-followee";
 
     /**
      * Auth token for logged-in user.
@@ -49,6 +75,15 @@ public class GetFollowingTask extends BackgroundTask {
      * If there are more pages, returned by the server.
      */
     private boolean hasMorePages;
+    /**
+     * The version token of the following list returned by the server (null when using fake
+     * data).
+     */
+    protected String version;
+    /**
+     * True if the page being sent replaces a stored copy that was sent before it.
+     */
+    private boolean pageChanged;
 
     public GetFollowingTask(AuthToken authToken, User targetUser, int limit, User lastFollowee,
                             Handler messageHandler) {
@@ -63,29 +98,211 @@ public class GetFollowingTask extends BackgroundTask {
     protected void loadSuccessBundle(Bundle msgBundle) {
         msgBundle.putSerializable(FOLLOWEES_KEY, (Serializable) this.followees);
         msgBundle.putBoolean(MORE_PAGES_KEY, this.hasMorePages);
+        if (pageChanged) {
+            msgBundle.putBoolean(PAGE_CHANGED_KEY, true);
+            msgBundle.putSerializable(LAST_FOLLOWEE_KEY, this.lastFollowee);
+        }
     }
 
     @Override
     protected void runTask() {
-        try {
-            Pair<List<User>, Boolean> pageOfUsers = getFollowees();
-            this.followees = pageOfUsers.getFirst();
-            this.hasMorePages = pageOfUsers.getSecond();
+        Pair<List<User>, Boolean> storedPage = loadStoredPage();
+        if (storedPage != null) {
+            this.followees = storedPage.getFirst();
+            this.hasMorePages = storedPage.getSecond();
+            sendSuccessMessage();
+
+            try {
+                loadPage();
+            } catch (TweeterRequestException ex) {
+                if (ex.isUnauthorized()) {
+                    // The stored page can't be kept up to date without logging in again
+                    Log.e(LOG_TAG, "Failed to revalidate stored followees", ex);
+                    sendUnauthorizedMessage(ex.getMessage());
+                } else {
+                    Log.w(LOG_TAG, "Failed to revalidate stored followees", ex);
+                }
+                return;
+            } catch (Exception ex) {
+                // The stored page has been shown, so this only means it stays as it is
+                Log.w(LOG_TAG, "Failed to revalidate stored followees", ex);
+                return;
+            }
+
+            if (!isSamePage(storedPage, followees, hasMorePages)) {
+                pageChanged = true;
+                sendSuccessMessage();
+            }
+            return;
+        }
 
+        try {
+            loadPage();
             sendSuccessMessage();
+        } catch (TweeterRequestException ex) {
+            Log.e(LOG_TAG, "Failed to get followees", ex);
+            if (ex.isUnauthorized()) {
+                sendUnauthorizedMessage(ex.getMessage());
+            } else {
+                sendFailedMessage(ex.getMessage());
+            }
         } catch (Exception ex) {
             Log.e(LOG_TAG, "Failed to get followees", ex);
             sendExceptionMessage(ex);
         }
     }
 
+    private void loadPage() throws IOException, TweeterRemoteException {
+        Pair<List<User>, Boolean> pageOfUsers = getFollowees();
+        this.followees = pageOfUsers.getFirst();
+        this.hasMorePages = pageOfUsers.getSecond();
+        cachePage();
+        storePage();
+
+        if (lastFollowee == null) {
+            // Saved with the session, so the page can be shown at once on the next start. A
+            // merged delta holds the whole cached list, of which only the first page is kept.
+            boolean truncated = followees.size() > limit;
+            getCache().setFirstPageOfFollowees(targetUser,
+                    truncated ? new ArrayList<>(followees.subList(0, limit)) : followees, truncated || hasMorePages);
+        }
+    }
+
+    /**
+     * Indicates whether a page loaded from the server would be shown the same as a saved copy:
+     * the same users, with the same names and avatars, and the same answer to whether more pages
+     * follow.
+     *
+     * @param storedPage the saved copy and whether more pages followed it.
+     * @param followees the page loaded from the server.
+     * @param hasMorePages whether more pages follow it.
+     * @return true if the pages are the same.
+     */
+    public static boolean isSamePage(Pair<List<User>, Boolean> storedPage, List<User> followees, boolean hasMorePages) {
+        List<User> storedFollowees = storedPage.getFirst();
+        if (storedPage.getSecond() != hasMorePages || storedFollowees.size() != followees.size()) {
+            return false;
+        }
+        for (int i = 0; i < followees.size(); i++) {
+            User stored = storedFollowees.get(i);
+            User followee = followees.get(i);
+            if (!stored.equals(followee) || !stored.getName().equals(followee.getName())
+                    || !Objects.equals(stored.getImageUrl(), followee.getImageUrl())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the page to the cached following list, so the list can be brought up to date with a
+     * delta the next time it is opened.
+     */
+    protected void cachePage() {
+        getFollowingListCache().recordPage(targetUser.getAlias(), lastFollowee, followees, hasMorePages, version);
+    }
+
+    /**
+     * Returns the stored copy of the requested page.
+     *
+     * @return the page, or null if it isn't stored (or there is no store).
+     */
+    protected Pair<List<User>, Boolean> loadStoredPage() {
+        PageStore pageStore = getPageStore();
+        byte[] stored = (pageStore == null) ? null : pageStore.get(getPageKey());
+        if (stored == null) {
+            return null;
+        }
+
+        final List<User> storedFollowees = new ArrayList<>(limit);
+        try {
+            PageParser.PageInfo page = UserPageCodec.decode(new ByteArrayInputStream(stored), new PageParser.ItemHandler<User>() {
+                @Override
+                public void handleItem(User followee) {
+                    storedFollowees.add(followee);
+                }
+            });
+            return new Pair<>(storedFollowees, page.getHasMorePages());
+        } catch (IOException ex) {
+            Log.w(LOG_TAG, "Ignoring unreadable stored page", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the page loaded from the server in the page store. Pages without a version come from
+     * fake data and are not stored.
+     */
+    protected void storePage() {
+        PageStore pageStore = getPageStore();
+        if (pageStore != null && version != null) {
+            try {
+                pageStore.put(getPageKey(), UserPageCodec.encode(followees, hasMorePages, version));
+            } catch (IOException ex) {
+                Log.w(LOG_TAG, "Failed to store followees", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the page store key for the requested page: the target user and the followee it
+     * starts after.
+     */
+    protected String getPageKey() {
+        return getListKeyPrefix(targetUser.getAlias()) + ((lastFollowee == null) ? "" : lastFollowee.getAlias());
+    }
+
+    /**
+     * Returns the prefix of the page store keys of all the pages of a user's following list.
+     *
+     * @param userAlias the user whose following list it is.
+     * @return the prefix.
+     */
+    public static String getListKeyPrefix(String userAlias) {
+        return "following/" + userAlias + "/";
+    }
+
+    // This method is public so it can be accessed by test cases
+    public Cache getCache() {
+        return Cache.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowingListCache getFollowingListCache() {
+        return FollowingListCache.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public PageStore getPageStore() {
+        return PageStore.getInstance();
+    }
+
     // This method is public so it can be accessed by test cases
     public FakeData getFakeData() {
         return FakeData.getInstance();
     }
 
     // This method is public so it can be accessed by test cases
-    public Pair<List<User>, Boolean> getFollowees() {
-        return getFakeData().getPageOfUsers(lastFollowee, limit, targetUser);
+    public ServerFacade getServerFacade() {
+        return new ServerFacade();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public Pair<List<User>, Boolean> getFollowees() throws IOException, TweeterRemoteException {
+        if (!ServerFacade.isConfigured()) {
+            return getFakeData().getPageOfUsers(lastFollowee, limit, targetUser);
+        }
+
+        String lastFolloweeAlias = (lastFollowee == null) ? null : lastFollowee.getAlias();
+        FollowingRequest request = new FollowingRequest(authToken, targetUser.getAlias(), limit, lastFolloweeAlias);
+        final List<User> followees = new ArrayList<>(limit);
+        PageParser.PageInfo page = getServerFacade().getFollowees(request, URL_PATH, new PageParser.ItemHandler<User>() {
+            @Override
+            public void handleItem(User followee) {
+                followees.add(followee);
+            }
+        });
+        this.version = page.getVersion();
+        return new Pair<>(followees, page.getHasMorePages());
     }
 }
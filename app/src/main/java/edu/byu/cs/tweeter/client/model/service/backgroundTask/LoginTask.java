@@ -4,8 +4,15 @@ import android.os.Bundle;
 import android.os.Handler;
 import android.util.Log;
 
+import java.io.IOException;
+
+import edu.byu.cs.tweeter.client.model.net.ServerFacade;
+import edu.byu.cs.tweeter.client.model.net.TweeterRemoteException;
+import edu.byu.cs.tweeter.client.model.net.TweeterRequestException;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.LoginRequest;
+import edu.byu.cs.tweeter.model.net.response.LoginResponse;
 import edu.byu.cs.tweeter.util.FakeData;
 import edu.byu.cs.tweeter.util.Pair;
 
@@ -16,6 +23,8 @@ public class LoginTask extends BackgroundTask {
 
     private static final String LOG_TAG = "LoginTask";
 
+    static final String URL_PATH = "/login";
+
     public static final String USER_KEY = "user";
     public static final String AUTH_TOKEN_KEY = "auth-token";
 
@@ -54,6 +63,9 @@ public class LoginTask extends BackgroundTask {
             this.authToken = loginResult.getSecond();
 
             sendSuccessMessage();
+        } catch (TweeterRequestException ex) {
+            Log.e(LOG_TAG, ex.getMessage(), ex);
+            sendFailedMessage(ex.getMessage());
         } catch (Exception ex) {
             Log.e(LOG_TAG, ex.getMessage(), ex);
             sendExceptionMessage(ex);
@@ -66,7 +78,17 @@ public class LoginTask extends BackgroundTask {
     }
 
     // This method is public so it can be accessed by test cases
-    public Pair<User, AuthToken> doLogin() {
+    public ServerFacade getServerFacade() {
+        return new ServerFacade();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public Pair<User, AuthToken> doLogin() throws IOException, TweeterRemoteException {
+        if (ServerFacade.isConfigured()) {
+            LoginResponse response = getServerFacade().login(new LoginRequest(username, password), URL_PATH);
+            return new Pair<>(response.getUser(), response.getAuthToken());
+        }
+
         User loggedInUser = getFakeData().getFirstUser();
         AuthToken authToken = getFakeData().getAuthToken();
         return new Pair<>(loggedInUser, authToken);
@@ -9,6 +9,9 @@ import java.util.List;
 
 import edu.byu.cs.tweeter.client.model.service.FollowService;
 import edu.byu.cs.tweeter.client.model.service.backgroundTask.GetFollowingTask;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
+import edu.byu.cs.tweeter.client.trace.Tracer;
 import edu.byu.cs.tweeter.model.domain.User;
 
 /**
@@ -27,17 +30,30 @@ public class GetFollowingTaskHandler extends Handler {
     @Override
     public void handleMessage(Message message) {
         Bundle bundle = message.getData();
-        boolean success = bundle.getBoolean(GetFollowingTask.SUCCESS_KEY);
-        if (success) {
-            List<User> followees = (List<User>) bundle.getSerializable(GetFollowingTask.FOLLOWEES_KEY);
-            boolean hasMorePages = bundle.getBoolean(GetFollowingTask.MORE_PAGES_KEY);
-            observer.handleSuccess(followees, hasMorePages);
-        } else if (bundle.containsKey(GetFollowingTask.MESSAGE_KEY)) {
-            String errorMessage = bundle.getString(GetFollowingTask.MESSAGE_KEY);
-            observer.handleFailure(errorMessage);
-        } else if (bundle.containsKey(GetFollowingTask.EXCEPTION_KEY)) {
-            Exception ex = (Exception) bundle.getSerializable(GetFollowingTask.EXCEPTION_KEY);
-            observer.handleException(ex);
+        Span span = Tracer.getInstance().startSpan("GetFollowingTaskHandler.handleMessage",
+                (TraceContext) bundle.getSerializable(GetFollowingTask.TRACE_CONTEXT_KEY));
+        try {
+            boolean success = bundle.getBoolean(GetFollowingTask.SUCCESS_KEY);
+            if (success) {
+                List<User> followees = (List<User>) bundle.getSerializable(GetFollowingTask.FOLLOWEES_KEY);
+                boolean hasMorePages = bundle.getBoolean(GetFollowingTask.MORE_PAGES_KEY);
+                if (bundle.getBoolean(GetFollowingTask.PAGE_CHANGED_KEY)) {
+                    User lastFollowee = (User) bundle.getSerializable(GetFollowingTask.LAST_FOLLOWEE_KEY);
+                    observer.handlePageChanged(lastFollowee, followees, hasMorePages);
+                } else {
+                    observer.handleSuccess(followees, hasMorePages);
+                }
+            } else if (bundle.getBoolean(GetFollowingTask.UNAUTHORIZED_KEY)) {
+                observer.handleUnauthorized(bundle.getString(GetFollowingTask.MESSAGE_KEY));
+            } else if (bundle.containsKey(GetFollowingTask.MESSAGE_KEY)) {
+                String errorMessage = bundle.getString(GetFollowingTask.MESSAGE_KEY);
+                observer.handleFailure(errorMessage);
+            } else if (bundle.containsKey(GetFollowingTask.EXCEPTION_KEY)) {
+                Exception ex = (Exception) bundle.getSerializable(GetFollowingTask.EXCEPTION_KEY);
+                observer.handleException(ex);
+            }
+        } finally {
+            span.end();
         }
     }
 }
@@ -7,6 +7,9 @@ import android.os.Message;
 
 import edu.byu.cs.tweeter.client.model.service.UserService;
 import edu.byu.cs.tweeter.client.model.service.backgroundTask.LoginTask;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
+import edu.byu.cs.tweeter.client.trace.Tracer;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
 
@@ -26,17 +29,23 @@ public class LoginTaskHandler extends Handler {
     @Override
     public void handleMessage(Message message) {
         Bundle bundle = message.getData();
-        boolean success = bundle.getBoolean(LoginTask.SUCCESS_KEY);
-        if (success) {
-            User user = (User) bundle.getSerializable(LoginTask.USER_KEY);
-            AuthToken authToken = (AuthToken) bundle.getSerializable(LoginTask.AUTH_TOKEN_KEY);
-            observer.handleSuccess(user, authToken);
-        } else if (bundle.containsKey(LoginTask.MESSAGE_KEY)) {
-            String errorMessage = bundle.getString(LoginTask.MESSAGE_KEY);
-            observer.handleFailure(errorMessage);
-        } else if (bundle.containsKey(LoginTask.EXCEPTION_KEY)) {
-            Exception ex = (Exception) bundle.getSerializable(LoginTask.EXCEPTION_KEY);
-            observer.handleException(ex);
+        Span span = Tracer.getInstance().startSpan("LoginTaskHandler.handleMessage",
+                (TraceContext) bundle.getSerializable(LoginTask.TRACE_CONTEXT_KEY));
+        try {
+            boolean success = bundle.getBoolean(LoginTask.SUCCESS_KEY);
+            if (success) {
+                User user = (User) bundle.getSerializable(LoginTask.USER_KEY);
+                AuthToken authToken = (AuthToken) bundle.getSerializable(LoginTask.AUTH_TOKEN_KEY);
+                observer.handleSuccess(user, authToken);
+            } else if (bundle.containsKey(LoginTask.MESSAGE_KEY)) {
+                String errorMessage = bundle.getString(LoginTask.MESSAGE_KEY);
+                observer.handleFailure(errorMessage);
+            } else if (bundle.containsKey(LoginTask.EXCEPTION_KEY)) {
+                Exception ex = (Exception) bundle.getSerializable(LoginTask.EXCEPTION_KEY);
+                observer.handleException(ex);
+            }
+        } finally {
+            span.end();
         }
     }
 }
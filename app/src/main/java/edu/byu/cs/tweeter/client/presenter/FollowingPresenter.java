@@ -30,7 +30,11 @@ public class FollowingPresenter implements FollowService.GetFollowingObserver {
     public interface View {
         void setLoading(boolean value);
         void addItems(List<User> newUsers);
+        void replacePage(int pageIndex, List<User> followees);
+        void refreshPage(User lastFollowee, List<User> followees);
+        void pageReloadFailed(int pageIndex);
         void displayErrorMessage(String message);
+        void navigateToLogin(String message);
     }
 
     /**
@@ -82,6 +86,17 @@ public class FollowingPresenter implements FollowService.GetFollowingObserver {
         }
     }
 
+    /**
+     * Called by the view to load again a page it dropped to save memory. The page is loaded
+     * independently of the pages being added at the end of the list.
+     *
+     * @param pageIndex the page, which is passed back to the view with the result.
+     * @param lastFollowee the last followee of the page before it (null for the first page).
+     */
+    public void reloadPage(int pageIndex, User lastFollowee) {
+        getFollowingService().getFollowees(authToken, user, PAGE_SIZE, lastFollowee, new PageReloadObserver(pageIndex));
+    }
+
     /**
      * Requests the users that the user specified in the request is following. Uses information in
      * the request object to limit the number of followees returned and to return the next set of
@@ -119,11 +134,32 @@ public class FollowingPresenter implements FollowService.GetFollowingObserver {
         setLastFollowee((followees.size() > 0) ? followees.get(followees.size() - 1) : null);
         setHasMorePages(hasMorePages);
 
-        view.setLoading(false);
+        // Added before loading ends, so the page takes the place of the loading row
         view.addItems(followees);
+        view.setLoading(false);
         setLoading(false);
     }
 
+    /**
+     * Replaces a page that was shown from a saved copy with the page loaded from the server.
+     * The view drops the users after the page, whose positions and cursor may have changed, so
+     * the next page is loaded from the end of this one.
+     *
+     * @param lastFollowee the followee the page starts after (null for the first page).
+     * @param followees    the page loaded from the server.
+     * @param hasMorePages whether or not there are more followees to be retrieved.
+     */
+    @Override
+    public void handlePageChanged(User lastFollowee, List<User> followees, boolean hasMorePages) {
+        refreshPage(lastFollowee, followees, hasMorePages);
+    }
+
+    private void refreshPage(User lastFollowee, List<User> followees, boolean hasMorePages) {
+        setLastFollowee((followees.size() > 0) ? followees.get(followees.size() - 1) : lastFollowee);
+        setHasMorePages(hasMorePages);
+        view.refreshPage(lastFollowee, followees);
+    }
+
     /**
      * Notifies the presenter when asynchronous retrieval of followees failed.
      *
@@ -139,6 +175,21 @@ public class FollowingPresenter implements FollowService.GetFollowingObserver {
         setLoading(false);
     }
 
+    /**
+     * Notifies the presenter that the server rejected the session's auth token, so the user has
+     * to log in again.
+     *
+     * @param message the server's message.
+     */
+    @Override
+    public void handleUnauthorized(String message) {
+        Log.e(LOG_TAG, "Session rejected: " + message);
+
+        view.setLoading(false);
+        setLoading(false);
+        view.navigateToLogin("Your session has expired. Please log in again.");
+    }
+
     /**
      * Notifies the presenter that an exception occurred in an asynchronous method this class is
      * observing.
@@ -154,4 +205,46 @@ public class FollowingPresenter implements FollowService.GetFollowingObserver {
         view.displayErrorMessage(errorMessage);
         setLoading(false);
     }
+
+    /**
+     * Passes the result of reloading a dropped page to the view. A failure only means the page
+     * stays empty until the user scrolls back to it, so no error is displayed.
+     */
+    private class PageReloadObserver implements FollowService.GetFollowingObserver {
+
+        private final int pageIndex;
+
+        PageReloadObserver(int pageIndex) {
+            this.pageIndex = pageIndex;
+        }
+
+        @Override
+        public void handleSuccess(List<User> followees, boolean hasMorePages) {
+            view.replacePage(pageIndex, followees);
+        }
+
+        @Override
+        public void handlePageChanged(User lastFollowee, List<User> followees, boolean hasMorePages) {
+            // The saved copy put back in the list is out of date, and so may be the pages after it
+            refreshPage(lastFollowee, followees, hasMorePages);
+        }
+
+        @Override
+        public void handleFailure(String message) {
+            Log.e(LOG_TAG, "Failed to reload page " + pageIndex + ": " + message);
+            view.pageReloadFailed(pageIndex);
+        }
+
+        @Override
+        public void handleUnauthorized(String message) {
+            view.pageReloadFailed(pageIndex);
+            FollowingPresenter.this.handleUnauthorized(message);
+        }
+
+        @Override
+        public void handleException(Exception exception) {
+            Log.e(LOG_TAG, "Failed to reload page " + pageIndex, exception);
+            view.pageReloadFailed(pageIndex);
+        }
+    }
 }
@@ -4,6 +4,8 @@ import android.util.Log;
 
 import edu.byu.cs.tweeter.client.cache.Cache;
 import edu.byu.cs.tweeter.client.model.service.UserService;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.Tracer;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
 
@@ -44,8 +46,13 @@ public class LoginPresenter implements UserService.LoginObserver {
      * @param password the user's password.
      */
     public void initiateLogin(String username, String password) {
-        UserService userService = new UserService();
-        userService.login(username, password, this);
+        Span span = Tracer.getInstance().startSpan("LoginPresenter.initiateLogin");
+        try {
+            UserService userService = new UserService();
+            userService.login(username, password, this);
+        } finally {
+            span.end();
+        }
     }
 
     /**
@@ -58,8 +65,13 @@ public class LoginPresenter implements UserService.LoginObserver {
     @Override
     public void handleSuccess(User user, AuthToken authToken) {
         // Cache user session information
-        Cache.getInstance().setCurrUser(user);
-        Cache.getInstance().setCurrUserAuthToken(authToken);
+        Span span = Tracer.getInstance().startSpan("Cache.setCurrUser");
+        try {
+            Cache.getInstance().setCurrUser(user);
+            Cache.getInstance().setCurrUserAuthToken(authToken);
+        } finally {
+            span.end();
+        }
 
         view.loginSuccessful(user, authToken);
     }
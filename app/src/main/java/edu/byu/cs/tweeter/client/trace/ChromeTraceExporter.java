@@ -0,0 +1,141 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes spans in the Chrome trace-event JSON format
+ * (https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU).
+ * <p>
+ * Each span becomes a complete ("X") event on the thread that ran it. When a span's parent ran on
+ * a different thread, a pair of flow events ("s" and "f") is also written so the viewer draws an
+ * arrow from the parent to the child.
+ */
+public class ChromeTraceExporter {
+
+    private static final int PROCESS_ID = 1;
+    private static final String PROCESS_NAME = "Tweeter";
+
+    private final long originNanos;
+
+    /**
+     * Creates an instance.
+     *
+     * @param originNanos the {@link System#nanoTime()} value that exported timestamps are
+     *                    relative to.
+     */
+    public ChromeTraceExporter(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    /**
+     * Writes the spans as a JSON object containing a "traceEvents" array.
+     *
+     * @param spans the spans to write.
+     * @param out where to write them.
+     * @throws IOException if writing fails.
+     */
+    public void export(List<Span> spans, Writer out) throws IOException {
+        Map<Long, Span> spansById = new HashMap<>();
+        Map<Long, String> threadNames = new LinkedHashMap<>();
+        for (Span span : spans) {
+            spansById.put(span.getSpanId(), span);
+            threadNames.put(span.getThreadId(), span.getThreadName());
+        }
+
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name("displayTimeUnit").value("ms");
+        writer.name("traceEvents").beginArray();
+
+        writeMetadataEvent(writer, "process_name", 0, PROCESS_NAME);
+        for (Map.Entry<Long, String> thread : threadNames.entrySet()) {
+            writeMetadataEvent(writer, "thread_name", thread.getKey(), thread.getValue());
+        }
+
+        for (Span span : spans) {
+            writeCompleteEvent(writer, span);
+
+            Span parent = spansById.get(span.getParentSpanId());
+            if (parent != null && parent.getThreadId() != span.getThreadId()) {
+                writeFlowEvents(writer, parent, span);
+            }
+        }
+
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+    }
+
+    private void writeMetadataEvent(JsonWriter writer, String name, long threadId, String value) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("ph").value("M");
+        writer.name("pid").value(PROCESS_ID);
+        writer.name("tid").value(threadId);
+        writer.name("args").beginObject().name("name").value(value).endObject();
+        writer.endObject();
+    }
+
+    private void writeCompleteEvent(JsonWriter writer, Span span) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(span.getName());
+        writer.name("cat").value("tweeter");
+        writer.name("ph").value("X");
+        writer.name("pid").value(PROCESS_ID);
+        writer.name("tid").value(span.getThreadId());
+        writer.name("ts").value(toMicros(span.getStartNanos()));
+        writer.name("dur").value(span.getDurationNanos() / 1000.0);
+
+        writer.name("args").beginObject();
+        writer.name("traceId").value(span.getTraceId());
+        writer.name("spanId").value(span.getSpanId());
+        writer.name("parentSpanId").value(span.getParentSpanId());
+        if (span.getAttributes() != null) {
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                writer.name(attribute.getKey()).value(String.valueOf(attribute.getValue()));
+            }
+        }
+        writer.endObject();
+
+        writer.endObject();
+    }
+
+    private void writeFlowEvents(JsonWriter writer, Span parent, Span child) throws IOException {
+        // A flow start binds to the enclosing slice on its thread, so it has to fall within the
+        // parent even if the child started after the parent ended.
+        long flowStartNanos = Math.max(parent.getStartNanos(),
+                Math.min(child.getStartNanos(), parent.getEndNanos()));
+
+        writer.beginObject();
+        writer.name("name").value(child.getName());
+        writer.name("cat").value("flow");
+        writer.name("ph").value("s");
+        writer.name("id").value(child.getSpanId());
+        writer.name("pid").value(PROCESS_ID);
+        writer.name("tid").value(parent.getThreadId());
+        writer.name("ts").value(toMicros(flowStartNanos));
+        writer.endObject();
+
+        writer.beginObject();
+        writer.name("name").value(child.getName());
+        writer.name("cat").value("flow");
+        writer.name("ph").value("f");
+        writer.name("bp").value("e");
+        writer.name("id").value(child.getSpanId());
+        writer.name("pid").value(PROCESS_ID);
+        writer.name("tid").value(child.getThreadId());
+        writer.name("ts").value(toMicros(child.getStartNanos()));
+        writer.endObject();
+    }
+
+    private double toMicros(long nanos) {
+        return (nanos - originNanos) / 1000.0;
+    }
+}
@@ -0,0 +1,475 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import android.os.Looper;
+import android.util.Printer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every message a looper dispatches (handler messages and posted runnables) and records
+ * the slow ones, i.e. those that take longer than a frame and so drop frames when the looper is
+ * the main looper.
+ * <p>
+ * The looper reports the start and end of each dispatch through its message logging
+ * {@link Printer}, with a description naming the handler class and, for a posted runnable, the
+ * runnable's class. A slow dispatch is attributed to that class and, for the handlers of
+ * background tasks (which are named after their tasks, e.g. GetFollowingTaskHandler), to the
+ * task type. The description is only parsed for slow dispatches.
+ * <p>
+ * While a dispatch runs longer than the threshold, a sampler thread records the looper
+ * thread's stack once, so a slow event shows what the looper was doing rather than just where
+ * the message was delivered.
+ * <p>
+ * The slowest events are kept in a min-heap of a fixed capacity, so a long stall isn't pushed
+ * out by the shorter slow events after it, and counts and times are kept for each source.
+ * {@link #dump} writes them as text, slowest events first.
+ */
+public class LooperMonitor {
+
+    public static final long DEFAULT_THRESHOLD_MILLIS = 16;
+    static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The number of stack frames kept in a sample.
+     */
+    static final int MAX_STACK_FRAMES = 16;
+
+    private static final String DISPATCH_START_PREFIX = ">>>>> Dispatching to ";
+    private static final String DISPATCH_END_PREFIX = "<<<<< Finished to ";
+    private static final String TASK_HANDLER_SUFFIX = "TaskHandler";
+
+    private static final LooperMonitor instance = new LooperMonitor(DEFAULT_THRESHOLD_MILLIS, DEFAULT_CAPACITY);
+
+    public static LooperMonitor getInstance() {
+        return instance;
+    }
+
+    private final long thresholdNanos;
+
+    /**
+     * The dispatch in progress. Written only by the looper thread.
+     */
+    private volatile Dispatch currentDispatch;
+    private volatile Thread looperThread;
+    private long dispatchCount;
+
+    /**
+     * The slowest events, with the fastest of them at the head.
+     */
+    private final PriorityQueue<JankEvent> slowestEvents;
+    private final int capacity;
+    private long slowCount;
+    private final Map<String, SourceStats> statsBySource = new LinkedHashMap<>();
+
+    private Looper looper;
+    private ScheduledExecutorService sampler;
+
+    /**
+     * Creates an instance.
+     *
+     * @param thresholdMillis how long a dispatch must take to be recorded as slow.
+     * @param capacity the number of slow events kept.
+     */
+    LooperMonitor(long thresholdMillis, int capacity) {
+        if (thresholdMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Invalid threshold or capacity");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.capacity = capacity;
+        this.slowestEvents = new PriorityQueue<>(capacity, new Comparator<JankEvent>() {
+            @Override
+            public int compare(JankEvent a, JankEvent b) {
+                return Long.compare(a.getDurationNanos(), b.getDurationNanos());
+            }
+        });
+    }
+
+    /**
+     * Starts monitoring a looper. This replaces the looper's message logging, so it is meant
+     * for debug builds and tests.
+     *
+     * @param looper the looper (usually the main looper).
+     */
+    public synchronized void install(Looper looper) {
+        if (this.looper != null) {
+            return;
+        }
+
+        this.looper = looper;
+        looperThread = looper.getThread();
+        looper.setMessageLogging(new Printer() {
+            @Override
+            public void println(String line) {
+                if (line.startsWith(DISPATCH_START_PREFIX)) {
+                    dispatchStarted(line);
+                } else if (line.startsWith(DISPATCH_END_PREFIX)) {
+                    dispatchFinished();
+                }
+            }
+        });
+
+        sampler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "LooperMonitor-sampler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        // Checking twice per threshold samples a slow dispatch between one and one and a half
+        // thresholds into it
+        long intervalNanos = thresholdNanos / 2;
+        sampler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops monitoring the looper.
+     */
+    public synchronized void uninstall() {
+        if (looper == null) {
+            return;
+        }
+
+        looper.setMessageLogging(null);
+        sampler.shutdownNow();
+        looper = null;
+        sampler = null;
+        currentDispatch = null;
+    }
+
+    public synchronized boolean isInstalled() {
+        return looper != null;
+    }
+
+    /**
+     * Called on the looper thread when it starts dispatching a message.
+     *
+     * @param description the looper's description of the message.
+     */
+    void dispatchStarted(String description) {
+        currentDispatch = new Dispatch(description, nanoTime());
+    }
+
+    /**
+     * Called on the looper thread when it has finished dispatching a message.
+     */
+    void dispatchFinished() {
+        Dispatch dispatch = currentDispatch;
+        if (dispatch == null) {
+            return;  // Installed during a dispatch
+        }
+        currentDispatch = null;
+
+        long durationNanos = nanoTime() - dispatch.startNanos;
+        synchronized (this) {
+            dispatchCount++;
+            if (durationNanos >= thresholdNanos) {
+                record(new JankEvent(dispatch.description, durationNanos, dispatch.stackSample));
+            }
+        }
+    }
+
+    /**
+     * Records the looper thread's stack if the dispatch in progress has become slow and hasn't
+     * been sampled yet. Called on the sampler thread.
+     */
+    void sample() {
+        Dispatch dispatch = currentDispatch;
+        Thread thread = looperThread;
+        if (dispatch != null && thread != null && dispatch.stackSample == null
+                && nanoTime() - dispatch.startNanos >= thresholdNanos) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            // The looper may have moved on to another message while the stack was taken
+            if (currentDispatch == dispatch) {
+                dispatch.stackSample = trim(stack);
+            }
+        }
+    }
+
+    /**
+     * Sets the thread whose stack is sampled. Set by {@link #install}; tests set it directly.
+     */
+    void setLooperThread(Thread looperThread) {
+        this.looperThread = looperThread;
+    }
+
+    // This method is public so it can be accessed by test cases
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    private void record(JankEvent event) {
+        if (slowestEvents.size() < capacity) {
+            slowestEvents.add(event);
+        } else if (event.getDurationNanos() > slowestEvents.peek().getDurationNanos()) {
+            slowestEvents.poll();
+            slowestEvents.add(event);
+        }
+        slowCount++;
+
+        String key = event.getSourceDescription();
+        SourceStats stats = statsBySource.get(key);
+        if (stats == null) {
+            stats = new SourceStats(key);
+            statsBySource.put(key, stats);
+        }
+        stats.add(event.getDurationNanos());
+    }
+
+    public synchronized long getDispatchCount() {
+        return dispatchCount;
+    }
+
+    public synchronized long getSlowCount() {
+        return slowCount;
+    }
+
+    /**
+     * Returns the kept slow events, slowest first.
+     *
+     * @return the events.
+     */
+    public synchronized List<JankEvent> getSlowestEvents() {
+        List<JankEvent> events = new ArrayList<>(slowestEvents);
+        Collections.sort(events, new Comparator<JankEvent>() {
+            @Override
+            public int compare(JankEvent a, JankEvent b) {
+                return Long.compare(b.getDurationNanos(), a.getDurationNanos());
+            }
+        });
+        return events;
+    }
+
+    /**
+     * Discards the recorded events and counts.
+     */
+    public synchronized void reset() {
+        dispatchCount = 0;
+        slowCount = 0;
+        statsBySource.clear();
+        slowestEvents.clear();
+    }
+
+    /**
+     * Writes the counts, the times for each source, and the kept slow events (slowest first,
+     * with their stack samples).
+     *
+     * @param writer the writer.
+     * @throws IOException if writing failed.
+     */
+    public void dump(Writer writer) throws IOException {
+        List<SourceStats> sources;
+        long dispatches;
+        long slow;
+        synchronized (this) {
+            sources = new ArrayList<>(statsBySource.values());
+            dispatches = dispatchCount;
+            slow = slowCount;
+        }
+        List<JankEvent> events = getSlowestEvents();
+
+        writer.write(String.format(Locale.ROOT, "Looper: %d messages, %d slow (>= %d ms)%n",
+                dispatches, slow, TimeUnit.NANOSECONDS.toMillis(thresholdNanos)));
+
+        Collections.sort(sources, new Comparator<SourceStats>() {
+            @Override
+            public int compare(SourceStats a, SourceStats b) {
+                return Long.compare(b.totalNanos, a.totalNanos);
+            }
+        });
+        writer.write("Slow messages by source:\n");
+        for (SourceStats stats : sources) {
+            writer.write(String.format(Locale.ROOT, "  %s: %d slow, max %.1f ms, total %.1f ms%n",
+                    stats.source, stats.count, stats.maxNanos / 1e6, stats.totalNanos / 1e6));
+        }
+
+        writer.write("Slowest messages:\n");
+        for (JankEvent event : events) {
+            writer.write(String.format(Locale.ROOT, "  %.1f ms %s what=%s%n",
+                    event.getDurationNanos() / 1e6, event.getSourceDescription(), event.getWhat()));
+            StackTraceElement[] stack = event.getStackSample();
+            if (stack != null) {
+                for (StackTraceElement frame : stack) {
+                    writer.write("      at " + frame + "\n");
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Returns the dump as a string, e.g. for the log.
+     *
+     * @return the dump.
+     */
+    public String dump() {
+        StringWriter writer = new StringWriter();
+        try {
+            dump(writer);
+        } catch (IOException ex) {
+            // Writing to a string can't fail
+            throw new IllegalStateException(ex);
+        }
+        return writer.toString();
+    }
+
+    private static StackTraceElement[] trim(StackTraceElement[] stack) {
+        if (stack.length <= MAX_STACK_FRAMES) {
+            return stack;
+        }
+        StackTraceElement[] trimmed = new StackTraceElement[MAX_STACK_FRAMES];
+        System.arraycopy(stack, 0, trimmed, 0, MAX_STACK_FRAMES);
+        return trimmed;
+    }
+
+    /**
+     * A message being dispatched.
+     */
+    private static class Dispatch {
+        private final String description;
+        private final long startNanos;
+        private volatile StackTraceElement[] stackSample;
+
+        Dispatch(String description, long startNanos) {
+            this.description = description;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * The slow dispatches of one source.
+     */
+    private static class SourceStats {
+        private final String source;
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        SourceStats(String source) {
+            this.source = source;
+        }
+
+        void add(long durationNanos) {
+            count++;
+            totalNanos += durationNanos;
+            maxNanos = Math.max(maxNanos, durationNanos);
+        }
+    }
+
+    /**
+     * A slow dispatch.
+     */
+    public static class JankEvent {
+        private final String handlerClass;
+        private final String callbackClass;
+        private final String what;
+        private final long durationNanos;
+        private final StackTraceElement[] stackSample;
+
+        /**
+         * Creates an instance from the looper's description of the message, which is
+         * "&gt;&gt;&gt;&gt;&gt; Dispatching to " + handler + " " + callback + ": " + what, where
+         * a handler reads as "Handler (class) {hash}" and a callback as "class@hash" or "null".
+         */
+        JankEvent(String description, long durationNanos, StackTraceElement[] stackSample) {
+            String target = description.startsWith(DISPATCH_START_PREFIX)
+                    ? description.substring(DISPATCH_START_PREFIX.length()) : description;
+
+            int open = target.indexOf('(');
+            int close = target.indexOf(')', open + 1);
+            this.handlerClass = (open >= 0 && close > open) ? target.substring(open + 1, close) : target;
+
+            int callbackStart = target.indexOf("} ", close + 1);
+            int whatStart = target.lastIndexOf(": ");
+            String callback = (callbackStart >= 0 && whatStart > callbackStart) ? target.substring(callbackStart + 2, whatStart) : null;
+            if (callback != null && callback.indexOf('@') >= 0) {
+                callback = callback.substring(0, callback.indexOf('@'));
+            }
+            this.callbackClass = "null".equals(callback) ? null : callback;
+            this.what = (whatStart >= 0) ? target.substring(whatStart + 2) : null;
+
+            this.durationNanos = durationNanos;
+            this.stackSample = stackSample;
+        }
+
+        public String getHandlerClass() {
+            return handlerClass;
+        }
+
+        /**
+         * Returns the class of the posted runnable that was run.
+         *
+         * @return the class name, or null if the message was handled by the handler.
+         */
+        public String getCallbackClass() {
+            return callbackClass;
+        }
+
+        public String getWhat() {
+            return what;
+        }
+
+        /**
+         * Returns the type of background task whose result the message delivered.
+         *
+         * @return the task's simple class name, or null if the handler isn't a task handler.
+         */
+        public String getTaskType() {
+            String simpleName = simpleName(handlerClass);
+            if (callbackClass != null || !simpleName.endsWith(TASK_HANDLER_SUFFIX)) {
+                return null;
+            }
+            return simpleName.substring(0, simpleName.length() - "Handler".length());
+        }
+
+        /**
+         * Returns what the time is attributed to: the posted runnable's class, or the
+         * handler's class and task type.
+         *
+         * @return the description.
+         */
+        public String getSourceDescription() {
+            if (callbackClass != null) {
+                return simpleName(callbackClass) + " (posted to " + simpleName(handlerClass) + ")";
+            }
+            String taskType = getTaskType();
+            return (taskType == null) ? simpleName(handlerClass) : simpleName(handlerClass) + " (" + taskType + ")";
+        }
+
+        public long getDurationNanos() {
+            return durationNanos;
+        }
+
+        /**
+         * Returns the looper thread's stack while the message was being dispatched.
+         *
+         * @return the innermost frames, or null if the dispatch ended before it was sampled.
+         */
+        public StackTraceElement[] getStackSample() {
+            return stackSample;
+        }
+
+        private static String simpleName(String className) {
+            return className.substring(className.lastIndexOf('.') + 1);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A named, timed unit of work recorded by the {@link Tracer}. A span becomes the current span of
+ * the thread that started it and must be ended on that same thread, normally in a finally block:
+ * <pre>
+ *     Span span = Tracer.getInstance().startSpan("LoginTask.run");
+ *     try {
+ *         ...
+ *     } finally {
+ *         span.end();
+ *     }
+ * </pre>
+ */
+public class Span {
+
+    /**
+     * The span returned while tracing is disabled. It records nothing and has no context.
+     */
+    static final Span NOOP = new Span(null, null, 0, 0, 0, null, 0) {
+        @Override
+        public void setAttribute(String key, Object value) {
+        }
+
+        @Override
+        public TraceContext getContext() {
+            return null;
+        }
+
+        @Override
+        public void end() {
+        }
+    };
+
+    private final Tracer tracer;
+    private final String name;
+    private final long traceId;
+    private final long spanId;
+    /**
+     * Id of the parent span, or 0 if this is a root span.
+     */
+    private final long parentSpanId;
+    /**
+     * The span that was current on this thread when this span was started. It becomes current
+     * again when this span ends.
+     */
+    private final Span previous;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private long endNanos;
+    private Map<String, Object> attributes;
+
+    Span(Tracer tracer, String name, long traceId, long spanId, long parentSpanId, Span previous,
+         long startNanos) {
+        this.tracer = tracer;
+        this.name = name;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.previous = previous;
+        this.threadId = Thread.currentThread().getId();
+        this.threadName = Thread.currentThread().getName();
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Attaches a value to the span. Attributes show up in the "args" of the exported event.
+     *
+     * @param key the attribute name.
+     * @param value the attribute value.
+     */
+    public void setAttribute(String key, Object value) {
+        if (attributes == null) {
+            attributes = new LinkedHashMap<>();
+        }
+        attributes.put(key, value);
+    }
+
+    /**
+     * Returns the context that identifies this span, for use as the parent of spans started on
+     * other threads.
+     *
+     * @return the context.
+     */
+    public TraceContext getContext() {
+        return new TraceContext(traceId, spanId);
+    }
+
+    /**
+     * Ends the span and restores the span that was current when it was started. Calling this
+     * more than once has no effect.
+     */
+    public void end() {
+        if (endNanos == 0) {
+            endNanos = tracer.now();
+            tracer.finish(this);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    Span getPrevious() {
+        return previous;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" +
+                "name='" + name + '\'' +
+                ", traceId=" + traceId +
+                ", spanId=" + spanId +
+                ", parentSpanId=" + parentSpanId +
+                ", thread='" + threadName + '\'' +
+                '}';
+    }
+}
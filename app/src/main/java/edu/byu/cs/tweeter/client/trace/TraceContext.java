@@ -0,0 +1,55 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Identifies a span so that work started on another thread (or in another component) can be
+ * recorded as its child. Instances are immutable and serializable so they can be carried in a
+ * {@link android.os.Bundle} or an {@link android.content.Intent}.
+ */
+public class TraceContext implements Serializable {
+    /**
+     * Id shared by every span that descends from the same root span.
+     */
+    private final long traceId;
+    /**
+     * Id of the span this context identifies.
+     */
+    private final long spanId;
+
+    public TraceContext(long traceId, long spanId) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TraceContext that = (TraceContext) o;
+        return traceId == that.traceId &&
+                spanId == that.spanId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceContext{" +
+                "traceId=" + traceId +
+                ", spanId=" + spanId +
+                '}';
+    }
+}
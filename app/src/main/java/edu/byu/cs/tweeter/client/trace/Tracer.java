@@ -0,0 +1,152 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records nested spans across threads so the critical path of an operation (e.g., from the login
+ * button to the first page of followees) can be viewed in a trace viewer such as
+ * chrome://tracing or https://ui.perfetto.dev.
+ * <p>
+ * Each thread has a current span. A new span is a child of the current span unless a parent
+ * {@link TraceContext} is given explicitly, which is how work handed to another thread (e.g., a
+ * background task or a handler message) stays connected to the span that requested it.
+ * <p>
+ * Tracing is disabled by default, in which case spans cost a single volatile read.
+ */
+public class Tracer {
+
+    /**
+     * The maximum number of finished spans kept for export. Spans finished after the buffer is
+     * full are dropped.
+     */
+    static final int MAX_FINISHED_SPANS = 10000;
+
+    private static final Tracer instance = new Tracer();
+
+    public static Tracer getInstance() {
+        return instance;
+    }
+
+    private volatile boolean enabled;
+
+    private final ThreadLocal<Span> currentSpan = new ThreadLocal<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final ConcurrentLinkedQueue<Span> finishedSpans = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger finishedSpanCount = new AtomicInteger();
+
+    /**
+     * The time all exported timestamps are relative to.
+     */
+    private final long originNanos = System.nanoTime();
+
+    // This constructor is package-private so test cases can use their own instance
+    Tracer() {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Starts a span that is a child of the current span on this thread (or a root span if there
+     * is none) and makes it the current span.
+     *
+     * @param name the span name.
+     * @return the span.
+     */
+    public Span startSpan(String name) {
+        return startSpan(name, currentContext());
+    }
+
+    /**
+     * Starts a span that is a child of the specified context and makes it the current span on
+     * this thread.
+     *
+     * @param name the span name.
+     * @param parent the parent context (can be null, in which case a new trace is started).
+     * @return the span.
+     */
+    public Span startSpan(String name, TraceContext parent) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+
+        long spanId = nextId.getAndIncrement();
+        long traceId = (parent != null) ? parent.getTraceId() : spanId;
+        long parentSpanId = (parent != null) ? parent.getSpanId() : 0;
+
+        Span span = new Span(this, name, traceId, spanId, parentSpanId, currentSpan.get(), now());
+        currentSpan.set(span);
+        return span;
+    }
+
+    /**
+     * Returns the context of the current span on this thread.
+     *
+     * @return the context, or null if there is no current span.
+     */
+    public TraceContext currentContext() {
+        Span span = currentSpan.get();
+        return (span != null) ? span.getContext() : null;
+    }
+
+    /**
+     * Returns the spans that have finished since the last call to {@link #clear()}, in the order
+     * in which they finished.
+     *
+     * @return the finished spans.
+     */
+    public List<Span> getFinishedSpans() {
+        return new ArrayList<>(finishedSpans);
+    }
+
+    /**
+     * Discards all finished spans.
+     */
+    public void clear() {
+        finishedSpans.clear();
+        finishedSpanCount.set(0);
+    }
+
+    /**
+     * Writes the finished spans to a file in the Chrome trace-event JSON format.
+     *
+     * @param file the file to write.
+     * @throws IOException if the file could not be written.
+     */
+    public void exportTo(File file) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            new ChromeTraceExporter(originNanos).export(getFinishedSpans(), writer);
+        }
+    }
+
+    long now() {
+        return System.nanoTime();
+    }
+
+    void finish(Span span) {
+        if (currentSpan.get() == span) {
+            if (span.getPrevious() != null) {
+                currentSpan.set(span.getPrevious());
+            } else {
+                currentSpan.remove();
+            }
+        }
+
+        if (finishedSpanCount.incrementAndGet() <= MAX_FINISHED_SPANS) {
+            finishedSpans.add(span);
+        }
+    }
+}
@@ -2,17 +2,27 @@ package edu.byu.cs.tweeter.client.view.login;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Looper;
 import android.view.View;
 import android.widget.Button;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import java.io.File;
+
+import edu.byu.cs.tweeter.BuildConfig;
 import edu.byu.cs.tweeter.R;
+import edu.byu.cs.tweeter.client.cache.Cache;
+import edu.byu.cs.tweeter.client.cache.SessionSnapshotStore;
 import edu.byu.cs.tweeter.client.presenter.LoginPresenter;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.LooperMonitor;
+import edu.byu.cs.tweeter.client.trace.Tracer;
 import edu.byu.cs.tweeter.client.view.main.MainActivity;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.FakeData;
 
 /**
  * Contains the minimum UI required to allow the user to login with a hard-coded user. Most or all
@@ -21,6 +31,11 @@ import edu.byu.cs.tweeter.model.domain.User;
 public class LoginActivity extends AppCompatActivity implements LoginPresenter.View {
 
     private static final String LOG_TAG = "LoginActivity";
+
+    /**
+     * Name of the file (in the app's files directory) in which the session is saved.
+     */
+    private static final String SESSION_SNAPSHOT_FILE_NAME = "session.snapshot";
     private Toast loginInToast;
 
     private LoginPresenter presenter;
@@ -28,14 +43,30 @@ public class LoginActivity extends AppCompatActivity implements LoginPresenter.V
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Record the cold-start critical path in debug builds. The trace is written by
+        // FollowingFragment once the first page of followees has been displayed.
+        Tracer.getInstance().setEnabled(BuildConfig.DEBUG);
+        // Also record slow main thread messages while the trace is recorded. FollowingFragment
+        // logs them and uninstalls the monitor when it writes the trace.
+        if (Tracer.getInstance().isEnabled()) {
+            LooperMonitor.getInstance().install(Looper.getMainLooper());
+        }
+
+        // If the previous session was saved, go straight to the main screen
+        Cache.getInstance().setSnapshotStore(new SessionSnapshotStore(new File(getFilesDir(), SESSION_SNAPSHOT_FILE_NAME)));
+        if (restoreSession()) {
+            return;
+        }
+
         setContentView(R.layout.activity_login);
 
         Button loginButton = findViewById(R.id.LoginButton);
         loginButton.setOnClickListener(new View.OnClickListener() {
 
             /**
-             * Makes a login request. The user is hard-coded, so it doesn't matter what data we put
-             * in the LoginRequest object.
+             * Makes a login request for the hard-coded user, the first of the fake users, which
+             * the server also knows.
              *
              * @param view the view object that was clicked.
              */
@@ -44,9 +75,10 @@ public class LoginActivity extends AppCompatActivity implements LoginPresenter.V
                 loginInToast = Toast.makeText(LoginActivity.this, "Logging In", Toast.LENGTH_LONG);
                 loginInToast.show();
 
-                // It doesn't matter what values we put here. We will be logged in with a hard-coded dummy user.
+                // The server logs in the user with this alias and doesn't check the password.
+                // Without a server we are logged in as this user anyway.
                 presenter = new LoginPresenter(LoginActivity.this);
-                presenter.initiateLogin("dummyUserName", "dummyPassword");
+                presenter.initiateLogin(FakeData.getInstance().getFirstUser().getAlias(), "dummyPassword");
             }
         });
     }
@@ -59,11 +91,38 @@ public class LoginActivity extends AppCompatActivity implements LoginPresenter.V
      */
     @Override
     public void loginSuccessful(User user, AuthToken authToken) {
+        loginInToast.cancel();
+        startMainActivity(user);
+    }
+
+    /**
+     * Restores the session saved in the snapshot file, if there is one, and shows the main
+     * screen for it. The snapshot is memory-mapped, so this is fast enough to do here; the auth
+     * token is checked when the main screen reloads its first page.
+     *
+     * @return true if the session was restored.
+     */
+    private boolean restoreSession() {
+        Span span = Tracer.getInstance().startSpan("LoginActivity.restoreSession");
+        try {
+            boolean restored = Cache.getInstance().restoreSession();
+            span.setAttribute("restored", restored);
+            if (restored) {
+                startMainActivity(Cache.getInstance().getCurrUser());
+                finish();
+            }
+            return restored;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void startMainActivity(User user) {
         Intent intent = new Intent(this, MainActivity.class);
 
         intent.putExtra(MainActivity.CURRENT_USER_KEY, user);
+        intent.putExtra(MainActivity.TRACE_CONTEXT_KEY, Tracer.getInstance().currentContext());
 
-        loginInToast.cancel();
         startActivity(intent);
     }
 
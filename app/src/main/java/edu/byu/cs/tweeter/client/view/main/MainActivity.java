@@ -1,6 +1,7 @@
 package edu.byu.cs.tweeter.client.view.main;
 
 import android.os.Bundle;
+import android.util.Log;
 import android.view.Menu;
 import android.view.MenuInflater;
 import android.view.View;
@@ -13,10 +14,18 @@ import androidx.viewpager.widget.ViewPager;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.snackbar.Snackbar;
 import com.google.android.material.tabs.TabLayout;
-import com.squareup.picasso.Picasso;
+
+import java.io.File;
+import java.io.IOException;
 
 import edu.byu.cs.tweeter.R;
 import edu.byu.cs.tweeter.client.cache.Cache;
+import edu.byu.cs.tweeter.client.cache.PageStore;
+import edu.byu.cs.tweeter.client.image.AvatarLoader;
+import edu.byu.cs.tweeter.client.model.service.backgroundTask.BackgroundTaskUtils;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
+import edu.byu.cs.tweeter.client.trace.Tracer;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
 
@@ -28,10 +37,25 @@ public class MainActivity extends AppCompatActivity {
     private static final String LOG_TAG = "MainActivity";
 
     public static final String CURRENT_USER_KEY = "CurrentUser";
+    public static final String TRACE_CONTEXT_KEY = "TraceContext";
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+
+        // Opened later, on a background thread, by the first task that uses it
+        PageStore.setDefaultDirectory(new File(getFilesDir(), "pages"));
+
+        TraceContext traceContext = (TraceContext) getIntent().getSerializableExtra(TRACE_CONTEXT_KEY);
+        Span span = Tracer.getInstance().startSpan("MainActivity.onCreate", traceContext);
+        try {
+            createView();
+        } finally {
+            span.end();
+        }
+    }
+
+    private void createView() {
         setContentView(R.layout.activity_main);
 
         User user = (User) getIntent().getSerializableExtra(CURRENT_USER_KEY);
@@ -41,7 +65,8 @@ public class MainActivity extends AppCompatActivity {
 
         AuthToken authToken = Cache.getInstance().getCurrUserAuthToken();
 
-        SectionsPagerAdapter sectionsPagerAdapter = new SectionsPagerAdapter(this, getSupportFragmentManager(), user, authToken);
+        SectionsPagerAdapter sectionsPagerAdapter = new SectionsPagerAdapter(this, getSupportFragmentManager(),
+                user, authToken, Tracer.getInstance().currentContext());
         ViewPager viewPager = findViewById(R.id.view_pager);
         viewPager.setAdapter(sectionsPagerAdapter);
         TabLayout tabs = findViewById(R.id.tabs);
@@ -66,7 +91,8 @@ public class MainActivity extends AppCompatActivity {
         userAlias.setText(user.getAlias());
 
         ImageView userImageView = findViewById(R.id.userImage);
-        Picasso.get().load(user.getImageUrl()).into(userImageView);
+        AvatarLoader.getInstance(this).load(user.getImageUrl(), userImageView,
+                getResources().getDimensionPixelSize(R.dimen.user_image_size));
 
         TextView followeeCount = findViewById(R.id.followeeCount);
         followeeCount.setText(getString(R.string.followeeCount, 42));
@@ -75,6 +101,34 @@ public class MainActivity extends AppCompatActivity {
         followerCount.setText(getString(R.string.followerCount, 27));
     }
 
+    /**
+     * Saves the indexes of the stored pages and cached avatars when the app leaves the
+     * foreground, since it may be killed from there without its stores being closed. Without a
+     * saved index, the records written since the last one are found by scanning the log when the
+     * app starts again.
+     */
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        final AvatarLoader avatarLoader = AvatarLoader.getInstance(this);
+        BackgroundTaskUtils.runTask(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    PageStore.flushInstance();
+                } catch (IOException ex) {
+                    Log.w(LOG_TAG, "Failed to save the page store index", ex);
+                }
+                try {
+                    avatarLoader.flushDiskCache();
+                } catch (IOException ex) {
+                    Log.w(LOG_TAG, "Failed to save the avatar cache index", ex);
+                }
+            }
+        });
+    }
+
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         MenuInflater inflater = getMenuInflater();
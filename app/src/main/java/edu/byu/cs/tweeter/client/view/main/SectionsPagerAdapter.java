@@ -9,6 +9,7 @@ import androidx.fragment.app.FragmentManager;
 import androidx.fragment.app.FragmentPagerAdapter;
 
 import edu.byu.cs.tweeter.R;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
 import edu.byu.cs.tweeter.client.view.main.following.FollowingFragment;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
@@ -26,18 +27,21 @@ class SectionsPagerAdapter extends FragmentPagerAdapter {
     private final Context mContext;
     private final User user;
     private final AuthToken authToken;
+    private final TraceContext traceContext;
 
-    public SectionsPagerAdapter(Context context, FragmentManager fm, User user, AuthToken authToken) {
+    public SectionsPagerAdapter(Context context, FragmentManager fm, User user, AuthToken authToken,
+                                TraceContext traceContext) {
         super(fm);
         mContext = context;
         this.user = user;
         this.authToken = authToken;
+        this.traceContext = traceContext;
     }
 
     @Override
     public Fragment getItem(int position) {
         if (position == FOLLOWING_FRAGMENT_POSITION) {
-            return FollowingFragment.newInstance(user, authToken);
+            return FollowingFragment.newInstance(user, authToken, traceContext);
         } else {
             return PlaceholderFragment.newInstance(position + 1);
         }
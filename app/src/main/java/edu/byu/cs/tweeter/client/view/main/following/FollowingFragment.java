@@ -1,8 +1,12 @@
 package edu.byu.cs.tweeter.client.view.main.following;
 
+import android.content.Intent;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -12,19 +16,33 @@ import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.squareup.picasso.Picasso;
-
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import edu.byu.cs.tweeter.R;
 import edu.byu.cs.tweeter.client.cache.Cache;
+import edu.byu.cs.tweeter.client.image.AvatarLoader;
+import edu.byu.cs.tweeter.client.model.service.backgroundTask.BackgroundTaskUtils;
 import edu.byu.cs.tweeter.client.presenter.FollowingPresenter;
+import edu.byu.cs.tweeter.client.trace.LooperMonitor;
+import edu.byu.cs.tweeter.client.trace.Span;
+import edu.byu.cs.tweeter.client.trace.TraceContext;
+import edu.byu.cs.tweeter.client.trace.Tracer;
+import edu.byu.cs.tweeter.client.view.login.LoginActivity;
+import edu.byu.cs.tweeter.client.view.paging.PagedList;
+import edu.byu.cs.tweeter.client.view.paging.PrefetchDistance;
 import edu.byu.cs.tweeter.model.domain.AuthToken;
 import edu.byu.cs.tweeter.model.domain.User;
 
@@ -35,13 +53,64 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
 
     private static final String LOG_TAG = "FollowingFragment";
     private static final String USER_KEY = "UserKey";
+    private static final String TRACE_CONTEXT_KEY = "TraceContextKey";
+
+    /**
+     * Name of the file (in the app's files directory) to which the cold-start trace is written.
+     */
+    private static final String TRACE_FILE_NAME = "cold-start-trace.json";
+
+    /**
+     * The next page is loaded when the last visible row is within half a page of the end of the
+     * list, plus the rows that will scroll past while it loads, up to five pages.
+     */
+    private static final int MIN_PREFETCH_ROWS = FollowingPresenter.PAGE_SIZE / 2;
+    private static final int MAX_PREFETCH_ROWS = 5 * FollowingPresenter.PAGE_SIZE;
+    private static final long INITIAL_PAGE_LOAD_MILLIS = 500;
+
+    /**
+     * The number of pages before and after the visible rows whose users are kept in memory.
+     * Enough to hold the pages prefetched during the fastest fling.
+     */
+    private static final int WINDOW_PAGES = MAX_PREFETCH_ROWS / FollowingPresenter.PAGE_SIZE + 1;
 
     private static final int LOADING_DATA_VIEW = 0;
     private static final int ITEM_VIEW = 1;
 
+    /**
+     * Builds new lists of rows and compares them with the shown lists. A single thread, so the
+     * updates to a list are applied in the order they were made.
+     */
+    private static final Executor LIST_UPDATE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * Rows are the same item if they are for the same user (alias), or are placeholders of the
+     * same type at the same position, and look the same if their names and avatars are the same
+     * too.
+     */
+    private static final DiffUtil.ItemCallback<UserRow> USER_ROW_DIFF_CALLBACK = new DiffUtil.ItemCallback<UserRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull UserRow oldRow, @NonNull UserRow newRow) {
+            return oldRow.isSameItem(newRow);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull UserRow oldRow, @NonNull UserRow newRow) {
+            return oldRow.isSameContent(newRow);
+        }
+    };
+
     private FollowingPresenter presenter;
 
     private FollowingRecyclerViewAdapter followingRecyclerViewAdapter;
+    private FollowRecyclerViewPaginationScrollListener scrollListener;
+
+    private AvatarLoader avatarLoader;
+    private int avatarSize;
+
+    private boolean traceExported = false;
+    private boolean firstRowsShown = false;
+    private boolean loginStarted = false;
 
     /**
      * Creates an instance of the fragment and places the user and auth token in an arguments
@@ -49,13 +118,15 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
      *
      * @param user the logged in user.
      * @param authToken the auth token for this user's session.
+     * @param traceContext the trace context of the span that created the fragment (can be null).
      * @return the fragment.
      */
-    public static FollowingFragment newInstance(User user, AuthToken authToken) {
+    public static FollowingFragment newInstance(User user, AuthToken authToken, TraceContext traceContext) {
         FollowingFragment fragment = new FollowingFragment();
 
-        Bundle args = new Bundle(1);
+        Bundle args = new Bundle(2);
         args.putSerializable(USER_KEY, user);
+        args.putSerializable(TRACE_CONTEXT_KEY, traceContext);
 
         fragment.setArguments(args);
         return fragment;
@@ -78,7 +149,117 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
      */
     @Override
     public void addItems(List<User> newUsers) {
-        followingRecyclerViewAdapter.addItems(newUsers);
+        // Start loading the avatars now, while the rows are being diffed and before they are
+        // scrolled into view
+        avatarLoader.prefetch(newUsers, avatarSize);
+
+        followingRecyclerViewAdapter.addItems(newUsers, new Runnable() {
+            @Override
+            public void run() {
+                onItemsShown();
+            }
+        });
+    }
+
+    /**
+     * Called to pass the users of a dropped page when it has been loaded again.
+     *
+     * @param pageIndex the page.
+     * @param followees the users loaded from the page's cursor.
+     */
+    @Override
+    public void replacePage(int pageIndex, List<User> followees) {
+        followingRecyclerViewAdapter.replacePage(pageIndex, followees);
+    }
+
+    /**
+     * Called to pass a page that was shown from a saved copy when the page loaded from the
+     * server differs from it.
+     *
+     * @param lastFollowee the followee the page starts after (null for the first page).
+     * @param followees the page loaded from the server.
+     */
+    @Override
+    public void refreshPage(User lastFollowee, List<User> followees) {
+        avatarLoader.prefetch(followees, avatarSize);
+        followingRecyclerViewAdapter.refreshPage(lastFollowee, followees);
+    }
+
+    /**
+     * Called when a dropped page could not be loaded again.
+     *
+     * @param pageIndex the page.
+     */
+    @Override
+    public void pageReloadFailed(int pageIndex) {
+        followingRecyclerViewAdapter.pageReloadFailed(pageIndex);
+    }
+
+    /**
+     * Called when users passed to {@link #addItems} are in the RecyclerView's list.
+     */
+    private void onItemsShown() {
+        if (!firstRowsShown) {
+            firstRowsShown = true;
+            recordTimeToFirstRow();
+        }
+
+        if (!traceExported && Tracer.getInstance().isEnabled()) {
+            traceExported = true;
+            exportTrace();
+        }
+
+        scrollListener.onPageShown();
+    }
+
+    /**
+     * Logs the time from the start of the process to the first rows being added, and records it
+     * in the trace, so cold starts through the login screen can be compared with starts from a
+     * saved session.
+     */
+    private void recordTimeToFirstRow() {
+        long millis = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+        boolean restored = Cache.getInstance().isSessionRestored();
+        Log.i(LOG_TAG, "Time to first row: " + millis + " ms (" + (restored ? "restored session" : "logged in") + ")");
+
+        Span span = Tracer.getInstance().startSpan("FollowingFragment.firstRow");
+        span.setAttribute("timeToFirstRowMillis", millis);
+        span.setAttribute("restoredSession", restored);
+        span.end();
+    }
+
+    /**
+     * Writes the spans recorded so far (which end with the first page of followees being
+     * displayed) to a Chrome trace file. The export is posted so that it runs after the span
+     * for the current handler message has ended.
+     * <p>
+     * The slow main thread messages recorded during startup are logged, and the looper monitor
+     * is uninstalled, so its sampler doesn't keep waking up for the rest of the session.
+     */
+    private void exportTrace() {
+        final File traceFile = new File(getContext().getFilesDir(), TRACE_FILE_NAME);
+        new Handler(Looper.getMainLooper()).post(new Runnable() {
+            @Override
+            public void run() {
+                LooperMonitor looperMonitor = LooperMonitor.getInstance();
+                if (looperMonitor.isInstalled()) {
+                    Log.i(LOG_TAG, looperMonitor.dump());
+                    looperMonitor.uninstall();
+                }
+
+                BackgroundTaskUtils.runTask(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            Tracer.getInstance().exportTo(traceFile);
+                            Log.i(LOG_TAG, "Wrote trace to " + traceFile.getAbsolutePath());
+                        } catch (IOException ex) {
+                            Log.e(LOG_TAG, "Failed to write trace", ex);
+                        }
+                    }
+                });
+            }
+        });
     }
 
     /**
@@ -91,15 +272,57 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
     }
 
+    /**
+     * Returns to the login screen, closing the main screen so the back button doesn't lead back
+     * to a session that has ended. Only done once, however many requests were rejected.
+     *
+     * @param message the message to display.
+     */
+    @Override
+    public void navigateToLogin(String message) {
+        if (loginStarted || getActivity() == null) {
+            return;
+        }
+        loginStarted = true;
+
+        Toast.makeText(getContext(), message, Toast.LENGTH_LONG).show();
+        Intent intent = new Intent(getContext(), LoginActivity.class);
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        startActivity(intent);
+        getActivity().finish();
+    }
+
+    @Override
+    public void onPause() {
+        super.onPause();
+        Log.i(LOG_TAG, "Avatars: " + avatarLoader.getMetrics());
+        if (LooperMonitor.getInstance().isInstalled()) {
+            Log.i(LOG_TAG, LooperMonitor.getInstance().dump());
+        }
+    }
+
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container,
                              Bundle savedInstanceState) {
+        TraceContext traceContext = (TraceContext) getArguments().getSerializable(TRACE_CONTEXT_KEY);
+        Span span = Tracer.getInstance().startSpan("FollowingFragment.onCreateView", traceContext);
+        try {
+            return createView(inflater, container);
+        } finally {
+            span.end();
+        }
+    }
+
+    private View createView(LayoutInflater inflater, ViewGroup container) {
         View view = inflater.inflate(R.layout.fragment_following, container, false);
 
         User user = (User) getArguments().getSerializable(USER_KEY);
 
         AuthToken authToken = Cache.getInstance().getCurrUserAuthToken();
 
+        avatarLoader = AvatarLoader.getInstance(getContext());
+        avatarSize = getResources().getDimensionPixelSize(R.dimen.user_row_image_size);
+
         presenter = new FollowingPresenter(this, user, authToken);
 
         RecyclerView followingRecyclerView = view.findViewById(R.id.followingRecyclerView);
@@ -110,7 +333,8 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         followingRecyclerViewAdapter = new FollowingRecyclerViewAdapter();
         followingRecyclerView.setAdapter(followingRecyclerViewAdapter);
 
-        followingRecyclerView.addOnScrollListener(new FollowRecyclerViewPaginationScrollListener(layoutManager));
+        scrollListener = new FollowRecyclerViewPaginationScrollListener(layoutManager);
+        followingRecyclerView.addOnScrollListener(scrollListener);
 
         presenter.loadMoreItems();
 
@@ -126,6 +350,12 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         private final TextView userAlias;
         private final TextView userName;
 
+        /**
+         * The avatar the view shows or is loading, so binding the same row again doesn't load
+         * it again.
+         */
+        private String avatarKey;
+
         /**
          * Creates an instance and sets an OnClickListener for the user's row.
          *
@@ -153,71 +383,181 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         }
 
         /**
-         * Binds the user's data to the view.
+         * Clears the view for a user whose page has been dropped and is being loaded again.
+         */
+        void bindDroppedUser() {
+            avatarLoader.cancel(userImage);
+            userImage.setImageDrawable(null);
+            avatarKey = null;
+            userAlias.setText(null);
+            userName.setText(null);
+        }
+
+        /**
+         * Binds the user's data to the view. The row's text was made when its page arrived, so
+         * nothing is formatted here.
          *
-         * @param user the user.
+         * @param row the user's row.
          */
-        void bindUser(User user) {
-            Picasso.get().load(user.getImageUrl()).into(userImage);
-            userAlias.setText(user.getAlias());
-            userName.setText(user.getName());
+        void bindUser(UserRow row) {
+            if (row.getAvatarKey() == null) {
+                avatarLoader.cancel(userImage);
+                userImage.setImageDrawable(null);
+            } else if (!row.getAvatarKey().equals(avatarKey)) {
+                avatarLoader.load(row.getImageUrl(), userImage, avatarSize);
+            }
+            avatarKey = row.getAvatarKey();
+            userAlias.setText(row.getAlias());
+            userName.setText(row.getName());
         }
     }
 
     /**
      * The adapter for the RecyclerView that displays the Following data.
+     * <p>
+     * The rows are a {@link PagedList} of users that ends with a loading placeholder while a page
+     * is being loaded. Each change builds a new list, and the new list is compared with the shown
+     * list on a background thread. Only the resulting inserts, removes and moves are sent to the
+     * RecyclerView, so the main thread never copies or scans the list, and a loaded page takes
+     * the placeholder's place instead of shifting the rows.
+     * <p>
+     * The list is windowed: pages far from the visible rows are dropped, and loaded again when
+     * the user scrolls back to them, so a long list doesn't keep every user in memory. A dropped
+     * page's rows stay in place as blank rows.
      */
     private class FollowingRecyclerViewAdapter extends RecyclerView.Adapter<FollowingHolder> {
 
-        private final List<User> users = new ArrayList<>();
+        /**
+         * Used only on {@link #LIST_UPDATE_EXECUTOR}.
+         */
+        private final UserListBuilder listBuilder = new UserListBuilder(FollowingPresenter.PAGE_SIZE, WINDOW_PAGES, avatarSize);
+        private final AsyncListDiffer<UserRow> differ = new AsyncListDiffer<>(new AdapterListUpdateCallback(this),
+                new AsyncDifferConfig.Builder<>(USER_ROW_DIFF_CALLBACK).setBackgroundThreadExecutor(LIST_UPDATE_EXECUTOR).build());
+        private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+        /**
+         * The list the differ has most recently made current. The differ only exposes a
+         * read-only view of it, which doesn't have the slot types.
+         */
+        private PagedList<UserRow> rows = new PagedList<>(FollowingPresenter.PAGE_SIZE, UserRow.PLACEHOLDERS);
 
         /**
          * Called to notify the adapter when data loading starts and ends.
          *
          * @param value true if we are loading, false otherwise.
          */
-        void setLoading(boolean value) {
-            if (value) {
-                addLoadingFooter();
-            }
-            else {
-                removeLoadingFooter();
-            }
+        void setLoading(final boolean value) {
+            update(new ListUpdate() {
+                @Override
+                public PagedList<UserRow> apply() {
+                    return value ? listBuilder.showLoading() : listBuilder.hideLoading();
+                }
+            }, null);
         }
 
         /**
-         * Adds new users to the list from which the RecyclerView retrieves the users it displays
-         * and notifies the RecyclerView that items have been added.
+         * Adds new users to the end of the list the RecyclerView displays, in place of the
+         * loading placeholder, skipping any that are already in it.
          *
          * @param newUsers the users to add.
+         * @param onShown run on the main thread once the users are in the list (can be null).
          */
-        void addItems(List<User> newUsers) {
-            int startInsertPosition = users.size();
-            users.addAll(newUsers);
-            this.notifyItemRangeInserted(startInsertPosition, newUsers.size());
+        void addItems(final List<User> newUsers, Runnable onShown) {
+            update(new ListUpdate() {
+                @Override
+                public PagedList<UserRow> apply() {
+                    return listBuilder.append(newUsers);
+                }
+            }, onShown);
         }
 
         /**
-         * Adds a single user to the list from which the RecyclerView retrieves the users it
-         * displays and notifies the RecyclerView that an item has been added.
+         * Called when the visible rows move to other pages. Drops the pages that are now far
+         * from them and loads again the dropped pages that are now near them.
          *
-         * @param user the user to add.
+         * @param firstVisiblePosition the position of the first visible row.
+         * @param lastVisiblePosition the position of the last visible row.
          */
-        void addItem(User user) {
-            users.add(user);
-            this.notifyItemInserted(users.size() - 1);
+        void onVisibleRowsChanged(final int firstVisiblePosition, final int lastVisiblePosition) {
+            update(new ListUpdate() {
+                @Override
+                public PagedList<UserRow> apply() {
+                    return listBuilder.keepNear(firstVisiblePosition, lastVisiblePosition);
+                }
+            }, null);
         }
 
         /**
-         * Removes a user from the list from which the RecyclerView retrieves the users it displays
-         * and notifies the RecyclerView that an item has been removed.
+         * Puts the users of a dropped page that has been loaded again into the list.
          *
-         * @param user the user to remove.
+         * @param pageIndex the page.
+         * @param followees the users loaded from the page's cursor.
          */
-        void removeItem(User user) {
-            int position = users.indexOf(user);
-            users.remove(position);
-            this.notifyItemRemoved(position);
+        void replacePage(final int pageIndex, final List<User> followees) {
+            update(new ListUpdate() {
+                @Override
+                public PagedList<UserRow> apply() {
+                    return listBuilder.replacePage(pageIndex, followees);
+                }
+            }, null);
+        }
+
+        /**
+         * Replaces the users after a cursor with a page loaded from it, dropping the pages
+         * after it.
+         *
+         * @param lastFollowee the user the page starts after (null for the first page).
+         * @param followees the users loaded from the cursor.
+         */
+        void refreshPage(final User lastFollowee, final List<User> followees) {
+            update(new ListUpdate() {
+                @Override
+                public PagedList<UserRow> apply() {
+                    return listBuilder.refreshFrom(lastFollowee, followees);
+                }
+            }, null);
+        }
+
+        void pageReloadFailed(final int pageIndex) {
+            LIST_UPDATE_EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    listBuilder.reloadFailed(pageIndex);
+                }
+            });
+        }
+
+        /**
+         * Builds a new list on the background thread, then has the differ compare it with the
+         * shown list, and requests any dropped pages the update found should be loaded again.
+         */
+        private void update(final ListUpdate listUpdate, final Runnable onShown) {
+            LIST_UPDATE_EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final PagedList<UserRow> newRows = listUpdate.apply();
+                    final List<UserListBuilder.PageReload> pageReloads = listBuilder.takePageReloads();
+                    mainHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            for (UserListBuilder.PageReload pageReload : pageReloads) {
+                                presenter.reloadPage(pageReload.getPageIndex(), pageReload.getCursor());
+                            }
+                            differ.submitList(newRows, new Runnable() {
+                                @Override
+                                public void run() {
+                                    // Runs when the differ makes the list current, after the
+                                    // changes have been sent and before the rows are laid out
+                                    rows = newRows;
+                                    if (onShown != null) {
+                                        onShown.run();
+                                    }
+                                }
+                            });
+                        }
+                    });
+                }
+            });
         }
 
         /**
@@ -225,7 +565,7 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
          *  indicating that new rows are being loaded if we are waiting for rows to load.
          *
          * @param parent the parent view.
-         * @param viewType the type of the view (ignored in the current implementation).
+         * @param viewType the type of the view.
          * @return the view holder.
          */
         @NonNull
@@ -245,8 +585,8 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         }
 
         /**
-         * Binds the followee at the specified position unless we are currently loading new data. If
-         * we are loading new data, the display at that position will be the data loading footer.
+         * Binds the followee at the specified position. A dropped followee is shown as a blank
+         * row, and a placeholder (the data loading footer) has nothing to bind.
          *
          * @param followingHolder the ViewHolder to which the followee should be bound.
          * @param position the position (in the list of followees) that contains the followee to be
@@ -254,18 +594,23 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
          */
         @Override
         public void onBindViewHolder(@NonNull FollowingHolder followingHolder, int position) {
-            if(!presenter.isLoading()) {
-                followingHolder.bindUser(users.get(position));
+            PagedList.SlotType slotType = rows.getSlotType(position);
+            if (slotType == PagedList.SlotType.ITEM) {
+                followingHolder.bindUser(rows.get(position));
+            } else if (slotType == PagedList.SlotType.DROPPED) {
+                followingHolder.bindDroppedUser();
             }
         }
 
         /**
-         * Returns the current number of followees available for display.
-         * @return the number of followees available for display.
+         * Returns the current number of rows: the followees available for display, and the
+         * loading footer while data is loading.
+         *
+         * @return the number of rows.
          */
         @Override
         public int getItemCount() {
-            return users.size();
+            return rows.size();
         }
 
         /**
@@ -277,33 +622,55 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
          */
         @Override
         public int getItemViewType(int position) {
-            return (position == users.size() - 1 && presenter.isLoading()) ? LOADING_DATA_VIEW : ITEM_VIEW;
-        }
-
-        /**
-         * Adds a dummy user to the list of users so the RecyclerView will display a view (the
-         * loading footer view) at the bottom of the list.
-         */
-        private void addLoadingFooter() {
-            addItem(new User("Dummy", "User", ""));
+            return (rows.getSlotType(position) == PagedList.SlotType.LOADING) ? LOADING_DATA_VIEW : ITEM_VIEW;
         }
+    }
 
-        /**
-         * Removes the dummy user from the list of users so the RecyclerView will stop displaying
-         * the loading footer at the bottom of the list.
-         */
-        private void removeLoadingFooter() {
-            removeItem(users.get(users.size() - 1));
-        }
+    /**
+     * Builds the next list of rows from the current one.
+     */
+    private interface ListUpdate {
+        PagedList<UserRow> apply();
     }
 
     /**
-     * A scroll listener that detects when the user has scrolled to the bottom of the currently
-     * available data.
+     * A scroll listener that loads the next page as the user nears the end of the currently
+     * available data. How near depends on how fast they are scrolling (see
+     * {@link PrefetchDistance}).
      */
     private class FollowRecyclerViewPaginationScrollListener extends RecyclerView.OnScrollListener {
 
         private final LinearLayoutManager layoutManager;
+        private final PrefetchDistance prefetchDistance =
+                new PrefetchDistance(MIN_PREFETCH_ROWS, MAX_PREFETCH_ROWS, INITIAL_PAGE_LOAD_MILLIS);
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        /**
+         * When the page being loaded was requested by this listener, or 0 if it wasn't.
+         */
+        private long loadStartMillis;
+
+        /**
+         * The pages of the first and last visible rows when the adapter was last told of them.
+         */
+        private int firstVisiblePage = -1;
+        private int lastVisiblePage = -1;
+
+        /**
+         * Loads the next page. Posted rather than run during the scroll event, since starting a
+         * load changes the adapter, which can't be done while the RecyclerView is scrolling.
+         * Only one is posted at a time.
+         */
+        private final Runnable loadMoreItems = new Runnable() {
+            @Override
+            public void run() {
+                prefetchDistance.onLoadStarted();
+                if (!presenter.isLoading() && presenter.isHasMorePages()) {
+                    loadStartMillis = SystemClock.uptimeMillis();
+                    presenter.loadMoreItems();
+                }
+            }
+        };
 
         /**
          * Creates a new instance.
@@ -315,9 +682,8 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         }
 
         /**
-         * Determines whether the user has scrolled to the bottom of the currently available data
-         * in the RecyclerView and asks the adapter to load more data if the last load request
-         * indicated that there was more data to load.
+         * Updates the scroll speed and loads the next page if the user is near enough to the end
+         * of the currently available data.
          *
          * @param recyclerView the RecyclerView.
          * @param dx the amount of horizontal scroll.
@@ -327,22 +693,60 @@ public class FollowingFragment extends Fragment implements FollowingPresenter.Vi
         public void onScrolled(@NotNull RecyclerView recyclerView, int dx, int dy) {
             super.onScrolled(recyclerView, dx, dy);
 
-            int visibleItemCount = layoutManager.getChildCount();
-            int totalItemCount = layoutManager.getItemCount();
-            int firstVisibleItemPosition = layoutManager.findFirstVisibleItemPosition();
+            View firstRow = layoutManager.getChildAt(0);
+            int rowHeight = (firstRow == null) ? 0 : firstRow.getHeight();
+            prefetchDistance.onScrolled(dy, rowHeight, SystemClock.uptimeMillis());
 
-            if (!presenter.isLoading() && presenter.isHasMorePages()) {
-                if ((visibleItemCount + firstVisibleItemPosition) >=
-                        totalItemCount && firstVisibleItemPosition >= 0) {
-                    // Run this code later on the UI thread
-                    final Handler handler = new Handler(Looper.getMainLooper());
-                    handler.postDelayed(new Runnable() {
-                        @Override
-                        public void run() {
-                            presenter.loadMoreItems();
-                        }
-                    }, 0);
-                }
+            updateVisiblePages();
+            loadMoreItemsIfNeeded();
+        }
+
+        /**
+         * Tells the adapter which rows are visible when they have moved to other pages, which
+         * is at most once per page scrolled rather than on every scroll event.
+         */
+        private void updateVisiblePages() {
+            int firstVisiblePosition = layoutManager.findFirstVisibleItemPosition();
+            int lastVisiblePosition = layoutManager.findLastVisibleItemPosition();
+            if (firstVisiblePosition < 0) {
+                return;
+            }
+
+            int firstPage = firstVisiblePosition / FollowingPresenter.PAGE_SIZE;
+            int lastPage = lastVisiblePosition / FollowingPresenter.PAGE_SIZE;
+            if (firstPage != firstVisiblePage || lastPage != lastVisiblePage) {
+                firstVisiblePage = firstPage;
+                lastVisiblePage = lastPage;
+                followingRecyclerViewAdapter.onVisibleRowsChanged(firstVisiblePosition, lastVisiblePosition);
+            }
+        }
+
+        @Override
+        public void onScrollStateChanged(@NotNull RecyclerView recyclerView, int newState) {
+            super.onScrollStateChanged(recyclerView, newState);
+
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                prefetchDistance.onScrollStopped();
+            }
+        }
+
+        /**
+         * Called when a loaded page is shown. Records how long it took to load, and loads the
+         * next one straight away if the user is still near the end, so a fling keeps loading
+         * pages ahead of it without waiting for another scroll event.
+         */
+        void onPageShown() {
+            if (loadStartMillis != 0) {
+                prefetchDistance.recordLoadMillis(SystemClock.uptimeMillis() - loadStartMillis);
+                loadStartMillis = 0;
+            }
+            loadMoreItemsIfNeeded();
+        }
+
+        private void loadMoreItemsIfNeeded() {
+            if (!presenter.isLoading() && presenter.isHasMorePages()
+                    && prefetchDistance.shouldLoad(layoutManager.findLastVisibleItemPosition(), layoutManager.getItemCount())) {
+                handler.post(loadMoreItems);
             }
         }
     }
@@ -0,0 +1,366 @@
+package edu.byu.cs.tweeter.client.view.main.following;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import edu.byu.cs.tweeter.client.view.paging.PagedList;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Builds the successive lists of rows shown by a user list. Every change produces a new
+ * {@link PagedList} (the list differ compares the old and new lists, so a shown list is never
+ * changed), and a user appears in a list at most once. Users are made into {@link UserRow}s as
+ * they are added.
+ * <p>
+ * In windowed mode only the pages within a number of pages of the visible rows keep their
+ * users. Pages further away are dropped, leaving their slots (so no positions change) and their
+ * cursors, and are loaded again when they come back near the visible rows. The memory a list
+ * uses then stays the same however far it is scrolled, apart from one cursor per page. Users are
+ * only checked for duplicates against the pages that are loaded.
+ * <p>
+ * Not thread-safe. A list's builder is only used on the thread that computes its diffs, so none
+ * of this work is done on the main thread.
+ */
+class UserListBuilder {
+
+    /**
+     * A dropped page that should be loaded again.
+     */
+    static class PageReload {
+        private final int pageIndex;
+        private final User cursor;
+
+        PageReload(int pageIndex, User cursor) {
+            this.pageIndex = pageIndex;
+            this.cursor = cursor;
+        }
+
+        int getPageIndex() {
+            return pageIndex;
+        }
+
+        /**
+         * Returns the user the page starts after.
+         *
+         * @return the user, or null for the first page.
+         */
+        User getCursor() {
+            return cursor;
+        }
+    }
+
+    /**
+     * The window size that keeps every page.
+     */
+    static final int ALL_PAGES = Integer.MAX_VALUE;
+
+    private final int pageSize;
+    private final int windowPages;
+    private final int avatarSizePx;
+
+    private PagedList<UserRow> users;
+    /**
+     * The aliases of the users in the current list's loaded pages, so appending a page costs
+     * time in proportion to the page rather than the list.
+     */
+    private final Set<String> aliases = new HashSet<>();
+
+    /**
+     * The pages that hold users, so the pages to drop are found without visiting every page.
+     */
+    private final Set<Integer> loadedPages = new HashSet<>();
+    /**
+     * Dropped pages that are being loaded again.
+     */
+    private final Set<Integer> reloadingPages = new HashSet<>();
+    /**
+     * Dropped pages that could not be loaded again. They are retried once they have left the
+     * window and come back into it.
+     */
+    private final Set<Integer> unavailablePages = new HashSet<>();
+    private final List<PageReload> pendingReloads = new ArrayList<>();
+
+    private int windowStart = 0;
+    private int windowEnd = Integer.MAX_VALUE;
+
+    /**
+     * Creates an instance.
+     *
+     * @param pageSize the number of users in a page of the list.
+     * @param windowPages the number of pages before and after the visible pages that keep
+     *                    their users, or {@link #ALL_PAGES} to keep every page.
+     * @param avatarSizePx the size the users' avatars are shown at.
+     */
+    UserListBuilder(int pageSize, int windowPages, int avatarSizePx) {
+        if (windowPages < 0) {
+            throw new IllegalArgumentException("Invalid window size " + windowPages);
+        }
+        this.pageSize = pageSize;
+        this.windowPages = windowPages;
+        this.avatarSizePx = avatarSizePx;
+        this.users = new PagedList<>(pageSize, UserRow.PLACEHOLDERS);
+    }
+
+    /**
+     * Returns a list with new users added at the end, in place of the loading placeholder if it
+     * is shown. Users already in the list keep their place.
+     *
+     * @param newUsers the users to add.
+     * @return the new list.
+     */
+    PagedList<UserRow> append(List<User> newUsers) {
+        List<UserRow> added = new ArrayList<>(newUsers.size());
+        for (User user : newUsers) {
+            if (aliases.add(user.getAlias())) {
+                added.add(UserRow.of(user, avatarSizePx));
+            }
+        }
+
+        // The last page is filled before new pages are added
+        int firstChangedPage = Math.max(0, itemPageCount() - 1);
+        users = users.withItems(added);
+        for (int page = firstChangedPage; page < users.getPageCount(); page++) {
+            if (users.isPageLoaded(page)) {
+                loadedPages.add(page);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Returns a list that ends with a loading placeholder.
+     *
+     * @return the new list.
+     */
+    PagedList<UserRow> showLoading() {
+        if (users.getTrailingPlaceholderType() != PagedList.SlotType.LOADING) {
+            users = users.withPlaceholders(PagedList.SlotType.LOADING, 1);
+        }
+        return users;
+    }
+
+    /**
+     * Returns a list without the loading placeholder.
+     *
+     * @return the new list (the current list if the placeholder isn't shown).
+     */
+    PagedList<UserRow> hideLoading() {
+        users = users.withoutPlaceholders();
+        return users;
+    }
+
+    /**
+     * Moves the window to the visible rows: returns a list in which the full pages outside it
+     * are dropped, and queues the dropped pages inside it to be loaded again (see
+     * {@link #takePageReloads}). Does nothing unless the builder is in windowed mode.
+     *
+     * @param firstVisiblePosition the position of the first visible row.
+     * @param lastVisiblePosition the position of the last visible row.
+     * @return the new list.
+     */
+    PagedList<UserRow> keepNear(int firstVisiblePosition, int lastVisiblePosition) {
+        if (windowPages == ALL_PAGES || users.isEmpty()) {
+            return users;
+        }
+
+        int last = users.size() - 1;
+        int firstPage = users.getPageIndex(Math.max(0, Math.min(firstVisiblePosition, last)));
+        int lastPage = users.getPageIndex(Math.max(0, Math.min(lastVisiblePosition, last)));
+        windowStart = Math.max(0, firstPage - windowPages);
+        windowEnd = (int) Math.min(Integer.MAX_VALUE, (long) lastPage + windowPages);
+
+        for (Integer page : new ArrayList<>(loadedPages)) {
+            if (!isInWindow(page) && users.getPageLength(page) == pageSize) {
+                drop(page);
+            }
+        }
+        for (Integer page : new ArrayList<>(unavailablePages)) {
+            if (!isInWindow(page)) {
+                unavailablePages.remove(page);
+            }
+        }
+
+        int lastItemPage = Math.min(windowEnd, itemPageCount() - 1);
+        for (int page = windowStart; page <= lastItemPage; page++) {
+            if (!users.isPageLoaded(page) && !reloadingPages.contains(page) && !unavailablePages.contains(page)) {
+                reloadingPages.add(page);
+                UserRow cursor = users.getPageCursor(page);
+                pendingReloads.add(new PageReload(page, (cursor == null) ? null : cursor.getUser()));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Returns the dropped pages that {@link #keepNear} has found should be loaded again, and
+     * clears them. Each page is returned once until {@link #replacePage} or
+     * {@link #reloadFailed} is called for it.
+     *
+     * @return the pages to load.
+     */
+    List<PageReload> takePageReloads() {
+        if (pendingReloads.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        List<PageReload> reloads = new ArrayList<>(pendingReloads);
+        pendingReloads.clear();
+        return reloads;
+    }
+
+    /**
+     * Returns a list in which a dropped page holds the users loaded for it again. The users are
+     * ignored if the page is no longer dropped or near the visible rows.
+     *
+     * @param pageIndex the page.
+     * @param loadedUsers the users loaded from the page's cursor. Only the first page's worth
+     *                    is used.
+     * @return the new list.
+     */
+    PagedList<UserRow> replacePage(int pageIndex, List<User> loadedUsers) {
+        reloadingPages.remove(pageIndex);
+        if (pageIndex >= itemPageCount() || users.isPageLoaded(pageIndex) || !isInWindow(pageIndex)) {
+            return users;
+        }
+
+        int length = users.getPageLength(pageIndex);
+        if (loadedUsers.size() < length) {
+            // The list has changed since the page was loaded, so the page can't be restored
+            // without moving the rows after it
+            unavailablePages.add(pageIndex);
+            return users;
+        }
+
+        List<UserRow> page = new ArrayList<>(length);
+        for (User user : loadedUsers.subList(0, length)) {
+            page.add(UserRow.of(user, avatarSizePx));
+            aliases.add(user.getAlias());
+        }
+        users = users.withPage(pageIndex, page);
+        loadedPages.add(pageIndex);
+        return users;
+    }
+
+    /**
+     * Returns a list in which the users after a cursor are replaced by a page loaded from it,
+     * e.g. because the page was first shown from a saved copy that turned out to be out of date.
+     * The pages after the cursor are removed too, since their positions and cursors may have
+     * changed; they are loaded again as the list is scrolled. A loading placeholder stays at the
+     * end of the list.
+     *
+     * @param cursor the user the page starts after (null for the first page).
+     * @param loadedUsers the users loaded from the cursor.
+     * @return the new list (the current list if the cursor is no longer in it).
+     */
+    PagedList<UserRow> refreshFrom(User cursor, List<User> loadedUsers) {
+        int start = findPositionAfter(cursor);
+        if (start < 0) {
+            return users;
+        }
+
+        // Rows before the cursor are only kept from a loaded page, since the cursor was found
+        // among its users
+        int pageIndex = start / pageSize;
+        List<UserRow> kept = new ArrayList<>(start - pageIndex * pageSize);
+        for (int position = pageIndex * pageSize; position < start; position++) {
+            kept.add(users.get(position));
+        }
+
+        for (int page = pageIndex; page < itemPageCount(); page++) {
+            if (users.isPageLoaded(page)) {
+                int pageStart = page * pageSize;
+                for (int position = pageStart; position < pageStart + users.getPageLength(page); position++) {
+                    aliases.remove(users.get(position).getAlias());
+                }
+            }
+        }
+        removePagesFrom(loadedPages, pageIndex);
+        removePagesFrom(reloadingPages, pageIndex);
+        removePagesFrom(unavailablePages, pageIndex);
+        Iterator<PageReload> reloads = pendingReloads.iterator();
+        while (reloads.hasNext()) {
+            if (reloads.next().getPageIndex() >= pageIndex) {
+                reloads.remove();
+            }
+        }
+
+        boolean loading = users.getTrailingPlaceholderType() == PagedList.SlotType.LOADING;
+        users = users.invalidateFrom(pageIndex);
+        for (UserRow row : kept) {
+            aliases.add(row.getAlias());
+        }
+        users = users.withItems(kept);
+        append(loadedUsers);
+        return loading ? showLoading() : users;
+    }
+
+    /**
+     * Records that a dropped page could not be loaded again.
+     *
+     * @param pageIndex the page.
+     */
+    void reloadFailed(int pageIndex) {
+        reloadingPages.remove(pageIndex);
+        if (isInWindow(pageIndex)) {
+            unavailablePages.add(pageIndex);
+        }
+    }
+
+    /**
+     * Returns the position after a user, searching from the end of the list, where the pages
+     * that were loaded most recently are. A dropped page is only searched for its last user,
+     * which it keeps as the next page's cursor.
+     *
+     * @return the position, 0 for a null user, or -1 if the user isn't in the list.
+     */
+    private int findPositionAfter(User cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+
+        for (int page = itemPageCount() - 1; page >= 0; page--) {
+            int pageStart = page * pageSize;
+            if (users.isPageLoaded(page)) {
+                for (int position = pageStart + users.getPageLength(page) - 1; position >= pageStart; position--) {
+                    if (users.get(position).getAlias().equals(cursor.getAlias())) {
+                        return position + 1;
+                    }
+                }
+            } else {
+                UserRow last = (page + 1 < itemPageCount()) ? users.getPageCursor(page + 1) : users.getLastItem();
+                if (last.getAlias().equals(cursor.getAlias())) {
+                    return pageStart + pageSize;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static void removePagesFrom(Set<Integer> pages, int pageIndex) {
+        Iterator<Integer> iterator = pages.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next() >= pageIndex) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void drop(int page) {
+        int start = page * pageSize;
+        for (int position = start; position < start + pageSize; position++) {
+            aliases.remove(users.get(position).getAlias());
+        }
+        users = users.withPageDropped(page);
+        loadedPages.remove(page);
+    }
+
+    private boolean isInWindow(int page) {
+        return page >= windowStart && page <= windowEnd;
+    }
+
+    private int itemPageCount() {
+        return (users.getTrailingPlaceholderType() == null) ? users.getPageCount() : users.getPageCount() - 1;
+    }
+}
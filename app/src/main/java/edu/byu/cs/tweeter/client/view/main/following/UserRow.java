@@ -0,0 +1,118 @@
+package edu.byu.cs.tweeter.client.view.main.following;
+
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.client.image.AvatarKey;
+import edu.byu.cs.tweeter.client.view.paging.PagedList;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * What a row of a user list shows for a user. Rows are made on a background thread when a page
+ * arrives, with the text already formatted, so binding a row to a view only sets fields.
+ * <p>
+ * Placeholder and dropped slots read as placeholder rows, which have no user and are told apart
+ * by their slot type and position, so a list differ never takes one for another.
+ */
+class UserRow {
+
+    /**
+     * Makes the placeholder rows of a {@link PagedList} of rows.
+     */
+    static final PagedList.Placeholders<UserRow> PLACEHOLDERS = new PagedList.Placeholders<UserRow>() {
+        @Override
+        public UserRow placeholder(PagedList.SlotType type, int position) {
+            return new UserRow(null, null, null, type, position);
+        }
+    };
+
+    private final User user;
+    private final String name;
+    private final String avatarKey;
+    private final PagedList.SlotType slotType;
+    private final int position;
+
+    private UserRow(User user, String name, String avatarKey, PagedList.SlotType slotType, int position) {
+        this.user = user;
+        this.name = name;
+        this.avatarKey = avatarKey;
+        this.slotType = slotType;
+        this.position = position;
+    }
+
+    /**
+     * Makes the row for a user.
+     *
+     * @param user the user.
+     * @param avatarSizePx the size the user's avatar is shown at.
+     * @return the row.
+     */
+    static UserRow of(User user, int avatarSizePx) {
+        String imageUrl = user.getImageUrl();
+        // The same text as User.getName, without parsing a format string
+        String name = user.getFirstName() + ' ' + user.getLastName();
+        return new UserRow(user, name, (imageUrl == null) ? null : AvatarKey.of(imageUrl, avatarSizePx),
+                PagedList.SlotType.ITEM, -1);
+    }
+
+    /**
+     * Indicates whether the row is a placeholder, which has no user.
+     *
+     * @return true if the row stands for a placeholder or dropped slot.
+     */
+    boolean isPlaceholder() {
+        return user == null;
+    }
+
+    /**
+     * Indicates whether two rows are for the same item: the same user, or placeholders of the
+     * same type at the same position.
+     *
+     * @param other the other row.
+     * @return true if the rows are for the same item.
+     */
+    boolean isSameItem(UserRow other) {
+        if (isPlaceholder() || other.isPlaceholder()) {
+            return slotType == other.slotType && position == other.position;
+        }
+        return getAlias().equals(other.getAlias());
+    }
+
+    /**
+     * Indicates whether two rows for the same item look the same.
+     *
+     * @param other the other row.
+     * @return true if the rows look the same.
+     */
+    boolean isSameContent(UserRow other) {
+        if (isPlaceholder() || other.isPlaceholder()) {
+            return isSameItem(other);
+        }
+        return name.equals(other.name) && Objects.equals(avatarKey, other.avatarKey);
+    }
+
+    User getUser() {
+        return user;
+    }
+
+    String getAlias() {
+        return user.getAlias();
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getImageUrl() {
+        return user.getImageUrl();
+    }
+
+    /**
+     * Returns the key of the avatar at the size it is shown, so a view that already shows it
+     * isn't given it again.
+     *
+     * @return the key, or null if the user has no avatar.
+     */
+    String getAvatarKey() {
+        return avatarKey;
+    }
+}
@@ -0,0 +1,420 @@
+package edu.byu.cs.tweeter.client.view.paging;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable list made of fixed-size pages, in which a slot holds either an item or a typed
+ * placeholder for items that haven't been loaded.
+ * <p>
+ * Every page of items but the last holds exactly {@code pageSize} items, and placeholders can
+ * only be in a page at the end of the list, so finding the slot at a position is an array index,
+ * not a search.
+ * <p>
+ * Changes return a new list that shares the unchanged pages with this one: adding a page copies
+ * the page table and the last page, never the items in the other pages. That makes it cheap to
+ * hand a new list to a list differ after every page, while the old list stays valid for the
+ * comparison.
+ * <p>
+ * A full page of items can be dropped to save memory. Its slots stay in the list, so the
+ * positions after it don't change, but only its last item is kept: that item is the cursor for
+ * loading the page after it, and loading the dropped page again needs the cursor of the page
+ * before it.
+ * <p>
+ * Placeholder and dropped slots read through the {@link List} interface as the items a
+ * {@link Placeholders} makes for them, or as null if the list has none; {@link #getSlotType}
+ * tells them apart. A list differ treats any two nulls as the same item, so a list that is
+ * compared should make placeholders that differ by position and slot type.
+ *
+ * @param <T> the item type.
+ */
+public class PagedList<T> extends AbstractList<T> {
+
+    /**
+     * What a slot holds.
+     */
+    public enum SlotType {
+        ITEM,
+        /**
+         * A placeholder for items that are being loaded.
+         */
+        LOADING,
+        /**
+         * A slot in a page that was dropped and has to be loaded again.
+         */
+        DROPPED
+    }
+
+    /**
+     * Makes the items that placeholder and dropped slots read as.
+     *
+     * @param <T> the item type.
+     */
+    public interface Placeholders<T> {
+        /**
+         * Returns the item a slot reads as.
+         *
+         * @param type {@link SlotType#LOADING} or {@link SlotType#DROPPED}.
+         * @param position the slot's position.
+         * @return the item.
+         */
+        T placeholder(SlotType type, int position);
+    }
+
+    private final int pageSize;
+    /**
+     * The pages. Shared with other lists, so never modified.
+     */
+    private final Page[] pages;
+    private final Placeholders<T> placeholders;
+    /**
+     * The number of slots in the pages of items, i.e. the position of the first placeholder.
+     */
+    private final int itemCount;
+    private final int size;
+
+    /**
+     * Creates an empty list.
+     *
+     * @param pageSize the number of slots in a page.
+     */
+    public PagedList(int pageSize) {
+        this(pageSize, null);
+    }
+
+    /**
+     * Creates an empty list whose placeholder and dropped slots read as items.
+     *
+     * @param pageSize the number of slots in a page.
+     * @param placeholders makes the items the slots read as (null to read them as null).
+     */
+    public PagedList(int pageSize, Placeholders<T> placeholders) {
+        this(pageSize, new Page[0], placeholders);
+    }
+
+    private PagedList(int pageSize, Page[] pages, Placeholders<T> placeholders) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.pageSize = pageSize;
+        this.pages = pages;
+        this.placeholders = placeholders;
+
+        int itemPageCount = itemPageCount();
+        this.itemCount = (itemPageCount == 0) ? 0 : (itemPageCount - 1) * pageSize + pages[itemPageCount - 1].length;
+        this.size = itemCount + ((itemPageCount < pages.length) ? pages[pages.length - 1].length : 0);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPageCount() {
+        return pages.length;
+    }
+
+    /**
+     * Returns the index of the page that holds a position.
+     *
+     * @param position the position.
+     * @return the page index.
+     */
+    public int getPageIndex(int position) {
+        checkPosition(position);
+        return (position < itemCount) ? position / pageSize : pages.length - 1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the item at a position.
+     *
+     * @param position the position.
+     * @return the item, or what the list's {@link Placeholders} makes (or null) if the slot is
+     *         a placeholder or dropped.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int position) {
+        checkPosition(position);
+        Object[] slots = (position < itemCount) ? pages[position / pageSize].slots : null;
+        if (slots != null) {
+            return (T) slots[position % pageSize];
+        }
+        return (placeholders == null) ? null : placeholders.placeholder(getSlotType(position), position);
+    }
+
+    /**
+     * Returns what the slot at a position holds.
+     *
+     * @param position the position.
+     * @return {@link SlotType#ITEM}, {@link SlotType#DROPPED}, or the type of the placeholder.
+     */
+    public SlotType getSlotType(int position) {
+        checkPosition(position);
+        return (position < itemCount) ? pages[position / pageSize].getType() : pages[pages.length - 1].placeholderType;
+    }
+
+    /**
+     * Returns the number of slots in a page, which is the page size for every page of items but
+     * the last.
+     *
+     * @param pageIndex the page.
+     * @return the number of slots.
+     */
+    public int getPageLength(int pageIndex) {
+        checkPageIndex(pageIndex, pages.length);
+        return pages[pageIndex].length;
+    }
+
+    /**
+     * Indicates whether a page's items are in the list, rather than dropped or placeholders.
+     *
+     * @param pageIndex the page.
+     * @return true if the page holds items.
+     */
+    public boolean isPageLoaded(int pageIndex) {
+        checkPageIndex(pageIndex, pages.length);
+        return pages[pageIndex].getType() == SlotType.ITEM;
+    }
+
+    /**
+     * Returns the cursor from which a page of items is loaded: the last item of the page
+     * before it, which is kept even if that page has been dropped.
+     *
+     * @param pageIndex the page.
+     * @return the cursor, or null for the first page.
+     */
+    @SuppressWarnings("unchecked")
+    public T getPageCursor(int pageIndex) {
+        checkPageIndex(pageIndex, itemPageCount());
+        return (pageIndex == 0) ? null : (T) pages[pageIndex - 1].lastItem;
+    }
+
+    /**
+     * Returns the type of the placeholder page at the end of the list.
+     *
+     * @return the type, or null if the list doesn't end with a placeholder page.
+     */
+    public SlotType getTrailingPlaceholderType() {
+        return (pages.length == 0) ? null : pages[pages.length - 1].placeholderType;
+    }
+
+    /**
+     * Returns the last item in the list, which is the cursor for loading the next page.
+     *
+     * @return the item, or null if the list has no items.
+     */
+    @SuppressWarnings("unchecked")
+    public T getLastItem() {
+        int itemPageCount = itemPageCount();
+        return (itemPageCount == 0) ? null : (T) pages[itemPageCount - 1].lastItem;
+    }
+
+    /**
+     * Returns a list with a page of placeholders added at the end, in place of any placeholder
+     * page already there.
+     *
+     * @param type the placeholder type.
+     * @param count the number of placeholder slots (at most the page size).
+     * @return the new list.
+     */
+    public PagedList<T> withPlaceholders(SlotType type, int count) {
+        if (type == SlotType.ITEM) {
+            throw new IllegalArgumentException("A placeholder can't be an item");
+        } else if (count <= 0 || count > pageSize) {
+            throw new IllegalArgumentException("Invalid placeholder count " + count);
+        }
+
+        List<Page> newPages = itemPages();
+        newPages.add(Page.placeholders(count, type));
+        return new PagedList<>(pageSize, newPages.toArray(new Page[0]), placeholders);
+    }
+
+    /**
+     * Returns a list without the placeholder page at the end, if there is one.
+     *
+     * @return the new list (or this list if it doesn't end with placeholders).
+     */
+    public PagedList<T> withoutPlaceholders() {
+        if (getTrailingPlaceholderType() == null) {
+            return this;
+        }
+        return new PagedList<>(pageSize, itemPages().toArray(new Page[0]), placeholders);
+    }
+
+    /**
+     * Returns a list with items added at the end, in place of any placeholder page there. The
+     * last page is filled up first, then new pages are added.
+     *
+     * @param items the items.
+     * @return the new list.
+     */
+    public PagedList<T> withItems(List<? extends T> items) {
+        List<Page> newPages = itemPages();
+        int next = 0;
+
+        if (!newPages.isEmpty()) {
+            Page last = newPages.get(newPages.size() - 1);
+            int room = pageSize - last.length;
+            if (room > 0 && !items.isEmpty()) {
+                // Only full pages are dropped, so a page with room is loaded
+                int count = Math.min(room, items.size());
+                // Copied, since the last page is shared with this list
+                Object[] slots = Arrays.copyOf(last.slots, last.length + count);
+                copyInto(items, 0, slots, last.length, count);
+                newPages.set(newPages.size() - 1, Page.items(slots));
+                next = count;
+            }
+        }
+
+        while (next < items.size()) {
+            int count = Math.min(pageSize, items.size() - next);
+            Object[] slots = new Object[count];
+            copyInto(items, next, slots, 0, count);
+            newPages.add(Page.items(slots));
+            next += count;
+        }
+        return new PagedList<>(pageSize, newPages.toArray(new Page[0]), placeholders);
+    }
+
+    /**
+     * Returns a list in which a full page of items replaces a page (e.g. a dropped page that has
+     * been loaded again). Pages after it are kept, since a full page doesn't move any positions.
+     *
+     * @param pageIndex the page to replace.
+     * @param items exactly {@code pageSize} items, or any number up to that for the last page.
+     * @return the new list.
+     */
+    public PagedList<T> withPage(int pageIndex, List<? extends T> items) {
+        int itemPageCount = itemPageCount();
+        checkPageIndex(pageIndex, itemPageCount);
+        if (items.size() > pageSize || (pageIndex < itemPageCount - 1 && items.size() != pageSize)) {
+            throw new IllegalArgumentException("Only the last page can hold fewer than " + pageSize + " items");
+        }
+
+        Object[] slots = new Object[items.size()];
+        copyInto(items, 0, slots, 0, items.size());
+        Page[] newPages = pages.clone();
+        newPages[pageIndex] = Page.items(slots);
+        return new PagedList<>(pageSize, newPages, placeholders);
+    }
+
+    /**
+     * Returns a list in which a page's items are dropped. The page keeps its slots, which read
+     * as {@link SlotType#DROPPED}, and its last item, so no positions move and the pages on
+     * either side of it can still be loaded.
+     *
+     * @param pageIndex the page to drop, which must be a full page of items.
+     * @return the new list (or this list if the page is already dropped).
+     */
+    public PagedList<T> withPageDropped(int pageIndex) {
+        checkPageIndex(pageIndex, itemPageCount());
+        Page page = pages[pageIndex];
+        if (page.slots == null) {
+            return this;
+        } else if (page.length != pageSize) {
+            // A partly filled page is the last one, which may still be filled
+            throw new IllegalArgumentException("Only full pages can be dropped");
+        }
+
+        Page[] newPages = pages.clone();
+        newPages[pageIndex] = Page.dropped(page);
+        return new PagedList<>(pageSize, newPages, placeholders);
+    }
+
+    /**
+     * Returns a list with a page and every page after it removed, e.g. because the items in it
+     * are out of date and the pages after it must be loaded again from its cursor.
+     *
+     * @param pageIndex the first page to remove.
+     * @return the new list.
+     */
+    public PagedList<T> invalidateFrom(int pageIndex) {
+        if (pageIndex < 0 || pageIndex > pages.length) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pages.length);
+        }
+        return new PagedList<>(pageSize, Arrays.copyOf(pages, pageIndex), placeholders);
+    }
+
+    /**
+     * Returns the pages without a placeholder page at the end, as a list that can be changed.
+     */
+    private List<Page> itemPages() {
+        int count = itemPageCount();
+        List<Page> itemPages = new ArrayList<>(count + 2);
+        Collections.addAll(itemPages, Arrays.copyOf(pages, count));
+        return itemPages;
+    }
+
+    private int itemPageCount() {
+        return (getTrailingPlaceholderType() == null) ? pages.length : pages.length - 1;
+    }
+
+    private static void checkPageIndex(int pageIndex, int pageCount) {
+        if (pageIndex < 0 || pageIndex >= pageCount) {
+            throw new IndexOutOfBoundsException("Page " + pageIndex + " of " + pageCount);
+        }
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+        }
+    }
+
+    private static void copyInto(List<?> items, int from, Object[] slots, int to, int count) {
+        for (int i = 0; i < count; i++) {
+            slots[to + i] = items.get(from + i);
+        }
+    }
+
+    /**
+     * A page of slots. All the slots are items, all are placeholders of one type, or the page
+     * has been dropped.
+     */
+    private static class Page {
+        /**
+         * The items, or null for a placeholder or dropped page.
+         */
+        private final Object[] slots;
+        private final int length;
+        private final SlotType placeholderType;
+        /**
+         * The last item (kept when the page is dropped), or null for a placeholder page.
+         */
+        private final Object lastItem;
+
+        private Page(Object[] slots, int length, SlotType placeholderType, Object lastItem) {
+            this.slots = slots;
+            this.length = length;
+            this.placeholderType = placeholderType;
+            this.lastItem = lastItem;
+        }
+
+        static Page items(Object[] slots) {
+            return new Page(slots, slots.length, null, (slots.length == 0) ? null : slots[slots.length - 1]);
+        }
+
+        static Page placeholders(int length, SlotType type) {
+            return new Page(null, length, type, null);
+        }
+
+        static Page dropped(Page page) {
+            return new Page(null, page.length, null, page.lastItem);
+        }
+
+        /**
+         * Returns the type of an item page's slots.
+         */
+        SlotType getType() {
+            return (slots == null) ? SlotType.DROPPED : SlotType.ITEM;
+        }
+    }
+}
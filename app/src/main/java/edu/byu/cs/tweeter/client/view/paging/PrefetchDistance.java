@@ -0,0 +1,137 @@
+package edu.byu.cs.tweeter.client.view.paging;
+
+/**
+ * Decides when a scrolling list should load its next page.
+ * <p>
+ * The next page is requested once the last visible row is within a number of rows of the end of
+ * the list. That distance grows with the scroll speed: it covers the rows that will scroll past
+ * while a page loads, so a fling starts loading several pages ahead instead of reaching the
+ * loading row. The speed is smoothed over recent scroll events, and the load time is measured
+ * from the loads themselves.
+ * <p>
+ * At most one load is triggered at a time: after {@link #shouldLoad} returns true it returns
+ * false until {@link #onLoadStarted} is called, however many scroll events arrive in between.
+ * <p>
+ * Not thread-safe; only used on the main thread.
+ */
+public class PrefetchDistance {
+
+    /**
+     * The weight of the newest sample in the smoothed speed and load time.
+     */
+    private static final double SMOOTHING = 0.3;
+
+    /**
+     * Scroll events further apart than this are the start of a new scroll, not a continuation.
+     */
+    private static final long SCROLL_GAP_MILLIS = 200;
+
+    private final int minRows;
+    private final int maxRows;
+
+    private double rowsPerSecond;
+    private double loadMillis;
+    private long lastScrollMillis = -1;
+    private boolean triggerPending;
+
+    /**
+     * Creates an instance.
+     *
+     * @param minRows the distance when the list isn't scrolling.
+     * @param maxRows the largest distance, however fast the list scrolls.
+     * @param initialLoadMillis the expected time to load a page, until one has been measured.
+     */
+    public PrefetchDistance(int minRows, int maxRows, long initialLoadMillis) {
+        if (minRows < 0 || maxRows < minRows || initialLoadMillis < 0) {
+            throw new IllegalArgumentException("Invalid prefetch distance");
+        }
+        this.minRows = minRows;
+        this.maxRows = maxRows;
+        this.loadMillis = initialLoadMillis;
+    }
+
+    /**
+     * Records a scroll event.
+     *
+     * @param dyPixels how far the list scrolled towards its end (negative towards its start).
+     * @param rowHeightPixels the height of a row (events are ignored if it is not positive).
+     * @param nowMillis the time of the event.
+     */
+    public void onScrolled(int dyPixels, int rowHeightPixels, long nowMillis) {
+        if (rowHeightPixels <= 0) {
+            return;
+        }
+
+        long elapsed = nowMillis - lastScrollMillis;
+        if (lastScrollMillis < 0 || elapsed > SCROLL_GAP_MILLIS) {
+            rowsPerSecond = 0;
+        } else if (elapsed > 0) {
+            // Only scrolling towards the end brings the next page closer
+            double sample = Math.max(0, dyPixels) / (double) rowHeightPixels * 1000 / elapsed;
+            rowsPerSecond += SMOOTHING * (sample - rowsPerSecond);
+        }
+        lastScrollMillis = nowMillis;
+    }
+
+    /**
+     * Called when the list stops scrolling.
+     */
+    public void onScrollStopped() {
+        rowsPerSecond = 0;
+        lastScrollMillis = -1;
+    }
+
+    /**
+     * Returns how close to the end of the list the last visible row must be for the next page to
+     * be loaded.
+     *
+     * @return the distance in rows.
+     */
+    public int getDistanceRows() {
+        double rows = minRows + rowsPerSecond * loadMillis / 1000;
+        return (int) Math.min(maxRows, Math.ceil(rows));
+    }
+
+    /**
+     * Decides whether to load the next page. When it returns true, a load is considered
+     * triggered and it returns false until the load starts.
+     *
+     * @param lastVisiblePosition the position of the last visible row.
+     * @param itemCount the number of rows in the list.
+     * @return true if the next page should be loaded.
+     */
+    public boolean shouldLoad(int lastVisiblePosition, int itemCount) {
+        if (triggerPending || lastVisiblePosition < 0) {
+            return false;
+        }
+
+        int rowsAfter = itemCount - 1 - lastVisiblePosition;
+        triggerPending = rowsAfter <= getDistanceRows();
+        return triggerPending;
+    }
+
+    /**
+     * Called when a triggered load starts (or is not needed after all), allowing the next
+     * trigger.
+     */
+    public void onLoadStarted() {
+        triggerPending = false;
+    }
+
+    /**
+     * Records how long a page took to load.
+     *
+     * @param millis the load time.
+     */
+    public void recordLoadMillis(long millis) {
+        loadMillis += SMOOTHING * (Math.max(0, millis) - loadMillis);
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public double getLoadMillis() {
+        return loadMillis;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import edu.byu.cs.tweeter.model.domain.FollowChange;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class FollowingListCacheTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+    private final User bonnie = new User("Bonnie", "Beatty", "@bonnie", null);
+    private final User chris = new User("Chris", "Colston", "@chris", null);
+
+    private FollowingListCache cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new FollowingListCache(2);
+    }
+
+    @Test
+    public void testPagesWithoutVersionAreNotCached() {
+        cache.recordPage("@dan", null, Arrays.asList(allen, amy), false, null);
+
+        Assertions.assertNull(cache.getVersion("@dan"));
+    }
+
+    @Test
+    public void testChangesAreMergedInOrder() {
+        cache.recordPage("@dan", null, Arrays.asList(allen, bob), true, "e.1");
+        cache.recordPage("@dan", bob, Arrays.asList(chris), false, "e.2");
+
+        FollowingListCache.Snapshot snapshot = cache.applyChanges("@dan", Arrays.asList(
+                new FollowChange(FollowChange.Type.FOLLOW, amy),
+                new FollowChange(FollowChange.Type.UNFOLLOW, bob),
+                new FollowChange(FollowChange.Type.FOLLOW, bonnie),
+                // Repeated changes have no further effect
+                new FollowChange(FollowChange.Type.FOLLOW, amy),
+                new FollowChange(FollowChange.Type.UNFOLLOW, bob)), "e.7");
+
+        Assertions.assertEquals(Arrays.asList(allen, amy, bonnie, chris), snapshot.getFollowees());
+        Assertions.assertFalse(snapshot.getHasMorePages());
+        Assertions.assertEquals("e.7", cache.getVersion("@dan"));
+    }
+
+    @Test
+    public void testFollowPastEndOfPartialListIsSkipped() {
+        cache.recordPage("@dan", null, Arrays.asList(allen, bob), true, "e.1");
+
+        FollowingListCache.Snapshot snapshot = cache.applyChanges("@dan", Arrays.asList(
+                new FollowChange(FollowChange.Type.FOLLOW, chris),
+                new FollowChange(FollowChange.Type.FOLLOW, amy)), "e.3");
+
+        Assertions.assertEquals(Arrays.asList(allen, amy, bob), snapshot.getFollowees());
+        Assertions.assertTrue(snapshot.getHasMorePages());
+
+        // The next page continues from the last cached user
+        cache.recordPage("@dan", bob, Arrays.asList(bonnie, chris), false, "e.3");
+        Assertions.assertEquals(Arrays.asList(allen, amy, bob, bonnie, chris),
+                cache.applyChanges("@dan", Collections.<FollowChange>emptyList(), "e.3").getFollowees());
+    }
+
+    @Test
+    public void testPageThatDoesNotContinueListIsIgnored() {
+        cache.recordPage("@dan", null, Arrays.asList(allen, amy), true, "e.1");
+        cache.recordPage("@dan", chris, Arrays.asList(bonnie), false, "e.1");
+
+        FollowingListCache.Snapshot snapshot = cache.applyChanges("@dan", Collections.<FollowChange>emptyList(), "e.1");
+        Assertions.assertEquals(Arrays.asList(allen, amy), snapshot.getFollowees());
+        Assertions.assertTrue(snapshot.getHasMorePages());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedListIsEvicted() {
+        cache.recordPage("@dan", null, Arrays.asList(allen), false, "e.1");
+        cache.recordPage("@dee", null, Arrays.asList(amy), false, "e.1");
+        cache.getVersion("@dan");
+        cache.recordPage("@frank", null, Arrays.asList(bob), false, "e.1");
+
+        Assertions.assertNotNull(cache.getVersion("@dan"));
+        Assertions.assertNull(cache.getVersion("@dee"));
+        Assertions.assertNull(cache.applyChanges("@dee", Collections.<FollowChange>emptyList(), "e.2"));
+    }
+}
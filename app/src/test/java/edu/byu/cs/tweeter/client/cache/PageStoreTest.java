@@ -0,0 +1,187 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+public class PageStoreTest {
+
+    @TempDir
+    File directory;
+
+    private final List<Runnable> pendingCompactions = new ArrayList<>();
+
+    /**
+     * Holds compactions until the test runs them.
+     */
+    private final Executor compactionExecutor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pendingCompactions.add(command);
+        }
+    };
+
+    private PageStore store;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    @Test
+    public void testValuesSurviveReopen() throws IOException {
+        store = open(1024 * 1024);
+        store.put("a", bytes("first"));
+        store.put("b", bytes("second"));
+        store.put("a", bytes("replaced"));
+        store.remove("b");
+        store.close();
+
+        store = open(1024 * 1024);
+        Assertions.assertEquals("replaced", string(store.get("a")));
+        Assertions.assertNull(store.get("b"));
+        Assertions.assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testRecordsAfterSavedIndexAreRecovered() throws IOException {
+        store = open(1024 * 1024);
+        store.put("a", bytes("one"));
+        store.flush();
+        store.put("b", bytes("two"));
+        store.remove("a");
+        // Simulates the process being killed: the index is not saved again
+        PageStore abandoned = store;
+        store = null;
+
+        PageStore reopened = open(1024 * 1024);
+        try {
+            Assertions.assertNull(reopened.get("a"));
+            Assertions.assertEquals("two", string(reopened.get("b")));
+        } finally {
+            reopened.close();
+            abandoned.close();
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDiscarded() throws IOException {
+        store = open(1024 * 1024);
+        store.put("a", bytes("complete"));
+        store.put("b", bytes("cut short by a crash"));
+        long fullLength = store.getLogBytes();
+        store.close();
+        new File(directory, PageStore.INDEX_FILE_NAME).delete();
+
+        try (RandomAccessFile log = new RandomAccessFile(new File(directory, PageStore.LOG_FILE_NAME), "rw")) {
+            log.setLength(fullLength - 5);
+        }
+
+        store = open(1024 * 1024);
+        Assertions.assertEquals("complete", string(store.get("a")));
+        Assertions.assertNull(store.get("b"));
+        // New records go after the last complete one
+        store.put("c", bytes("after recovery"));
+        store.close();
+        store = open(1024 * 1024);
+        Assertions.assertEquals("after recovery", string(store.get("c")));
+    }
+
+    @Test
+    public void testCorruptedValueIsNotReturned() throws IOException {
+        store = open(1024 * 1024);
+        store.put("a", bytes("will be corrupted"));
+        store.close();
+
+        try (RandomAccessFile log = new RandomAccessFile(new File(directory, PageStore.LOG_FILE_NAME), "rw")) {
+            log.seek(PageStore.LOG_HEADER_BYTES + 12);
+            log.write('X');
+        }
+
+        store = open(1024 * 1024);
+        Assertions.assertNull(store.get("a"));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedValuesAreEvicted() throws IOException {
+        // Each record is 12 bytes of overhead + 1 byte key + 100 byte value
+        store = open(350);
+        store.put("a", new byte[100]);
+        store.put("b", new byte[100]);
+        store.put("c", new byte[100]);
+        store.get("a");
+        store.put("d", new byte[100]);
+
+        Assertions.assertNotNull(store.get("a"));
+        Assertions.assertNull(store.get("b"));
+        Assertions.assertNotNull(store.get("c"));
+        Assertions.assertNotNull(store.get("d"));
+        Assertions.assertTrue(store.getLiveBytes() <= 350);
+
+        store.close();
+        store = open(350);
+        Assertions.assertNull(store.get("b"));
+        Assertions.assertEquals(3, store.size());
+    }
+
+    @Test
+    public void testCompactionRemovesGarbage() throws IOException {
+        store = open(1024 * 1024);
+        byte[] value = new byte[1000];
+        for (int i = 0; i < 200; i++) {
+            value[0] = (byte) i;
+            store.put("key" + (i % 5), value);
+        }
+        Assertions.assertEquals(1, pendingCompactions.size());
+
+        long before = store.getLogBytes();
+        pendingCompactions.remove(0).run();
+        Assertions.assertTrue(store.getLogBytes() < before / 10);
+        Assertions.assertEquals(store.getLiveBytes() + PageStore.LOG_HEADER_BYTES, store.getLogBytes());
+        Assertions.assertEquals((byte) 199, store.get("key4")[0]);
+
+        store.put("after", bytes("compaction"));
+        store.close();
+        store = open(1024 * 1024);
+        Assertions.assertEquals(6, store.size());
+        Assertions.assertEquals((byte) 195, store.get("key0")[0]);
+        Assertions.assertEquals("compaction", string(store.get("after")));
+    }
+
+    @Test
+    public void testRemoveAllWithPrefix() throws IOException {
+        store = open(1024 * 1024);
+        store.put("following/@allen/", bytes("1"));
+        store.put("following/@allen/@bob", bytes("2"));
+        store.put("following/@amy/", bytes("3"));
+
+        store.removeAll("following/@allen/");
+
+        Assertions.assertNull(store.get("following/@allen/"));
+        Assertions.assertNull(store.get("following/@allen/@bob"));
+        Assertions.assertEquals("3", string(store.get("following/@amy/")));
+    }
+
+    private PageStore open(long maxBytes) throws IOException {
+        return PageStore.open(directory, maxBytes, compactionExecutor);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return (value == null) ? null : new String(value, StandardCharsets.UTF_8);
+    }
+}
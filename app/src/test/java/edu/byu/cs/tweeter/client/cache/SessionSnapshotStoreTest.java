@@ -0,0 +1,142 @@
+package edu.byu.cs.tweeter.client.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.Pair;
+
+public class SessionSnapshotStoreTest {
+
+    @TempDir
+    File directory;
+
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            pendingWrites.add(command);
+        }
+    };
+
+    private final User allen = new User("Allen", "Anderson", "@allen", "https://example.com/allen.png");
+    private final User amy = new User("Amy", "Ames", "@amy", "https://example.com/amy.png");
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+    private final AuthToken authToken = new AuthToken("token-123", 1234567L);
+
+    @AfterEach
+    public void tearDown() {
+        Cache.getInstance().setSnapshotStore(null);
+        Cache.getInstance().clearCache();
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        SessionSnapshotStore store = new SessionSnapshotStore(new File(directory, "session"), executor);
+        store.write(new SessionSnapshot(allen, authToken, Arrays.asList(amy, bob), true, 42L));
+
+        SessionSnapshot snapshot = store.read();
+
+        Assertions.assertEquals(allen, snapshot.getUser());
+        Assertions.assertEquals(allen.getImageUrl(), snapshot.getUser().getImageUrl());
+        Assertions.assertEquals("token-123", snapshot.getAuthToken().getToken());
+        Assertions.assertEquals(1234567L, snapshot.getAuthToken().getTimestamp());
+        Assertions.assertEquals(Arrays.asList(amy, bob), snapshot.getFollowees());
+        Assertions.assertTrue(snapshot.getHasMorePages());
+        Assertions.assertEquals(42L, snapshot.getSavedAtMillis());
+    }
+
+    @Test
+    public void testSnapshotWithoutFollowees() throws IOException {
+        SessionSnapshotStore store = new SessionSnapshotStore(new File(directory, "session"), executor);
+        store.write(new SessionSnapshot(allen, new AuthToken(null, 0), null, false, 42L));
+
+        SessionSnapshot snapshot = store.read();
+
+        Assertions.assertNull(snapshot.getFollowees());
+        Assertions.assertNull(snapshot.getAuthToken().getToken());
+    }
+
+    @Test
+    public void testDamagedSnapshotIsIgnored() throws IOException {
+        File file = new File(directory, "session");
+        SessionSnapshotStore store = new SessionSnapshotStore(file, executor);
+        store.write(new SessionSnapshot(allen, authToken, Arrays.asList(amy), false, 42L));
+
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(20);
+            out.write('X');
+        }
+        Assertions.assertNull(store.read());
+
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(out.length() - 1);
+        }
+        Assertions.assertNull(store.read());
+    }
+
+    @Test
+    public void testSavesAreCoalesced() {
+        SessionSnapshotStore store = new SessionSnapshotStore(new File(directory, "session"), executor);
+
+        store.save(new SessionSnapshot(allen, authToken, null, false, 1L));
+        store.save(new SessionSnapshot(amy, authToken, null, false, 2L));
+        Assertions.assertEquals(1, pendingWrites.size());
+        pendingWrites.remove(0).run();
+        Assertions.assertEquals(amy, store.read().getUser());
+
+        store.delete();
+        pendingWrites.remove(0).run();
+        Assertions.assertNull(store.read());
+    }
+
+    @Test
+    public void testCacheRestoresSavedSession() {
+        SessionSnapshotStore store = new SessionSnapshotStore(new File(directory, "session"), executor);
+        Cache cache = Cache.getInstance();
+        cache.setSnapshotStore(store);
+
+        cache.setCurrUser(allen);
+        cache.setCurrUserAuthToken(authToken);
+        cache.setFirstPageOfFollowees(allen, Arrays.asList(amy, bob), false);
+        runPendingWrites();
+
+        // Simulates a new process
+        cache.setSnapshotStore(null);
+        cache.clearCache();
+        cache.setSnapshotStore(store);
+        Assertions.assertTrue(cache.restoreSession());
+
+        Assertions.assertEquals(allen, cache.getCurrUser());
+        Assertions.assertEquals("token-123", cache.getCurrUserAuthToken().getToken());
+        Assertions.assertTrue(cache.isSessionRestored());
+        Assertions.assertNull(cache.takeRestoredFollowees(amy));
+        Pair<List<User>, Boolean> page = cache.takeRestoredFollowees(allen);
+        Assertions.assertEquals(Arrays.asList(amy, bob), page.getFirst());
+        Assertions.assertFalse(page.getSecond());
+        // Only returned once
+        Assertions.assertNull(cache.takeRestoredFollowees(allen));
+
+        cache.clearCache();
+        runPendingWrites();
+        Assertions.assertFalse(cache.restoreSession());
+    }
+
+    private void runPendingWrites() {
+        while (!pendingWrites.isEmpty()) {
+            pendingWrites.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package edu.byu.cs.tweeter.client.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AvatarMetricsTest {
+
+    @Test
+    public void testHitRates() {
+        AvatarMetrics metrics = new AvatarMetrics();
+        Assertions.assertEquals(0, metrics.getMemoryHitRate());
+        Assertions.assertEquals(0, metrics.getDiskHitRate());
+
+        metrics.recordRequest(true);
+        metrics.recordRequest(true);
+        metrics.recordRequest(true);
+        metrics.recordRequest(false);
+        metrics.recordLoad(true, false);
+        metrics.recordLoad(false, true);
+        metrics.recordLoad(false, false);
+        metrics.recordLoad(false, false);
+
+        Assertions.assertEquals(0.75, metrics.getMemoryHitRate(), 1e-9);
+        Assertions.assertEquals(0.5, metrics.getDiskHitRate(), 1e-9);
+        Assertions.assertEquals(1, metrics.getDiskHits());
+        Assertions.assertEquals(1, metrics.getSharedLoads());
+        Assertions.assertEquals(2, metrics.getNetworkLoads());
+    }
+
+    @Test
+    public void testDecodeTimes() {
+        AvatarMetrics metrics = new AvatarMetrics();
+        metrics.recordDecode(1_000_000);
+        metrics.recordDecode(5_000_000);
+        metrics.recordDecode(3_000_000);
+
+        Assertions.assertEquals(3, metrics.getDecodes());
+        Assertions.assertEquals(3.0, metrics.getAverageDecodeMillis(), 1e-9);
+        Assertions.assertEquals(5.0, metrics.getMaxDecodeMillis(), 1e-9);
+        Assertions.assertTrue(metrics.toString().contains("maxDecodeMs=5.00"));
+    }
+}
@@ -0,0 +1,24 @@
+package edu.byu.cs.tweeter.client.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SampleSizeTest {
+
+    @Test
+    public void testLargestPowerOfTwoThatCoversTheTarget() {
+        Assertions.assertEquals(1, SampleSize.forTarget(150, 150, 150, 150));
+        Assertions.assertEquals(1, SampleSize.forTarget(299, 299, 150, 150));
+        Assertions.assertEquals(2, SampleSize.forTarget(300, 300, 150, 150));
+        Assertions.assertEquals(4, SampleSize.forTarget(1024, 1024, 150, 150));
+        // The smaller dimension limits it
+        Assertions.assertEquals(2, SampleSize.forTarget(2048, 400, 150, 150));
+    }
+
+    @Test
+    public void testUnknownSizesAreNotDownsampled() {
+        Assertions.assertEquals(1, SampleSize.forTarget(1024, 1024, 0, 0));
+        Assertions.assertEquals(1, SampleSize.forTarget(-1, -1, 150, 150));
+        Assertions.assertEquals(1, SampleSize.forTarget(100, 100, 150, 150));
+    }
+}
@@ -0,0 +1,72 @@
+package edu.byu.cs.tweeter.client.image;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SharedLoadsTest {
+
+    @Test
+    public void testConcurrentLoadsOfAKeyShareOneLoad() throws Exception {
+        SharedLoads<String> sharedLoads = new SharedLoads<>();
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SharedLoads.Result<String>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> sharedLoads.load("url", () -> {
+                loadCount.incrementAndGet();
+                started.countDown();
+                Assertions.assertTrue(release.await(5, TimeUnit.SECONDS));
+                return "image";
+            })));
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> sharedLoads.load("url", () -> {
+                    loadCount.incrementAndGet();
+                    return "other";
+                })));
+            }
+            // Give the other requests time to find the load in progress before it finishes
+            Thread.sleep(200);
+            release.countDown();
+
+            int shared = 0;
+            for (Future<SharedLoads.Result<String>> result : results) {
+                Assertions.assertEquals("image", result.get(5, TimeUnit.SECONDS).getValue());
+                shared += result.get().isShared() ? 1 : 0;
+            }
+            Assertions.assertEquals(1, loadCount.get());
+            Assertions.assertEquals(3, shared);
+            Assertions.assertEquals(0, sharedLoads.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFailedLoadIsRetriedByTheNextRequest() throws IOException {
+        SharedLoads<String> sharedLoads = new SharedLoads<>();
+
+        IOException ex = Assertions.assertThrows(IOException.class, () -> sharedLoads.load("url", () -> {
+            throw new IOException("Not found");
+        }));
+        Assertions.assertEquals("Not found", ex.getMessage());
+
+        SharedLoads.Result<String> result = sharedLoads.load("url", () -> "image");
+        Assertions.assertEquals("image", result.getValue());
+        Assertions.assertFalse(result.isShared());
+    }
+}
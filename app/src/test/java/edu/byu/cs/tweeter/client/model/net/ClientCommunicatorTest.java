@@ -0,0 +1,299 @@
+package edu.byu.cs.tweeter.client.model.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
+import edu.byu.cs.tweeter.util.json.TweeterTypeAdapterFactory;
+
+/**
+ * Tests the communicator against a JDK HttpServer standing in for the Tweeter server.
+ */
+public class ClientCommunicatorTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ConnectionPool connectionPool;
+    private ResponseCache responseCache;
+    private ClientCommunicator communicator;
+
+    private final List<User> users = Arrays.asList(
+            new User("Allen", "Anderson", "@allen", "https://example.com/a.png"),
+            new User("Amy", "Ames", "@amy", "https://example.com/a.png"));
+
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger fullResponses = new AtomicInteger();
+    private final AtomicInteger notModifiedResponses = new AtomicInteger();
+    private final AtomicInteger slowRequests = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+
+        // Returns a fixed body with a fixed ETag, gzipped if the client accepts it
+        server.createContext("/page", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                readBody(exchange);
+
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModifiedResponses.incrementAndGet();
+                    exchange.getResponseHeaders().set("ETag", ETAG);
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+
+                byte[] body = JsonSerializer.serialize(new Response(true, "page contents")).getBytes(StandardCharsets.UTF_8);
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    body = gzip(body);
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                }
+                fullResponses.incrementAndGet();
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                sendBody(exchange, 200, body);
+            }
+        });
+
+        // Sends the page of users in the compact encoding if the client accepts it, or as JSON
+        server.createContext("/users", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                readBody(exchange);
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                if (accept != null && accept.contains(UserPageCodec.CONTENT_TYPE)) {
+                    exchange.getResponseHeaders().set("Content-Type", UserPageCodec.CONTENT_TYPE);
+                    sendBody(exchange, 200, UserPageCodec.encode(users, true, "e.1"));
+                } else {
+                    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                    sendBody(exchange, 200, JsonSerializer.serialize(new FollowingResponse(users, true, "e.1")).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        });
+
+        // An older server that only sends JSON
+        server.createContext("/jsonusers", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                readBody(exchange);
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                sendBody(exchange, 200, JsonSerializer.serialize(new FollowingResponse(users, false, null)).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        // Answers the first request at once and never answers any later one in time
+        server.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                readBody(exchange);
+                if (slowRequests.incrementAndGet() > 1) {
+                    try {
+                        Thread.sleep(2000);
+                    } catch (InterruptedException ex) {
+                        return;
+                    }
+                }
+                sendBody(exchange, 200, JsonSerializer.serialize(new Response(true, "done")).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        server.createContext("/reject", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                readBody(exchange);
+                byte[] body = JsonSerializer.serialize(new Response(false, "[Bad Request] Missing alias")).getBytes(StandardCharsets.UTF_8);
+                sendBody(exchange, 400, body);
+            }
+        });
+
+        server.createContext("/fail", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                readBody(exchange);
+                sendBody(exchange, 500, "boom".getBytes(StandardCharsets.UTF_8));
+            }
+        });
+
+        server.start();
+
+        connectionPool = new ConnectionPool(2, 20 * 1000);
+        responseCache = new ResponseCache(16);
+        communicator = new ClientCommunicator("http://127.0.0.1:" + server.getAddress().getPort(), connectionPool, responseCache);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        connectionPool.evictAll();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testSequentialRequestsReuseOneConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Response response = communicator.doPost("/page", new Response(true, "request " + i), null, Response.class);
+            Assertions.assertEquals("page contents", response.getMessage());
+        }
+
+        Assertions.assertEquals(1, clientPorts.size());
+        Assertions.assertEquals(1, connectionPool.getCreatedConnectionCount());
+        Assertions.assertEquals(1, connectionPool.getIdleConnectionCount());
+    }
+
+    @Test
+    public void testUserPageIsDecodedInEitherFormat() throws Exception {
+        final List<User> received = new ArrayList<>();
+        PageParser.ItemHandler<User> handler = new PageParser.ItemHandler<User>() {
+            @Override
+            public void handleItem(User user) {
+                received.add(user);
+            }
+        };
+
+        PageParser.PageInfo compact = communicator.doPostForUserPage("/users", new Response(true, "request"), null,
+                TweeterTypeAdapterFactory.FOLLOWEES_PARSER, handler);
+        Assertions.assertEquals(users, received);
+        Assertions.assertTrue(compact.getHasMorePages());
+        Assertions.assertEquals("e.1", compact.getVersion());
+
+        received.clear();
+        PageParser.PageInfo json = communicator.doPostForUserPage("/jsonusers", new Response(true, "request"), null,
+                TweeterTypeAdapterFactory.FOLLOWEES_PARSER, handler);
+        Assertions.assertEquals(users, received);
+        Assertions.assertFalse(json.getHasMorePages());
+    }
+
+    @Test
+    public void testGzipResponseIsDecoded() throws Exception {
+        Response response = communicator.doPost("/page", new Response(true, "request"), null, Response.class);
+
+        Assertions.assertTrue(response.isSuccess());
+        Assertions.assertEquals("page contents", response.getMessage());
+    }
+
+    @Test
+    public void testRepeatedRequestIsRevalidated() throws Exception {
+        Response request = new Response(true, "same request");
+
+        Response first = communicator.doPost("/page", request, null, Response.class);
+        Response second = communicator.doPost("/page", request, null, Response.class);
+
+        Assertions.assertEquals(first.getMessage(), second.getMessage());
+        Assertions.assertEquals(1, fullResponses.get());
+        Assertions.assertEquals(1, notModifiedResponses.get());
+    }
+
+    @Test
+    public void testTimeoutOnReusedConnectionIsNotRetried() throws Exception {
+        ConnectionPool shortTimeoutPool = new ConnectionPool(1, 20 * 1000, 300);
+        ClientCommunicator impatient = new ClientCommunicator("http://127.0.0.1:" + server.getAddress().getPort(),
+                shortTimeoutPool, new ResponseCache(16));
+        try {
+            impatient.doPost("/slow", new Response(true, "first"), null, Response.class);
+
+            // The server may have acted on the request, so it must not be sent again
+            Assertions.assertThrows(IOException.class, () -> impatient.doPost("/slow", new Response(true, "second"), null, Response.class));
+            Assertions.assertEquals(2, slowRequests.get());
+        } finally {
+            shortTimeoutPool.evictAll();
+        }
+    }
+
+    @Test
+    public void testRequestErrorThrowsRequestException() {
+        TweeterRequestException ex = Assertions.assertThrows(TweeterRequestException.class, () ->
+                communicator.doPost("/reject", new Response(true, "request"), null, Response.class));
+
+        Assertions.assertEquals(400, ex.getStatusCode());
+        Assertions.assertEquals("[Bad Request] Missing alias", ex.getMessage());
+    }
+
+    @Test
+    public void testServerErrorThrowsServerException() {
+        TweeterServerException ex = Assertions.assertThrows(TweeterServerException.class, () ->
+                communicator.doPost("/fail", new Response(true, "request"), null, Response.class));
+
+        Assertions.assertEquals(500, ex.getStatusCode());
+        Assertions.assertEquals("boom", ex.getMessage());
+    }
+
+    @Test
+    public void testConcurrentRequestsStayWithinPoolBound() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Response>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                final int requestNumber = i;
+                results.add(clients.submit(() ->
+                        communicator.doPost("/page", new Response(true, "request " + requestNumber), null, Response.class)));
+            }
+            for (Future<Response> result : results) {
+                Assertions.assertEquals("page contents", result.get().getMessage());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        Assertions.assertTrue(connectionPool.getCreatedConnectionCount() <= 2);
+        Assertions.assertTrue(clientPorts.size() <= 2);
+    }
+
+    private static void readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) >= 0) {
+                // Discard the request
+            }
+        }
+    }
+
+    private static void sendBody(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,101 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class LooperMonitorTest {
+
+    private static final String TASK_MESSAGE = ">>>>> Dispatching to Handler "
+            + "(edu.byu.cs.tweeter.client.model.service.backgroundTask.handler.GetFollowingTaskHandler) {5d1f2a3} null: 0";
+    private static final String POSTED_RUNNABLE = ">>>>> Dispatching to Handler (android.os.Handler) {77aa01} "
+            + "edu.byu.cs.tweeter.client.view.main.following.FollowingFragment$3@4c2b1e: 0";
+
+    private long now;
+    private LooperMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new LooperMonitor(16, 3) {
+            @Override
+            public long nanoTime() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testSlowMessagesAreAttributed() {
+        dispatch(TASK_MESSAGE, 5);
+        dispatch(TASK_MESSAGE, 40);
+        dispatch(POSTED_RUNNABLE, 20);
+
+        Assertions.assertEquals(3, monitor.getDispatchCount());
+        Assertions.assertEquals(2, monitor.getSlowCount());
+
+        List<LooperMonitor.JankEvent> events = monitor.getSlowestEvents();
+        LooperMonitor.JankEvent task = events.get(0);
+        Assertions.assertEquals(40_000_000, task.getDurationNanos());
+        Assertions.assertEquals("GetFollowingTask", task.getTaskType());
+        Assertions.assertNull(task.getCallbackClass());
+        Assertions.assertEquals("0", task.getWhat());
+        Assertions.assertEquals("GetFollowingTaskHandler (GetFollowingTask)", task.getSourceDescription());
+
+        LooperMonitor.JankEvent posted = events.get(1);
+        Assertions.assertEquals("edu.byu.cs.tweeter.client.view.main.following.FollowingFragment$3", posted.getCallbackClass());
+        Assertions.assertNull(posted.getTaskType());
+        Assertions.assertEquals("FollowingFragment$3 (posted to Handler)", posted.getSourceDescription());
+    }
+
+    @Test
+    public void testSlowestEventsAreKept() {
+        // A long stall followed by more shorter slow events than are kept
+        dispatch(TASK_MESSAGE, 500);
+        for (int i = 1; i <= 4; i++) {
+            dispatch(TASK_MESSAGE, 100 - i);
+        }
+
+        List<LooperMonitor.JankEvent> events = monitor.getSlowestEvents();
+        Assertions.assertEquals(3, events.size());
+        Assertions.assertEquals(500_000_000, events.get(0).getDurationNanos());
+        Assertions.assertEquals(99_000_000, events.get(1).getDurationNanos());
+        Assertions.assertEquals(98_000_000, events.get(2).getDurationNanos());
+
+        String dump = monitor.dump();
+        Assertions.assertTrue(dump.contains("5 messages, 5 slow"), dump);
+        Assertions.assertTrue(dump.contains("GetFollowingTaskHandler (GetFollowingTask): 5 slow, max 500.0 ms, total 890.0 ms"), dump);
+
+        monitor.reset();
+        Assertions.assertTrue(monitor.getSlowestEvents().isEmpty());
+    }
+
+    @Test
+    public void testSlowDispatchIsSampledOnce() {
+        monitor.setLooperThread(Thread.currentThread());
+
+        monitor.dispatchStarted(TASK_MESSAGE);
+        now += 10_000_000;
+        monitor.sample();  // Not slow yet
+        now += 10_000_000;
+        monitor.sample();
+        now += 10_000_000;
+        monitor.dispatchFinished();
+
+        StackTraceElement[] stack = monitor.getSlowestEvents().get(0).getStackSample();
+        Assertions.assertNotNull(stack);
+        Assertions.assertTrue(stack.length <= LooperMonitor.MAX_STACK_FRAMES);
+        Assertions.assertTrue(monitor.dump().contains("      at "));
+
+        // A dispatch that ends before the sampler sees it has no sample
+        dispatch(TASK_MESSAGE, 20);
+        Assertions.assertNull(monitor.getSlowestEvents().get(1).getStackSample());
+    }
+
+    private void dispatch(String description, long millis) {
+        monitor.dispatchStarted(description);
+        now += millis * 1_000_000;
+        monitor.dispatchFinished();
+    }
+}
@@ -0,0 +1,116 @@
+package edu.byu.cs.tweeter.client.trace;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+public class TracerTest {
+
+    private Tracer tracer;
+
+    @BeforeEach
+    public void setup() {
+        tracer = new Tracer();
+        tracer.setEnabled(true);
+    }
+
+    @Test
+    public void testDisabledTracerRecordsNothing() {
+        tracer.setEnabled(false);
+
+        Span span = tracer.startSpan("disabled");
+        span.end();
+
+        Assertions.assertNull(tracer.currentContext());
+        Assertions.assertTrue(tracer.getFinishedSpans().isEmpty());
+    }
+
+    @Test
+    public void testNestedSpansOnOneThread() {
+        Span outer = tracer.startSpan("outer");
+        Span inner = tracer.startSpan("inner");
+        Assertions.assertEquals(inner.getContext(), tracer.currentContext());
+
+        inner.end();
+        Assertions.assertEquals(outer.getContext(), tracer.currentContext());
+
+        outer.end();
+        Assertions.assertNull(tracer.currentContext());
+
+        Assertions.assertEquals(outer.getSpanId(), inner.getParentSpanId());
+        Assertions.assertEquals(outer.getTraceId(), inner.getTraceId());
+        Assertions.assertEquals(0, outer.getParentSpanId());
+    }
+
+    @Test
+    public void testContextCarriedToAnotherThread() throws InterruptedException {
+        Span parent = tracer.startSpan("submit");
+        final TraceContext context = tracer.currentContext();
+
+        final Span[] child = new Span[1];
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                child[0] = tracer.startSpan("task", context);
+                child[0].end();
+            }
+        });
+        worker.start();
+        worker.join();
+        parent.end();
+
+        Assertions.assertEquals(parent.getSpanId(), child[0].getParentSpanId());
+        Assertions.assertEquals(parent.getTraceId(), child[0].getTraceId());
+        Assertions.assertNotEquals(parent.getThreadId(), child[0].getThreadId());
+    }
+
+    @Test
+    public void testExportWritesCompleteAndFlowEvents() throws Exception {
+        Span parent = tracer.startSpan("submit");
+        final TraceContext context = tracer.currentContext();
+        Thread worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Span span = tracer.startSpan("task", context);
+                span.setAttribute("page", 1);
+                span.end();
+            }
+        });
+        worker.start();
+        worker.join();
+        parent.end();
+
+        List<Span> spans = tracer.getFinishedSpans();
+        StringWriter out = new StringWriter();
+        new ChromeTraceExporter(spans.get(0).getStartNanos()).export(spans, out);
+
+        JsonArray events = JsonParser.parseString(out.toString()).getAsJsonObject().getAsJsonArray("traceEvents");
+        int completeEvents = 0;
+        int flowStarts = 0;
+        int flowFinishes = 0;
+        for (JsonElement element : events) {
+            JsonObject event = element.getAsJsonObject();
+            String phase = event.get("ph").getAsString();
+            if (phase.equals("X")) {
+                completeEvents++;
+                Assertions.assertTrue(event.get("dur").getAsDouble() >= 0);
+            } else if (phase.equals("s")) {
+                flowStarts++;
+            } else if (phase.equals("f")) {
+                flowFinishes++;
+            }
+        }
+
+        Assertions.assertEquals(2, completeEvents);
+        Assertions.assertEquals(1, flowStarts);
+        Assertions.assertEquals(1, flowFinishes);
+    }
+}
@@ -0,0 +1,207 @@
+package edu.byu.cs.tweeter.client.view.main.following;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.byu.cs.tweeter.client.view.paging.PagedList;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class UserListBuilderTest {
+
+    private static final int AVATAR_SIZE = 150;
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+
+    @Test
+    public void testAppendBuildsNewLists() {
+        UserListBuilder builder = new UserListBuilder(2, UserListBuilder.ALL_PAGES, AVATAR_SIZE);
+
+        List<UserRow> first = builder.append(Arrays.asList(allen, amy));
+        List<UserRow> second = builder.append(Collections.singletonList(bob));
+
+        // The first list is left as it was, so it can still be compared with the second
+        Assertions.assertEquals(Arrays.asList("@allen", "@amy"), aliases(first));
+        Assertions.assertEquals(Arrays.asList("@allen", "@amy", "@bob"), aliases(second));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> second.add(first.get(0)));
+    }
+
+    @Test
+    public void testAppendSkipsUsersAlreadyInList() {
+        UserListBuilder builder = new UserListBuilder(2, UserListBuilder.ALL_PAGES, AVATAR_SIZE);
+        builder.append(Arrays.asList(allen, amy));
+
+        List<UserRow> users = builder.append(Arrays.asList(amy, bob, bob));
+
+        Assertions.assertEquals(Arrays.asList("@allen", "@amy", "@bob"), aliases(users));
+    }
+
+    @Test
+    public void testRowsArePrecomputed() {
+        UserListBuilder builder = new UserListBuilder(2, UserListBuilder.ALL_PAGES, AVATAR_SIZE);
+        User noImage = new User("Ann", "Other", "@ann", null);
+        User withImage = new User("Bo", "Smith", "@bo", "https://example.com/bo.png");
+
+        List<UserRow> rows = builder.append(Arrays.asList(noImage, withImage));
+
+        Assertions.assertEquals(noImage.getName(), rows.get(0).getName());
+        Assertions.assertNull(rows.get(0).getAvatarKey());
+        Assertions.assertEquals(withImage.getName(), rows.get(1).getName());
+        Assertions.assertSame(withImage, rows.get(1).getUser());
+        Assertions.assertEquals("https://example.com/bo.png", rows.get(1).getImageUrl());
+        Assertions.assertNotEquals(rows.get(1).getAvatarKey(),
+                UserRow.of(withImage, AVATAR_SIZE * 2).getAvatarKey());
+    }
+
+    @Test
+    public void testPageReplacesLoadingPlaceholder() {
+        UserListBuilder builder = new UserListBuilder(2, UserListBuilder.ALL_PAGES, AVATAR_SIZE);
+        builder.append(Collections.singletonList(allen));
+
+        PagedList<UserRow> loading = builder.showLoading();
+        Assertions.assertEquals(2, loading.size());
+        Assertions.assertEquals(PagedList.SlotType.LOADING, loading.getSlotType(1));
+        Assertions.assertSame(loading, builder.showLoading());
+
+        PagedList<UserRow> loaded = builder.append(Arrays.asList(amy, bob));
+        Assertions.assertEquals(Arrays.asList("@allen", "@amy", "@bob"), aliases(loaded));
+        Assertions.assertSame(loaded, builder.hideLoading());
+    }
+
+    @Test
+    public void testWindowDropsFarPagesAndReloadsThemWhenNear() {
+        UserListBuilder builder = new UserListBuilder(2, 1, AVATAR_SIZE);
+        builder.append(users(0, 10));
+
+        // Visible rows 8-9 are page 4, so pages 3 and 4 stay
+        PagedList<UserRow> scrolled = builder.keepNear(8, 9);
+        Assertions.assertEquals(10, scrolled.size());
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, scrolled.getSlotType(5));
+        Assertions.assertEquals(PagedList.SlotType.ITEM, scrolled.getSlotType(6));
+        Assertions.assertTrue(builder.takePageReloads().isEmpty());
+
+        // Scrolling back to page 1 needs pages 0-2
+        builder.keepNear(2, 3);
+        List<UserListBuilder.PageReload> reloads = builder.takePageReloads();
+        Assertions.assertEquals(3, reloads.size());
+        Assertions.assertEquals(0, reloads.get(0).getPageIndex());
+        Assertions.assertNull(reloads.get(0).getCursor());
+        Assertions.assertEquals(2, reloads.get(2).getPageIndex());
+        Assertions.assertEquals("@user3", reloads.get(2).getCursor().getAlias());
+        // Requested once only
+        builder.keepNear(2, 3);
+        Assertions.assertTrue(builder.takePageReloads().isEmpty());
+
+        PagedList<UserRow> reloaded = builder.replacePage(2, users(4, 10));
+        Assertions.assertEquals("@user4", reloaded.get(4).getAlias());
+        Assertions.assertEquals("@user5", reloaded.get(5).getAlias());
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, reloaded.getSlotType(6));
+
+        // A page that comes back short can't be restored in place
+        builder.replacePage(1, users(2, 1));
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, builder.hideLoading().getSlotType(2));
+        builder.reloadFailed(0);
+        builder.keepNear(2, 3);
+        Assertions.assertTrue(builder.takePageReloads().isEmpty());
+    }
+
+    @Test
+    public void testRefreshReplacesUsersAfterCursor() {
+        UserListBuilder builder = new UserListBuilder(2, UserListBuilder.ALL_PAGES, AVATAR_SIZE);
+        builder.append(users(0, 6));
+        builder.showLoading();
+
+        // The page after @user1 has lost @user3, so the users after it have moved
+        User added = new User("New", "User", "@new", null);
+        PagedList<UserRow> refreshed = builder.refreshFrom(users(1, 1).get(0), Arrays.asList(users(2, 1).get(0), added));
+        Assertions.assertEquals(Arrays.asList("@user0", "@user1", "@user2", "@new", null), aliases(refreshed));
+        Assertions.assertEquals(PagedList.SlotType.LOADING, refreshed.getSlotType(4));
+
+        // A cursor in the middle of a page keeps the users before it, and removed users can be
+        // added again
+        refreshed = builder.refreshFrom(users(2, 1).get(0), users(3, 3));
+        Assertions.assertEquals(Arrays.asList("@user0", "@user1", "@user2", "@user3", "@user4", "@user5", null), aliases(refreshed));
+
+        // A cursor that isn't in the list changes nothing
+        Assertions.assertSame(refreshed, builder.refreshFrom(added, users(6, 2)));
+    }
+
+    @Test
+    public void testRefreshFromDroppedPageCursor() {
+        UserListBuilder builder = new UserListBuilder(2, 1, AVATAR_SIZE);
+        builder.append(users(0, 10));
+        builder.keepNear(8, 9);
+
+        // Page 2 is dropped, but keeps @user5 as page 3's cursor
+        PagedList<UserRow> refreshed = builder.refreshFrom(users(5, 1).get(0), users(7, 2));
+        Assertions.assertEquals(Arrays.asList(null, null, null, null, null, null, "@user7", "@user8"), aliases(refreshed));
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, refreshed.getSlotType(5));
+        Assertions.assertEquals("@user8", refreshed.getLastItem().getAlias());
+    }
+
+    @Test
+    public void testWindowedListKeepsTheSameNumberOfUsers() {
+        UserListBuilder builder = new UserListBuilder(10, 2, AVATAR_SIZE);
+
+        PagedList<UserRow> list = null;
+        for (int page = 0; page < 1000; page++) {
+            builder.showLoading();
+            list = builder.append(users(page * 10, 10));
+            builder.keepNear(page * 10, page * 10 + 9);
+            Assertions.assertTrue(builder.takePageReloads().isEmpty());
+        }
+        list = builder.hideLoading();
+
+        Assertions.assertEquals(10_000, list.size());
+        int loaded = 0;
+        for (int i = 0; i < list.size(); i++) {
+            if (!list.get(i).isPlaceholder()) {
+                loaded++;
+            }
+        }
+        Assertions.assertEquals(30, loaded);
+        Assertions.assertEquals("@user9999", list.getLastItem().getAlias());
+    }
+
+    @Test
+    public void testPlaceholderRowsAreDistinctItems() {
+        UserListBuilder builder = new UserListBuilder(3, 0, AVATAR_SIZE);
+        builder.append(users(0, 6));
+        builder.keepNear(5, 5);
+        PagedList<UserRow> list = builder.showLoading();
+
+        UserRow dropped = list.get(0);
+        UserRow loading = list.get(6);
+        Assertions.assertTrue(dropped.isPlaceholder());
+        Assertions.assertTrue(loading.isPlaceholder());
+        Assertions.assertFalse(dropped.isSameItem(list.get(1)));
+        Assertions.assertFalse(dropped.isSameItem(loading));
+        Assertions.assertTrue(dropped.isSameItem(list.get(0)));
+        Assertions.assertTrue(dropped.isSameContent(list.get(0)));
+        Assertions.assertFalse(dropped.isSameItem(list.get(3)));
+        Assertions.assertFalse(list.get(3).isSameItem(dropped));
+        Assertions.assertTrue(list.get(3).isSameItem(list.get(3)));
+    }
+
+    private static List<String> aliases(List<UserRow> rows) {
+        List<String> aliases = new ArrayList<>(rows.size());
+        for (UserRow row : rows) {
+            aliases.add(row.isPlaceholder() ? null : row.getAlias());
+        }
+        return aliases;
+    }
+
+    private static List<User> users(int first, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            users.add(new User("First" + i, "Last" + i, "@user" + i, null));
+        }
+        return users;
+    }
+}
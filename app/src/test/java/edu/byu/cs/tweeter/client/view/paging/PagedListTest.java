@@ -0,0 +1,142 @@
+package edu.byu.cs.tweeter.client.view.paging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class PagedListTest {
+
+    private static final int PAGE_SIZE = 3;
+
+    @Test
+    public void testItemsFillPages() {
+        PagedList<String> list = new PagedList<String>(PAGE_SIZE)
+                .withItems(Arrays.asList("a", "b"))
+                .withItems(Arrays.asList("c", "d", "e", "f", "g"));
+
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), list);
+        Assertions.assertEquals(3, list.getPageCount());
+        Assertions.assertEquals(0, list.getPageIndex(2));
+        Assertions.assertEquals(1, list.getPageIndex(3));
+        Assertions.assertEquals(2, list.getPageIndex(6));
+        Assertions.assertEquals("g", list.getLastItem());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> list.get(7));
+    }
+
+    @Test
+    public void testChangesLeaveOriginalUnchanged() {
+        PagedList<String> original = new PagedList<String>(PAGE_SIZE).withItems(Arrays.asList("a", "b"));
+
+        PagedList<String> appended = original.withItems(Arrays.asList("c", "d"));
+        PagedList<String> loading = original.withPlaceholders(PagedList.SlotType.LOADING, 1);
+
+        Assertions.assertEquals(Arrays.asList("a", "b"), original);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d"), appended);
+        Assertions.assertEquals(Arrays.asList("a", "b", null), loading);
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> original.add("x"));
+    }
+
+    @Test
+    public void testPlaceholdersAreTypedAndReplacedByItems() {
+        PagedList<String> list = new PagedList<String>(PAGE_SIZE)
+                .withItems(Arrays.asList("a", "b"))
+                .withPlaceholders(PagedList.SlotType.LOADING, 2);
+
+        Assertions.assertEquals(4, list.size());
+        Assertions.assertEquals(PagedList.SlotType.ITEM, list.getSlotType(1));
+        Assertions.assertEquals(PagedList.SlotType.LOADING, list.getSlotType(2));
+        Assertions.assertEquals(PagedList.SlotType.LOADING, list.getSlotType(3));
+        Assertions.assertEquals(PagedList.SlotType.LOADING, list.getTrailingPlaceholderType());
+        Assertions.assertEquals("b", list.getLastItem());
+
+        PagedList<String> loaded = list.withItems(Arrays.asList("c", "d"));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d"), loaded);
+        Assertions.assertNull(loaded.getTrailingPlaceholderType());
+
+        PagedList<String> cancelled = list.withoutPlaceholders();
+        Assertions.assertEquals(Arrays.asList("a", "b"), cancelled);
+        Assertions.assertSame(cancelled, cancelled.withoutPlaceholders());
+    }
+
+    @Test
+    public void testPageReplacementAndInvalidation() {
+        PagedList<String> list = new PagedList<String>(PAGE_SIZE)
+                .withItems(Arrays.asList("a", "b", "c", "d", "e", "f", "g"));
+
+        PagedList<String> replaced = list.withPage(1, Arrays.asList("D", "E", "F"));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "D", "E", "F", "g"), replaced);
+        // Only a full page can replace a page in the middle
+        Assertions.assertThrows(IllegalArgumentException.class, () -> list.withPage(1, Arrays.asList("D")));
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f"),
+                list.withPage(2, Collections.<String>emptyList()));
+
+        PagedList<String> invalidated = list.invalidateFrom(1);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), invalidated);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "x"), invalidated.withItems(Arrays.asList("x")));
+    }
+
+    @Test
+    public void testDroppedPagesKeepPositionsAndCursors() {
+        PagedList<String> list = new PagedList<String>(PAGE_SIZE)
+                .withItems(Arrays.asList("a", "b", "c", "d", "e", "f", "g"));
+
+        PagedList<String> dropped = list.withPageDropped(0).withPageDropped(1);
+        Assertions.assertEquals(Arrays.asList(null, null, null, null, null, null, "g"), dropped);
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, dropped.getSlotType(4));
+        Assertions.assertEquals(PagedList.SlotType.ITEM, dropped.getSlotType(6));
+        Assertions.assertFalse(dropped.isPageLoaded(1));
+        Assertions.assertTrue(dropped.isPageLoaded(2));
+        // The cursors survive the pages they came from
+        Assertions.assertNull(dropped.getPageCursor(0));
+        Assertions.assertEquals("c", dropped.getPageCursor(1));
+        Assertions.assertEquals("f", dropped.getPageCursor(2));
+        Assertions.assertSame(dropped, dropped.withPageDropped(1));
+        // The partly filled last page may still be filled, so it can't be dropped
+        Assertions.assertThrows(IllegalArgumentException.class, () -> dropped.withPageDropped(2));
+
+        PagedList<String> reloaded = dropped.withPage(1, Arrays.asList("d", "e", "f"));
+        Assertions.assertEquals(Arrays.asList(null, null, null, "d", "e", "f", "g"), reloaded);
+        Assertions.assertEquals(Arrays.asList("a", "b", "c", "d", "e", "f", "g"), list);
+
+        PagedList<String> appended = dropped.withItems(Arrays.asList("h", "i"));
+        Assertions.assertEquals("i", appended.getLastItem());
+        Assertions.assertEquals(PagedList.SlotType.DROPPED, appended.getSlotType(0));
+        Assertions.assertEquals(3, appended.getPageLength(2));
+        Assertions.assertEquals("i", appended.withPageDropped(2).getLastItem());
+    }
+
+    @Test
+    public void testLargeListLookups() {
+        List<Integer> items = new ArrayList<>();
+        PagedList<Integer> list = new PagedList<>(10);
+        for (int page = 0; page < 100; page++) {
+            List<Integer> pageItems = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                pageItems.add(items.size() + i);
+            }
+            items.addAll(pageItems);
+            list = list.withPlaceholders(PagedList.SlotType.LOADING, 1).withItems(pageItems);
+        }
+
+        Assertions.assertEquals(items, list);
+        Assertions.assertEquals(70, list.getPageCount());
+    }
+
+    @Test
+    public void testPlaceholdersReadAsMadeItems() {
+        PagedList<String> list = new PagedList<String>(PAGE_SIZE, new PagedList.Placeholders<String>() {
+            @Override
+            public String placeholder(PagedList.SlotType type, int position) {
+                return type + "@" + position;
+            }
+        }).withItems(Arrays.asList("a", "b", "c", "d")).withPageDropped(0).withPlaceholders(PagedList.SlotType.LOADING, 2);
+
+        Assertions.assertEquals(Arrays.asList("DROPPED@0", "DROPPED@1", "DROPPED@2", "d", "LOADING@4", "LOADING@5"), list);
+        Assertions.assertEquals(Arrays.asList("DROPPED@0", "DROPPED@1", "DROPPED@2", "d"), list.withoutPlaceholders());
+        Assertions.assertEquals("c", list.getPageCursor(1));
+    }
+}
@@ -0,0 +1,82 @@
+package edu.byu.cs.tweeter.client.view.paging;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PrefetchDistanceTest {
+
+    private static final int ROW_HEIGHT = 100;
+
+    @Test
+    public void testDistanceGrowsWithScrollSpeed() {
+        PrefetchDistance distance = new PrefetchDistance(5, 50, 500);
+        Assertions.assertEquals(5, distance.getDistanceRows());
+
+        // Slow drag: a row every 100 ms is 10 rows/s, or 5 rows in a 500 ms load
+        long now = 1000;
+        for (int i = 0; i < 30; i++) {
+            distance.onScrolled(ROW_HEIGHT / 10, ROW_HEIGHT, now += 10);
+        }
+        Assertions.assertEquals(10, distance.getRowsPerSecond(), 0.1);
+        Assertions.assertEquals(10, distance.getDistanceRows());
+
+        // Fling: 60 rows/s covers three pages during a load
+        for (int i = 0; i < 30; i++) {
+            distance.onScrolled(ROW_HEIGHT * 6 / 10, ROW_HEIGHT, now += 10);
+        }
+        Assertions.assertEquals(35, distance.getDistanceRows());
+
+        // Very fast flings are capped
+        for (int i = 0; i < 30; i++) {
+            distance.onScrolled(ROW_HEIGHT * 10, ROW_HEIGHT, now += 10);
+        }
+        Assertions.assertEquals(50, distance.getDistanceRows());
+
+        distance.onScrollStopped();
+        Assertions.assertEquals(5, distance.getDistanceRows());
+    }
+
+    @Test
+    public void testScrollingBackOrAfterAPauseDoesNotPrefetchFurther() {
+        PrefetchDistance distance = new PrefetchDistance(5, 50, 500);
+
+        long now = 1000;
+        for (int i = 0; i < 30; i++) {
+            distance.onScrolled(-ROW_HEIGHT, ROW_HEIGHT, now += 10);
+        }
+        Assertions.assertEquals(5, distance.getDistanceRows());
+
+        distance.onScrolled(ROW_HEIGHT, ROW_HEIGHT, now += 10);
+        distance.onScrolled(ROW_HEIGHT * 100, ROW_HEIGHT, now += 1000);
+        Assertions.assertEquals(0, distance.getRowsPerSecond());
+    }
+
+    @Test
+    public void testOneTriggerAtATime() {
+        PrefetchDistance distance = new PrefetchDistance(5, 50, 500);
+
+        Assertions.assertFalse(distance.shouldLoad(10, 20));
+        Assertions.assertTrue(distance.shouldLoad(14, 20));
+        // Later scroll events before the load starts don't trigger it again
+        Assertions.assertFalse(distance.shouldLoad(15, 20));
+        Assertions.assertFalse(distance.shouldLoad(19, 20));
+
+        distance.onLoadStarted();
+        Assertions.assertTrue(distance.shouldLoad(19, 20));
+    }
+
+    @Test
+    public void testLoadTimeIsMeasured() {
+        PrefetchDistance distance = new PrefetchDistance(0, 100, 500);
+        for (int i = 0; i < 50; i++) {
+            distance.recordLoadMillis(2000);
+        }
+        Assertions.assertEquals(2000, distance.getLoadMillis(), 1);
+
+        long now = 1000;
+        for (int i = 0; i < 30; i++) {
+            distance.onScrolled(ROW_HEIGHT / 10, ROW_HEIGHT, now += 10);
+        }
+        Assertions.assertEquals(20, distance.getDistanceRows());
+    }
+}
@@ -0,0 +1,67 @@
+package edu.byu.cs.tweeter.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+
+import edu.byu.cs.tweeter.server.handler.FollowHandler;
+import edu.byu.cs.tweeter.server.handler.GetFeedHandler;
+import edu.byu.cs.tweeter.server.handler.GetFollowCountsHandler;
+import edu.byu.cs.tweeter.server.handler.GetFollowersHandler;
+import edu.byu.cs.tweeter.server.handler.GetFollowingDeltaHandler;
+import edu.byu.cs.tweeter.server.handler.GetFollowingHandler;
+import edu.byu.cs.tweeter.server.handler.GetMentionsHandler;
+import edu.byu.cs.tweeter.server.handler.GetRecommendationsHandler;
+import edu.byu.cs.tweeter.server.handler.GetStoryHandler;
+import edu.byu.cs.tweeter.server.handler.GetTrendingHandler;
+import edu.byu.cs.tweeter.server.handler.IsFollowingHandler;
+import edu.byu.cs.tweeter.server.handler.LoginHandler;
+import edu.byu.cs.tweeter.server.handler.PostStatusHandler;
+import edu.byu.cs.tweeter.server.handler.SearchUsersHandler;
+import edu.byu.cs.tweeter.server.handler.UnfollowHandler;
+import edu.byu.cs.tweeter.server.net.HttpServer;
+
+/**
+ * Runs the Tweeter API on the local machine.
+ * <p>
+ * Usage: TweeterServer [port [workerThreads]]
+ */
+public class TweeterServer {
+
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_WORKER_THREADS = 4;
+
+    /**
+     * Creates a server, listening on the loopback interface, with a handler for every endpoint.
+     *
+     * @param port the port (0 picks a free port).
+     * @param workerThreads the number of threads that run handlers.
+     * @return the server, not yet started.
+     */
+    public static HttpServer createServer(int port, int workerThreads) {
+        HttpServer server = new HttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), workerThreads);
+        server.addHandler("/login", new LoginHandler());
+        server.addHandler("/getfollowing", new GetFollowingHandler());
+        server.addHandler("/getfollowingdelta", new GetFollowingDeltaHandler());
+        server.addHandler("/getfollowers", new GetFollowersHandler());
+        server.addHandler("/getfollowcounts", new GetFollowCountsHandler());
+        server.addHandler("/isfollowing", new IsFollowingHandler());
+        server.addHandler("/getrecommendations", new GetRecommendationsHandler());
+        server.addHandler("/follow", new FollowHandler());
+        server.addHandler("/unfollow", new UnfollowHandler());
+        server.addHandler("/getstory", new GetStoryHandler());
+        server.addHandler("/getfeed", new GetFeedHandler());
+        server.addHandler("/getmentions", new GetMentionsHandler());
+        server.addHandler("/poststatus", new PostStatusHandler());
+        server.addHandler("/gettrending", new GetTrendingHandler());
+        server.addHandler("/searchusers", new SearchUsersHandler());
+        return server;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workerThreads = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_WORKER_THREADS;
+
+        createServer(port, workerThreads).start();
+    }
+}
@@ -0,0 +1,282 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * An in-memory store of the sessions started by logging in, keyed by auth token.
+ * <p>
+ * Tokens are random and unguessable. Looking one up is a single read of a
+ * {@link ConcurrentHashMap}, so request threads never wait on a lock to authenticate. A session
+ * expires after it has been idle for the idle timeout; every successful validation renews it
+ * (sliding expiry).
+ * <p>
+ * Expired sessions are removed by a hashed timer wheel instead of a scan of every session or a
+ * timer per session. The wheel is a ring of buckets, each covering one tick of time, and a
+ * session is placed in the bucket for the tick it expires in. Each tick only that bucket is
+ * visited. Renewing a session does not move it: when its bucket comes round, a session that has
+ * been renewed since it was placed there is moved to the bucket for its new expiry time and a
+ * session that has really expired is removed. This keeps validation to a volatile write on the
+ * session, and a session is visited about once per idle timeout however often it is used.
+ * <p>
+ * A token is checked against its expiry time whenever it is validated, so the wheel only
+ * decides when the memory of an expired session is reclaimed; its coarse ticks never let an
+ * expired token through.
+ */
+public class AuthTokenDAO {
+
+    public static final long DEFAULT_IDLE_TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(24);
+    public static final int DEFAULT_WHEEL_SIZE = 1024;
+
+    private static final int TOKEN_BYTES = 24;
+
+    private static final AuthTokenDAO instance = createStarted();
+
+    public static AuthTokenDAO getInstance() {
+        return instance;
+    }
+
+    private static AuthTokenDAO createStarted() {
+        AuthTokenDAO dao = new AuthTokenDAO(DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_WHEEL_SIZE);
+        dao.start();
+        return dao;
+    }
+
+    private final long idleTimeoutMillis;
+    private final long tickMillis;
+    private final Bucket[] wheel;
+    private final int wheelMask;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * The last tick whose bucket has been visited. Only the thread that holds the lock on the
+     * wheel visits buckets.
+     */
+    private long lastTick;
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * Creates an instance. Expired sessions are not removed until {@link #start} is called or
+     * {@link #expireSessions} is called some other way.
+     *
+     * @param idleTimeoutMillis how long a session lasts after it was last used.
+     * @param wheelSize the number of buckets in the timer wheel, rounded up to a power of two.
+     *                  The wheel turns once per idle timeout, so this sets how precisely
+     *                  expired sessions are reclaimed.
+     */
+    public AuthTokenDAO(long idleTimeoutMillis, int wheelSize) {
+        if (idleTimeoutMillis <= 0 || wheelSize <= 0 || wheelSize > (1 << 24)) {
+            throw new IllegalArgumentException("Invalid idle timeout or wheel size");
+        }
+
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.tickMillis = Math.max(1, (idleTimeoutMillis + size - 1) / size);
+        this.wheel = new Bucket[size];
+        this.wheelMask = size - 1;
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.lastTick = currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Starts a daemon thread that removes expired sessions once per tick.
+     */
+    public synchronized void start() {
+        if (sweeper != null) {
+            return;
+        }
+
+        sweeper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "auth-token-expiry");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        sweeper.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                expireSessions();
+            }
+        }, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Starts a session for a user.
+     *
+     * @param userAlias the user that logged in.
+     * @return the session's auth token, with the time it was issued.
+     */
+    public AuthToken issue(String userAlias) {
+        long now = currentTimeMillis();
+        Session session;
+        do {
+            session = new Session(newToken(), userAlias, now + idleTimeoutMillis);
+        } while (sessions.putIfAbsent(session.token, session) != null);
+
+        schedule(session, session.expiresAt);
+        return new AuthToken(session.token, now);
+    }
+
+    /**
+     * Checks that a token belongs to a live session and, if it does, renews the session.
+     *
+     * @param token the token.
+     * @return the alias of the session's user, or null if the token is unknown or has expired.
+     */
+    public String validate(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+
+        long now = currentTimeMillis();
+        long expiresAt = session.expiresAt;
+        if (now >= expiresAt) {
+            sessions.remove(token, session);
+            return null;
+        }
+
+        // Renew at most once per tick, so a token used by many threads at once isn't written on
+        // every request. The session stays in its bucket until the wheel reaches it.
+        long renewedExpiresAt = now + idleTimeoutMillis;
+        if (renewedExpiresAt - expiresAt >= tickMillis) {
+            session.expiresAt = renewedExpiresAt;
+        }
+        return session.userAlias;
+    }
+
+    /**
+     * Ends a session (e.g. on logout). Its bucket entry is dropped when the wheel reaches it.
+     *
+     * @param token the session's token.
+     * @return true if the session existed.
+     */
+    public boolean revoke(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Visits the buckets of every tick that has passed since the last call, removing the
+     * sessions in them that have expired and moving the ones that were renewed.
+     *
+     * @return the number of sessions removed.
+     */
+    public int expireSessions() {
+        synchronized (wheel) {
+            long now = currentTimeMillis();
+            long currentTick = now / tickMillis;
+            // After a long pause every bucket is due, but each only needs visiting once
+            long firstTick = Math.max(lastTick + 1, currentTick - wheelMask);
+
+            int expired = 0;
+            for (long tick = firstTick; tick <= currentTick; tick++) {
+                for (Session session : wheel[(int) (tick & wheelMask)].drain()) {
+                    if (sessions.get(session.token) != session) {
+                        continue;  // Revoked, or already removed by validate
+                    }
+
+                    long expiresAt = session.expiresAt;
+                    if (expiresAt <= now) {
+                        if (sessions.remove(session.token, session)) {
+                            expired++;
+                        }
+                    } else {
+                        // expiresAt > now, so this is always a later tick than the current one
+                        schedule(session, expiresAt);
+                    }
+                }
+            }
+            lastTick = Math.max(lastTick, currentTick);
+            return expired;
+        }
+    }
+
+    /**
+     * Returns the number of live sessions, including expired ones the wheel has not yet reached.
+     *
+     * @return the number of sessions.
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    // This method is public so it can be accessed by test cases
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private void schedule(Session session, long expiresAt) {
+        // The first tick that starts at or after the expiry time
+        long tick = (expiresAt + tickMillis - 1) / tickMillis;
+        wheel[(int) (tick & wheelMask)].add(session);
+    }
+
+    private String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static class Session {
+        private final String token;
+        private final String userAlias;
+        private volatile long expiresAt;
+
+        Session(String token, String userAlias, long expiresAt) {
+            this.token = token;
+            this.userAlias = userAlias;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * The sessions due to expire in one tick of the wheel. Logging in adds to a bucket from any
+     * thread, so each bucket has its own lock; the wheel swaps the list out to visit it.
+     */
+    private static class Bucket {
+        private List<Session> sessions = new ArrayList<>();
+
+        synchronized void add(Session session) {
+            sessions.add(session);
+        }
+
+        synchronized List<Session> drain() {
+            List<Session> drained = sessions;
+            sessions = new ArrayList<>();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.Arrays;
+
+/**
+ * Estimates how many times each of an unbounded number of keys has been counted, in a fixed
+ * amount of memory.
+ * <p>
+ * The sketch is {@code depth} rows of {@code width} counters. Counting a key adds to one counter
+ * in each row, chosen by a hash of the key for that row, and the estimate is the smallest of
+ * those counters. Other keys only ever add to a key's counters, so an estimate is never too low.
+ * With {@code width = ceil(e / epsilon)} and {@code depth = ceil(ln(1 / delta))} an estimate is
+ * more than {@code epsilon * total} too high with probability at most {@code delta}, where
+ * {@code total} is the sum of all the counts.
+ * <p>
+ * Sketches with the same dimensions use the same hashes, so one sketch's counts can be
+ * subtracted from another's, e.g. to keep a sketch of a sliding window that is the sum of the
+ * sketches of its time buckets. Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+    private long total;
+
+    /**
+     * Creates a sketch with the dimensions that give an error bound.
+     *
+     * @param epsilon the largest error, as a fraction of the total count, of an estimate.
+     * @param delta the probability that an estimate's error is larger than that.
+     * @return the sketch.
+     */
+    public static CountMinSketch withErrorBound(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Invalid error bound");
+        }
+        return new CountMinSketch((int) Math.ceil(Math.E / epsilon), (int) Math.ceil(Math.log(1 / delta)));
+    }
+
+    /**
+     * Creates a sketch.
+     *
+     * @param width the number of counters in each row.
+     * @param depth the number of rows.
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Invalid sketch size " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the sum of every count added.
+     *
+     * @return the total.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Counts a key.
+     *
+     * @param key the key.
+     * @param count the number of times to count it.
+     * @return the key's new estimate.
+     */
+    public int add(String key, int count) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + index(h1, h2, row);
+            counters[index] += count;
+            estimate = Math.min(estimate, counters[index]);
+        }
+        total += count;
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated number of times a key has been counted.
+     *
+     * @param key the key.
+     * @return the estimate, which is never less than the real count.
+     */
+    public int estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + index(h1, h2, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Removes counts that were added from another sketch.
+     *
+     * @param other a sketch with the same dimensions whose counts were all added to this one.
+     */
+    public void subtract(CountMinSketch other) {
+        checkDimensions(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+        total -= other.total;
+    }
+
+    /**
+     * Sets every count back to zero.
+     */
+    public void clear() {
+        Arrays.fill(counters, 0);
+        total = 0;
+    }
+
+    private void checkDimensions(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Sketches have different dimensions");
+        }
+    }
+
+    /**
+     * Returns a row's counter for a key, using two hashes to make one per row
+     * (Kirsch-Mitzenmacher).
+     */
+    private int index(int h1, int h2, int row) {
+        int combined = h1 + row * h2;
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of a key's characters, finished with a mix so both halves
+     * are well distributed. Keys with the same {@link String#hashCode} get different hashes.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
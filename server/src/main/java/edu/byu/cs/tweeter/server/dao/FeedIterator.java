@@ -0,0 +1,173 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+
+/**
+ * Reads a feed, newest first, by merging status lists as it goes: the stories of the users in it
+ * (fan-out on read), a materialized timeline that statuses were pushed to when they were posted
+ * (fan-out on write), or both.
+ * <p>
+ * Each list has a cursor at its next status, and the cursors are kept in a heap ordered by
+ * that status, so the next status of the feed is at the top of the heap. Taking it moves that
+ * cursor one status back and puts it back in the heap: a page of n statuses from k lists costs
+ * a binary search per list to place the cursors and n heap steps of log k, however long the
+ * lists are, and only the statuses on the page are read. A poster's statuses must all be in the
+ * same list.
+ * <p>
+ * Statuses are ordered by timestamp, newest first, then by poster alias, and a poster's statuses
+ * with the same timestamp latest added first, which is {@link StatusList} order read from the
+ * end. The position after a status is given as an opaque cursor string that names its timestamp,
+ * its poster and how many of the poster's statuses with the same timestamp come after it, so a
+ * later page resumes exactly there, even part way through statuses with the same timestamp, and
+ * whichever kind of list the poster's statuses are in.
+ */
+public class FeedIterator implements Iterator<Status> {
+
+    private static final Comparator<ListCursor> NEWEST_FIRST = new Comparator<ListCursor>() {
+        @Override
+        public int compare(ListCursor cursor1, ListCursor cursor2) {
+            ImmutableStatus status1 = cursor1.status();
+            ImmutableStatus status2 = cursor2.status();
+            int result = Long.compare(status2.getTimestamp(), status1.getTimestamp());
+            return (result != 0) ? result : status1.getUser().getAlias().compareTo(status2.getUser().getAlias());
+        }
+    };
+
+    private final PriorityQueue<ListCursor> heap;
+    private ImmutableStatus last;
+    private String lastAlias;
+    private int lastRank;
+
+    /**
+     * Creates an iterator over a whole feed.
+     *
+     * @param lists the lists of the statuses in the feed.
+     * @return the iterator.
+     */
+    public static FeedIterator fromStart(List<StatusList> lists) {
+        FeedIterator iterator = new FeedIterator(lists.size());
+        for (StatusList list : lists) {
+            iterator.addCursor(list, list.size() - 1);
+        }
+        return iterator;
+    }
+
+    /**
+     * Creates an iterator over the part of a feed after a cursor.
+     *
+     * @param lists the lists of the statuses in the feed.
+     * @param cursor a cursor returned by {@link #getCursor}.
+     * @return the iterator, or null if the cursor is malformed.
+     */
+    public static FeedIterator fromCursor(List<StatusList> lists, String cursor) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+
+        String[] parts = decoded.split(":", 3);
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return after(lists, Long.parseLong(parts[0]), parts[2], Integer.parseInt(parts[1]));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates an iterator over the part of a feed after a status, for clients that page with the
+     * last status they received. Of several statuses with the same poster and timestamp, the
+     * feed resumes after the first one returned.
+     *
+     * @param lists the lists of the statuses in the feed.
+     * @param lastStatus the last status returned.
+     * @return the iterator.
+     */
+    public static FeedIterator fromStatus(List<StatusList> lists, Status lastStatus) {
+        return after(lists, lastStatus.getTimestamp(), lastStatus.getUser().getAlias(), Integer.MAX_VALUE);
+    }
+
+    private static FeedIterator after(List<StatusList> lists, long timestamp, String lastAlias, int lastRank) {
+        FeedIterator iterator = new FeedIterator(lists.size());
+        for (StatusList list : lists) {
+            // Its statuses at the cursor's poster and time with a lower rank came after the cursor
+            int first = list.lowerBound(timestamp, lastAlias);
+            int count = list.upperBound(timestamp, lastAlias) - first;
+            int next = first + Math.max(0, Math.min(lastRank, count - 1)) - 1;
+            iterator.addCursor(list, next);
+        }
+        return iterator;
+    }
+
+    private FeedIterator(int listCount) {
+        this.heap = new PriorityQueue<>(Math.max(1, listCount), NEWEST_FIRST);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public Status next() {
+        ListCursor cursor = heap.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+
+        last = cursor.status();
+        lastAlias = last.getUser().getAlias();
+        lastRank = cursor.index - cursor.list.lowerBound(last.getTimestamp(), lastAlias);
+        cursor.index--;
+        if (cursor.index >= 0) {
+            heap.add(cursor);
+        }
+        return last.toStatus();
+    }
+
+    /**
+     * Returns the cursor of the position after the last status returned by {@link #next}.
+     *
+     * @return the cursor, or null if no status has been returned.
+     */
+    public String getCursor() {
+        if (last == null) {
+            return null;
+        }
+        String cursor = last.getTimestamp() + ":" + lastRank + ":" + lastAlias;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void addCursor(StatusList list, int index) {
+        if (index >= 0) {
+            heap.add(new ListCursor(list, index));
+        }
+    }
+
+    private static class ListCursor {
+        private final StatusList list;
+        private int index;
+
+        ListCursor(StatusList list, int index) {
+            this.list = list;
+            this.index = index;
+        }
+
+        ImmutableStatus status() {
+            return list.get(index);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Bloom filter of follow relationships, split into partitions by follower, that answers "might
+ * A follow B" without reading the follow graph. A "no" is always right; a "yes" is wrong with
+ * about the configured false-positive rate and has to be checked against the graph.
+ * <p>
+ * A Bloom filter can't forget a relationship, so an unfollowed user keeps answering "maybe"
+ * until their partition is rebuilt, and a partition that holds more relationships than it was
+ * sized for answers "maybe" more often than configured. Each partition counts both, and the
+ * caller rebuilds a partition from the graph when {@link #add} or {@link #remove} says it should:
+ * when it has grown past its capacity (the new one has twice the capacity) or when the removed
+ * relationships reach a quarter of its capacity. Each partition keeps the aliases of the
+ * followers added to it, so a rebuild looks up only their follow lists rather than reading every
+ * user's.
+ * <p>
+ * Reads take no lock: the bits are in an {@link AtomicLongArray} and a rebuilt partition replaces
+ * the old one in one write. Updates must be made by one thread at a time (the {@link FollowDAO}
+ * makes them under its lock).
+ */
+public class FollowBloomFilter {
+
+    public static final int DEFAULT_PARTITIONS = 64;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    private static final int MIN_PARTITION_CAPACITY = 64;
+
+    private final AtomicReferenceArray<Partition> partitions;
+    /**
+     * The followers added to each partition, which may include some who no longer follow anyone
+     * until the partition is rebuilt. Only used by updates.
+     */
+    private final List<Set<String>> followersByPartition;
+    private final double falsePositiveRate;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param partitionCount the number of partitions, rounded up to a power of two.
+     * @param expectedFollows the number of relationships the filter is first sized for.
+     * @param falsePositiveRate the rate at which a relationship that doesn't exist is reported as
+     *                          one that might, while the filter is within its capacity.
+     */
+    public FollowBloomFilter(int partitionCount, int expectedFollows, double falsePositiveRate) {
+        if (partitionCount <= 0 || partitionCount > (1 << 16) || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid partition count or false-positive rate");
+        }
+        int size = Integer.highestOneBit(partitionCount);
+        if (size < partitionCount) {
+            size <<= 1;
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.partitions = new AtomicReferenceArray<>(size);
+        this.followersByPartition = new ArrayList<>(size);
+        int capacity = Math.max(MIN_PARTITION_CAPACITY, expectedFollows / size);
+        for (int i = 0; i < size; i++) {
+            partitions.set(i, new Partition(capacity, falsePositiveRate));
+            followersByPartition.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Indicates whether one user might follow another.
+     *
+     * @param followerAlias the follower.
+     * @param followeeAlias the followee.
+     * @return false if the follower certainly doesn't follow the followee.
+     */
+    public boolean mightContain(String followerAlias, String followeeAlias) {
+        return partitions.get(partitionOf(followerAlias)).mightContain(hash(followerAlias, followeeAlias));
+    }
+
+    /**
+     * Adds a relationship.
+     *
+     * @param followerAlias the follower.
+     * @param followeeAlias the followee.
+     * @return true if the follower's partition is over capacity and should be rebuilt.
+     */
+    public boolean add(String followerAlias, String followeeAlias) {
+        int index = partitionOf(followerAlias);
+        Partition partition = partitions.get(index);
+        partition.add(hash(followerAlias, followeeAlias));
+        followersByPartition.get(index).add(followerAlias);
+        return partition.entries > partition.capacity;
+    }
+
+    /**
+     * Records that a relationship has been removed. Its bits stay set until the partition is
+     * rebuilt.
+     *
+     * @param followerAlias the follower.
+     * @return true if the follower's partition has enough removed relationships to be rebuilt.
+     */
+    public boolean remove(String followerAlias) {
+        Partition partition = partitions.get(partitionOf(followerAlias));
+        partition.removed++;
+        return partition.removed * 4 >= partition.capacity;
+    }
+
+    /**
+     * Replaces the partition of a follower with one built from the follow graph.
+     *
+     * @param followerAlias a follower in the partition.
+     * @param followeesByFollower every user's followees, keyed by follower and then followee (only
+     *                            the followers added to the partition are looked up).
+     */
+    public void rebuild(String followerAlias, Map<String, ? extends Map<String, ?>> followeesByFollower) {
+        int index = partitionOf(followerAlias);
+        Partition old = partitions.get(index);
+        Set<String> followers = followersByPartition.get(index);
+
+        int entries = 0;
+        Iterator<String> iterator = followers.iterator();
+        while (iterator.hasNext()) {
+            Map<String, ?> followees = followeesByFollower.get(iterator.next());
+            if (followees == null || followees.isEmpty()) {
+                iterator.remove();
+            } else {
+                entries += followees.size();
+            }
+        }
+
+        int capacity = old.capacity;
+        while (entries > capacity / 2 && capacity < (1 << 28)) {
+            capacity *= 2;
+        }
+        Partition rebuilt = new Partition(capacity, falsePositiveRate);
+        for (String follower : followers) {
+            for (String followee : followeesByFollower.get(follower).keySet()) {
+                rebuilt.add(hash(follower, followee));
+            }
+        }
+        partitions.set(index, rebuilt);
+    }
+
+    private int partitionOf(String followerAlias) {
+        int hash = followerAlias.hashCode();
+        return (hash ^ (hash >>> 16)) & (partitions.length() - 1);
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of a relationship, finished with a mix so both halves are well
+     * distributed.
+     */
+    private static long hash(String followerAlias, String followeeAlias) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < followerAlias.length(); i++) {
+            hash ^= followerAlias.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        // A separator, so "@ab"+"@c" and "@a"+"b@c" differ
+        hash ^= 0xffff;
+        hash *= 0x100000001b3L;
+        for (int i = 0; i < followeeAlias.length(); i++) {
+            hash ^= followeeAlias.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * One partition's bits, sized for a number of relationships at the false-positive rate:
+     * {@code -capacity * ln(rate) / ln(2)^2} bits and {@code bits / capacity * ln(2)} hashes.
+     */
+    private static class Partition {
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+        private final int capacity;
+        private int entries;
+        private int removed;
+
+        Partition(int capacity, double falsePositiveRate) {
+            long bitCount = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / capacity * Math.log(2)));
+            this.capacity = capacity;
+        }
+
+        void add(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = bitIndex(h1, h2, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                // Only one thread updates, so a read and a write are enough
+                long value = bits.get(word);
+                if ((value & mask) == 0) {
+                    bits.set(word, value | mask);
+                }
+            }
+            entries++;
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = bitIndex(h1, h2, i);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns a hash function's bit for a key, using two hashes to make one per function
+         * (Kirsch-Mitzenmacher). The hashes are combined in a long, since a partition can have
+         * more than 2^31 bits.
+         */
+        private long bitIndex(int h1, int h2, int i) {
+            long combined = h1 + (long) i * h2;
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * Keeps every user's follower and followee counts, updated as users follow and unfollow each
+ * other, so a profile can show them without reading the lists.
+ * <p>
+ * Users are spread over a fixed number of stripes by a hash of their alias. Each stripe is an
+ * open-addressing table of aliases with the two counts in parallel int arrays, so a user costs
+ * a slot in three arrays rather than a map entry and boxed counters. A stripe has its own
+ * {@link StampedLock}: updates take its write lock, so they only wait for other updates to the
+ * same stripe, and reads are optimistic, so they never wait and never block an update. A read
+ * is a hash, a probe and a validation, however many updates are under way.
+ * <p>
+ * Accounts with many followers are followed and unfollowed by many users at once, which would
+ * make their stripe's lock a bottleneck. A user whose follower count reaches the hot threshold
+ * is moved to a {@link LongAdder}, which spreads concurrent updates over several cells. Their
+ * table slot is marked as moved, so they stay hot from then on.
+ */
+public class FollowCountDAO {
+
+    public static final int DEFAULT_STRIPES = 64;
+    public static final int DEFAULT_HOT_THRESHOLD = 10_000;
+
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * The follower count of a user who has been moved to the hot counters. Counts are updated
+     * after the follow they record, so an unfollow can be counted before its follow and a count
+     * can briefly be below zero; this one is never reached.
+     */
+    private static final int MOVED = Integer.MIN_VALUE;
+
+    private static final FollowCountDAO instance = load(FollowDAO.getInstance(), FakeData.getInstance().getFakeUsers());
+
+    public static FollowCountDAO getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates an instance holding the counts of the follow relationships in a {@link FollowDAO}.
+     *
+     * @param followDAO the relationships.
+     * @param users the users in it.
+     * @return the instance.
+     */
+    public static FollowCountDAO load(FollowDAO followDAO, List<User> users) {
+        FollowCountDAO counts = new FollowCountDAO(DEFAULT_STRIPES, DEFAULT_HOT_THRESHOLD);
+        for (User user : users) {
+            counts.add(user.getAlias(), followDAO.getFollowerCount(user.getAlias()), followDAO.getFolloweeCount(user.getAlias()));
+        }
+        return counts;
+    }
+
+    private final Stripe[] stripes;
+    private final int hotThreshold;
+    private final ConcurrentHashMap<String, LongAdder> hotFollowerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty instance.
+     *
+     * @param stripeCount the number of stripes, rounded up to a power of two.
+     * @param hotThreshold the follower count at which a user's count is moved to a
+     *                     {@link LongAdder}.
+     */
+    public FollowCountDAO(int stripeCount, int hotThreshold) {
+        if (stripeCount <= 0 || stripeCount > (1 << 16) || hotThreshold <= 0) {
+            throw new IllegalArgumentException("Invalid stripe count or hot threshold");
+        }
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.hotThreshold = hotThreshold;
+    }
+
+    /**
+     * Adds to a user's counts, e.g. when loading them.
+     *
+     * @param alias the user.
+     * @param followerCount the number of followers to add.
+     * @param followeeCount the number of followees to add.
+     */
+    public void add(String alias, int followerCount, int followeeCount) {
+        int hash = hash(alias);
+        stripeFor(hash).add(alias, hash, followerCount, followeeCount);
+    }
+
+    /**
+     * Records that one user followed another.
+     *
+     * @param followerAlias the user doing the following.
+     * @param followeeAlias the user being followed.
+     */
+    public void recordFollow(String followerAlias, String followeeAlias) {
+        add(followeeAlias, 1, 0);
+        add(followerAlias, 0, 1);
+    }
+
+    /**
+     * Records that one user unfollowed another.
+     *
+     * @param followerAlias the user doing the unfollowing.
+     * @param followeeAlias the user being unfollowed.
+     */
+    public void recordUnfollow(String followerAlias, String followeeAlias) {
+        add(followeeAlias, -1, 0);
+        add(followerAlias, 0, -1);
+    }
+
+    /**
+     * Returns the number of users following a user.
+     *
+     * @param alias the user.
+     * @return the count (0 for an unknown user).
+     */
+    public long getFollowerCount(String alias) {
+        LongAdder hot = hotFollowerCounts.get(alias);
+        if (hot != null) {
+            return hot.sum();
+        }
+        int hash = hash(alias);
+        long counts = stripeFor(hash).get(alias, hash);
+        int followerCount = (int) (counts >> 32);
+        if (followerCount == MOVED) {
+            // Moved after the check above, and always put in the hot counters before that
+            return hotFollowerCounts.get(alias).sum();
+        }
+        return followerCount;
+    }
+
+    /**
+     * Returns the number of users a user is following.
+     *
+     * @param alias the user.
+     * @return the count (0 for an unknown user).
+     */
+    public long getFolloweeCount(String alias) {
+        int hash = hash(alias);
+        return (int) stripeFor(hash).get(alias, hash);
+    }
+
+    /**
+     * Indicates whether a user's follower count has been moved to a {@link LongAdder}.
+     *
+     * @param alias the user.
+     * @return true if the user is hot.
+     */
+    boolean isHot(String alias) {
+        return hotFollowerCounts.containsKey(alias);
+    }
+
+    private Stripe stripeFor(int hash) {
+        // The table index uses the low bits, so the stripe uses the high ones
+        return stripes[(hash >>> 16) & (stripes.length - 1)];
+    }
+
+    private static int hash(String alias) {
+        int hash = alias.hashCode();
+        return hash ^ (hash >>> 16) ^ (hash * 0x9e3779b9);
+    }
+
+    /**
+     * An open-addressing table of users' counts. Replaced as a whole when it grows, so an
+     * optimistic reader always sees arrays of the same length.
+     */
+    private static class Table {
+        private final String[] aliases;
+        private final int[] followerCounts;
+        private final int[] followeeCounts;
+        private int size;
+
+        Table(int capacity) {
+            this.aliases = new String[capacity];
+            this.followerCounts = new int[capacity];
+            this.followeeCounts = new int[capacity];
+        }
+
+        /**
+         * Returns the slot that holds an alias, or the empty slot where it would go.
+         */
+        int find(String alias, int hash) {
+            int mask = aliases.length - 1;
+            int slot = hash & mask;
+            // Bounded, since an optimistic reader may see the table while it is being filled
+            for (int probes = 0; probes < aliases.length; probes++) {
+                String current = aliases[slot];
+                if (current == null || current.equals(alias)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    private class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_CAPACITY);
+
+        void add(String alias, int hash, int followerDelta, int followeeDelta) {
+            if (followerDelta != 0) {
+                LongAdder hot = hotFollowerCounts.get(alias);
+                if (hot != null) {
+                    hot.add(followerDelta);
+                    followerDelta = 0;
+                    if (followeeDelta == 0) {
+                        return;
+                    }
+                }
+            }
+
+            long stamp = lock.writeLock();
+            try {
+                int slot = table.find(alias, hash);
+                if (table.aliases[slot] == null) {
+                    if ((table.size + 1) * 4 > table.aliases.length * 3) {
+                        grow();
+                        slot = table.find(alias, hash);
+                    }
+                    table.aliases[slot] = alias;
+                    table.size++;
+                }
+
+                table.followeeCounts[slot] += followeeDelta;
+                if (followerDelta == 0) {
+                    return;
+                }
+                if (table.followerCounts[slot] == MOVED) {
+                    // Moved by another thread since the check above
+                    hotFollowerCounts.get(alias).add(followerDelta);
+                } else if (table.followerCounts[slot] + followerDelta >= hotThreshold) {
+                    LongAdder hot = new LongAdder();
+                    hot.add(table.followerCounts[slot] + followerDelta);
+                    hotFollowerCounts.put(alias, hot);
+                    table.followerCounts[slot] = MOVED;
+                } else {
+                    table.followerCounts[slot] += followerDelta;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Returns a user's follower count in the high 32 bits and followee count in the low 32.
+         */
+        long get(String alias, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            long counts = read(alias, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    counts = read(alias, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return counts;
+        }
+
+        private long read(String alias, int hash) {
+            Table current = table;
+            int slot = current.find(alias, hash);
+            if (slot < 0 || current.aliases[slot] == null) {
+                return 0;
+            }
+            return ((long) current.followerCounts[slot] << 32) | (current.followeeCounts[slot] & 0xffffffffL);
+        }
+
+        private void grow() {
+            Table old = table;
+            Table grown = new Table(old.aliases.length * 2);
+            for (int i = 0; i < old.aliases.length; i++) {
+                if (old.aliases[i] != null) {
+                    int slot = grown.find(old.aliases[i], hash(old.aliases[i]));
+                    grown.aliases[slot] = old.aliases[i];
+                    grown.followerCounts[slot] = old.followerCounts[i];
+                    grown.followeeCounts[slot] = old.followeeCounts[i];
+                }
+            }
+            grown.size = old.size;
+            table = grown;
+        }
+    }
+}
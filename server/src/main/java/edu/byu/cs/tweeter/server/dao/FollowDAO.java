@@ -0,0 +1,396 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+
+import edu.byu.cs.tweeter.model.domain.FollowChange;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * An in-memory store of follow relationships with a change log.
+ * <p>
+ * Every follow and unfollow is given the next number from a single version counter and recorded
+ * in the follower's change log. A client that has read a following list at some version can ask
+ * for just the changes made since then and apply them to its copy. Each user's log keeps only the
+ * most recent changes; when older changes have been discarded (compacted), a client holding an
+ * older version is told to reload the whole list instead.
+ * <p>
+ * Lists are ordered by alias, the natural order of {@link User}.
+ * <p>
+ * A {@link FollowBloomFilter} of the relationships sits in front of them, so most checks of a
+ * relationship that doesn't exist are answered without taking this store's lock.
+ */
+public class FollowDAO {
+
+    public static final int DEFAULT_MAX_CHANGES_PER_USER = 1000;
+
+    private static final FollowDAO instance = new FollowDAO(FakeData.getInstance().getFakeUsers(), DEFAULT_MAX_CHANGES_PER_USER);
+
+    public static FollowDAO getInstance() {
+        return instance;
+    }
+
+    private final int maxChangesPerUser;
+    /**
+     * Identifies this store's history. Versions from another instance (e.g. from before the
+     * server restarted) mean nothing here, so they are recognized by their different epoch.
+     */
+    private final String epoch = Long.toHexString(new Random().nextLong());
+
+    private final Map<String, User> users = new HashMap<>();
+    /**
+     * The users each user is following, keyed by follower alias, then by followee alias.
+     */
+    private final Map<String, NavigableMap<String, User>> followees = new HashMap<>();
+    /**
+     * The users following each user, keyed by followee alias, then by follower alias.
+     */
+    private final Map<String, NavigableMap<String, User>> followers = new HashMap<>();
+    /**
+     * The most recent changes to each user's following list, oldest first.
+     */
+    private final Map<String, ArrayDeque<VersionedChange>> changeLogs = new HashMap<>();
+    /**
+     * For each user, the version of the newest change discarded from their log. Changes up to
+     * and including this version can no longer be sent as a delta.
+     */
+    private final Map<String, Long> compactedThrough = new HashMap<>();
+
+    private final FollowBloomFilter filter;
+
+    private long version;
+
+    /**
+     * Creates an instance in which every user follows every other user, which matches the data
+     * {@link FakeData} returns. The initial state is version 0.
+     *
+     * @param initialUsers the users.
+     * @param maxChangesPerUser the number of changes kept in each user's change log.
+     */
+    public FollowDAO(List<User> initialUsers, int maxChangesPerUser) {
+        this(initialUsers, maxChangesPerUser, FollowBloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Creates an instance in which every user follows every other user.
+     *
+     * @param initialUsers the users.
+     * @param maxChangesPerUser the number of changes kept in each user's change log.
+     * @param falsePositiveRate the false-positive rate of the filter in front of the
+     *                          relationships.
+     */
+    public FollowDAO(List<User> initialUsers, int maxChangesPerUser, double falsePositiveRate) {
+        this.maxChangesPerUser = maxChangesPerUser;
+        this.filter = new FollowBloomFilter(FollowBloomFilter.DEFAULT_PARTITIONS,
+                initialUsers.size() * Math.max(0, initialUsers.size() - 1), falsePositiveRate);
+
+        for (User user : initialUsers) {
+            users.put(user.getAlias(), user);
+            followees.put(user.getAlias(), new TreeMap<String, User>());
+            followers.put(user.getAlias(), new TreeMap<String, User>());
+        }
+        for (User follower : initialUsers) {
+            for (User followee : initialUsers) {
+                if (!follower.equals(followee)) {
+                    followees.get(follower.getAlias()).put(followee.getAlias(), followee);
+                    followers.get(followee.getAlias()).put(follower.getAlias(), follower);
+                    filter.add(follower.getAlias(), followee.getAlias());
+                }
+            }
+        }
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public synchronized User findUser(String alias) {
+        return users.get(alias);
+    }
+
+    /**
+     * Adds a user who follows no one and has no followers.
+     *
+     * @param user the user.
+     * @return true if the user was added, false if a user with the alias already exists.
+     */
+    public synchronized boolean addUser(User user) {
+        if (users.containsKey(user.getAlias())) {
+            return false;
+        }
+
+        users.put(user.getAlias(), user);
+        followees.put(user.getAlias(), new TreeMap<String, User>());
+        followers.put(user.getAlias(), new TreeMap<String, User>());
+        return true;
+    }
+
+    /**
+     * Returns the current version, i.e. the version of the most recent change.
+     *
+     * @return the version.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns a page of the users a user is following.
+     *
+     * @param followerAlias the user whose followees are returned.
+     * @param lastFolloweeAlias the last followee returned in the previous page (can be null).
+     * @param limit the maximum number of followees to return.
+     * @return the page, with the version it was read at.
+     */
+    public synchronized Page getFollowees(String followerAlias, String lastFolloweeAlias, int limit) {
+        return getPage(followees.get(followerAlias), lastFolloweeAlias, limit);
+    }
+
+    /**
+     * Returns a page of the users following a user.
+     *
+     * @param followeeAlias the user whose followers are returned.
+     * @param lastFollowerAlias the last follower returned in the previous page (can be null).
+     * @param limit the maximum number of followers to return.
+     * @return the page, with the version it was read at.
+     */
+    public synchronized Page getFollowers(String followeeAlias, String lastFollowerAlias, int limit) {
+        return getPage(followers.get(followeeAlias), lastFollowerAlias, limit);
+    }
+
+    public synchronized int getFollowerCount(String followeeAlias) {
+        NavigableMap<String, User> list = followers.get(followeeAlias);
+        return (list == null) ? 0 : list.size();
+    }
+
+    public synchronized int getFolloweeCount(String followerAlias) {
+        NavigableMap<String, User> list = followees.get(followerAlias);
+        return (list == null) ? 0 : list.size();
+    }
+
+    /**
+     * Returns a snapshot of every user's followees, which can be read without the lock.
+     *
+     * @return the snapshot.
+     */
+    public synchronized FollowGraph getGraph() {
+        return FollowGraph.of(followees);
+    }
+
+    /**
+     * Indicates whether one user follows another. The filter answers most "no"s without taking
+     * the lock.
+     *
+     * @param followerAlias the follower.
+     * @param followeeAlias the followee.
+     * @return true if the follower follows the followee.
+     */
+    public boolean isFollowing(String followerAlias, String followeeAlias) {
+        if (!filter.mightContain(followerAlias, followeeAlias)) {
+            return false;
+        }
+        synchronized (this) {
+            return containsFollow(followerAlias, followeeAlias);
+        }
+    }
+
+    /**
+     * Indicates whether one user follows each of a list of users, e.g. the users on a page. The
+     * filter answers most "no"s, and the rest are checked under a single acquisition of the lock.
+     *
+     * @param followerAlias the follower.
+     * @param followeeAliases the followees.
+     * @return for each followee, in order, true if the follower follows them.
+     */
+    public boolean[] isFollowing(String followerAlias, List<String> followeeAliases) {
+        boolean[] following = new boolean[followeeAliases.size()];
+        int maybes = 0;
+        for (int i = 0; i < following.length; i++) {
+            following[i] = filter.mightContain(followerAlias, followeeAliases.get(i));
+            if (following[i]) {
+                maybes++;
+            }
+        }
+        if (maybes == 0) {
+            return following;
+        }
+
+        synchronized (this) {
+            for (int i = 0; i < following.length; i++) {
+                if (following[i]) {
+                    following[i] = containsFollow(followerAlias, followeeAliases.get(i));
+                }
+            }
+        }
+        return following;
+    }
+
+    /**
+     * Records that one user follows another.
+     *
+     * @param followerAlias the user doing the following.
+     * @param followeeAlias the user being followed.
+     * @return true if the relationship was added, false if it already existed.
+     */
+    public synchronized boolean follow(String followerAlias, String followeeAlias) {
+        User follower = users.get(followerAlias);
+        User followee = users.get(followeeAlias);
+        if (followees.get(followerAlias).containsKey(followeeAlias)) {
+            return false;
+        }
+
+        followees.get(followerAlias).put(followeeAlias, followee);
+        followers.get(followeeAlias).put(followerAlias, follower);
+        // Added before the lock is released, so a reader who sees the follow never misses it
+        if (filter.add(followerAlias, followeeAlias)) {
+            filter.rebuild(followerAlias, followees);
+        }
+        recordChange(followerAlias, new FollowChange(FollowChange.Type.FOLLOW, followee));
+        return true;
+    }
+
+    /**
+     * Records that one user no longer follows another.
+     *
+     * @param followerAlias the user doing the following.
+     * @param followeeAlias the user being unfollowed.
+     * @return true if the relationship was removed, false if it did not exist.
+     */
+    public synchronized boolean unfollow(String followerAlias, String followeeAlias) {
+        User followee = followees.get(followerAlias).remove(followeeAlias);
+        if (followee == null) {
+            return false;
+        }
+
+        followers.get(followeeAlias).remove(followerAlias);
+        if (filter.remove(followerAlias)) {
+            filter.rebuild(followerAlias, followees);
+        }
+        recordChange(followerAlias, new FollowChange(FollowChange.Type.UNFOLLOW, followee));
+        return true;
+    }
+
+    /**
+     * Returns the changes to a user's following list made after a version.
+     *
+     * @param followerAlias the user.
+     * @param sinceVersion the version the caller's copy of the list is at.
+     * @return the changes, oldest first, with the current version, or null if some of the
+     *         changes have been compacted away (or the version is newer than any version this
+     *         store has issued).
+     */
+    public synchronized ChangeSet getFollowingChanges(String followerAlias, long sinceVersion) {
+        Long compacted = compactedThrough.get(followerAlias);
+        if (sinceVersion > version || (compacted != null && sinceVersion < compacted)) {
+            return null;
+        }
+
+        List<FollowChange> changes = new ArrayList<>();
+        ArrayDeque<VersionedChange> log = changeLogs.get(followerAlias);
+        if (log != null) {
+            for (VersionedChange change : log) {
+                if (change.version > sinceVersion) {
+                    changes.add(change.change);
+                }
+            }
+        }
+        return new ChangeSet(changes, version);
+    }
+
+    private boolean containsFollow(String followerAlias, String followeeAlias) {
+        NavigableMap<String, User> following = followees.get(followerAlias);
+        return following != null && following.containsKey(followeeAlias);
+    }
+
+    private Page getPage(NavigableMap<String, User> list, String lastAlias, int limit) {
+        List<User> page = new ArrayList<>(Math.min(limit, list.size()));
+        NavigableMap<String, User> remaining = (lastAlias == null) ? list : list.tailMap(lastAlias, false);
+
+        Iterator<User> iterator = remaining.values().iterator();
+        while (iterator.hasNext() && page.size() < limit) {
+            page.add(iterator.next());
+        }
+        return new Page(page, iterator.hasNext(), version);
+    }
+
+    private void recordChange(String followerAlias, FollowChange change) {
+        version++;
+
+        ArrayDeque<VersionedChange> log = changeLogs.get(followerAlias);
+        if (log == null) {
+            log = new ArrayDeque<>();
+            changeLogs.put(followerAlias, log);
+        }
+        log.add(new VersionedChange(version, change));
+
+        while (log.size() > maxChangesPerUser) {
+            compactedThrough.put(followerAlias, log.poll().version);
+        }
+    }
+
+    /**
+     * A page of users and the version of the list it was read from.
+     */
+    public static class Page {
+        private final List<User> users;
+        private final boolean hasMorePages;
+        private final long version;
+
+        Page(List<User> users, boolean hasMorePages, long version) {
+            this.users = users;
+            this.hasMorePages = hasMorePages;
+            this.version = version;
+        }
+
+        public List<User> getUsers() {
+            return users;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * The changes made to a list since a version, and the version they bring it up to.
+     */
+    public static class ChangeSet {
+        private final List<FollowChange> changes;
+        private final long version;
+
+        ChangeSet(List<FollowChange> changes, long version) {
+            this.changes = changes;
+            this.version = version;
+        }
+
+        public List<FollowChange> getChanges() {
+            return changes;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private static class VersionedChange {
+        private final long version;
+        private final FollowChange change;
+
+        VersionedChange(long version, FollowChange change) {
+            this.version = version;
+            this.change = change;
+        }
+    }
+}
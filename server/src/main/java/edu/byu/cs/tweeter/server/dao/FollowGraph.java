@@ -0,0 +1,144 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the follow graph, for traversals that read a lot of it without holding
+ * the {@link FollowDAO} lock.
+ * <p>
+ * Users are numbered in alias order. Every user's followees are stored as user numbers, in
+ * order, in one shared array, and the user's run starts at their offset (compressed sparse rows).
+ * So the graph is two int arrays and the aliases, and a user's followees are read as a range of
+ * one array.
+ */
+public class FollowGraph {
+
+    private final String[] aliases;
+    private final int[] offsets;
+    private final int[] followees;
+
+    /**
+     * Creates a snapshot of follow lists.
+     *
+     * @param followeesByFollower every user's followees, keyed by follower and then followee.
+     * @return the snapshot.
+     */
+    public static FollowGraph of(Map<String, ? extends Map<String, ?>> followeesByFollower) {
+        String[] aliases = followeesByFollower.keySet().toArray(new String[0]);
+        Arrays.sort(aliases);
+        int[][] lists = new int[aliases.length][];
+        for (int i = 0; i < aliases.length; i++) {
+            Map<String, ?> following = followeesByFollower.get(aliases[i]);
+            int[] list = new int[following.size()];
+            int size = 0;
+            for (String followee : following.keySet()) {
+                int id = Arrays.binarySearch(aliases, followee);
+                if (id >= 0) {
+                    list[size++] = id;
+                }
+            }
+            lists[i] = Arrays.copyOf(list, size);
+        }
+        return new FollowGraph(aliases, lists);
+    }
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param aliases the users' aliases, in order.
+     * @param followees for each user, the numbers of the users they follow.
+     */
+    public FollowGraph(String[] aliases, int[][] followees) {
+        if (aliases.length != followees.length) {
+            throw new IllegalArgumentException("Every user needs a follow list");
+        }
+        for (int i = 1; i < aliases.length; i++) {
+            if (aliases[i - 1].compareTo(aliases[i]) >= 0) {
+                throw new IllegalArgumentException("Aliases are not in order");
+            }
+        }
+
+        this.aliases = aliases;
+        this.offsets = new int[aliases.length + 1];
+        long edges = 0;
+        for (int i = 0; i < followees.length; i++) {
+            edges += followees[i].length;
+            if (edges > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many follow relationships");
+            }
+            offsets[i + 1] = (int) edges;
+        }
+        this.followees = new int[(int) edges];
+        for (int i = 0; i < followees.length; i++) {
+            int[] list = followees[i].clone();
+            Arrays.sort(list);
+            System.arraycopy(list, 0, this.followees, offsets[i], list.length);
+        }
+    }
+
+    /**
+     * Returns the number of users.
+     *
+     * @return the count.
+     */
+    public int getUserCount() {
+        return aliases.length;
+    }
+
+    /**
+     * Returns the number of follow relationships.
+     *
+     * @return the count.
+     */
+    public int getEdgeCount() {
+        return followees.length;
+    }
+
+    /**
+     * Returns a user's number.
+     *
+     * @param alias the user's alias.
+     * @return the number, or -1 if the user is not in the graph.
+     */
+    public int indexOf(String alias) {
+        int index = Arrays.binarySearch(aliases, alias);
+        return (index >= 0) ? index : -1;
+    }
+
+    public String getAlias(int user) {
+        return aliases[user];
+    }
+
+    /**
+     * Returns the number of users a user follows.
+     *
+     * @param user the user's number.
+     * @return the count.
+     */
+    public int getFolloweeCount(int user) {
+        return offsets[user + 1] - offsets[user];
+    }
+
+    /**
+     * Returns one of the users a user follows.
+     *
+     * @param user the user's number.
+     * @param i the position in the user's followees, in user number order.
+     * @return the followee's number.
+     */
+    public int getFollowee(int user, int i) {
+        return followees[offsets[user] + i];
+    }
+
+    /**
+     * Indicates whether one user follows another.
+     *
+     * @param user the follower's number.
+     * @param followee the followee's number.
+     * @return true if the user follows the followee.
+     */
+    public boolean isFollowing(int user, int followee) {
+        return Arrays.binarySearch(followees, offsets[user], offsets[user + 1], followee) >= 0;
+    }
+}
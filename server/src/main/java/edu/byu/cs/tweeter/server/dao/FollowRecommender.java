@@ -0,0 +1,368 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.byu.cs.tweeter.model.domain.Recommendation;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Recommends users to follow: the users followed by the most of a user's followees, among those
+ * the user doesn't already follow ("friends of friends").
+ * <p>
+ * Recommendations are worked out on a {@link FollowGraph} snapshot, so the traversal takes no
+ * lock. The user's followees are split into ranges that {@link ForkJoinPool} tasks count in
+ * parallel, each into its own map from user number to count in two int arrays, and the maps are
+ * merged as the tasks join. A min-heap then keeps the top users. The traversal is bounded: at
+ * most {@code maxFirstHop} of the user's followees are read, and at most {@code maxSecondHop} of
+ * each of their followees, evenly spread over the list when there are more, so an account that
+ * follows millions costs no more than one that follows a thousand.
+ * <p>
+ * Each user's recommendations and the graph snapshot are kept for the time to live. A user who
+ * follows someone in their cached recommendations no longer sees them, since the cached list is
+ * checked against {@link FollowDAO#isFollowing(String, List)} each time it is read.
+ */
+public class FollowRecommender {
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000;
+    public static final int DEFAULT_MAX_FIRST_HOP = 1000;
+    public static final int DEFAULT_MAX_SECOND_HOP = 1000;
+    /**
+     * The number of recommendations worked out and cached for each user.
+     */
+    public static final int MAX_RECOMMENDATIONS = 100;
+
+    private static final int MAX_CACHED_USERS = 100_000;
+    /**
+     * The smallest number of second-hop relationships worth counting in a task of its own.
+     */
+    private static final int MIN_WORK_PER_TASK = 4096;
+
+    private static final FollowRecommender instance = new FollowRecommender(FollowDAO.getInstance(), ForkJoinPool.commonPool(),
+            DEFAULT_TTL_MILLIS, DEFAULT_MAX_FIRST_HOP, DEFAULT_MAX_SECOND_HOP);
+
+    public static FollowRecommender getInstance() {
+        return instance;
+    }
+
+    private final FollowDAO followDAO;
+    private final ForkJoinPool pool;
+    private final long ttlMillis;
+    private final int maxFirstHop;
+    private final int maxSecondHop;
+
+    private final ConcurrentHashMap<String, CachedRecommendations> cache = new ConcurrentHashMap<>();
+    private volatile GraphSnapshot snapshot;
+
+    /**
+     * Creates an instance.
+     *
+     * @param followDAO the follow relationships.
+     * @param pool the pool the traversal runs in.
+     * @param ttlMillis how long recommendations and the graph snapshot are kept.
+     * @param maxFirstHop the largest number of a user's followees that are read.
+     * @param maxSecondHop the largest number of each followee's followees that are read.
+     */
+    public FollowRecommender(FollowDAO followDAO, ForkJoinPool pool, long ttlMillis, int maxFirstHop, int maxSecondHop) {
+        if (ttlMillis < 0 || maxFirstHop <= 0 || maxSecondHop <= 0) {
+            throw new IllegalArgumentException("Invalid time to live or traversal bound");
+        }
+        this.followDAO = followDAO;
+        this.pool = pool;
+        this.ttlMillis = ttlMillis;
+        this.maxFirstHop = maxFirstHop;
+        this.maxSecondHop = maxSecondHop;
+    }
+
+    /**
+     * Returns the users recommended to a user, from the cache if they have been worked out within
+     * the time to live.
+     *
+     * @param alias the user.
+     * @param limit the maximum number of users to return (at most {@link #MAX_RECOMMENDATIONS}).
+     * @return the users, most connected first, or null if the user is unknown.
+     */
+    public List<Recommendation> recommend(String alias, int limit) {
+        long now = currentTimeMillis();
+        CachedRecommendations cached = cache.get(alias);
+        if (cached == null || now - cached.createdMillis >= ttlMillis) {
+            FollowGraph graph = getGraph(now);
+            if (graph.indexOf(alias) < 0) {
+                return null;
+            }
+            List<Recommendation> recommendations = new ArrayList<>();
+            for (Map.Entry<String, Integer> ranked : rank(graph, alias, MAX_RECOMMENDATIONS).entrySet()) {
+                User user = followDAO.findUser(ranked.getKey());
+                if (user != null) {
+                    recommendations.add(new Recommendation(user, ranked.getValue()));
+                }
+            }
+            cached = new CachedRecommendations(recommendations, now);
+            if (cache.size() >= MAX_CACHED_USERS) {
+                evictExpired(now);
+            }
+            cache.put(alias, cached);
+        }
+
+        // Leave out the users followed since the recommendations were worked out
+        List<String> aliases = new ArrayList<>(cached.recommendations.size());
+        for (Recommendation recommendation : cached.recommendations) {
+            aliases.add(recommendation.getUser().getAlias());
+        }
+        boolean[] following = followDAO.isFollowing(alias, aliases);
+        List<Recommendation> result = new ArrayList<>(Math.min(limit, aliases.size()));
+        for (int i = 0; i < following.length && result.size() < limit; i++) {
+            if (!following[i]) {
+                result.add(cached.recommendations.get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Works out the users followed by the most of a user's followees, without the cache.
+     *
+     * @param graph the follow graph.
+     * @param alias the user.
+     * @param limit the maximum number of users to return.
+     * @return the aliases of the users, most connected first (then in alias order), with the
+     *         number of the user's followees who follow them. Empty if the user is unknown.
+     */
+    public Map<String, Integer> rank(FollowGraph graph, String alias, int limit) {
+        Map<String, Integer> ranked = new LinkedHashMap<>();
+        int user = graph.indexOf(alias);
+        if (user < 0 || limit <= 0) {
+            return ranked;
+        }
+
+        int followeeCount = graph.getFolloweeCount(user);
+        int[] firstHop = new int[Math.min(followeeCount, maxFirstHop)];
+        for (int i = 0; i < firstHop.length; i++) {
+            firstHop[i] = graph.getFollowee(user, sample(i, followeeCount, firstHop.length));
+        }
+        int[] work = new int[firstHop.length + 1];
+        for (int i = 0; i < firstHop.length; i++) {
+            work[i + 1] = work[i] + Math.min(graph.getFolloweeCount(firstHop[i]), maxSecondHop);
+        }
+        int workPerTask = Math.max(MIN_WORK_PER_TASK, work[firstHop.length] / (4 * pool.getParallelism()));
+        UserCounts counts = pool.invoke(new CountTask(graph, firstHop, work, 0, firstHop.length, maxSecondHop, workPerTask));
+
+        // Higher counts, then lower user numbers, make larger keys
+        PriorityQueue<Long> smallestFirst = new PriorityQueue<>(Math.min(limit, counts.size) + 1);
+        for (int slot = 0; slot < counts.keys.length; slot++) {
+            if (counts.keys[slot] == 0) {
+                continue;
+            }
+            int candidate = counts.keys[slot] - 1;
+            long key = ((long) counts.values[slot] << 32) | (0xffffffffL & ~candidate);
+            if (smallestFirst.size() == limit && key <= smallestFirst.peek()) {
+                continue;
+            }
+            if (candidate == user || graph.isFollowing(user, candidate)) {
+                continue;
+            }
+            smallestFirst.add(key);
+            if (smallestFirst.size() > limit) {
+                smallestFirst.poll();
+            }
+        }
+
+        long[] keys = new long[smallestFirst.size()];
+        for (int i = keys.length - 1; i >= 0; i--) {
+            keys[i] = smallestFirst.poll();
+        }
+        for (long key : keys) {
+            ranked.put(graph.getAlias(~(int) key), (int) (key >>> 32));
+        }
+        return ranked;
+    }
+
+    // This method is public so it can be accessed by test cases
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the graph snapshot, taking a new one if it is older than the time to live and the
+     * follow relationships have changed since it was taken.
+     */
+    private FollowGraph getGraph(long now) {
+        GraphSnapshot current = snapshot;
+        if (current != null && (now - current.createdMillis < ttlMillis || current.version == followDAO.getVersion())) {
+            return current.graph;
+        }
+        synchronized (this) {
+            if (snapshot == current) {
+                // The version is read first, so the graph is at least that new
+                long version = followDAO.getVersion();
+                snapshot = new GraphSnapshot(followDAO.getGraph(), version, now);
+            }
+            return snapshot.graph;
+        }
+    }
+
+    private void evictExpired(long now) {
+        Iterator<CachedRecommendations> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().createdMillis >= ttlMillis) {
+                iterator.remove();
+            }
+        }
+        if (cache.size() >= MAX_CACHED_USERS) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the position of the i-th of {@code samples} entries spread evenly over a list.
+     */
+    private static int sample(int i, int size, int samples) {
+        return (int) ((long) i * size / samples);
+    }
+
+    /**
+     * Counts how many of a range of the user's followees follow each user. A range is split in
+     * two, by the number of second-hop relationships on each side, until it is small enough to
+     * count directly. Every split costs a merge of the two sides' maps, so the leaves are a few
+     * per worker rather than as small as possible.
+     */
+    private static class CountTask extends RecursiveTask<UserCounts> {
+        private final FollowGraph graph;
+        private final int[] firstHop;
+        /**
+         * The number of second-hop relationships read before each of the followees.
+         */
+        private final int[] work;
+        private final int from;
+        private final int to;
+        private final int maxSecondHop;
+        private final int workPerTask;
+
+        CountTask(FollowGraph graph, int[] firstHop, int[] work, int from, int to, int maxSecondHop, int workPerTask) {
+            this.graph = graph;
+            this.firstHop = firstHop;
+            this.work = work;
+            this.from = from;
+            this.to = to;
+            this.maxSecondHop = maxSecondHop;
+            this.workPerTask = workPerTask;
+        }
+
+        @Override
+        protected UserCounts compute() {
+            if (to - from <= 1 || work[to] - work[from] <= workPerTask) {
+                UserCounts counts = new UserCounts(Math.max(16, Integer.highestOneBit(work[to] - work[from]) * 2));
+                for (int i = from; i < to; i++) {
+                    int followee = firstHop[i];
+                    int size = graph.getFolloweeCount(followee);
+                    int samples = work[i + 1] - work[i];
+                    for (int j = 0; j < samples; j++) {
+                        counts.add(graph.getFollowee(followee, sample(j, size, samples)), 1);
+                    }
+                }
+                return counts;
+            }
+
+            // The first followee past half the work, but leaving both sides at least one
+            int half = (work[from] + work[to]) >>> 1;
+            int middle = Arrays.binarySearch(work, from + 1, to, half);
+            middle = Math.min(to - 1, Math.max(from + 1, (middle >= 0) ? middle : -middle - 1));
+            CountTask left = new CountTask(graph, firstHop, work, from, middle, maxSecondHop, workPerTask);
+            left.fork();
+            UserCounts rightCounts = new CountTask(graph, firstHop, work, middle, to, maxSecondHop, workPerTask).compute();
+            UserCounts leftCounts = left.join();
+
+            // Merge the smaller map into the larger
+            if (leftCounts.size < rightCounts.size) {
+                rightCounts.addAll(leftCounts);
+                return rightCounts;
+            }
+            leftCounts.addAll(rightCounts);
+            return leftCounts;
+        }
+    }
+
+    /**
+     * A map from user number to count, as an open-addressing table of two int arrays. A key is
+     * stored as the user number plus one, so zero marks an empty slot.
+     */
+    private static class UserCounts {
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        UserCounts(int capacity) {
+            this.keys = new int[capacity];
+            this.values = new int[capacity];
+        }
+
+        void add(int user, int count) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int key = user + 1;
+            int mask = keys.length - 1;
+            int hash = key * 0x9e3779b9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] += count;
+        }
+
+        void addAll(UserCounts other) {
+            for (int slot = 0; slot < other.keys.length; slot++) {
+                if (other.keys[slot] != 0) {
+                    add(other.keys[slot] - 1, other.values[slot]);
+                }
+            }
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldKeys[slot] != 0) {
+                    add(oldKeys[slot] - 1, oldValues[slot]);
+                }
+            }
+        }
+    }
+
+    private static class CachedRecommendations {
+        private final List<Recommendation> recommendations;
+        private final long createdMillis;
+
+        CachedRecommendations(List<Recommendation> recommendations, long createdMillis) {
+            this.recommendations = recommendations;
+            this.createdMillis = createdMillis;
+        }
+    }
+
+    private static class GraphSnapshot {
+        private final FollowGraph graph;
+        private final long version;
+        private final long createdMillis;
+
+        GraphSnapshot(FollowGraph graph, long version, long createdMillis) {
+            this.graph = graph;
+            this.version = version;
+            this.createdMillis = createdMillis;
+        }
+    }
+}
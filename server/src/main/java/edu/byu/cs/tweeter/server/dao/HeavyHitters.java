@@ -0,0 +1,190 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import edu.byu.cs.tweeter.model.domain.Trend;
+
+/**
+ * Finds the keys counted most often in a sliding time window, in bounded memory.
+ * <p>
+ * The window is a ring of time buckets, each with its own {@link CountMinSketch}, and a window
+ * sketch that holds the sum of the buckets' counts. Counting a key adds to the current bucket
+ * and to the window sketch; when a bucket falls out of the window its sketch is subtracted from
+ * the window sketch and reused. So the window's estimates are those of one count-min sketch over
+ * just the statuses in the window: never too low, and more than {@code epsilon} times the
+ * window's total too high with probability at most {@code delta}. The window slides one bucket
+ * at a time.
+ * <p>
+ * The top keys are kept as a fixed number of candidates in a min-heap ordered by estimate. A
+ * counted key replaces the smallest candidate when its estimate is larger, and the candidates
+ * are estimated again when a bucket expires. A key whose real count in the window is more than
+ * the smallest candidate's estimate plus the sketch error is a candidate, as long as it has been
+ * counted since it last overtook the smallest candidate. The sorted top list is kept until the
+ * next change, so a query costs nothing beyond copying it.
+ * <p>
+ * Memory is {@code (buckets + 1) * width * depth} counters plus the candidates, however many
+ * distinct keys are counted.
+ */
+public class HeavyHitters {
+
+    private static final Comparator<Candidate> BY_COUNT = new Comparator<Candidate>() {
+        @Override
+        public int compare(Candidate candidate1, Candidate candidate2) {
+            int result = Integer.compare(candidate1.count, candidate2.count);
+            // Of two equal counts the key counted first is kept
+            return (result != 0) ? result : Long.compare(candidate2.sequence, candidate1.sequence);
+        }
+    };
+
+    private final int capacity;
+    private final long bucketMillis;
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch window;
+
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> smallestFirst;
+    private long sequence;
+    /**
+     * The candidates, largest first, or null if they have changed since it was made.
+     */
+    private List<Trend> top;
+
+    /**
+     * The number of the time bucket that is being counted into.
+     */
+    private long currentBucket;
+
+    /**
+     * Creates an instance.
+     *
+     * @param capacity the number of top keys kept.
+     * @param windowMillis the length of the window.
+     * @param bucketCount the number of buckets the window is divided into, which is the number
+     *                    of steps it slides in.
+     * @param epsilon the largest error, as a fraction of the window's total count, of a count.
+     * @param delta the probability that a count's error is larger than that.
+     */
+    public HeavyHitters(int capacity, long windowMillis, int bucketCount, double epsilon, double delta) {
+        if (capacity <= 0 || bucketCount <= 0 || windowMillis < bucketCount) {
+            throw new IllegalArgumentException("Invalid capacity or window");
+        }
+        this.capacity = capacity;
+        this.bucketMillis = windowMillis / bucketCount;
+        this.window = CountMinSketch.withErrorBound(epsilon, delta);
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(window.getWidth(), window.getDepth());
+        }
+        this.smallestFirst = new PriorityQueue<>(capacity + 1, BY_COUNT);
+        this.currentBucket = currentTimeMillis() / bucketMillis;
+    }
+
+    /**
+     * Counts a key now.
+     *
+     * @param key the key.
+     */
+    public synchronized void record(String key) {
+        advance();
+        buckets[(int) (currentBucket % buckets.length)].add(key, 1);
+        int estimate = window.add(key, 1);
+
+        Candidate candidate = candidates.get(key);
+        if (candidate != null) {
+            smallestFirst.remove(candidate);
+            candidate.count = estimate;
+            smallestFirst.add(candidate);
+        } else if (candidates.size() < capacity || estimate > smallestFirst.peek().count) {
+            if (candidates.size() == capacity) {
+                candidates.remove(smallestFirst.poll().key);
+            }
+            candidate = new Candidate(key, estimate, sequence++);
+            candidates.put(key, candidate);
+            smallestFirst.add(candidate);
+        }
+        top = null;
+    }
+
+    /**
+     * Returns the keys counted most often in the window, with their estimated counts.
+     *
+     * @param limit the maximum number of keys to return (at most the capacity is returned).
+     * @return the keys, most often counted first.
+     */
+    public synchronized List<Trend> getTop(int limit) {
+        advance();
+        if (top == null) {
+            List<Candidate> sorted = new ArrayList<>(candidates.values());
+            Collections.sort(sorted, Collections.reverseOrder(BY_COUNT));
+            top = new ArrayList<>(sorted.size());
+            for (Candidate candidate : sorted) {
+                top.add(new Trend(candidate.key, candidate.count));
+            }
+        }
+        return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+    }
+
+    /**
+     * Returns the total count in the window.
+     *
+     * @return the total.
+     */
+    public synchronized long getWindowTotal() {
+        advance();
+        return window.getTotal();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Moves the window up to the current time, removing the counts of the buckets that have
+     * fallen out of it.
+     */
+    private void advance() {
+        long bucket = currentTimeMillis() / bucketMillis;
+        if (bucket <= currentBucket) {
+            return;
+        }
+
+        // After a long pause every bucket has expired, but each only needs clearing once
+        long first = Math.max(currentBucket + 1, bucket - buckets.length + 1);
+        for (long expired = first; expired <= bucket; expired++) {
+            CountMinSketch sketch = buckets[(int) (expired % buckets.length)];
+            window.subtract(sketch);
+            sketch.clear();
+        }
+        currentBucket = bucket;
+
+        smallestFirst.clear();
+        for (Candidate candidate : new ArrayList<>(candidates.values())) {
+            candidate.count = window.estimate(candidate.key);
+            if (candidate.count == 0) {
+                candidates.remove(candidate.key);
+            } else {
+                smallestFirst.add(candidate);
+            }
+        }
+        top = null;
+    }
+
+    private static class Candidate {
+        private final String key;
+        private int count;
+        private final long sequence;
+
+        Candidate(String key, int count, long sequence) {
+            this.key = key;
+            this.count = count;
+            this.sequence = sequence;
+        }
+    }
+}
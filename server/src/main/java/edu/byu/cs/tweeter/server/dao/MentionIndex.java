@@ -0,0 +1,297 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * An inverted index from a user's alias to the statuses that mention them.
+ * <p>
+ * Statuses are numbered in the order they are added. Each alias has a posting list of the
+ * numbers of the statuses that mention it, ordered by timestamp (then number), in blocks of
+ * about {@link #BLOCK_SIZE} entries. A block stores its first number and then the gap to each
+ * next number as a variable-length integer, so a list of statuses added in time order takes
+ * about one or two bytes per entry. Gaps are zigzag-encoded, so a status that arrives later than
+ * a newer one still fits in the list at its place in time.
+ * <p>
+ * Each block also records the timestamp of its last entry, so a page that resumes after a
+ * status binary-searches the blocks and decodes only the ones it reads. Pages are newest first.
+ * <p>
+ * A status is identified, as in a page cursor, by its poster's alias and its timestamp, as
+ * {@link FakeData#getPageOfStatus} does. A page that ends part way through several statuses
+ * with the same poster and timestamp resumes after the first of them.
+ */
+public class MentionIndex {
+
+    static final int BLOCK_SIZE = 128;
+
+    private static final MentionIndex instance = new MentionIndex(FakeData.getInstance().getFakeStatuses());
+
+    public static MentionIndex getInstance() {
+        return instance;
+    }
+
+    private ImmutableStatus[] statuses = new ImmutableStatus[16];
+    private int statusCount;
+    private final Map<String, List<Block>> postings = new HashMap<>();
+
+    /**
+     * Creates an index of some statuses.
+     *
+     * @param initialStatuses the statuses.
+     */
+    public MentionIndex(List<Status> initialStatuses) {
+        for (Status status : initialStatuses) {
+            add(ImmutableStatus.from(status));
+        }
+    }
+
+    /**
+     * Adds a status to the posting list of every user it mentions, once however many times it
+     * mentions them.
+     *
+     * @param status the status.
+     */
+    public synchronized void add(ImmutableStatus status) {
+        if (statusCount == statuses.length) {
+            statuses = Arrays.copyOf(statuses, statusCount * 2);
+        }
+        int id = statusCount++;
+        statuses[id] = status;
+
+        for (String alias : new LinkedHashSet<>(status.getMentions())) {
+            List<Block> blocks = postings.get(alias);
+            if (blocks == null) {
+                blocks = new ArrayList<>();
+                postings.put(alias, blocks);
+            }
+            insert(blocks, id);
+        }
+    }
+
+    /**
+     * Returns a page of the statuses that mention a user, newest first.
+     *
+     * @param alias the mentioned user.
+     * @param lastStatus the last status returned in the previous page (can be null).
+     * @param limit the maximum number of statuses to return.
+     * @return the page, or null if the last status does not mention the user.
+     */
+    public synchronized Page getMentions(String alias, Status lastStatus, int limit) {
+        List<Block> blocks = postings.get(alias);
+        if (blocks == null) {
+            return (lastStatus == null) ? new Page(new ArrayList<Status>(0), false) : null;
+        }
+
+        // The block and entry to read first
+        int blockIndex;
+        int[] ids = null;
+        int entry = -1;
+        if (lastStatus == null) {
+            blockIndex = blocks.size() - 1;
+            ids = blocks.get(blockIndex).decode();
+            entry = ids.length - 1;
+        } else {
+            // The entries with the cursor's timestamp may run on into later blocks
+            for (blockIndex = findBlock(blocks, lastStatus.getTimestamp()); blockIndex < blocks.size(); blockIndex++) {
+                ids = blocks.get(blockIndex).decode();
+                for (int i = 0; i < ids.length && entry < 0; i++) {
+                    if (isSameStatus(statuses[ids[i]], lastStatus)) {
+                        entry = i;
+                    }
+                }
+                if (entry >= 0 || blocks.get(blockIndex).lastTimestamp > lastStatus.getTimestamp()) {
+                    break;
+                }
+            }
+            if (entry < 0) {
+                return null;
+            }
+            entry--;
+        }
+
+        List<Status> page = new ArrayList<>(Math.min(limit, 64));
+        while (page.size() < limit) {
+            if (entry < 0) {
+                if (blockIndex == 0) {
+                    break;
+                }
+                ids = blocks.get(--blockIndex).decode();
+                entry = ids.length - 1;
+            }
+            page.add(statuses[ids[entry--]].toStatus());
+        }
+        return new Page(page, entry >= 0 || blockIndex > 0);
+    }
+
+    /**
+     * Returns the number of bytes a user's posting list takes up, not counting its block
+     * headers.
+     *
+     * @param alias the user.
+     * @return the number of bytes.
+     */
+    synchronized int getPostingBytes(String alias) {
+        int bytes = 0;
+        List<Block> blocks = postings.get(alias);
+        if (blocks != null) {
+            for (Block block : blocks) {
+                bytes += block.length;
+            }
+        }
+        return bytes;
+    }
+
+    private void insert(List<Block> blocks, int id) {
+        Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (last != null && compare(last.lastId, id) > 0) {
+            // Older than the newest status in the list, so it goes inside a block
+            int blockIndex = findBlock(blocks, statuses[id].getTimestamp());
+            while (compare(blocks.get(blockIndex).lastId, id) < 0) {
+                blockIndex++;
+            }
+            Block block = blocks.get(blockIndex);
+            int[] ids = block.decode();
+            int position = 0;
+            while (compare(ids[position], id) < 0) {
+                position++;
+            }
+            int[] inserted = new int[ids.length + 1];
+            System.arraycopy(ids, 0, inserted, 0, position);
+            inserted[position] = id;
+            System.arraycopy(ids, position, inserted, position + 1, ids.length - position);
+
+            if (inserted.length > 2 * BLOCK_SIZE) {
+                int half = inserted.length / 2;
+                blocks.set(blockIndex, Block.encode(Arrays.copyOfRange(inserted, 0, half), statuses));
+                blocks.add(blockIndex + 1, Block.encode(Arrays.copyOfRange(inserted, half, inserted.length), statuses));
+            } else {
+                blocks.set(blockIndex, Block.encode(inserted, statuses));
+            }
+        } else if (last == null || last.count >= BLOCK_SIZE) {
+            blocks.add(Block.encode(new int[] { id }, statuses));
+        } else {
+            last.append(id, statuses[id].getTimestamp());
+        }
+    }
+
+    /**
+     * Returns the first block whose last entry is at or after a time, or the last block if
+     * there is none.
+     */
+    private static int findBlock(List<Block> blocks, long timestamp) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (blocks.get(middle).lastTimestamp < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Orders status numbers by timestamp, then number.
+     */
+    private int compare(int id1, int id2) {
+        int result = Long.compare(statuses[id1].getTimestamp(), statuses[id2].getTimestamp());
+        return (result != 0) ? result : Integer.compare(id1, id2);
+    }
+
+    private static boolean isSameStatus(ImmutableStatus status, Status cursor) {
+        return status.getTimestamp() == cursor.getTimestamp() && cursor.getUser() != null
+                && status.getUser().getAlias().equals(cursor.getUser().getAlias());
+    }
+
+    /**
+     * A run of a posting list: the first status number, then the zigzag-encoded gap to each
+     * next number as a variable-length integer of 7 bits per byte.
+     */
+    private static class Block {
+        private byte[] bytes;
+        private int length;
+        private int count;
+        private int firstId;
+        private int lastId;
+        private long lastTimestamp;
+
+        static Block encode(int[] ids, ImmutableStatus[] statuses) {
+            Block block = new Block();
+            block.bytes = new byte[ids.length * 2];
+            block.firstId = ids[0];
+            block.lastId = ids[0];
+            block.count = 1;
+            block.lastTimestamp = statuses[ids[0]].getTimestamp();
+            for (int i = 1; i < ids.length; i++) {
+                block.append(ids[i], statuses[ids[i]].getTimestamp());
+            }
+            return block;
+        }
+
+        void append(int id, long timestamp) {
+            int gap = id - lastId;
+            int zigzag = (gap << 1) ^ (gap >> 31);
+            if (bytes.length - length < 5) {
+                bytes = Arrays.copyOf(bytes, Math.max(16, bytes.length * 2));
+            }
+            while ((zigzag & ~0x7f) != 0) {
+                bytes[length++] = (byte) ((zigzag & 0x7f) | 0x80);
+                zigzag >>>= 7;
+            }
+            bytes[length++] = (byte) zigzag;
+
+            lastId = id;
+            lastTimestamp = timestamp;
+            count++;
+        }
+
+        int[] decode() {
+            int[] ids = new int[count];
+            ids[0] = firstId;
+            int position = 0;
+            for (int i = 1; i < count; i++) {
+                int zigzag = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = bytes[position++];
+                    zigzag |= (b & 0x7f) << shift;
+                    shift += 7;
+                } while (b < 0);
+                ids[i] = ids[i - 1] + ((zigzag >>> 1) ^ -(zigzag & 1));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * A page of statuses.
+     */
+    public static class Page {
+        private final List<Status> statuses;
+        private final boolean hasMorePages;
+
+        Page(List<Status> statuses, boolean hasMorePages) {
+            this.statuses = statuses;
+            this.hasMorePages = hasMorePages;
+        }
+
+        public List<Status> getStatuses() {
+            return statuses;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+
+/**
+ * An unchanging list of statuses in feed order, read from the end: oldest first, with statuses
+ * posted at the same time ordered by poster alias, last first, and a poster's statuses at the
+ * same time in the order they were added. A user's story and a materialized timeline are both
+ * status lists, so a {@link FeedIterator} can merge any mix of them.
+ * <p>
+ * Changing a list makes a new one, so a list can be read without locking while it is being
+ * changed. The statuses are a range of an array with room to grow at the end: a status that goes
+ * after the last one is written past the end of the range and shared with the new list, and
+ * dropping the oldest statuses moves the start of the range, so the two changes a timeline
+ * mostly sees copy nothing. Other changes copy the range. Changes must be made one at a time and
+ * only to the newest list, since lists share their array.
+ */
+public class StatusList {
+
+    static final StatusList EMPTY = new StatusList(new ImmutableStatus[0], 0, 0);
+
+    private final ImmutableStatus[] statuses;
+    private final int offset;
+    private final int size;
+
+    private StatusList(ImmutableStatus[] statuses, int offset, int size) {
+        this.statuses = statuses;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ImmutableStatus get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + size);
+        }
+        return statuses[offset + index];
+    }
+
+    /**
+     * Returns the index of the first status at or after a position in feed order.
+     *
+     * @param timestamp the position's time.
+     * @param alias the position's poster.
+     * @return the index, or the size if there is none.
+     */
+    public int lowerBound(long timestamp, String alias) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(statuses[offset + middle], timestamp, alias) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first status after a position in feed order.
+     *
+     * @param timestamp the position's time.
+     * @param alias the position's poster.
+     * @return the index, or the size if there is none.
+     */
+    public int upperBound(long timestamp, String alias) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(statuses[offset + middle], timestamp, alias) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a list with a status added after the poster's other statuses at the same time.
+     *
+     * @param status the status.
+     * @return the new list, or this one if the status is already in it.
+     */
+    StatusList add(ImmutableStatus status) {
+        String alias = status.getUser().getAlias();
+        int position = upperBound(status.getTimestamp(), alias);
+        if (contains(statuses, offset + lowerBound(status.getTimestamp(), alias), offset + position, status)) {
+            return this;
+        }
+
+        if (position == size && offset + size < statuses.length) {
+            // Past the end of every list that shares the array, so it can be written in place
+            statuses[offset + size] = status;
+            return new StatusList(statuses, offset, size + 1);
+        }
+        ImmutableStatus[] copy = new ImmutableStatus[Math.max(4, (size + 1) * 3 / 2)];
+        System.arraycopy(statuses, offset, copy, 0, position);
+        copy[position] = status;
+        System.arraycopy(statuses, offset + position, copy, position + 1, size - position);
+        return new StatusList(copy, 0, size + 1);
+    }
+
+    /**
+     * Returns a list with the statuses of another list from an index on merged in, in one copy.
+     * Statuses that are already in this list are not added again.
+     *
+     * @param other the other list.
+     * @param from the index of the first status of the other list to add.
+     * @return the new list.
+     */
+    StatusList addAll(StatusList other, int from) {
+        from = Math.max(0, from);
+        if (from >= other.size) {
+            return this;
+        }
+
+        ImmutableStatus[] merged = new ImmutableStatus[Math.max(4, (size + other.size - from) * 3 / 2)];
+        int count = 0;
+        int i = 0;
+        int j = from;
+        while (i < size || j < other.size) {
+            int result;
+            if (i == size) {
+                result = 1;
+            } else if (j == other.size) {
+                result = -1;
+            } else {
+                ImmutableStatus status = other.statuses[other.offset + j];
+                result = compare(statuses[offset + i], status.getTimestamp(), status.getUser().getAlias());
+            }
+
+            if (result < 0) {
+                merged[count++] = statuses[offset + i++];
+            } else if (result > 0) {
+                merged[count++] = other.statuses[other.offset + j++];
+            } else {
+                // The same poster and time in both: this list's statuses, then the new ones
+                ImmutableStatus first = statuses[offset + i];
+                int blockStart = count;
+                while (i < size && compare(statuses[offset + i], first.getTimestamp(), first.getUser().getAlias()) == 0) {
+                    merged[count++] = statuses[offset + i++];
+                }
+                int blockEnd = count;
+                while (j < other.size && compare(other.statuses[other.offset + j], first.getTimestamp(), first.getUser().getAlias()) == 0) {
+                    ImmutableStatus status = other.statuses[other.offset + j++];
+                    if (!contains(merged, blockStart, blockEnd, status)) {
+                        merged[count++] = status;
+                    }
+                }
+            }
+        }
+        return new StatusList(merged, 0, count);
+    }
+
+    /**
+     * Returns a list without the oldest statuses.
+     *
+     * @param count the number of statuses to drop.
+     * @return the new list.
+     */
+    StatusList dropOldest(int count) {
+        count = Math.min(count, size);
+        return (count <= 0) ? this : new StatusList(statuses, offset + count, size - count);
+    }
+
+    /**
+     * Returns a list without one poster's statuses.
+     *
+     * @param alias the poster.
+     * @return the new list, or this one if the poster has no statuses in it.
+     */
+    StatusList removePoster(String alias) {
+        ImmutableStatus[] copy = null;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            ImmutableStatus status = statuses[offset + i];
+            if (status.getUser().getAlias().equals(alias)) {
+                if (copy == null) {
+                    copy = new ImmutableStatus[Math.max(4, size)];
+                    System.arraycopy(statuses, offset, copy, 0, i);
+                    kept = i;
+                }
+            } else if (copy != null) {
+                copy[kept++] = status;
+            }
+        }
+        return (copy == null) ? this : new StatusList(copy, 0, kept);
+    }
+
+    private static boolean contains(ImmutableStatus[] statuses, int from, int to, ImmutableStatus status) {
+        for (int i = from; i < to; i++) {
+            if (statuses[i] == status) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares a status with a position in feed order.
+     */
+    private static int compare(ImmutableStatus status, long timestamp, String alias) {
+        int result = Long.compare(status.getTimestamp(), timestamp);
+        return (result != 0) ? result : alias.compareTo(status.getUser().getAlias());
+    }
+}
@@ -0,0 +1,134 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * An in-memory store of every user's story: the statuses they have posted, in time order.
+ * <p>
+ * A story is read through a {@link StatusList}, an unchanging view of it as it was when the view
+ * was taken, so a feed can be merged from many stories without locking any of them. A status
+ * posted after the newest one is written in place and a new view that includes it is published,
+ * so views already taken don't see it and nothing is copied.
+ * <p>
+ * A status is identified, as in a page cursor, by its poster's alias and its timestamp, as
+ * {@link FakeData#getPageOfStatus} does.
+ * <p>
+ * Statuses are stored as {@link ImmutableStatus}es, so a posted status can't be changed through
+ * a request or response that shares it, and pages hold mutable copies.
+ */
+public class StoryDAO {
+
+    private static final StoryDAO instance = new StoryDAO(FakeData.getInstance().getFakeStatuses());
+
+    public static StoryDAO getInstance() {
+        return instance;
+    }
+
+    private final ConcurrentHashMap<String, StoryList> stories = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a store of some statuses.
+     *
+     * @param initialStatuses the statuses.
+     */
+    public StoryDAO(List<Status> initialStatuses) {
+        for (Status status : initialStatuses) {
+            add(ImmutableStatus.from(status));
+        }
+    }
+
+    /**
+     * Adds a status to its poster's story.
+     *
+     * @param status the status.
+     */
+    public void add(ImmutableStatus status) {
+        String alias = status.getUser().getAlias();
+        StoryList story = stories.get(alias);
+        if (story == null) {
+            StoryList created = new StoryList();
+            story = stories.putIfAbsent(alias, created);
+            if (story == null) {
+                story = created;
+            }
+        }
+        story.add(status);
+    }
+
+    /**
+     * Returns a view of a user's story as it is now.
+     *
+     * @param alias the user.
+     * @return the story, which is empty if the user has posted nothing.
+     */
+    public StatusList getStory(String alias) {
+        StoryList story = stories.get(alias);
+        return (story == null) ? StatusList.EMPTY : story.current;
+    }
+
+    /**
+     * Returns a page of a user's story, newest first.
+     *
+     * @param alias the user.
+     * @param lastStatus the last status returned in the previous page (can be null).
+     * @param limit the maximum number of statuses to return.
+     * @return the page, or null if the last status is not in the story.
+     */
+    public Page getPage(String alias, Status lastStatus, int limit) {
+        StatusList story = getStory(alias);
+        int next = story.size() - 1;
+        if (lastStatus != null) {
+            // Of several statuses with the same timestamp the newest was returned first
+            long timestamp = lastStatus.getTimestamp();
+            if (lastStatus.getUser() == null || !alias.equals(lastStatus.getUser().getAlias())
+                    || story.lowerBound(timestamp, alias) == story.upperBound(timestamp, alias)) {
+                return null;
+            }
+            next = story.upperBound(timestamp, alias) - 2;
+        }
+
+        List<Status> page = new ArrayList<>(Math.min(limit, next + 1));
+        while (next >= 0 && page.size() < limit) {
+            page.add(story.get(next--).toStatus());
+        }
+        return new Page(page, next >= 0);
+    }
+
+    /**
+     * A user's story, with the current view of it. Updates are made one at a time.
+     */
+    private static class StoryList {
+        private volatile StatusList current = StatusList.EMPTY;
+
+        synchronized void add(ImmutableStatus status) {
+            current = current.add(status);
+        }
+    }
+
+    /**
+     * A page of statuses.
+     */
+    public static class Page {
+        private final List<Status> statuses;
+        private final boolean hasMorePages;
+
+        Page(List<Status> statuses, boolean hasMorePages) {
+            this.statuses = statuses;
+            this.hasMorePages = hasMorePages;
+        }
+
+        public List<Status> getStatuses() {
+            return statuses;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * Builds feeds with a hybrid of fan-out on write and fan-out on read.
+ * <p>
+ * Each user has a materialized timeline, a {@link StatusList} of statuses pushed to it by the
+ * users they follow. A status posted by an author with fewer followers than the celebrity
+ * threshold is pushed to each of their followers' timelines when it is posted, so a feed made
+ * of such authors reads one list however many users it follows. Pushing a status from an author
+ * with millions of followers would cost millions of writes, so an author whose follower count
+ * has reached the threshold is a celebrity: their statuses are only in their story, and a feed
+ * merges the stories of the celebrities it follows with its timeline when it is read. A feed is
+ * read from these lists by a {@link FeedIterator}, so its pages and cursors are the same
+ * whichever way its statuses got there.
+ * <p>
+ * An author becomes a celebrity the first time they post with a follower count at or over the
+ * threshold, and stays one, so each of their statuses is in exactly one of the lists a feed
+ * merges. A timeline keeps the celebrities its user follows next to its statuses, in one
+ * unchanging view, so a feed is read without locking or looking up who the user follows, and
+ * making an author a celebrity removes their statuses from a follower's timeline and adds them
+ * to its celebrities in one step.
+ * <p>
+ * Following an author who is not a celebrity merges their newest statuses into the follower's
+ * timeline, and unfollowing them removes their statuses from it. These changes, promoting an
+ * author and pushing their statuses are made while holding a lock of that author's. A follow or
+ * unfollow is recorded in the {@link FollowDAO} before the lock is taken, so the timeline change
+ * doesn't apply the change it was called for: it reads whether the follower follows the author
+ * now, under the lock, and makes the timeline match. Of a follow and an unfollow made at the same
+ * time, the timeline change that runs last sees both, so the timeline ends up as the follow
+ * graph does. A timeline keeps its newest statuses up to its capacity: a feed reaches back that
+ * many statuses from authors who aren't celebrities.
+ * <p>
+ * A threshold of 1 makes every author with a follower a celebrity (fan-out on read only), and
+ * {@link Integer#MAX_VALUE} makes none of them one (fan-out on write only).
+ */
+public class TimelineDAO {
+
+    public static final int DEFAULT_CELEBRITY_THRESHOLD = 10_000;
+    public static final int DEFAULT_TIMELINE_CAPACITY = 1000;
+
+    private static final TimelineDAO instance = load(FollowDAO.getInstance(), FollowCountDAO.getInstance(), StoryDAO.getInstance(),
+            FakeData.getInstance().getFakeUsers(), DEFAULT_CELEBRITY_THRESHOLD, DEFAULT_TIMELINE_CAPACITY);
+
+    public static TimelineDAO getInstance() {
+        return instance;
+    }
+
+    /**
+     * Creates an instance whose timelines hold the statuses already in the stories of some
+     * users, pushed to their followers.
+     *
+     * @param followDAO the follow relationships.
+     * @param followCountDAO the follower counts, which are compared with the threshold.
+     * @param storyDAO the stories.
+     * @param users the users.
+     * @param celebrityThreshold the follower count at which an author becomes a celebrity.
+     * @param timelineCapacity the largest number of statuses kept in a timeline.
+     * @return the instance.
+     */
+    public static TimelineDAO load(FollowDAO followDAO, FollowCountDAO followCountDAO, StoryDAO storyDAO, List<User> users,
+                                   int celebrityThreshold, int timelineCapacity) {
+        TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, celebrityThreshold, timelineCapacity);
+        for (User user : users) {
+            Author author = timelineDAO.getAuthor(user.getAlias());
+            synchronized (author) {
+                if (!timelineDAO.checkCelebrity(user.getAlias(), author)) {
+                    StatusList story = storyDAO.getStory(user.getAlias());
+                    for (User follower : followDAO.getFollowers(user.getAlias(), null, Integer.MAX_VALUE).getUsers()) {
+                        timelineDAO.getTimeline(follower.getAlias()).addAll(story, timelineCapacity);
+                    }
+                }
+            }
+        }
+        return timelineDAO;
+    }
+
+    private final FollowDAO followDAO;
+    private final FollowCountDAO followCountDAO;
+    private final StoryDAO storyDAO;
+    private final int celebrityThreshold;
+    private final int timelineCapacity;
+
+    private final ConcurrentHashMap<String, Timeline> timelines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Author> authors = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an instance with empty timelines.
+     *
+     * @param followDAO the follow relationships.
+     * @param followCountDAO the follower counts, which are compared with the threshold.
+     * @param storyDAO the stories.
+     * @param celebrityThreshold the follower count at which an author becomes a celebrity.
+     * @param timelineCapacity the largest number of statuses kept in a timeline.
+     */
+    public TimelineDAO(FollowDAO followDAO, FollowCountDAO followCountDAO, StoryDAO storyDAO, int celebrityThreshold, int timelineCapacity) {
+        if (celebrityThreshold <= 0 || timelineCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid celebrity threshold or timeline capacity");
+        }
+        this.followDAO = followDAO;
+        this.followCountDAO = followCountDAO;
+        this.storyDAO = storyDAO;
+        this.celebrityThreshold = celebrityThreshold;
+        this.timelineCapacity = timelineCapacity;
+    }
+
+    /**
+     * Pushes a status to the timelines of its poster's followers, unless the poster is a
+     * celebrity. The status must already be in the poster's story.
+     *
+     * @param status the status.
+     */
+    public void post(ImmutableStatus status) {
+        String alias = status.getUser().getAlias();
+        Author author = getAuthor(alias);
+        synchronized (author) {
+            if (!checkCelebrity(alias, author)) {
+                for (User follower : followDAO.getFollowers(alias, null, Integer.MAX_VALUE).getUsers()) {
+                    getTimeline(follower.getAlias()).add(status, timelineCapacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings a follower's timeline up to date after they have followed or unfollowed an author:
+     * if they follow the author now, the author's newest statuses are merged into it (or the
+     * author is added to its celebrities), and otherwise the author and their statuses are
+     * removed from it. Called after the change has been made in the {@link FollowDAO}.
+     *
+     * @param followerAlias the user doing the following.
+     * @param followeeAlias the user followed or unfollowed.
+     */
+    public void followChanged(String followerAlias, String followeeAlias) {
+        Author author = getAuthor(followeeAlias);
+        synchronized (author) {
+            if (followDAO.isFollowing(followerAlias, followeeAlias)) {
+                if (author.celebrity) {
+                    getTimeline(followerAlias).addCelebrity(followeeAlias);
+                } else {
+                    StatusList story = storyDAO.getStory(followeeAlias);
+                    getTimeline(followerAlias).addAll(story, timelineCapacity);
+                }
+            } else {
+                Timeline timeline = timelines.get(followerAlias);
+                if (timeline != null) {
+                    timeline.remove(followeeAlias);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the lists a user's feed is merged from: their timeline and the stories of the
+     * celebrities they follow.
+     *
+     * @param alias the user.
+     * @return the lists, as they are now.
+     */
+    public List<StatusList> getFeed(String alias) {
+        Timeline timeline = timelines.get(alias);
+        if (timeline == null) {
+            return Collections.singletonList(StatusList.EMPTY);
+        }
+
+        TimelineView view = timeline.current;
+        List<StatusList> lists = new ArrayList<>(view.celebrities.length + 1);
+        lists.add(view.statuses);
+        for (String celebrity : view.celebrities) {
+            lists.add(storyDAO.getStory(celebrity));
+        }
+        return lists;
+    }
+
+    /**
+     * Returns whether an author is a celebrity, whose statuses are merged into feeds when they
+     * are read.
+     *
+     * @param alias the author.
+     * @return true if the author is a celebrity.
+     */
+    public boolean isCelebrity(String alias) {
+        Author author = authors.get(alias);
+        return author != null && author.celebrity;
+    }
+
+    /**
+     * Returns whether an author is a celebrity, first making them one if their follower count
+     * has reached the threshold. Must be called holding the author's lock.
+     */
+    private boolean checkCelebrity(String alias, Author author) {
+        if (!author.celebrity && followCountDAO.getFollowerCount(alias) >= celebrityThreshold) {
+            author.celebrity = true;
+            for (User follower : followDAO.getFollowers(alias, null, Integer.MAX_VALUE).getUsers()) {
+                getTimeline(follower.getAlias()).addCelebrity(alias);
+            }
+        }
+        return author.celebrity;
+    }
+
+    private Author getAuthor(String alias) {
+        Author author = authors.get(alias);
+        if (author == null) {
+            Author created = new Author();
+            author = authors.putIfAbsent(alias, created);
+            if (author == null) {
+                author = created;
+            }
+        }
+        return author;
+    }
+
+    private Timeline getTimeline(String alias) {
+        Timeline timeline = timelines.get(alias);
+        if (timeline == null) {
+            Timeline created = new Timeline();
+            timeline = timelines.putIfAbsent(alias, created);
+            if (timeline == null) {
+                timeline = created;
+            }
+        }
+        return timeline;
+    }
+
+    /**
+     * An author, whose lock orders the changes made to timelines for them.
+     */
+    private static class Author {
+        private volatile boolean celebrity;
+    }
+
+    /**
+     * A user's timeline, with the current view of it. Updates are made one at a time.
+     */
+    private static class Timeline {
+        private volatile TimelineView current = new TimelineView(StatusList.EMPTY, new String[0]);
+
+        synchronized void add(ImmutableStatus status, int capacity) {
+            StatusList list = current.statuses.add(status);
+            current = new TimelineView(list.dropOldest(list.size() - capacity), current.celebrities);
+        }
+
+        synchronized void addAll(StatusList statuses, int capacity) {
+            StatusList list = current.statuses.addAll(statuses, statuses.size() - capacity);
+            current = new TimelineView(list.dropOldest(list.size() - capacity), current.celebrities);
+        }
+
+        synchronized void addCelebrity(String alias) {
+            String[] celebrities = current.celebrities;
+            if (!Arrays.asList(celebrities).contains(alias)) {
+                celebrities = Arrays.copyOf(celebrities, celebrities.length + 1);
+                celebrities[celebrities.length - 1] = alias;
+            }
+            current = new TimelineView(current.statuses.removePoster(alias), celebrities);
+        }
+
+        synchronized void remove(String alias) {
+            List<String> celebrities = new ArrayList<>(Arrays.asList(current.celebrities));
+            celebrities.remove(alias);
+            current = new TimelineView(current.statuses.removePoster(alias), celebrities.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * An unchanging view of a timeline: its statuses and the celebrities its user follows.
+     */
+    private static class TimelineView {
+        private final StatusList statuses;
+        private final String[] celebrities;
+
+        TimelineView(StatusList statuses, String[] celebrities) {
+            this.statuses = statuses;
+            this.celebrities = celebrities;
+        }
+    }
+}
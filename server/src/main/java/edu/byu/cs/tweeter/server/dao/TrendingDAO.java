@@ -0,0 +1,76 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.Trend;
+
+/**
+ * Tracks the mentions and URLs that appear most often in the statuses posted in the last hour,
+ * in a fixed amount of memory (see {@link HeavyHitters}).
+ * <p>
+ * With the default settings the window slides once a minute, each count is at most 0.1% of the
+ * window's mentions (or URLs) too high with 99% probability, and each of the two trackers uses
+ * about 3.3 MB.
+ */
+public class TrendingDAO {
+
+    public static final int DEFAULT_CAPACITY = 50;
+    public static final long DEFAULT_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+    public static final int DEFAULT_BUCKET_COUNT = 60;
+    public static final double DEFAULT_EPSILON = 0.001;
+    public static final double DEFAULT_DELTA = 0.01;
+
+    private static final TrendingDAO instance = new TrendingDAO(
+            new HeavyHitters(DEFAULT_CAPACITY, DEFAULT_WINDOW_MILLIS, DEFAULT_BUCKET_COUNT, DEFAULT_EPSILON, DEFAULT_DELTA),
+            new HeavyHitters(DEFAULT_CAPACITY, DEFAULT_WINDOW_MILLIS, DEFAULT_BUCKET_COUNT, DEFAULT_EPSILON, DEFAULT_DELTA));
+
+    public static TrendingDAO getInstance() {
+        return instance;
+    }
+
+    private final HeavyHitters mentions;
+    private final HeavyHitters urls;
+
+    /**
+     * Creates an instance.
+     *
+     * @param mentions the tracker for mentioned aliases.
+     * @param urls the tracker for URLs.
+     */
+    public TrendingDAO(HeavyHitters mentions, HeavyHitters urls) {
+        this.mentions = mentions;
+        this.urls = urls;
+    }
+
+    /**
+     * Counts a newly posted status's mentions and URLs. A status that contains a term twice
+     * counts it once.
+     *
+     * @param status the status.
+     */
+    public void record(Status status) {
+        recordAll(mentions, status.getMentions());
+        recordAll(urls, status.getUrls());
+    }
+
+    public List<Trend> getTopMentions(int limit) {
+        return mentions.getTop(limit);
+    }
+
+    public List<Trend> getTopUrls(int limit) {
+        return urls.getTop(limit);
+    }
+
+    private static void recordAll(HeavyHitters tracker, List<String> terms) {
+        if (terms == null) {
+            return;
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            if (terms.indexOf(terms.get(i)) == i) {
+                tracker.record(terms.get(i));
+            }
+        }
+    }
+}
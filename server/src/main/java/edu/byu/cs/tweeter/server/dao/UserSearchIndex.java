@@ -0,0 +1,498 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * A typeahead index that finds users whose alias, first name or last name starts with a prefix.
+ * <p>
+ * Every user adds up to three terms: their alias without the "@", their first name and their
+ * last name, all lower-cased. A term is stored as one int, {@code userId * 3 + field}, and the
+ * index is an array of these sorted by term, then alias, then field. The matches for a prefix
+ * are a contiguous run of the array, found by binary search, so a lookup costs about
+ * {@code log2(terms)} string comparisons plus one comparison per result, however many users
+ * match.
+ * <p>
+ * A user matches once however many of their terms start with the prefix: only their first
+ * matching term in index order counts. Results are in index order, so the top k matches are the
+ * first k, and a page resumes from the last user of the previous page without any state kept
+ * between requests.
+ * <p>
+ * Each word of a query of several words has its own run. A query with a word that matches
+ * nothing returns at once, and when a later word's run is narrower than the first word's, the
+ * users in that run are checked and sorted instead of scanning the first word's run.
+ * <p>
+ * New users go into a smaller sorted delta array that is searched alongside the main one and
+ * merged into it when it grows past a fraction of the index size, so adding a user usually
+ * costs a copy of the delta rather than a merge of the whole index. Both arrays are replaced
+ * rather than changed, so lookups read a consistent snapshot without taking a lock.
+ * <p>
+ * Names repeat a lot more than aliases, so users with the same lower-cased name share one copy
+ * of it.
+ */
+public class UserSearchIndex {
+
+    /**
+     * The number of terms per user: alias, first name and last name, in that order.
+     */
+    private static final int FIELDS = 3;
+
+    private static final int MIN_DELTA_SIZE = 1024;
+    /**
+     * The delta is merged into the main array when it holds more than this fraction of it.
+     */
+    private static final int DELTA_FRACTION = 32;
+
+    private static final UserSearchIndex instance = new UserSearchIndex(FakeData.getInstance().getFakeUsers());
+
+    public static UserSearchIndex getInstance() {
+        return instance;
+    }
+
+    /**
+     * The indexed users and the lower-cased terms of each, in the order they were added. Slots
+     * past {@link Snapshot#userCount} may be written by {@link #add} but are never read.
+     */
+    private volatile User[] users;
+    private volatile String[] terms;
+    private final ConcurrentHashMap<String, Integer> userIds = new ConcurrentHashMap<>();
+    /**
+     * One copy of each lower-cased name. Only used while adding users.
+     */
+    private final Map<String, String> names = new HashMap<>();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Creates an index of some users.
+     *
+     * @param initialUsers the users. Users with an alias already in the index are ignored.
+     */
+    public UserSearchIndex(List<User> initialUsers) {
+        int capacity = Math.max(16, initialUsers.size());
+        this.users = new User[capacity];
+        this.terms = new String[capacity * FIELDS];
+
+        int userCount = 0;
+        int[] codes = new int[initialUsers.size() * FIELDS];
+        int codeCount = 0;
+        for (User user : initialUsers) {
+            if (userIds.putIfAbsent(user.getAlias(), userCount) != null) {
+                continue;
+            }
+            codeCount = store(user, userCount, codes, codeCount);
+            userCount++;
+        }
+
+        codes = Arrays.copyOf(codes, codeCount);
+        sort(codes);
+        this.snapshot = new Snapshot(codes, new int[0], userCount);
+    }
+
+    /**
+     * Adds a user to the index. Searches started after this returns will find them.
+     *
+     * @param user the user.
+     * @return true if the user was added, false if a user with the same alias is already indexed.
+     */
+    public synchronized boolean add(User user) {
+        Snapshot current = snapshot;
+        int userId = current.userCount;
+        if (userIds.putIfAbsent(user.getAlias(), userId) != null) {
+            return false;
+        }
+
+        if (userId == users.length) {
+            users = Arrays.copyOf(users, userId * 2);
+            terms = Arrays.copyOf(terms, userId * 2 * FIELDS);
+        }
+        int[] newCodes = new int[FIELDS];
+        int newCodeCount = store(user, userId, newCodes, 0);
+        int[] delta = insert(current.delta, newCodes, newCodeCount);
+
+        int maxDeltaSize = Math.max(MIN_DELTA_SIZE, current.main.length / DELTA_FRACTION);
+        if (delta.length > maxDeltaSize) {
+            snapshot = new Snapshot(merge(current.main, delta), new int[0], userId + 1);
+        } else {
+            snapshot = new Snapshot(current.main, delta, userId + 1);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of indexed users.
+     *
+     * @return the number of users.
+     */
+    public int size() {
+        return snapshot.userCount;
+    }
+
+    /**
+     * Returns the users whose alias, first name or last name starts with a prefix, in index
+     * order: by the matching term, then by alias.
+     *
+     * @param query the prefix. Case is ignored, as is a leading "@". Further words, separated by
+     *              spaces, must each be the start of another of the user's terms (so "john br"
+     *              finds John Brown).
+     * @param lastUserAlias the last user returned in the previous page (can be null).
+     * @param limit the maximum number of users to return.
+     * @return the page, or null if the last user is not indexed or does not match the query.
+     */
+    public Page search(String query, String lastUserAlias, int limit) {
+        String[] words = normalize(query).split(" +");
+        String prefix = words[0];
+        Snapshot current = snapshot;
+        User[] users = this.users;
+        String[] terms = this.terms;
+
+        int lastCode = -1;
+        if (lastUserAlias != null) {
+            Integer lastUserId = userIds.get(lastUserAlias);
+            lastCode = (lastUserId == null || lastUserId >= current.userCount)
+                    ? -1 : firstMatch(lastUserId, prefix, terms, users);
+            if (lastCode < 0) {
+                return null;
+            }
+        }
+
+        // Each word's matches are a run of each array. A user must match every word, so if any
+        // run is empty there are no results, and otherwise the narrowest run holds them all.
+        int narrowest = 0;
+        int narrowestLength = Integer.MAX_VALUE;
+        for (int w = 0; w < words.length; w++) {
+            int length = prefixEnd(current.main, words[w], terms) - lowerBound(current.main, words[w], terms)
+                    + prefixEnd(current.delta, words[w], terms) - lowerBound(current.delta, words[w], terms);
+            if (length == 0) {
+                return new Page(new ArrayList<User>(0), false);
+            } else if (length < narrowestLength) {
+                narrowest = w;
+                narrowestLength = length;
+            }
+        }
+        if (narrowest > 0) {
+            return searchRun(words, words[narrowest], lastCode, limit, current, users, terms);
+        }
+
+        int mainIndex;
+        int deltaIndex;
+        if (lastCode < 0) {
+            mainIndex = lowerBound(current.main, prefix, terms);
+            deltaIndex = lowerBound(current.delta, prefix, terms);
+        } else {
+            mainIndex = upperBound(current.main, lastCode, terms, users);
+            deltaIndex = upperBound(current.delta, lastCode, terms, users);
+        }
+
+        List<User> page = new ArrayList<>(Math.min(limit, 64));
+        boolean hasMorePages = false;
+        while (true) {
+            int code;
+            boolean mainMatches = mainIndex < current.main.length && terms[current.main[mainIndex]].startsWith(prefix);
+            boolean deltaMatches = deltaIndex < current.delta.length && terms[current.delta[deltaIndex]].startsWith(prefix);
+            if (mainMatches && (!deltaMatches || compare(current.main[mainIndex], current.delta[deltaIndex], terms, users) < 0)) {
+                code = current.main[mainIndex++];
+            } else if (deltaMatches) {
+                code = current.delta[deltaIndex++];
+            } else {
+                break;
+            }
+
+            int userId = code / FIELDS;
+            if (firstMatch(userId, prefix, terms, users) != code || !matchesOtherWords(userId, code, words, terms)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                hasMorePages = true;
+                break;
+            }
+            page.add(users[userId]);
+        }
+        return new Page(page, hasMorePages);
+    }
+
+    /**
+     * Searches from the run of a later word, when it is narrower than the first word's: the users
+     * in it that match every word are found, then put in index order by their first word's term.
+     *
+     * @param lastCode the code the previous page ended at, or -1 for the first page.
+     */
+    private Page searchRun(String[] words, String runWord, int lastCode, int limit, Snapshot current,
+                           final User[] users, final String[] terms) {
+        Set<Integer> candidates = new HashSet<>();
+        addRun(candidates, current.main, runWord, terms);
+        addRun(candidates, current.delta, runWord, terms);
+
+        List<Integer> codes = new ArrayList<>(candidates.size());
+        for (int userId : candidates) {
+            int code = firstMatch(userId, words[0], terms, users);
+            if (code >= 0 && matchesOtherWords(userId, code, words, terms)
+                    && (lastCode < 0 || compare(code, lastCode, terms, users) > 0)) {
+                codes.add(code);
+            }
+        }
+        Collections.sort(codes, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer code1, Integer code2) {
+                return UserSearchIndex.compare(code1, code2, terms, users);
+            }
+        });
+
+        List<User> page = new ArrayList<>(Math.min(limit, codes.size()));
+        for (int i = 0; i < codes.size() && i < limit; i++) {
+            page.add(users[codes.get(i) / FIELDS]);
+        }
+        return new Page(page, codes.size() > limit);
+    }
+
+    /**
+     * Adds the users with a term in an array's run for a prefix.
+     */
+    private static void addRun(Set<Integer> userIds, int[] codes, String prefix, String[] terms) {
+        int end = prefixEnd(codes, prefix, terms);
+        for (int i = lowerBound(codes, prefix, terms); i < end; i++) {
+            userIds.add(codes[i] / FIELDS);
+        }
+    }
+
+    /**
+     * Lower-cases a query and removes a leading "@" and surrounding spaces.
+     *
+     * @param query the query.
+     * @return the normalized query.
+     */
+    public static String normalize(String query) {
+        String normalized = query.trim().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("@") ? normalized.substring(1) : normalized;
+    }
+
+    /**
+     * Records a user's terms and adds their codes to an array.
+     *
+     * @return the new number of codes in the array.
+     */
+    private int store(User user, int userId, int[] codes, int codeCount) {
+        users[userId] = user;
+        String alias = user.getAlias();
+        String[] fields = new String[] {
+                alias.startsWith("@") ? alias.substring(1) : alias, user.getFirstName(), user.getLastName() };
+        for (int field = 0; field < FIELDS; field++) {
+            String term = (fields[field] == null) ? "" : fields[field].toLowerCase(Locale.ROOT);
+            if (field > 0) {
+                String shared = names.get(term);
+                if (shared == null) {
+                    names.put(term, term);
+                } else {
+                    term = shared;
+                }
+            }
+            terms[userId * FIELDS + field] = term;
+            if (!term.isEmpty()) {
+                codes[codeCount++] = userId * FIELDS + field;
+            }
+        }
+        return codeCount;
+    }
+
+    /**
+     * Returns the code of a user's first term, in index order, that starts with a prefix.
+     *
+     * @return the code, or -1 if none of the user's terms match.
+     */
+    private static int firstMatch(int userId, String prefix, String[] terms, User[] users) {
+        int first = -1;
+        for (int field = 0; field < FIELDS; field++) {
+            int code = userId * FIELDS + field;
+            String term = terms[code];
+            if (!term.isEmpty() && term.startsWith(prefix) && (first < 0 || compare(code, first, terms, users) < 0)) {
+                first = code;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Indicates whether each word after the first starts one of the user's terms other than the
+     * one the first word matched.
+     */
+    private static boolean matchesOtherWords(int userId, int matchedCode, String[] words, String[] terms) {
+        for (int w = 1; w < words.length; w++) {
+            boolean found = false;
+            for (int field = 0; field < FIELDS && !found; field++) {
+                int code = userId * FIELDS + field;
+                found = code != matchedCode && !terms[code].isEmpty() && terms[code].startsWith(words[w]);
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(int code1, int code2, String[] terms, User[] users) {
+        String term1 = terms[code1];
+        String term2 = terms[code2];
+        int result = (term1 == term2) ? 0 : term1.compareTo(term2);
+        if (result == 0 && code1 / FIELDS != code2 / FIELDS) {
+            result = users[code1 / FIELDS].getAlias().compareTo(users[code2 / FIELDS].getAlias());
+        }
+        return (result != 0) ? result : Integer.compare(code1 % FIELDS, code2 % FIELDS);
+    }
+
+    /**
+     * Returns the index of the first code whose term is not less than a prefix.
+     */
+    private static int lowerBound(int[] codes, String prefix, String[] terms) {
+        int low = 0;
+        int high = codes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (terms[codes[middle]].compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first code whose term is greater than a prefix and doesn't start
+     * with it, i.e. the end of the prefix's run.
+     */
+    private static int prefixEnd(int[] codes, String prefix, String[] terms) {
+        int low = 0;
+        int high = codes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            String term = terms[codes[middle]];
+            if (term.compareTo(prefix) < 0 || term.startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index of the first code that comes after a code in index order.
+     */
+    private int upperBound(int[] codes, int code, String[] terms, User[] users) {
+        int low = 0;
+        int high = codes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(codes[middle], code, terms, users) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a copy of a sorted array with some codes inserted in order.
+     */
+    private int[] insert(int[] codes, int[] newCodes, int newCodeCount) {
+        int[] added = Arrays.copyOf(newCodes, newCodeCount);
+        sort(added);
+        int[] inserted = new int[codes.length + newCodeCount];
+        int from = 0;
+        for (int i = 0; i < newCodeCount; i++) {
+            int index = upperBound(codes, added[i], terms, users);
+            System.arraycopy(codes, from, inserted, from + i, index - from);
+            inserted[index + i] = added[i];
+            from = index;
+        }
+        System.arraycopy(codes, from, inserted, from + newCodeCount, codes.length - from);
+        return inserted;
+    }
+
+    private int[] merge(int[] main, int[] delta) {
+        int[] merged = new int[main.length + delta.length];
+        int i = 0;
+        int j = 0;
+        for (int k = 0; k < merged.length; k++) {
+            if (j == delta.length || (i < main.length && compare(main[i], delta[j], terms, users) < 0)) {
+                merged[k] = main[i++];
+            } else {
+                merged[k] = delta[j++];
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Sorts codes into index order with a merge sort, which avoids boxing every code to sort it
+     * with a comparator.
+     */
+    private void sort(int[] codes) {
+        int[] buffer = new int[codes.length];
+        for (int width = 1; width < codes.length; width *= 2) {
+            for (int start = 0; start < codes.length - width; start += 2 * width) {
+                int middle = start + width;
+                int end = Math.min(start + 2 * width, codes.length);
+                int i = start;
+                int j = middle;
+                for (int k = start; k < end; k++) {
+                    if (j == end || (i < middle && compare(codes[i], codes[j], terms, users) <= 0)) {
+                        buffer[k] = codes[i++];
+                    } else {
+                        buffer[k] = codes[j++];
+                    }
+                }
+                System.arraycopy(buffer, start, codes, start, end - start);
+            }
+        }
+    }
+
+    /**
+     * The sorted arrays and the number of users they cover. Never changed once published.
+     */
+    private static class Snapshot {
+        private final int[] main;
+        private final int[] delta;
+        private final int userCount;
+
+        Snapshot(int[] main, int[] delta, int userCount) {
+            this.main = main;
+            this.delta = delta;
+            this.userCount = userCount;
+        }
+    }
+
+    /**
+     * A page of matching users.
+     */
+    public static class Page {
+        private final List<User> users;
+        private final boolean hasMorePages;
+
+        Page(List<User> users, boolean hasMorePages) {
+            this.users = users;
+            this.hasMorePages = hasMorePages;
+        }
+
+        public List<User> getUsers() {
+            return users;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+    }
+}
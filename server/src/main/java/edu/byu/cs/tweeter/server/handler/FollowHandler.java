@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.FollowRequest;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests to follow a user.
+ */
+public class FollowHandler extends JsonHandler<FollowRequest, Response> {
+
+    public FollowHandler() {
+        super(FollowRequest.class);
+    }
+
+    @Override
+    protected Response handleRequest(FollowRequest request) {
+        return new FollowService().follow(request);
+    }
+}
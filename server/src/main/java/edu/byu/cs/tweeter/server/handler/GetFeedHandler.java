@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.FeedRequest;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.server.service.StatusService;
+
+/**
+ * Handles requests for a page of a user's feed.
+ */
+public class GetFeedHandler extends JsonHandler<FeedRequest, FeedResponse> {
+
+    public GetFeedHandler() {
+        super(FeedRequest.class);
+    }
+
+    @Override
+    protected FeedResponse handleRequest(FeedRequest request) {
+        return new StatusService().getFeed(request);
+    }
+}
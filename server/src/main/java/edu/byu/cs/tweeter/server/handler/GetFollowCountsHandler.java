@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.FollowCountsRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowCountsResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests for the number of followers and followees of a user.
+ */
+public class GetFollowCountsHandler extends JsonHandler<FollowCountsRequest, FollowCountsResponse> {
+
+    public GetFollowCountsHandler() {
+        super(FollowCountsRequest.class);
+    }
+
+    @Override
+    protected FollowCountsResponse handleRequest(FollowCountsRequest request) {
+        return new FollowService().getFollowCounts(request);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowersRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowersResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests for a page of a user's followers.
+ */
+public class GetFollowersHandler extends UserPageHandler<FollowersRequest, FollowersResponse> {
+
+    public GetFollowersHandler() {
+        super(FollowersRequest.class);
+    }
+
+    @Override
+    protected FollowersResponse handleRequest(FollowersRequest request) {
+        return new FollowService().getFollowers(request);
+    }
+
+    @Override
+    protected List<User> getUsers(FollowersResponse response) {
+        return response.getFollowers();
+    }
+}
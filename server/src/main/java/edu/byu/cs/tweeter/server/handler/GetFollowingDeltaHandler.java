@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowingDeltaResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests for the changes to a following list since a version.
+ */
+public class GetFollowingDeltaHandler extends JsonHandler<FollowingDeltaRequest, FollowingDeltaResponse> {
+
+    public GetFollowingDeltaHandler() {
+        super(FollowingDeltaRequest.class);
+    }
+
+    @Override
+    protected FollowingDeltaResponse handleRequest(FollowingDeltaRequest request) {
+        return new FollowService().getFollowingDelta(request);
+    }
+}
@@ -0,0 +1,33 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests for a page of the users a user is following.
+ */
+public class GetFollowingHandler extends UserPageHandler<FollowingRequest, FollowingResponse> {
+
+    public GetFollowingHandler() {
+        super(FollowingRequest.class);
+    }
+
+    @Override
+    protected FollowingResponse handleRequest(FollowingRequest request) {
+        return new FollowService().getFollowees(request);
+    }
+
+    @Override
+    protected List<User> getUsers(FollowingResponse response) {
+        return response.getFollowees();
+    }
+
+    @Override
+    protected String getVersion(FollowingResponse response) {
+        return response.getVersion();
+    }
+}
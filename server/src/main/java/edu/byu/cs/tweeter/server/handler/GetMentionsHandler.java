@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.MentionsRequest;
+import edu.byu.cs.tweeter.model.net.response.MentionsResponse;
+import edu.byu.cs.tweeter.server.service.StatusService;
+
+/**
+ * Handles requests for a page of the statuses that mention a user.
+ */
+public class GetMentionsHandler extends JsonHandler<MentionsRequest, MentionsResponse> {
+
+    public GetMentionsHandler() {
+        super(MentionsRequest.class);
+    }
+
+    @Override
+    protected MentionsResponse handleRequest(MentionsRequest request) {
+        return new StatusService().getMentions(request);
+    }
+}
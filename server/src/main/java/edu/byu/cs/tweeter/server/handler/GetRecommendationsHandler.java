@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.RecommendationsRequest;
+import edu.byu.cs.tweeter.model.net.response.RecommendationsResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests for users to recommend to the logged-in user.
+ */
+public class GetRecommendationsHandler extends JsonHandler<RecommendationsRequest, RecommendationsResponse> {
+
+    public GetRecommendationsHandler() {
+        super(RecommendationsRequest.class);
+    }
+
+    @Override
+    protected RecommendationsResponse handleRequest(RecommendationsRequest request) {
+        return new FollowService().getRecommendations(request);
+    }
+}
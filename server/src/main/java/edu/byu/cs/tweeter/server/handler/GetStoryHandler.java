@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.StoryRequest;
+import edu.byu.cs.tweeter.model.net.response.StoryResponse;
+import edu.byu.cs.tweeter.server.service.StatusService;
+
+/**
+ * Handles requests for a page of a user's story.
+ */
+public class GetStoryHandler extends JsonHandler<StoryRequest, StoryResponse> {
+
+    public GetStoryHandler() {
+        super(StoryRequest.class);
+    }
+
+    @Override
+    protected StoryResponse handleRequest(StoryRequest request) {
+        return new StatusService().getStory(request);
+    }
+}
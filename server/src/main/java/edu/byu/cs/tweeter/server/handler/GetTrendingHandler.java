@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.TrendingRequest;
+import edu.byu.cs.tweeter.model.net.response.TrendingResponse;
+import edu.byu.cs.tweeter.server.service.StatusService;
+
+/**
+ * Handles requests for the mentions and URLs that are trending.
+ */
+public class GetTrendingHandler extends JsonHandler<TrendingRequest, TrendingResponse> {
+
+    public GetTrendingHandler() {
+        super(TrendingRequest.class);
+    }
+
+    @Override
+    protected TrendingResponse handleRequest(TrendingRequest request) {
+        return new StatusService().getTrending(request);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.IsFollowingRequest;
+import edu.byu.cs.tweeter.model.net.response.IsFollowingResponse;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests to check whether a user follows each of a list of users.
+ */
+public class IsFollowingHandler extends JsonHandler<IsFollowingRequest, IsFollowingResponse> {
+
+    public IsFollowingHandler() {
+        super(IsFollowingRequest.class);
+    }
+
+    @Override
+    protected IsFollowingResponse handleRequest(IsFollowingRequest request) {
+        return new FollowService().isFollowing(request);
+    }
+}
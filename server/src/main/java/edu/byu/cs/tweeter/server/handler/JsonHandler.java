@@ -0,0 +1,74 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import com.google.gson.JsonParseException;
+
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.server.net.HttpHandler;
+import edu.byu.cs.tweeter.server.net.HttpRequest;
+import edu.byu.cs.tweeter.server.net.HttpResponse;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+
+/**
+ * Base class for handlers that accept a JSON request object in a POST body and return a JSON
+ * response object. A service that rejects a request throws an {@link IllegalArgumentException},
+ * which is returned to the client as a 400 response, or as a 401 response if its message starts
+ * with "[Unauthorized]".
+ *
+ * @param <REQ> the request type.
+ * @param <RESP> the response type.
+ */
+public abstract class JsonHandler<REQ, RESP> implements HttpHandler {
+
+    private static final String UNAUTHORIZED_PREFIX = "[Unauthorized]";
+
+    private final Class<REQ> requestType;
+
+    protected JsonHandler(Class<REQ> requestType) {
+        this.requestType = requestType;
+    }
+
+    @Override
+    public HttpResponse handle(HttpRequest request) {
+        if (!"POST".equals(request.getMethod())) {
+            return errorResponse(HttpResponse.METHOD_NOT_ALLOWED, "[Bad Request] Use POST");
+        }
+
+        REQ requestObject;
+        try {
+            requestObject = JsonSerializer.deserialize(request.getBodyAsString(), requestType);
+        } catch (JsonParseException ex) {
+            return errorResponse(HttpResponse.BAD_REQUEST, "[Bad Request] Malformed JSON: " + ex.getMessage());
+        }
+        if (requestObject == null) {
+            return errorResponse(HttpResponse.BAD_REQUEST, "[Bad Request] Missing request body");
+        }
+
+        try {
+            return createResponse(request, handleRequest(requestObject));
+        } catch (IllegalArgumentException ex) {
+            String message = ex.getMessage();
+            if (message != null && message.startsWith(UNAUTHORIZED_PREFIX)) {
+                return errorResponse(HttpResponse.UNAUTHORIZED, message);
+            }
+            return errorResponse(HttpResponse.BAD_REQUEST, message);
+        }
+    }
+
+    protected abstract RESP handleRequest(REQ request);
+
+    /**
+     * Creates the HTTP response for a response object. Subclasses can override this to offer
+     * another encoding to clients that accept it.
+     *
+     * @param request the HTTP request.
+     * @param response the response object returned by {@link #handleRequest}.
+     * @return the HTTP response, with the response object serialized as JSON.
+     */
+    protected HttpResponse createResponse(HttpRequest request, RESP response) {
+        return HttpResponse.json(HttpResponse.OK, JsonSerializer.serialize(response));
+    }
+
+    private HttpResponse errorResponse(int status, String message) {
+        return HttpResponse.json(status, JsonSerializer.serialize(new Response(false, message)));
+    }
+}
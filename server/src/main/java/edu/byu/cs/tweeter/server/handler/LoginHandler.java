@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.LoginRequest;
+import edu.byu.cs.tweeter.model.net.response.LoginResponse;
+import edu.byu.cs.tweeter.server.service.UserService;
+
+/**
+ * Handles login requests.
+ */
+public class LoginHandler extends JsonHandler<LoginRequest, LoginResponse> {
+
+    public LoginHandler() {
+        super(LoginRequest.class);
+    }
+
+    @Override
+    protected LoginResponse handleRequest(LoginRequest request) {
+        return new UserService().login(request);
+    }
+}
@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.PostStatusRequest;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.server.service.StatusService;
+
+/**
+ * Handles requests to post a status.
+ */
+public class PostStatusHandler extends JsonHandler<PostStatusRequest, Response> {
+
+    public PostStatusHandler() {
+        super(PostStatusRequest.class);
+    }
+
+    @Override
+    protected Response handleRequest(PostStatusRequest request) {
+        return new StatusService().postStatus(request);
+    }
+}
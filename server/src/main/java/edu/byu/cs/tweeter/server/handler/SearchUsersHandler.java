@@ -0,0 +1,28 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.SearchUsersRequest;
+import edu.byu.cs.tweeter.model.net.response.SearchUsersResponse;
+import edu.byu.cs.tweeter.server.service.UserService;
+
+/**
+ * Handles requests for a page of the users matching a typeahead query.
+ */
+public class SearchUsersHandler extends UserPageHandler<SearchUsersRequest, SearchUsersResponse> {
+
+    public SearchUsersHandler() {
+        super(SearchUsersRequest.class);
+    }
+
+    @Override
+    protected SearchUsersResponse handleRequest(SearchUsersRequest request) {
+        return new UserService().searchUsers(request);
+    }
+
+    @Override
+    protected List<User> getUsers(SearchUsersResponse response) {
+        return response.getUsers();
+    }
+}
@@ -0,0 +1,20 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import edu.byu.cs.tweeter.model.net.request.UnfollowRequest;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.server.service.FollowService;
+
+/**
+ * Handles requests to stop following a user.
+ */
+public class UnfollowHandler extends JsonHandler<UnfollowRequest, Response> {
+
+    public UnfollowHandler() {
+        super(UnfollowRequest.class);
+    }
+
+    @Override
+    protected Response handleRequest(UnfollowRequest request) {
+        return new FollowService().unfollow(request);
+    }
+}
@@ -0,0 +1,56 @@
+package edu.byu.cs.tweeter.server.handler;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.PagedResponse;
+import edu.byu.cs.tweeter.server.net.HttpRequest;
+import edu.byu.cs.tweeter.server.net.HttpResponse;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+
+/**
+ * Base class for handlers that return a page of users. A successful page is sent in the compact
+ * {@link UserPageCodec} encoding to clients that list its content type in their Accept header,
+ * and as JSON otherwise. Errors are always JSON.
+ *
+ * @param <REQ> the request type.
+ * @param <RESP> the response type.
+ */
+public abstract class UserPageHandler<REQ, RESP extends PagedResponse> extends JsonHandler<REQ, RESP> {
+
+    protected UserPageHandler(Class<REQ> requestType) {
+        super(requestType);
+    }
+
+    @Override
+    protected HttpResponse createResponse(HttpRequest request, RESP response) {
+        HttpResponse httpResponse;
+        if (response.isSuccess() && request.accepts(UserPageCodec.CONTENT_TYPE)) {
+            httpResponse = new HttpResponse(HttpResponse.OK);
+            httpResponse.setHeader("Content-Type", UserPageCodec.CONTENT_TYPE);
+            httpResponse.setBody(UserPageCodec.encode(getUsers(response), response.getHasMorePages(), getVersion(response)));
+        } else {
+            httpResponse = super.createResponse(request, response);
+        }
+        httpResponse.setHeader("Vary", "Accept");
+        return httpResponse;
+    }
+
+    /**
+     * Returns the users in a response.
+     *
+     * @param response a successful response.
+     * @return the users.
+     */
+    protected abstract List<User> getUsers(RESP response);
+
+    /**
+     * Returns the version token sent with a response.
+     *
+     * @param response a successful response.
+     * @return the version token, or null if the response doesn't have one.
+     */
+    protected String getVersion(RESP response) {
+        return null;
+    }
+}
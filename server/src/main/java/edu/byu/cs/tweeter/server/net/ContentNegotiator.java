@@ -0,0 +1,130 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Applies conditional-request and compression rules to a successful response before it is
+ * written:
+ * <ul>
+ *     <li>Every 200 response gets a weak ETag computed from its uncompressed body: the gzip and
+ *     identity bodies share the tag, so they are only equivalent, not byte-for-byte equal. If the
+ *     request's If-None-Match header carries the same tag (compared weakly), the body is dropped
+ *     and a 304 is sent instead, so a client revalidating a cached page only pays for the
+ *     headers.</li>
+ *     <li>If the client accepts gzip and the body is large enough to benefit, the body is
+ *     compressed and Content-Encoding is set.</li>
+ * </ul>
+ * The Tweeter API reads pages with POST, so the tag identifies the response to this exact request
+ * body rather than to a URL. That is fine for the read-only endpoints, which return the same page
+ * for the same request until the data changes.
+ */
+class ContentNegotiator {
+
+    /**
+     * Bodies smaller than this are sent uncompressed; the gzip header and trailer would make
+     * them larger.
+     */
+    static final int MIN_COMPRESSED_BYTES = 256;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private ContentNegotiator() {
+    }
+
+    /**
+     * Returns the response to send for a request.
+     *
+     * @param request the request.
+     * @param response the response produced by the handler.
+     * @return the response to send, which may be a new 304 response.
+     */
+    static HttpResponse negotiate(HttpRequest request, HttpResponse response) {
+        if (response.getStatus() != HttpResponse.OK) {
+            return response;
+        }
+
+        byte[] body = response.getBody();
+        String etag = computeEtag(body);
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            HttpResponse notModified = new HttpResponse(HttpResponse.NOT_MODIFIED);
+            notModified.setHeader("ETag", etag);
+            return notModified;
+        }
+
+        response.setHeader("ETag", etag);
+        if (body.length >= MIN_COMPRESSED_BYTES && acceptsGzip(request.getHeader("Accept-Encoding"))) {
+            response.setBody(gzip(body));
+            response.setHeader("Content-Encoding", "gzip");
+            String vary = response.getHeader("Vary");
+            response.setHeader("Vary", (vary == null) ? "Accept-Encoding" : vary + ", Accept-Encoding");
+        }
+        return response;
+    }
+
+    static String computeEtag(byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-1
+            throw new IllegalStateException(ex);
+        }
+
+        byte[] hash = digest.digest(body);
+        StringBuilder etag = new StringBuilder(hash.length * 2 + 4);
+        etag.append("W/\"");
+        for (byte b : hash) {
+            etag.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        etag.append('"');
+        return etag.toString();
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(stripWeak(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" means the client refuses gzip
+                return parts.length < 2 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException ex) {
+            // Writing to a byte array can't fail
+            throw new IllegalStateException(ex);
+        }
+        return compressed.toByteArray();
+    }
+}
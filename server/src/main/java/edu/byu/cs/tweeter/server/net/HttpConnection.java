@@ -0,0 +1,202 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of one client connection. Requests are numbered in the order they are read, and
+ * because workers can finish them in any order, each response is held until every earlier
+ * response on the connection has been queued for writing. That keeps pipelined responses in
+ * request order as HTTP/1.1 requires.
+ * <p>
+ * Except where noted, methods are only called from the selector thread.
+ */
+class HttpConnection {
+
+    private static final int INITIAL_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_BUFFER_SIZE = HttpRequestParser.MAX_HEADER_BYTES + HttpRequestParser.MAX_BODY_BYTES;
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+
+    /**
+     * Bytes read from the channel that have not been parsed yet (kept in write mode).
+     */
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+    /**
+     * Encoded responses waiting to be written, in request order.
+     */
+    private final ArrayDeque<ByteBuffer> outbound = new ArrayDeque<>();
+    /**
+     * Responses finished by workers that cannot be written until earlier responses are.
+     * Guarded by this connection's lock.
+     */
+    private final Map<Long, ByteBuffer> completed = new HashMap<>();
+
+    private long nextRequestSequence;
+    private long nextResponseSequence;
+    /**
+     * The sequence number of the response after which the connection is closed, or -1.
+     */
+    private long closeAfterSequence = -1;
+    private boolean inputClosed;
+    private long lastActivityMillis;
+
+    HttpConnection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+        this.lastActivityMillis = System.currentTimeMillis();
+    }
+
+    SocketChannel getChannel() {
+        return channel;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    /**
+     * Reads whatever is available from the channel into the read buffer, growing the buffer if
+     * it is full.
+     *
+     * @return the number of bytes read, or -1 if the client closed its side of the connection.
+     */
+    int read() throws IOException {
+        if (!readBuffer.hasRemaining() && readBuffer.capacity() < MAX_BUFFER_SIZE) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(readBuffer.capacity() * 2, MAX_BUFFER_SIZE));
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+
+        int count = channel.read(readBuffer);
+        if (count < 0) {
+            inputClosed = true;
+        } else if (count > 0) {
+            lastActivityMillis = System.currentTimeMillis();
+        }
+        return count;
+    }
+
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    boolean hasBufferedInput() {
+        return readBuffer.position() > 0;
+    }
+
+    /**
+     * Writes as many queued responses as the channel will accept.
+     *
+     * @return true if every queued response was written.
+     */
+    boolean write() throws IOException {
+        if (!outbound.isEmpty()) {
+            ByteBuffer[] buffers = outbound.toArray(new ByteBuffer[0]);
+            channel.write(buffers);
+            while (!outbound.isEmpty() && !outbound.peek().hasRemaining()) {
+                outbound.poll();
+            }
+            lastActivityMillis = System.currentTimeMillis();
+        }
+        return outbound.isEmpty();
+    }
+
+    boolean hasPendingOutput() {
+        return !outbound.isEmpty();
+    }
+
+    long nextRequestSequence() {
+        return nextRequestSequence++;
+    }
+
+    /**
+     * Records the response to a request. Called from worker threads.
+     *
+     * @param sequence the request's sequence number.
+     * @param response the encoded response.
+     */
+    synchronized void complete(long sequence, ByteBuffer response) {
+        completed.put(sequence, response);
+    }
+
+    /**
+     * Moves finished responses to the outbound queue, stopping at the first request that has
+     * not finished yet.
+     */
+    synchronized void drainCompleted() {
+        ByteBuffer response;
+        while ((response = completed.remove(nextResponseSequence)) != null) {
+            outbound.add(response);
+            nextResponseSequence++;
+        }
+    }
+
+    /**
+     * Returns the number of requests whose responses have not been queued for writing yet.
+     *
+     * @return the number of requests in flight.
+     */
+    int getRequestsInFlight() {
+        return (int) (nextRequestSequence - nextResponseSequence);
+    }
+
+    /**
+     * Arranges for the connection to be closed once the response to the specified request has
+     * been written. No further requests are read.
+     *
+     * @param sequence the sequence number of the last request to answer.
+     */
+    void closeAfter(long sequence) {
+        closeAfterSequence = sequence;
+    }
+
+    /**
+     * Indicates whether buffered requests may still be parsed and handled. This stays true after
+     * the client closes its side of the connection, so requests it sent before closing are
+     * still answered.
+     *
+     * @return true if more requests may be handled.
+     */
+    boolean acceptsRequests() {
+        return closeAfterSequence < 0;
+    }
+
+    /**
+     * Indicates whether the connection has stopped reading from the channel.
+     *
+     * @return true if no more input will be read.
+     */
+    boolean isClosing() {
+        return closeAfterSequence >= 0 || inputClosed;
+    }
+
+    /**
+     * Indicates whether the connection has nothing left to do and can be closed.
+     *
+     * @return true if the connection is finished.
+     */
+    boolean isFinished() {
+        return isClosing() && getRequestsInFlight() == 0 && outbound.isEmpty();
+    }
+
+    boolean isIdleSince(long cutoffMillis) {
+        return lastActivityMillis < cutoffMillis && getRequestsInFlight() == 0 && outbound.isEmpty();
+    }
+
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            // Nothing more can be done with the connection
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package edu.byu.cs.tweeter.server.net;
+
+/**
+ * Handles requests for one path. Handlers run on the server's worker threads, so a handler may
+ * block, but it must be safe to call from several threads at once.
+ */
+public interface HttpHandler {
+    HttpResponse handle(HttpRequest request) throws Exception;
+}
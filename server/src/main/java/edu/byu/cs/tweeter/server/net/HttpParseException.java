@@ -0,0 +1,19 @@
+package edu.byu.cs.tweeter.server.net;
+
+/**
+ * Indicates that the bytes received on a connection are not a request the server can handle. The
+ * connection is answered with the exception's status code and then closed.
+ */
+public class HttpParseException extends Exception {
+
+    private final int status;
+
+    public HttpParseException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
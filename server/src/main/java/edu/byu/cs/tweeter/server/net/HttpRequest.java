@@ -0,0 +1,114 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * A parsed HTTP/1.x request.
+ */
+public class HttpRequest {
+
+    private final String method;
+    private final String path;
+    private final String version;
+    /**
+     * Header values keyed by lower-case header name.
+     */
+    private final Map<String, String> headers;
+    private final byte[] body;
+
+    public HttpRequest(String method, String path, String version, Map<String, String> headers, byte[] body) {
+        this.method = method;
+        this.path = path;
+        this.version = version;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the value of a header.
+     *
+     * @param name the header name (case-insensitive).
+     * @return the value, or null if the request does not have the header.
+     */
+    public String getHeader(String name) {
+        return headers.get(name.toLowerCase());
+    }
+
+    /**
+     * Determines whether the client explicitly accepts a media type, i.e. lists it in its Accept
+     * header with a non-zero quality. Wildcards such as "*&#47;*" are not counted, so a generic
+     * client is never sent a format it didn't ask for.
+     *
+     * @param mediaType the media type, e.g. "application/json".
+     * @return true if the Accept header allows the type.
+     */
+    public boolean accepts(String mediaType) {
+        String accept = getHeader("Accept");
+        if (accept == null) {
+            return false;
+        }
+
+        for (String range : accept.split(",")) {
+            String[] parts = range.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(mediaType)) {
+                for (int i = 1; i < parts.length; i++) {
+                    if (parts[i].trim().replace(" ", "").matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getBodyAsString() {
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Determines whether the client wants the connection kept open after the response. HTTP/1.1
+     * connections are persistent unless the client sends "Connection: close"; HTTP/1.0
+     * connections are persistent only if the client sends "Connection: keep-alive".
+     *
+     * @return true if the connection should be kept open.
+     */
+    public boolean isKeepAlive() {
+        String connection = getHeader("Connection");
+        if ("HTTP/1.0".equals(version)) {
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+        return !"close".equalsIgnoreCase(connection);
+    }
+
+    @Override
+    public String toString() {
+        return "HttpRequest{" +
+                "method='" + method + '\'' +
+                ", path='" + path + '\'' +
+                ", version='" + version + '\'' +
+                ", bodyLength=" + body.length +
+                '}';
+    }
+}
@@ -0,0 +1,108 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses HTTP/1.x requests out of a connection's read buffer. Several requests may be in the
+ * buffer at once (pipelining), and the last one may be incomplete.
+ */
+class HttpRequestParser {
+
+    static final int MAX_HEADER_BYTES = 8 * 1024;
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    /**
+     * Parses the request at the buffer's position.
+     *
+     * @param buffer a buffer in read mode. On success its position is advanced past the request;
+     *               otherwise it is left unchanged.
+     * @return the request, or null if the buffer does not yet contain a complete request.
+     * @throws HttpParseException if the bytes are not a valid request.
+     */
+    static HttpRequest parse(ByteBuffer buffer) throws HttpParseException {
+        int start = buffer.position();
+        int headerEnd = findHeaderEnd(buffer, start);
+        if (headerEnd < 0) {
+            if (buffer.remaining() > MAX_HEADER_BYTES) {
+                throw new HttpParseException(HttpResponse.PAYLOAD_TOO_LARGE, "Request header too large");
+            }
+            return null;
+        }
+
+        byte[] headerBytes = copy(buffer, start, headerEnd - start);
+        String[] lines = new String(headerBytes, StandardCharsets.ISO_8859_1).split("\r\n");
+
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+            throw new HttpParseException(HttpResponse.BAD_REQUEST, "Malformed request line: " + lines[0]);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon <= 0) {
+                throw new HttpParseException(HttpResponse.BAD_REQUEST, "Malformed header: " + lines[i]);
+            }
+            headers.put(lines[i].substring(0, colon).trim().toLowerCase(), lines[i].substring(colon + 1).trim());
+        }
+
+        if (headers.containsKey("transfer-encoding")) {
+            throw new HttpParseException(HttpResponse.NOT_IMPLEMENTED, "Transfer-Encoding is not supported");
+        }
+
+        int contentLength = 0;
+        String contentLengthHeader = headers.get("content-length");
+        if (contentLengthHeader != null) {
+            try {
+                contentLength = Integer.parseInt(contentLengthHeader);
+            } catch (NumberFormatException ex) {
+                throw new HttpParseException(HttpResponse.BAD_REQUEST, "Invalid Content-Length: " + contentLengthHeader);
+            }
+            if (contentLength < 0) {
+                throw new HttpParseException(HttpResponse.BAD_REQUEST, "Invalid Content-Length: " + contentLengthHeader);
+            }
+            if (contentLength > MAX_BODY_BYTES) {
+                throw new HttpParseException(HttpResponse.PAYLOAD_TOO_LARGE, "Request body too large");
+            }
+        }
+
+        int bodyStart = headerEnd + 4;
+        if (buffer.limit() - bodyStart < contentLength) {
+            return null;
+        }
+
+        byte[] body = copy(buffer, bodyStart, contentLength);
+        buffer.position(bodyStart + contentLength);
+
+        String target = requestLine[1];
+        int query = target.indexOf('?');
+        String path = (query >= 0) ? target.substring(0, query) : target;
+
+        return new HttpRequest(requestLine[0], path, requestLine[2], headers, body);
+    }
+
+    private static byte[] copy(ByteBuffer buffer, int from, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(from);
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the index of the "\r\n\r\n" that ends the request header, or -1 if the header is
+     * not complete.
+     */
+    private static int findHeaderEnd(ByteBuffer buffer, int start) {
+        int limit = buffer.limit() - 3;
+        for (int i = start; i < limit; i++) {
+            if (buffer.get(i) == '\r' && buffer.get(i + 1) == '\n' && buffer.get(i + 2) == '\r' && buffer.get(i + 3) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
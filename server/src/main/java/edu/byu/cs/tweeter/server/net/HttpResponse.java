@@ -0,0 +1,136 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An HTTP response produced by an {@link HttpHandler}.
+ */
+public class HttpResponse {
+
+    public static final int OK = 200;
+    public static final int NOT_MODIFIED = 304;
+    public static final int BAD_REQUEST = 400;
+    public static final int UNAUTHORIZED = 401;
+    public static final int NOT_FOUND = 404;
+    public static final int METHOD_NOT_ALLOWED = 405;
+    public static final int PAYLOAD_TOO_LARGE = 413;
+    public static final int INTERNAL_SERVER_ERROR = 500;
+    public static final int NOT_IMPLEMENTED = 501;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final int status;
+    private final Map<String, String> headers = new LinkedHashMap<>();
+    private byte[] body = EMPTY_BODY;
+
+    public HttpResponse(int status) {
+        this.status = status;
+    }
+
+    /**
+     * Creates a response with a JSON body.
+     *
+     * @param status the status code.
+     * @param json the body.
+     * @return the response.
+     */
+    public static HttpResponse json(int status, String json) {
+        HttpResponse response = new HttpResponse(status);
+        response.setHeader("Content-Type", "application/json; charset=utf-8");
+        response.setBody(json.getBytes(StandardCharsets.UTF_8));
+        return response;
+    }
+
+    /**
+     * Creates a response with a plain text body.
+     *
+     * @param status the status code.
+     * @param text the body.
+     * @return the response.
+     */
+    public static HttpResponse text(int status, String text) {
+        HttpResponse response = new HttpResponse(status);
+        response.setHeader("Content-Type", "text/plain; charset=utf-8");
+        response.setBody(text.getBytes(StandardCharsets.UTF_8));
+        return response;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public void setHeader(String name, String value) {
+        headers.put(name, value);
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public void setBody(byte[] body) {
+        this.body = body;
+    }
+
+    /**
+     * Encodes the status line, headers and body.
+     *
+     * @param keepAlive whether the connection will be kept open after this response.
+     * @return a buffer ready to be written to the channel.
+     */
+    ByteBuffer encode(boolean keepAlive) {
+        StringBuilder head = new StringBuilder(128);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reasonPhrase(status)).append("\r\n");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            head.append(header.getKey()).append(": ").append(header.getValue()).append("\r\n");
+        }
+        if (status != NOT_MODIFIED) {
+            // A 304 response never has a body
+            head.append("Content-Length: ").append(body.length).append("\r\n");
+        }
+        head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n");
+        head.append("\r\n");
+
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer buffer = ByteBuffer.allocate(headBytes.length + body.length);
+        buffer.put(headBytes);
+        buffer.put(body);
+        buffer.flip();
+        return buffer;
+    }
+
+    static String reasonPhrase(int status) {
+        switch (status) {
+            case OK:
+                return "OK";
+            case NOT_MODIFIED:
+                return "Not Modified";
+            case BAD_REQUEST:
+                return "Bad Request";
+            case UNAUTHORIZED:
+                return "Unauthorized";
+            case NOT_FOUND:
+                return "Not Found";
+            case METHOD_NOT_ALLOWED:
+                return "Method Not Allowed";
+            case PAYLOAD_TOO_LARGE:
+                return "Payload Too Large";
+            case INTERNAL_SERVER_ERROR:
+                return "Internal Server Error";
+            case NOT_IMPLEMENTED:
+                return "Not Implemented";
+            default:
+                return "Unknown";
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A small non-blocking HTTP/1.1 server. One selector thread accepts connections, reads and parses
+ * requests, and writes responses; requests are handled on a fixed pool of worker threads.
+ * <p>
+ * Connections are persistent (keep-alive) unless the client asks otherwise, and a client may
+ * pipeline requests: several requests sent on a connection are handled concurrently and the
+ * responses are written back in request order.
+ * <p>
+ * Successful responses carry an ETag and are gzip-compressed when the client accepts it (see
+ * {@link ContentNegotiator}).
+ */
+public class HttpServer {
+
+    private static final Logger logger = Logger.getLogger(HttpServer.class.getName());
+
+    /**
+     * The most requests a single connection may have in flight. Reading from a connection stops
+     * until some of its responses have been written.
+     */
+    static final int MAX_PIPELINED_REQUESTS = 64;
+
+    private static final long SELECT_TIMEOUT_MILLIS = 1000;
+    private static final long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 1000;
+
+    private final InetSocketAddress address;
+    private final int workerThreads;
+    private final Map<String, HttpHandler> handlers = new ConcurrentHashMap<>();
+    /**
+     * Connections with responses finished by workers that the selector thread has not picked
+     * up yet.
+     */
+    private final ConcurrentLinkedQueue<HttpConnection> completedConnections = new ConcurrentLinkedQueue<>();
+    private final Set<HttpConnection> connections = new HashSet<>();
+
+    private long idleTimeoutMillis = DEFAULT_IDLE_TIMEOUT_MILLIS;
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private ExecutorService workers;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Creates an instance.
+     *
+     * @param address the address to listen on (port 0 picks a free port).
+     * @param workerThreads the number of threads that run handlers.
+     */
+    public HttpServer(InetSocketAddress address, int workerThreads) {
+        this.address = address;
+        this.workerThreads = workerThreads;
+    }
+
+    /**
+     * Registers the handler for requests to a path.
+     *
+     * @param path the path, e.g. "/login".
+     * @param handler the handler.
+     */
+    public void addHandler(String path, HttpHandler handler) {
+        handlers.put(path, handler);
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Binds the server socket and starts the selector and worker threads.
+     *
+     * @throws IOException if the socket could not be bound.
+     */
+    public void start() throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        workers = Executors.newFixedThreadPool(workerThreads, new NamedThreadFactory("tweeter-worker"));
+
+        running = true;
+        selectorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runSelectorLoop();
+            }
+        }, "tweeter-selector");
+        selectorThread.start();
+
+        logger.info("Listening on " + serverChannel.getLocalAddress());
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return the port.
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections, closes all open connections and stops the threads.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        workers.shutdownNow();
+        try {
+            workers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runSelectorLoop() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                writeCompletedResponses();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        HttpConnection connection = (HttpConnection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(connection);
+                            }
+                        } catch (IOException ex) {
+                            close(connection);
+                        }
+                    }
+                }
+
+                closeIdleConnections();
+            }
+        } catch (IOException ex) {
+            logger.log(Level.SEVERE, "Selector failed", ex);
+        } finally {
+            for (HttpConnection connection : connections) {
+                connection.close();
+            }
+            connections.clear();
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException ex) {
+                logger.log(Level.WARNING, "Failed to close server socket", ex);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        HttpConnection connection = new HttpConnection(channel, key);
+        key.attach(connection);
+        connections.add(connection);
+    }
+
+    private void read(HttpConnection connection) throws IOException {
+        connection.read();
+        processRequests(connection);
+    }
+
+    /**
+     * Parses and dispatches as many buffered requests as the connection's pipelining limit
+     * allows.
+     */
+    private void processRequests(HttpConnection connection) throws IOException {
+        ByteBuffer buffer = connection.getReadBuffer();
+        buffer.flip();
+        try {
+            while (connection.acceptsRequests() && connection.getRequestsInFlight() < MAX_PIPELINED_REQUESTS) {
+                HttpRequest request = HttpRequestParser.parse(buffer);
+                if (request == null) {
+                    break;
+                }
+                dispatch(connection, request);
+            }
+        } catch (HttpParseException ex) {
+            // The rest of the input can't be trusted, so answer after the requests already in
+            // flight and then close the connection
+            long sequence = connection.nextRequestSequence();
+            connection.closeAfter(sequence);
+            connection.complete(sequence, HttpResponse.text(ex.getStatus(), ex.getMessage()).encode(false));
+            buffer.position(buffer.limit());
+            completedConnections.add(connection);
+            selector.wakeup();
+        } finally {
+            buffer.compact();
+        }
+
+        updateInterest(connection);
+    }
+
+    private void dispatch(final HttpConnection connection, final HttpRequest request) {
+        final long sequence = connection.nextRequestSequence();
+        final boolean keepAlive = request.isKeepAlive();
+        if (!keepAlive) {
+            connection.closeAfter(sequence);
+        }
+
+        workers.execute(new Runnable() {
+            @Override
+            public void run() {
+                HttpResponse response = handle(request);
+                connection.complete(sequence, response.encode(keepAlive));
+                completedConnections.add(connection);
+                selector.wakeup();
+            }
+        });
+    }
+
+    private HttpResponse handle(HttpRequest request) {
+        HttpHandler handler = handlers.get(request.getPath());
+        if (handler == null) {
+            return HttpResponse.text(HttpResponse.NOT_FOUND, "No handler for " + request.getPath());
+        }
+
+        try {
+            return ContentNegotiator.negotiate(request, handler.handle(request));
+        } catch (Exception ex) {
+            logger.log(Level.SEVERE, "Handler failed for " + request, ex);
+            return HttpResponse.text(HttpResponse.INTERNAL_SERVER_ERROR, String.valueOf(ex.getMessage()));
+        }
+    }
+
+    private void writeCompletedResponses() {
+        HttpConnection connection;
+        while ((connection = completedConnections.poll()) != null) {
+            if (!connection.getChannel().isOpen()) {
+                continue;
+            }
+
+            connection.drainCompleted();
+            try {
+                write(connection);
+            } catch (IOException ex) {
+                close(connection);
+            }
+        }
+    }
+
+    private void write(HttpConnection connection) throws IOException {
+        boolean drained = connection.write();
+
+        if (drained && connection.hasBufferedInput() && connection.acceptsRequests()) {
+            // Reading may have stopped at the pipelining limit with requests still buffered
+            processRequests(connection);
+        } else if (drained && connection.isFinished()) {
+            close(connection);
+        } else {
+            updateInterest(connection);
+        }
+    }
+
+    private void updateInterest(HttpConnection connection) {
+        if (!connection.getKey().isValid()) {
+            return;
+        }
+
+        int ops = 0;
+        if (!connection.isClosing() && connection.getRequestsInFlight() < MAX_PIPELINED_REQUESTS) {
+            ops |= SelectionKey.OP_READ;
+        }
+        if (connection.hasPendingOutput()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        connection.getKey().interestOps(ops);
+
+        if (connection.isFinished()) {
+            close(connection);
+        }
+    }
+
+    private void closeIdleConnections() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        Iterator<HttpConnection> iterator = connections.iterator();
+        while (iterator.hasNext()) {
+            HttpConnection connection = iterator.next();
+            if (connection.isIdleSince(cutoff)) {
+                iterator.remove();
+                connection.close();
+            }
+        }
+    }
+
+    private void close(HttpConnection connection) {
+        connections.remove(connection);
+        connection.close();
+    }
+
+    /**
+     * Creates daemon threads with numbered names so they are easy to pick out in a thread dump.
+     */
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.byu.cs.tweeter.server.service;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.server.dao.AuthTokenDAO;
+
+/**
+ * Base class for services whose requests must come from a logged-in user. A request whose auth
+ * token is missing, unknown or expired is rejected with an "[Unauthorized]" error, which is
+ * returned to the client as a 401 response.
+ */
+public abstract class AuthenticatedService {
+
+    /**
+     * Checks a request's auth token and renews its session.
+     *
+     * @param authToken the auth token sent with the request.
+     * @return the alias of the logged-in user the token belongs to.
+     */
+    protected String authenticate(AuthToken authToken) {
+        String userAlias = (authToken == null) ? null : getAuthTokenDAO().validate(authToken.getToken());
+        if (userAlias == null) {
+            throw new IllegalArgumentException("[Unauthorized] Missing, invalid or expired auth token");
+        }
+        return userAlias;
+    }
+
+    // This method is public so it can be accessed by test cases
+    public AuthTokenDAO getAuthTokenDAO() {
+        return AuthTokenDAO.getInstance();
+    }
+}
@@ -0,0 +1,259 @@
+package edu.byu.cs.tweeter.server.service;
+
+import java.util.Collections;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.Recommendation;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowCountsRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowersRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.IsFollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.PagedRequest;
+import edu.byu.cs.tweeter.model.net.request.RecommendationsRequest;
+import edu.byu.cs.tweeter.model.net.request.UnfollowRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowCountsResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowersResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingDeltaResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.IsFollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.RecommendationsResponse;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.server.dao.FollowCountDAO;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.FollowRecommender;
+import edu.byu.cs.tweeter.server.dao.TimelineDAO;
+
+/**
+ * Contains the business logic for following and unfollowing users, and for getting the users a
+ * user is following and the users following a user, how many of each there are, whether a user
+ * follows others, and which users a user might want to follow.
+ * <p>
+ * Following lists carry a version token of the form "epoch.version". A client that has a whole
+ * list can send the token back to {@link #getFollowingDelta} to get only the changes made since.
+ */
+public class FollowService extends AuthenticatedService {
+
+    /**
+     * Returns the users that the user specified in the request is following. Uses information in
+     * the request object to limit the number of followees returned and to return the next set of
+     * followees after any that were returned in a previous request.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the followees.
+     */
+    public FollowingResponse getFollowees(FollowingRequest request) {
+        authenticate(request.getAuthToken());
+        User user = getTargetUser(request);
+
+        FollowDAO.Page page = getFollowDAO().getFollowees(user.getAlias(), request.getLastFolloweeAlias(), request.getLimit());
+        return new FollowingResponse(page.getUsers(), page.getHasMorePages(), formatVersion(page.getVersion()));
+    }
+
+    /**
+     * Returns the users that are following the user specified in the request. Uses information in
+     * the request object to limit the number of followers returned and to return the next set of
+     * followers after any that were returned in a previous request.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the followers.
+     */
+    public FollowersResponse getFollowers(FollowersRequest request) {
+        authenticate(request.getAuthToken());
+        User user = getTargetUser(request);
+
+        FollowDAO.Page page = getFollowDAO().getFollowers(user.getAlias(), request.getLastFollowerAlias(), request.getLimit());
+        return new FollowersResponse(page.getUsers(), page.getHasMorePages());
+    }
+
+    /**
+     * Makes the logged-in user follow another user, adding the followee's recent statuses to
+     * their timeline. Following a user who is already followed has no effect.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return a successful response.
+     */
+    public Response follow(FollowRequest request) {
+        String userAlias = authenticate(request.getAuthToken());
+        checkFollowAliases(userAlias, request.getFollowerAlias(), request.getFolloweeAlias());
+        if (getFollowDAO().follow(request.getFollowerAlias(), request.getFolloweeAlias())) {
+            getFollowCountDAO().recordFollow(request.getFollowerAlias(), request.getFolloweeAlias());
+            getTimelineDAO().followChanged(request.getFollowerAlias(), request.getFolloweeAlias());
+        }
+        return new Response(true);
+    }
+
+    /**
+     * Makes the logged-in user stop following another user, removing the followee's statuses
+     * from their timeline. Unfollowing a user who is not followed has no effect.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return a successful response.
+     */
+    public Response unfollow(UnfollowRequest request) {
+        String userAlias = authenticate(request.getAuthToken());
+        checkFollowAliases(userAlias, request.getFollowerAlias(), request.getFolloweeAlias());
+        if (getFollowDAO().unfollow(request.getFollowerAlias(), request.getFolloweeAlias())) {
+            getFollowCountDAO().recordUnfollow(request.getFollowerAlias(), request.getFolloweeAlias());
+            getTimelineDAO().followChanged(request.getFollowerAlias(), request.getFolloweeAlias());
+        }
+        return new Response(true);
+    }
+
+    /**
+     * Returns the number of followers and followees of the user specified in the request. The
+     * counts are kept as users follow and unfollow, so this does not read the lists.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the counts.
+     */
+    public FollowCountsResponse getFollowCounts(FollowCountsRequest request) {
+        authenticate(request.getAuthToken());
+        if (request.getUserAlias() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a user alias");
+        }
+        findUser(request.getUserAlias());
+
+        FollowCountDAO counts = getFollowCountDAO();
+        return new FollowCountsResponse(counts.getFollowerCount(request.getUserAlias()), counts.getFolloweeCount(request.getUserAlias()));
+    }
+
+    /**
+     * Returns whether the follower in the request follows each of the users in it, e.g. to show
+     * a follow button for every user on a page. Unknown followees are not followed.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return for each followee, in order, whether they are followed.
+     */
+    public IsFollowingResponse isFollowing(IsFollowingRequest request) {
+        authenticate(request.getAuthToken());
+        if (request.getFollowerAlias() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a follower alias");
+        } else if (request.getFolloweeAliases() == null || request.getFolloweeAliases().contains(null)) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have followee aliases");
+        }
+        findUser(request.getFollowerAlias());
+
+        return new IsFollowingResponse(getFollowDAO().isFollowing(request.getFollowerAlias(), request.getFolloweeAliases()));
+    }
+
+    /**
+     * Returns users the logged-in user might want to follow: the ones followed by the most of the
+     * users they follow.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the recommended users, most connected first.
+     */
+    public RecommendationsResponse getRecommendations(RecommendationsRequest request) {
+        String userAlias = authenticate(request.getAuthToken());
+        if (request.getLimit() <= 0) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a positive limit");
+        }
+
+        List<Recommendation> recommendations = getFollowRecommender().recommend(userAlias, request.getLimit());
+        if (recommendations == null) {
+            throw new IllegalArgumentException("[Bad Request] Unknown user " + userAlias);
+        }
+        return new RecommendationsResponse(recommendations);
+    }
+
+    /**
+     * Returns the follows and unfollows the logged-in user has made since the version in the
+     * request. If the changes are no longer available, or the version did not come from this
+     * server, the response tells the client to reload the whole list.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the changes and the new version token.
+     */
+    public FollowingDeltaResponse getFollowingDelta(FollowingDeltaRequest request) {
+        String userAlias = authenticate(request.getAuthToken());
+        if (request.getUserAlias() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a user alias");
+        } else if (!userAlias.equals(request.getUserAlias())) {
+            throw new IllegalArgumentException("[Bad Request] Following changes can only be requested for the logged-in user");
+        }
+        findUser(request.getUserAlias());
+
+        FollowDAO dao = getFollowDAO();
+        long sinceVersion = parseVersion(request.getSinceVersion());
+        FollowDAO.ChangeSet changeSet = (sinceVersion < 0) ? null : dao.getFollowingChanges(request.getUserAlias(), sinceVersion);
+        if (changeSet == null) {
+            return new FollowingDeltaResponse(formatVersion(dao.getVersion()), true, Collections.emptyList());
+        }
+        return new FollowingDeltaResponse(formatVersion(changeSet.getVersion()), false, changeSet.getChanges());
+    }
+
+    private User getTargetUser(PagedRequest request) {
+        if (request.getUserAlias() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a user alias");
+        } else if (request.getLimit() <= 0) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a positive limit");
+        }
+        return findUser(request.getUserAlias());
+    }
+
+    private void checkFollowAliases(String userAlias, String followerAlias, String followeeAlias) {
+        if (followerAlias == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a follower alias");
+        } else if (!userAlias.equals(followerAlias)) {
+            throw new IllegalArgumentException("[Bad Request] Follows can only be changed by the logged-in user");
+        } else if (followeeAlias == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a followee alias");
+        } else if (followerAlias.equals(followeeAlias)) {
+            throw new IllegalArgumentException("[Bad Request] A user can't follow themselves");
+        }
+        findUser(followerAlias);
+        findUser(followeeAlias);
+    }
+
+    private User findUser(String alias) {
+        User user = getFollowDAO().findUser(alias);
+        if (user == null) {
+            throw new IllegalArgumentException("[Bad Request] Unknown user " + alias);
+        }
+        return user;
+    }
+
+    private String formatVersion(long version) {
+        return getFollowDAO().getEpoch() + "." + version;
+    }
+
+    /**
+     * Returns the version number in a version token, or -1 if the token is missing, malformed
+     * or from another epoch.
+     */
+    private long parseVersion(String token) {
+        String prefix = getFollowDAO().getEpoch() + ".";
+        if (token == null || !token.startsWith(prefix)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(token.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowDAO getFollowDAO() {
+        return FollowDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowCountDAO getFollowCountDAO() {
+        return FollowCountDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowRecommender getFollowRecommender() {
+        return FollowRecommender.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public TimelineDAO getTimelineDAO() {
+        return TimelineDAO.getInstance();
+    }
+}
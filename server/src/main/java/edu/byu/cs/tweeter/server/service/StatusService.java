@@ -0,0 +1,227 @@
+package edu.byu.cs.tweeter.server.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FeedRequest;
+import edu.byu.cs.tweeter.model.net.request.MentionsRequest;
+import edu.byu.cs.tweeter.model.net.request.PagedRequest;
+import edu.byu.cs.tweeter.model.net.request.PostStatusRequest;
+import edu.byu.cs.tweeter.model.net.request.StoryRequest;
+import edu.byu.cs.tweeter.model.net.request.TrendingRequest;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.model.net.response.MentionsResponse;
+import edu.byu.cs.tweeter.model.net.response.Response;
+import edu.byu.cs.tweeter.model.net.response.StoryResponse;
+import edu.byu.cs.tweeter.model.net.response.TrendingResponse;
+import edu.byu.cs.tweeter.server.dao.FeedIterator;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.MentionIndex;
+import edu.byu.cs.tweeter.server.dao.StatusList;
+import edu.byu.cs.tweeter.server.dao.StoryDAO;
+import edu.byu.cs.tweeter.server.dao.TimelineDAO;
+import edu.byu.cs.tweeter.server.dao.TrendingDAO;
+
+/**
+ * Contains the business logic for posting statuses, getting a user's story and feed and the
+ * statuses that mention a user, and finding trending mentions and URLs.
+ * <p>
+ * A status is stored in its poster's story and, unless the poster has so many followers that
+ * they are a celebrity, pushed to their followers' timelines. A feed is read from the user's
+ * timeline merged with the stories of the celebrities they follow (see {@link TimelineDAO}).
+ */
+public class StatusService extends AuthenticatedService {
+
+    /**
+     * A mention: "@" and an alias, not preceded by a word character (so an email address isn't
+     * one).
+     */
+    private static final Pattern MENTION_PATTERN = Pattern.compile("(?<![\\w@])@\\w+");
+    /**
+     * A URL: "http://" or "https://" and the text up to the next space, without trailing
+     * punctuation.
+     */
+    private static final Pattern URL_PATTERN = Pattern.compile("\\bhttps?://\\S*[^\\s.,;:!?'\")\\]]");
+
+    /**
+     * Posts a status by the logged-in user. The status is added to the user's story and their
+     * followers' timelines, indexed under the users it mentions, and its mentions and URLs are
+     * counted towards what is trending.
+     * <p>
+     * Only the status's post is taken from the request. The server stamps the time, attaches the
+     * logged-in user as it is stored, and finds the mentions and URLs in the post, so a client
+     * can't backdate a status or index it under users it doesn't mention.
+     *
+     * @param request contains the status.
+     * @return a successful response.
+     */
+    public Response postStatus(PostStatusRequest request) {
+        String userAlias = authenticate(request.getAuthToken());
+        Status status = request.getStatus();
+        if (status == null || status.getPost() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a status with a post");
+        } else if (status.getUser() != null && !userAlias.equals(status.getUser().getAlias())) {
+            throw new IllegalArgumentException("[Bad Request] A status can only be posted by the logged-in user");
+        }
+        User user = getFollowDAO().findUser(userAlias);
+        if (user == null) {
+            throw new IllegalArgumentException("[Bad Request] Unknown user " + userAlias);
+        }
+
+        String post = status.getPost();
+        Status posted = new Status(post, user, currentTimeMillis(), findAll(URL_PATTERN, post), findAll(MENTION_PATTERN, post));
+        // Stored as one immutable copy, which the story and timelines share
+        ImmutableStatus stored = ImmutableStatus.from(posted);
+        getStoryDAO().add(stored);
+        getTimelineDAO().post(stored);
+        getMentionIndex().add(stored);
+        getTrendingDAO().record(posted);
+        return new Response(true);
+    }
+
+    /**
+     * Returns a page of the statuses posted by the user specified in the request, newest first.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the statuses.
+     */
+    public StoryResponse getStory(StoryRequest request) {
+        validate(request);
+
+        StoryDAO.Page page = getStoryDAO().getPage(request.getUserAlias(), request.getLastStatus(), request.getLimit());
+        if (page == null) {
+            throw new IllegalArgumentException("[Bad Request] The last status is not in the story of " + request.getUserAlias());
+        }
+        return new StoryResponse(page.getStatuses(), page.getHasMorePages());
+    }
+
+    /**
+     * Returns a page of the statuses posted by the users that the user specified in the request
+     * is following, newest first. The page continues from the request's cursor if it has one,
+     * or else from its last status, and stops as soon as it is full.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the statuses, with the cursor of the next page.
+     */
+    public FeedResponse getFeed(FeedRequest request) {
+        validate(request);
+        if (getFollowDAO().findUser(request.getUserAlias()) == null) {
+            throw new IllegalArgumentException("[Bad Request] Unknown user " + request.getUserAlias());
+        }
+
+        List<StatusList> lists = getTimelineDAO().getFeed(request.getUserAlias());
+
+        FeedIterator iterator;
+        if (request.getCursor() != null) {
+            iterator = FeedIterator.fromCursor(lists, request.getCursor());
+            if (iterator == null) {
+                throw new IllegalArgumentException("[Bad Request] Invalid cursor");
+            }
+        } else if (request.getLastStatus() != null) {
+            if (request.getLastStatus().getUser() == null) {
+                throw new IllegalArgumentException("[Bad Request] The last status needs to have a user");
+            }
+            iterator = FeedIterator.fromStatus(lists, request.getLastStatus());
+        } else {
+            iterator = FeedIterator.fromStart(lists);
+        }
+
+        List<Status> page = new ArrayList<>(Math.min(request.getLimit(), 64));
+        while (page.size() < request.getLimit() && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        boolean hasMorePages = iterator.hasNext();
+        return new FeedResponse(page, hasMorePages, hasMorePages ? iterator.getCursor() : null);
+    }
+
+    /**
+     * Returns a page of the statuses that mention the user specified in the request, newest
+     * first.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the statuses.
+     */
+    public MentionsResponse getMentions(MentionsRequest request) {
+        validate(request);
+
+        MentionIndex.Page page = getMentionIndex().getMentions(request.getUserAlias(), request.getLastStatus(), request.getLimit());
+        if (page == null) {
+            throw new IllegalArgumentException("[Bad Request] The last status does not mention " + request.getUserAlias());
+        }
+        return new MentionsResponse(page.getStatuses(), page.getHasMorePages());
+    }
+
+    /**
+     * Returns the mentions and URLs that appear in the most statuses posted recently.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the trending mentions and URLs, most frequent first.
+     */
+    public TrendingResponse getTrending(TrendingRequest request) {
+        authenticate(request.getAuthToken());
+        if (request.getLimit() <= 0) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a positive limit");
+        }
+
+        TrendingDAO trendingDAO = getTrendingDAO();
+        return new TrendingResponse(trendingDAO.getTopMentions(request.getLimit()), trendingDAO.getTopUrls(request.getLimit()));
+    }
+
+    /**
+     * Returns the distinct matches of a pattern in a post, in the order they first appear.
+     */
+    private static List<String> findAll(Pattern pattern, String post) {
+        Set<String> found = new LinkedHashSet<>();
+        Matcher matcher = pattern.matcher(post);
+        while (matcher.find()) {
+            found.add(matcher.group());
+        }
+        return new ArrayList<>(found);
+    }
+
+    private void validate(PagedRequest request) {
+        authenticate(request.getAuthToken());
+        if (request.getUserAlias() == null) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a user alias");
+        } else if (request.getLimit() <= 0) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a positive limit");
+        }
+    }
+
+    // This method is public so it can be accessed by test cases
+    public StoryDAO getStoryDAO() {
+        return StoryDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FollowDAO getFollowDAO() {
+        return FollowDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public TimelineDAO getTimelineDAO() {
+        return TimelineDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public MentionIndex getMentionIndex() {
+        return MentionIndex.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public TrendingDAO getTrendingDAO() {
+        return TrendingDAO.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,81 @@
+package edu.byu.cs.tweeter.server.service;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.LoginRequest;
+import edu.byu.cs.tweeter.model.net.request.SearchUsersRequest;
+import edu.byu.cs.tweeter.model.net.response.LoginResponse;
+import edu.byu.cs.tweeter.model.net.response.SearchUsersResponse;
+import edu.byu.cs.tweeter.server.dao.UserSearchIndex;
+import edu.byu.cs.tweeter.util.FakeData;
+
+/**
+ * Contains the business logic for logging in users and finding users.
+ */
+public class UserService extends AuthenticatedService {
+
+    /**
+     * Logs in the user specified in the request. The username is the user's alias, with or
+     * without its "@". Passwords are not stored yet, so any password is accepted for a known
+     * user; an unknown username is rejected.
+     *
+     * @param request contains the user's username and password.
+     * @return the logged in user and the auth token for the session.
+     */
+    public LoginResponse login(LoginRequest request) {
+        if (request.getUsername() == null) {
+            throw new IllegalArgumentException("[Bad Request] Missing a username");
+        } else if (request.getPassword() == null) {
+            throw new IllegalArgumentException("[Bad Request] Missing a password");
+        }
+
+        String alias = request.getUsername().startsWith("@") ? request.getUsername() : "@" + request.getUsername();
+        User user = null;
+        for (User candidate : getFakeData().getFakeUsers()) {
+            if (candidate.getAlias().equals(alias)) {
+                user = candidate;
+                break;
+            }
+        }
+        if (user == null) {
+            throw new IllegalArgumentException("[Unauthorized] Invalid username or password");
+        }
+
+        AuthToken authToken = getAuthTokenDAO().issue(user.getAlias());
+        return new LoginResponse(user, authToken);
+    }
+
+    /**
+     * Returns the users whose alias, first name or last name starts with the query in the
+     * request, for typeahead. Uses information in the request object to limit the number of
+     * users returned and to return the next set of users after any that were returned in a
+     * previous request.
+     *
+     * @param request contains the data required to fulfill the request.
+     * @return the matching users.
+     */
+    public SearchUsersResponse searchUsers(SearchUsersRequest request) {
+        authenticate(request.getAuthToken());
+        if (request.getQuery() == null || UserSearchIndex.normalize(request.getQuery()).isEmpty()) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a query");
+        } else if (request.getLimit() <= 0) {
+            throw new IllegalArgumentException("[Bad Request] Request needs to have a positive limit");
+        }
+
+        UserSearchIndex.Page page = getUserSearchIndex().search(request.getQuery(), request.getLastUserAlias(), request.getLimit());
+        if (page == null) {
+            throw new IllegalArgumentException("[Bad Request] " + request.getLastUserAlias() + " does not match the query");
+        }
+        return new SearchUsersResponse(page.getUsers(), page.getHasMorePages());
+    }
+
+    // This method is public so it can be accessed by test cases
+    public UserSearchIndex getUserSearchIndex() {
+        return UserSearchIndex.getInstance();
+    }
+
+    // This method is public so it can be accessed by test cases
+    public FakeData getFakeData() {
+        return FakeData.getInstance();
+    }
+}
@@ -0,0 +1,129 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.byu.cs.tweeter.server.dao.AuthTokenDAO;
+
+/**
+ * Measures how many auth tokens per second {@link AuthTokenDAO} validates as the number of
+ * request threads grows, compared with the same expiry check and renewal done on a map behind a
+ * single lock, and how long the timer wheel takes to reclaim a large number of expired sessions.
+ * <p>
+ * Usage: AuthTokenBenchmark [sessions [seconds [maxThreads]]]
+ */
+public class AuthTokenBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int sessionCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : 3;
+        int maxThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        final AuthTokenDAO authTokenDAO = new AuthTokenDAO(AuthTokenDAO.DEFAULT_IDLE_TIMEOUT_MILLIS, AuthTokenDAO.DEFAULT_WHEEL_SIZE);
+        final Map<String, long[]> lockedMap = new HashMap<>();
+        final String[] tokens = new String[sessionCount];
+        long start = System.nanoTime();
+        for (int i = 0; i < sessionCount; i++) {
+            tokens[i] = authTokenDAO.issue("@user" + i).getToken();
+        }
+        long issueNanos = System.nanoTime() - start;
+        for (int i = 0; i < sessionCount; i++) {
+            lockedMap.put(tokens[i], new long[] { System.currentTimeMillis() + AuthTokenDAO.DEFAULT_IDLE_TIMEOUT_MILLIS });
+        }
+        System.out.printf("sessions=%d issued in %.0f ms (%.2f us each)%n",
+                sessionCount, issueNanos / 1e6, issueNanos / (double) sessionCount / 1e3);
+
+        Validator store = new Validator() {
+            @Override
+            public String validate(String token) {
+                return authTokenDAO.validate(token);
+            }
+        };
+        Validator locked = new Validator() {
+            @Override
+            public String validate(String token) {
+                synchronized (lockedMap) {
+                    long[] expiresAt = lockedMap.get(token);
+                    long now = System.currentTimeMillis();
+                    if (expiresAt == null || now >= expiresAt[0]) {
+                        return null;
+                    }
+                    expiresAt[0] = now + AuthTokenDAO.DEFAULT_IDLE_TIMEOUT_MILLIS;
+                    return token;
+                }
+            }
+        };
+
+        // Warm up both paths before timing them
+        run(store, tokens, 1, 1);
+        run(locked, tokens, 1, 1);
+
+        System.out.printf("%-8s %18s %18s%n", "threads", "AuthTokenDAO/s", "locked map/s");
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            double storeRate = run(store, tokens, threads, seconds);
+            double lockedRate = run(locked, tokens, threads, seconds);
+            System.out.printf("%-8d %18.0f %18.0f%n", threads, storeRate, lockedRate);
+        }
+
+        // Reclaiming: let a short-lived store's sessions expire, then turn the wheel
+        long idleTimeoutMillis = 1000;
+        AuthTokenDAO shortLived = new AuthTokenDAO(idleTimeoutMillis, AuthTokenDAO.DEFAULT_WHEEL_SIZE);
+        for (int i = 0; i < sessionCount; i++) {
+            shortLived.issue("@user" + i);
+        }
+        Thread.sleep(idleTimeoutMillis + 2 * shortLived.getTickMillis());
+        start = System.nanoTime();
+        int expired = shortLived.expireSessions();
+        long expireNanos = System.nanoTime() - start;
+        System.out.printf("expired %d sessions in %.0f ms (%.0f ns each)%n",
+                expired, expireNanos / 1e6, expireNanos / (double) Math.max(1, expired));
+    }
+
+    private interface Validator {
+        String validate(String token);
+    }
+
+    /**
+     * Validates random tokens on several threads for a while.
+     *
+     * @return validations per second across all threads.
+     */
+    private static double run(final Validator validator, final String[] tokens, int threadCount, int seconds)
+            throws InterruptedException {
+        final AtomicLong validations = new AtomicLong();
+        final long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long count = 0;
+                    int misses = 0;
+                    while ((count & 1023) != 0 || System.nanoTime() < deadline) {
+                        if (validator.validate(tokens[random.nextInt(tokens.length)]) == null) {
+                            misses++;
+                        }
+                        count++;
+                    }
+                    if (misses > 0) {
+                        throw new IllegalStateException(misses + " valid tokens were rejected");
+                    }
+                    validations.addAndGet(count);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return validations.get() / ((System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,90 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Compares looking up statuses in hash maps keyed by {@link Status}, which hashes every field on
+ * each lookup, with {@link ImmutableStatus}, whose hash is computed once.
+ * Each lookup uses an equal copy of the key, as a lookup with a key from a request would. The
+ * immutable keys are built before timing starts, since a key is built once and then hashed and
+ * compared many times.
+ * <p>
+ * Usage: DomainHashBenchmark [keys [rounds]]
+ */
+public class DomainHashBenchmark {
+
+    public static void main(String[] args) {
+        int keyCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int rounds = (args.length > 1) ? Integer.parseInt(args[1]) : 20;
+
+        List<Status> statuses = new ArrayList<>(keyCount);
+        List<Status> statusLookups = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            User user = new User("First" + i, "Last" + i, "@user" + i, null);
+            String post = "Post number " + i + " mentioning @user" + (i + 1) + " and @user" + (i + 2)
+                    + " with a link to http://byu.edu/" + i + " and some more text to make it a typical length";
+            List<String> urls = Arrays.asList("http://byu.edu/" + i);
+            List<String> mentions = Arrays.asList("@user" + (i + 1), "@user" + (i + 2));
+            statuses.add(new Status(post, user, 1_600_000_000_000L + i, urls, mentions));
+            // Equal but not the same strings, so no cached String hashes are shared
+            statusLookups.add(new Status(new String(post), user, 1_600_000_000_000L + i,
+                    Arrays.asList(new String(urls.get(0))), Arrays.asList(new String(mentions.get(0)), new String(mentions.get(1)))));
+        }
+
+        List<ImmutableStatus> immutableStatuses = new ArrayList<>(keyCount);
+        List<ImmutableStatus> immutableStatusLookups = new ArrayList<>(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            immutableStatuses.add(ImmutableStatus.from(statuses.get(i)));
+            immutableStatusLookups.add(ImmutableStatus.from(statusLookups.get(i)));
+        }
+
+        System.out.printf("keys=%d rounds=%d%n", keyCount, rounds);
+        // Warm up, then time
+        for (int pass = 0; pass < 2; pass++) {
+            boolean print = pass == 1;
+            report(print, "Status", time(statuses, statusLookups, rounds));
+            report(print, "ImmutableStatus", time(immutableStatuses, immutableStatusLookups, rounds));
+        }
+    }
+
+    private static void report(boolean print, String name, double nanosPerLookup) {
+        if (print) {
+            System.out.printf("%-16s %8.1f ns/lookup%n", name, nanosPerLookup);
+        }
+    }
+
+    /**
+     * Builds a map from the keys, then looks up every lookup key in it a number of times.
+     *
+     * @return nanoseconds per lookup.
+     */
+    private static <K> double time(List<K> keys, List<K> lookups, int rounds) {
+        Map<K, Integer> map = new HashMap<>(keys.size() * 2);
+        for (int i = 0; i < keys.size(); i++) {
+            map.put(keys.get(i), i);
+        }
+
+        long found = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (K key : lookups) {
+                if (map.get(key) != null) {
+                    found++;
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        if (found != (long) rounds * lookups.size()) {
+            throw new IllegalStateException("Missing keys");
+        }
+        return nanos / (double) found;
+    }
+}
@@ -0,0 +1,160 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.server.dao.FeedIterator;
+import edu.byu.cs.tweeter.server.dao.FollowCountDAO;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.StatusList;
+import edu.byu.cs.tweeter.server.dao.StoryDAO;
+import edu.byu.cs.tweeter.server.dao.TimelineDAO;
+
+/**
+ * Compares the cost of posting statuses and reading first feed pages with {@link TimelineDAO}
+ * set to fan out on read only (a threshold of 1), fan out on write only (no threshold) and the
+ * hybrid in between, for follower distributions from uniform to heavily skewed.
+ * <p>
+ * Each user follows the same number of users on average. Followees are picked with a weight
+ * drawn from a Pareto distribution: the smaller its shape, the larger the share of followers
+ * the most followed accounts get. Statuses are posted by users picked at random, and feeds are
+ * read by users picked at random.
+ * <p>
+ * Usage: HybridFeedBenchmark [users [meanOutDegree [posts [celebrityThreshold]]]]
+ */
+public class HybridFeedBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int READS = 2000;
+
+    public static void main(String[] args) {
+        int userCount = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int meanOutDegree = (args.length > 1) ? Integer.parseInt(args[1]) : 50;
+        int postCount = (args.length > 2) ? Integer.parseInt(args[2]) : 50_000;
+        int celebrityThreshold = (args.length > 3) ? Integer.parseInt(args[3]) : 1000;
+
+        System.out.printf("users=%d meanOutDegree=%d posts=%d threshold=%d%n", userCount, meanOutDegree, postCount, celebrityThreshold);
+        System.out.printf("%-12s %-8s %9s %9s %11s %11s %9s %9s %11s%n", "followers", "fan-out", "max fol.", "post us",
+                "pushes/post", "most pushes", "timeline", "read us", "lists/read");
+        // A shape of 0 means every user is equally likely to be followed
+        for (double shape : new double[] { 0, 2.0, 1.2 }) {
+            run(shape, userCount, meanOutDegree, postCount, celebrityThreshold);
+        }
+    }
+
+    private static void run(double shape, int userCount, int meanOutDegree, int postCount, int celebrityThreshold) {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(userCount);
+        FollowDAO followDAO = new FollowDAO(Collections.<User>emptyList(), 1);
+        for (int i = 0; i < userCount; i++) {
+            User user = new User("First", "Last", String.format("@user%07d", i), null);
+            users.add(user);
+            followDAO.addUser(user);
+        }
+
+        double[] cumulativeWeights = new double[userCount];
+        double total = 0;
+        for (int i = 0; i < userCount; i++) {
+            total += (shape == 0) ? 1 : 1 / Math.pow(1 - random.nextDouble(), 1 / shape);
+            cumulativeWeights[i] = total;
+        }
+        for (int i = 0; i < userCount; i++) {
+            Set<Integer> chosen = new HashSet<>();
+            int attempts = 0;
+            while (chosen.size() < meanOutDegree && attempts++ < meanOutDegree * 20) {
+                int target = pick(cumulativeWeights, random.nextDouble() * total);
+                if (target != i && chosen.add(target)) {
+                    followDAO.follow(users.get(i).getAlias(), users.get(target).getAlias());
+                }
+            }
+        }
+        FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, users);
+        long maxFollowers = 0;
+        for (User user : users) {
+            maxFollowers = Math.max(maxFollowers, followCountDAO.getFollowerCount(user.getAlias()));
+        }
+
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        List<ImmutableStatus> statuses = new ArrayList<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            ImmutableStatus status = ImmutableStatus.from(new Status("Post " + i, users.get(random.nextInt(userCount)), i,
+                    Collections.<String>emptyList(), Collections.<String>emptyList()));
+            statuses.add(status);
+            storyDAO.add(status);
+        }
+        String[] readers = new String[READS];
+        for (int i = 0; i < READS; i++) {
+            readers[i] = users.get(random.nextInt(userCount)).getAlias();
+        }
+
+        String name = (shape == 0) ? "uniform" : "pareto " + shape;
+        String[] strategies = { "read", "hybrid", "write" };
+        int[] thresholds = { 1, celebrityThreshold, Integer.MAX_VALUE };
+        for (int s = 0; s < strategies.length; s++) {
+            TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, thresholds[s], TimelineDAO.DEFAULT_TIMELINE_CAPACITY);
+            long start = System.nanoTime();
+            for (ImmutableStatus status : statuses) {
+                timelineDAO.post(status);
+            }
+            double postMicros = (System.nanoTime() - start) / 1e3 / postCount;
+
+            // The timelines each post was pushed to, since celebrities are only promoted, never demoted
+            long pushes = 0;
+            long mostPushes = 0;
+            for (ImmutableStatus status : statuses) {
+                String author = status.getUser().getAlias();
+                if (!timelineDAO.isCelebrity(author)) {
+                    long followers = followCountDAO.getFollowerCount(author);
+                    pushes += followers;
+                    mostPushes = Math.max(mostPushes, followers);
+                }
+            }
+
+            long timelineSize = 0;
+            for (String reader : readers) {
+                timelineSize += timelineDAO.getFeed(reader).get(0).size();
+            }
+
+            // Once to warm up, then timed
+            long lists = 0;
+            for (int pass = 0; pass < 2; pass++) {
+                lists = 0;
+                start = System.nanoTime();
+                for (String reader : readers) {
+                    List<StatusList> feed = timelineDAO.getFeed(reader);
+                    lists += feed.size();
+                    FeedIterator iterator = FeedIterator.fromStart(feed);
+                    for (int i = 0; i < PAGE_SIZE && iterator.hasNext(); i++) {
+                        iterator.next();
+                    }
+                    iterator.getCursor();
+                }
+            }
+            double readMicros = (System.nanoTime() - start) / 1e3 / READS;
+
+            System.out.printf("%-12s %-8s %9d %9.1f %11.1f %11d %9d %9.1f %11.1f%n", name, strategies[s], maxFollowers, postMicros,
+                    (double) pushes / postCount, mostPushes, timelineSize / READS, readMicros, (double) lists / READS);
+        }
+    }
+
+    private static int pick(double[] cumulativeWeights, double value) {
+        int low = 0;
+        int high = cumulativeWeights.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (cumulativeWeights[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
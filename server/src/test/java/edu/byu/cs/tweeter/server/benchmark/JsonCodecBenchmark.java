@@ -0,0 +1,132 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.json.PageParser;
+import edu.byu.cs.tweeter.util.json.TweeterTypeAdapterFactory;
+
+/**
+ * Compares reflective Gson with the hand-written adapters for decoding and encoding large pages,
+ * and measures how soon the streaming parser delivers the first user of a page.
+ * <p>
+ * Usage: JsonCodecBenchmark [pageSize [iterations]]
+ */
+public class JsonCodecBenchmark {
+
+    private static final String IMAGE_URL = "https://faculty.cs.byu.edu/~jwilkerson/cs340/tweeter/images/donald_duck.png";
+
+    public static void main(String[] args) throws IOException {
+        int pageSize = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+        int iterations = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+
+        final Gson reflectiveGson = new Gson();
+
+        List<User> users = new ArrayList<>(pageSize);
+        List<Status> statuses = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            User user = new User("First" + i, "Last" + i, "@user" + i, IMAGE_URL);
+            users.add(user);
+            statuses.add(new Status("Post number " + i + " mentioning @user" + (i + 1) + " http://byu.edu/" + i,
+                    user, 1_600_000_000_000L + i, Arrays.asList("http://byu.edu/" + i), Arrays.asList("@user" + (i + 1))));
+        }
+
+        final FollowingResponse followingResponse = new FollowingResponse(users, true);
+        final FeedResponse feedResponse = new FeedResponse(statuses, true);
+        final String followingJson = reflectiveGson.toJson(followingResponse);
+        final String feedJson = reflectiveGson.toJson(feedResponse);
+
+        System.out.printf("pageSize=%d iterations=%d followingJson=%d chars feedJson=%d chars%n",
+                pageSize, iterations, followingJson.length(), feedJson.length());
+
+        report("decode users, reflective", iterations, new Task() {
+            @Override
+            public Object run() {
+                return reflectiveGson.fromJson(followingJson, FollowingResponse.class);
+            }
+        });
+        report("decode users, adapters", iterations, new Task() {
+            @Override
+            public Object run() {
+                return JsonSerializer.deserialize(followingJson, FollowingResponse.class);
+            }
+        });
+        report("decode statuses, reflective", iterations, new Task() {
+            @Override
+            public Object run() {
+                return reflectiveGson.fromJson(feedJson, FeedResponse.class);
+            }
+        });
+        report("decode statuses, adapters", iterations, new Task() {
+            @Override
+            public Object run() {
+                return JsonSerializer.deserialize(feedJson, FeedResponse.class);
+            }
+        });
+        report("encode statuses, reflective", iterations, new Task() {
+            @Override
+            public Object run() {
+                return reflectiveGson.toJson(feedResponse);
+            }
+        });
+        report("encode statuses, adapters", iterations, new Task() {
+            @Override
+            public Object run() {
+                return JsonSerializer.serialize(feedResponse);
+            }
+        });
+
+        // Time until the first user is available: the whole page for a reflective parse, one
+        // user for the streaming parser
+        long reflectiveFirst = 0;
+        long streamingFirst = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            reflectiveGson.fromJson(followingJson, FollowingResponse.class).getFollowees().get(0);
+            reflectiveFirst += System.nanoTime() - start;
+
+            final long streamStart = System.nanoTime();
+            final long[] firstItemNanos = new long[] { -1 };
+            TweeterTypeAdapterFactory.FOLLOWEES_PARSER.parse(new StringReader(followingJson), new PageParser.ItemHandler<User>() {
+                @Override
+                public void handleItem(User user) {
+                    if (firstItemNanos[0] < 0) {
+                        firstItemNanos[0] = System.nanoTime() - streamStart;
+                    }
+                }
+            });
+            streamingFirst += firstItemNanos[0];
+        }
+        System.out.printf("%-32s %10.1f us%n", "first user, reflective", reflectiveFirst / (double) iterations / 1e3);
+        System.out.printf("%-32s %10.1f us%n", "first user, streaming", streamingFirst / (double) iterations / 1e3);
+    }
+
+    private interface Task {
+        Object run();
+    }
+
+    private static void report(String name, int iterations, Task task) {
+        // Warm up so the JIT has compiled both paths before they are timed
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+
+        long start = System.nanoTime();
+        int checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += task.run().hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-32s %10.1f us/op (checksum %d)%n", name, elapsed / (double) iterations / 1e3, checksum);
+    }
+}
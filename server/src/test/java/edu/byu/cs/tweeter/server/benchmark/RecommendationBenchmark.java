@@ -0,0 +1,179 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.byu.cs.tweeter.model.domain.Follow;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.FollowGraph;
+import edu.byu.cs.tweeter.server.dao.FollowRecommender;
+
+/**
+ * Measures how long {@link FollowRecommender} takes to rank friend-of-friend recommendations on
+ * a power-law follow graph, in one thread and in a pool of every core, compared with walking
+ * {@link Follow} objects and counting in a map of aliases.
+ * <p>
+ * Out-degrees follow a Pareto distribution and followees are mostly picked in proportion to the
+ * followers they already have (preferential attachment), so a few accounts have a large share of
+ * the followers, as in real social graphs. Queries are timed for random users and for the users
+ * who follow the most.
+ * <p>
+ * Usage: RecommendationBenchmark [users [meanOutDegree [queries]]]
+ */
+public class RecommendationBenchmark {
+
+    private static final int LIMIT = 20;
+
+    public static void main(String[] args) {
+        int userCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100_000;
+        int meanOutDegree = (args.length > 1) ? Integer.parseInt(args[1]) : 30;
+        int queries = (args.length > 2) ? Integer.parseInt(args[2]) : 200;
+
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        String[] aliases = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            aliases[i] = String.format("@user%07d", i);
+        }
+        int[][] followees = powerLawGraph(random, userCount, meanOutDegree);
+        FollowGraph graph = new FollowGraph(aliases, followees);
+        System.out.printf("users=%d edges=%d built in %.0f ms%n", userCount, graph.getEdgeCount(), (System.nanoTime() - start) / 1e6);
+
+        int[] randomUsers = new int[queries];
+        for (int i = 0; i < queries; i++) {
+            randomUsers[i] = random.nextInt(userCount);
+        }
+        Integer[] byOutDegree = new Integer[userCount];
+        for (int i = 0; i < userCount; i++) {
+            byOutDegree[i] = i;
+        }
+        Arrays.sort(byOutDegree, (x, y) -> Integer.compare(followees[y].length, followees[x].length));
+        int[] heavyUsers = new int[Math.min(queries, userCount)];
+        for (int i = 0; i < heavyUsers.length; i++) {
+            heavyUsers[i] = byOutDegree[i];
+        }
+
+        Map<String, List<Follow>> follows = toFollows(aliases, followees);
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        FollowDAO unused = new FollowDAO(Collections.<User>emptyList(), 1);
+        FollowRecommender sequential = new FollowRecommender(unused, single, 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        FollowRecommender parallel = new FollowRecommender(unused, ForkJoinPool.commonPool(), 0, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        FollowRecommender bounded = new FollowRecommender(unused, ForkJoinPool.commonPool(), 0,
+                FollowRecommender.DEFAULT_MAX_FIRST_HOP, 100);
+
+        System.out.printf("parallelism=%d%n", ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "users", "follows us", "fj(1) us", "fj(all) us", "bounded us");
+        runAll("random", randomUsers, aliases, graph, follows, sequential, parallel, bounded);
+        runAll("heavy", heavyUsers, aliases, graph, follows, sequential, parallel, bounded);
+        single.shutdown();
+    }
+
+    private static void runAll(String name, int[] users, String[] aliases, FollowGraph graph, Map<String, List<Follow>> follows,
+                               FollowRecommender sequential, FollowRecommender parallel, FollowRecommender bounded) {
+        // Warm up, and check that the two ways agree
+        for (int user : users) {
+            if (!naive(follows, aliases[user], LIMIT).equals(new ArrayList<>(sequential.rank(graph, aliases[user], LIMIT).values()))) {
+                throw new AssertionError("Counts differ for " + aliases[user]);
+            }
+            parallel.rank(graph, aliases[user], LIMIT);
+            bounded.rank(graph, aliases[user], LIMIT);
+        }
+
+        long start = System.nanoTime();
+        for (int user : users) {
+            naive(follows, aliases[user], LIMIT);
+        }
+        double naiveMicros = (System.nanoTime() - start) / 1e3 / users.length;
+
+        System.out.printf("%-8s %14.0f %14.0f %14.0f %14.0f%n", name, naiveMicros,
+                time(sequential, graph, aliases, users), time(parallel, graph, aliases, users), time(bounded, graph, aliases, users));
+    }
+
+    private static double time(FollowRecommender recommender, FollowGraph graph, String[] aliases, int[] users) {
+        long start = System.nanoTime();
+        for (int user : users) {
+            recommender.rank(graph, aliases[user], LIMIT);
+        }
+        return (System.nanoTime() - start) / 1e3 / users.length;
+    }
+
+    /**
+     * Ranks recommendations by walking follow objects and counting aliases in a map. Returns the
+     * counts, highest first.
+     */
+    private static List<Integer> naive(Map<String, List<Follow>> follows, String alias, int limit) {
+        List<Follow> following = follows.get(alias);
+        Set<String> followed = new HashSet<>();
+        for (Follow follow : following) {
+            followed.add(follow.getFollowee().getAlias());
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (Follow follow : following) {
+            for (Follow secondHop : follows.get(follow.getFollowee().getAlias())) {
+                String candidate = secondHop.getFollowee().getAlias();
+                if (!candidate.equals(alias) && !followed.contains(candidate)) {
+                    counts.merge(candidate, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(counts.values());
+        sorted.sort(Collections.reverseOrder());
+        return sorted.subList(0, Math.min(limit, sorted.size()));
+    }
+
+    private static int[][] powerLawGraph(Random random, int userCount, int meanOutDegree) {
+        // A Pareto distribution with shape 2 has mean 2 * minimum
+        double minDegree = meanOutDegree / 2.0;
+        int[][] followees = new int[userCount][];
+        int[] targets = new int[userCount * meanOutDegree * 2];
+        int edges = 0;
+        for (int i = 0; i < userCount; i++) {
+            int degree = (int) Math.min(userCount / 10, minDegree / Math.sqrt(1 - random.nextDouble()));
+            Set<Integer> chosen = new HashSet<>();
+            while (chosen.size() < degree) {
+                int target = (edges > 0 && random.nextDouble() < 0.8) ? targets[random.nextInt(edges)] : random.nextInt(userCount);
+                if (target != i) {
+                    chosen.add(target);
+                }
+            }
+            followees[i] = new int[chosen.size()];
+            int j = 0;
+            for (int target : chosen) {
+                followees[i][j++] = target;
+                if (edges == targets.length) {
+                    targets = Arrays.copyOf(targets, targets.length * 2);
+                }
+                targets[edges++] = target;
+            }
+        }
+        return followees;
+    }
+
+    private static Map<String, List<Follow>> toFollows(String[] aliases, int[][] followees) {
+        User[] users = new User[aliases.length];
+        for (int i = 0; i < aliases.length; i++) {
+            users[i] = new User("First", "Last", aliases[i], null);
+        }
+        Map<String, List<Follow>> follows = new HashMap<>();
+        for (int i = 0; i < aliases.length; i++) {
+            List<Follow> list = new ArrayList<>(followees[i].length);
+            for (int followee : followees[i]) {
+                list.add(new Follow(users[i], users[followee]));
+            }
+            follows.put(aliases[i], list);
+        }
+        return follows;
+    }
+}
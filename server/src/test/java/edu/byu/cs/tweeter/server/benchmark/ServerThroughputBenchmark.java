@@ -0,0 +1,112 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.server.TweeterServer;
+import edu.byu.cs.tweeter.server.dao.AuthTokenDAO;
+import edu.byu.cs.tweeter.server.net.HttpServer;
+import edu.byu.cs.tweeter.server.net.RawHttpClient;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+
+/**
+ * Measures how many /getfollowing requests per second the server answers over persistent,
+ * pipelined connections on the loopback interface.
+ * <p>
+ * Usage: ServerThroughputBenchmark [connections [pipelineDepth [seconds [workerThreads]]]]
+ */
+public class ServerThroughputBenchmark {
+
+    private static final int WARMUP_SECONDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        int connections = (args.length > 0) ? Integer.parseInt(args[0]) : 16;
+        int pipelineDepth = (args.length > 1) ? Integer.parseInt(args[1]) : 8;
+        int seconds = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+        int workerThreads = (args.length > 3) ? Integer.parseInt(args[3]) : TweeterServer.DEFAULT_WORKER_THREADS;
+
+        HttpServer server = TweeterServer.createServer(0, workerThreads);
+        server.start();
+        try {
+            run(server.getPort(), connections, pipelineDepth, WARMUP_SECONDS);
+            Result result = run(server.getPort(), connections, pipelineDepth, seconds);
+
+            System.out.printf("connections=%d pipelineDepth=%d workers=%d%n", connections, pipelineDepth, workerThreads);
+            System.out.printf("requests=%d in %.1f s -> %.0f requests/s%n",
+                    result.requests, result.elapsedNanos / 1e9, result.requests / (result.elapsedNanos / 1e9));
+            System.out.printf("mean round trip for a batch of %d: %.3f ms%n",
+                    pipelineDepth, result.batchNanos / (double) result.batches / 1e6);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static Result run(final int port, int connections, int pipelineDepth, int seconds) throws InterruptedException {
+        // The server runs in this process, so it shares the session store
+        AuthToken authToken = AuthTokenDAO.getInstance().issue("@allen");
+        FollowingRequest request = new FollowingRequest(authToken, "@allen", 10, "@bob");
+        ByteArrayOutputStream batch = new ByteArrayOutputStream();
+        for (int i = 0; i < pipelineDepth; i++) {
+            batch.writeBytes(RawHttpClient.post("/getfollowing", JsonSerializer.serialize(request)));
+        }
+        final byte[] batchBytes = batch.toByteArray();
+        final int depth = pipelineDepth;
+
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong batches = new AtomicLong();
+        final AtomicLong batchNanos = new AtomicLong();
+        final long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long start = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try (RawHttpClient client = new RawHttpClient(port)) {
+                        while (System.nanoTime() < deadline) {
+                            long batchStart = System.nanoTime();
+                            client.send(batchBytes);
+                            for (int j = 0; j < depth; j++) {
+                                if (client.readResponse().status != 200) {
+                                    throw new IllegalStateException("Request failed");
+                                }
+                            }
+                            batchNanos.addAndGet(System.nanoTime() - batchStart);
+                            batches.incrementAndGet();
+                            requests.addAndGet(depth);
+                        }
+                    } catch (IOException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return new Result(requests.get(), batches.get(), batchNanos.get(), System.nanoTime() - start);
+    }
+
+    private static class Result {
+        final long requests;
+        final long batches;
+        final long batchNanos;
+        final long elapsedNanos;
+
+        Result(long requests, long batches, long batchNanos, long elapsedNanos) {
+            this.requests = requests;
+            this.batches = batches;
+            this.batchNanos = batchNanos;
+            this.elapsedNanos = elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.util.FakeData;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+/**
+ * Compares the size of pages of users as JSON and in the compact user page encoding, with and
+ * without gzip, and the time to decode each.
+ * <p>
+ * Besides the FakeData users, pages are generated from common first and last names with aliases
+ * in several styles ("@amy", "@amysmith", "@asmith42") and image URLs drawn from a pool of default
+ * avatars plus some per-user uploads, sorted by alias as the server returns them.
+ * <p>
+ * Usage: UserPageSizeBenchmark [iterations]
+ */
+public class UserPageSizeBenchmark {
+
+    private static final String[] FIRST_NAMES = { "Amy", "Bob", "Chris", "Dee", "Elliott", "Frank", "Grace",
+            "Hannah", "Isaac", "Julia", "Kevin", "Laura", "Michael", "Nora", "Oscar", "Paula", "Quinn", "Rachel",
+            "Sam", "Tara", "Uma", "Victor", "Wendy", "Xavier", "Yara", "Zach" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor" };
+    private static final String IMAGE_BASE = "https://faculty.cs.byu.edu/~jwilkerson/cs340/tweeter/images/";
+    private static final int DEFAULT_AVATARS = 12;
+
+    public static void main(String[] args) throws IOException {
+        int iterations = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+
+        System.out.printf("%-22s %8s %8s %8s %8s %6s %10s %10s%n", "page", "json", "json.gz", "compact", "cmp.gz",
+                "ratio", "json us", "compact us");
+        report("FakeData (20 users)", FakeData.getInstance().getFakeUsers(), iterations);
+        Random random = new Random(340);
+        for (int size : new int[] { 10, 25, 100, 1000 }) {
+            report("generated (" + size + ")", generateUsers(size, random), Math.max(200, iterations * 10 / size));
+        }
+    }
+
+    private static List<User> generateUsers(int count, Random random) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+            String alias;
+            switch (random.nextInt(3)) {
+                case 0:
+                    alias = "@" + first.toLowerCase(Locale.ROOT) + random.nextInt(1000);
+                    break;
+                case 1:
+                    alias = "@" + (first + last).toLowerCase(Locale.ROOT) + (i % 7 == 0 ? "" : String.valueOf(i));
+                    break;
+                default:
+                    alias = "@" + first.substring(0, 1).toLowerCase(Locale.ROOT) + last.toLowerCase(Locale.ROOT) + i;
+            }
+
+            String imageUrl = (random.nextInt(4) == 0)
+                    ? IMAGE_BASE + "uploads/" + alias.substring(1) + ".png"
+                    : IMAGE_BASE + "avatar" + random.nextInt(DEFAULT_AVATARS) + ".png";
+            users.add(new User(first, last, alias, imageUrl));
+        }
+        Collections.sort(users);
+        return users;
+    }
+
+    private static void report(String name, final List<User> users, int iterations) throws IOException {
+        byte[] json = JsonSerializer.serialize(new FollowingResponse(users, true, "5f3a9c21d7e4b6a0.1234"))
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] compact = UserPageCodec.encode(users, true, "5f3a9c21d7e4b6a0.1234");
+
+        final int[] checksum = new int[1];
+        PageParser.ItemHandler<User> handler = new PageParser.ItemHandler<User>() {
+            @Override
+            public void handleItem(User user) {
+                checksum[0] += user.getAlias().length();
+            }
+        };
+
+        // Warm up, then time both decoders
+        long jsonNanos = 0;
+        long compactNanos = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                JsonSerializer.deserialize(new String(json, StandardCharsets.UTF_8), FollowingResponse.class);
+            }
+            jsonNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                UserPageCodec.decode(new ByteArrayInputStream(compact), handler);
+            }
+            compactNanos = System.nanoTime() - start;
+        }
+
+        System.out.printf("%-22s %8d %8d %8d %8d %5.1fx %10.1f %10.1f%n", name, json.length, gzip(json).length,
+                compact.length, gzip(compact).length, json.length / (double) compact.length,
+                jsonNanos / (double) iterations / 1e3, compactNanos / (double) iterations / 1e3);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,147 @@
+package edu.byu.cs.tweeter.server.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.server.dao.UserSearchIndex;
+
+/**
+ * Measures how long {@link UserSearchIndex} takes to build over a large number of users, how
+ * long a typeahead lookup of the top matches takes for prefixes of different lengths, compared
+ * with a linear scan of every user like {@code FakeData.findUserByAlias} does, and how fast new
+ * users can be added.
+ * <p>
+ * Usage: UserSearchBenchmark [users [lookups [limit]]]
+ */
+public class UserSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {
+            "Allen", "Amy", "Bob", "Bonnie", "Chris", "Cindy", "Dan", "Dee", "Elliott", "Elizabeth",
+            "Frank", "Fran", "Gary", "Giovanna", "Henry", "Helen", "Igor", "Isabel", "Justin", "Jill",
+            "John", "Kate", "Liam", "Maria", "Noah", "Olivia", "Peter", "Quinn", "Rosa", "Sam" };
+    private static final String[] LAST_NAMES = {
+            "Anderson", "Ames", "Bobson", "Beatty", "Colston", "Coats", "Donaldson", "Dempsey",
+            "Enderson", "Engle", "Frandson", "Franklin", "Gilbert", "Giles", "Henderson", "Hopwell",
+            "Isaacson", "Jones", "Johnson", "Brown", "Kim", "Lopez", "Miller", "Nguyen", "Ortiz" };
+
+    public static void main(String[] args) {
+        int userCount = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = (args.length > 1) ? Integer.parseInt(args[1]) : 200_000;
+        int limit = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            users.add(randomUser(random, i));
+        }
+
+        System.gc();
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        UserSearchIndex index = new UserSearchIndex(users);
+        long buildNanos = System.nanoTime() - start;
+        System.gc();
+        System.out.printf("users=%d built in %.0f ms, index uses about %.0f MB beyond the users%n",
+                userCount, buildNanos / 1e6, (usedHeap() - heapBefore) / 1e6);
+
+        System.out.printf("%-8s %16s %16s %16s%n", "prefix", "index us/lookup", "scan us/lookup", "avg results");
+        for (int length = 1; length <= 4; length++) {
+            String[] queries = new String[1024];
+            for (int i = 0; i < queries.length; i++) {
+                queries[i] = prefixOf(users.get(random.nextInt(userCount)), random, length);
+            }
+
+            // Warm up, then time
+            long results = runIndex(index, queries, lookups / 4, limit);
+            start = System.nanoTime();
+            results = runIndex(index, queries, lookups, limit);
+            double indexMicros = (System.nanoTime() - start) / 1e3 / lookups;
+
+            int scans = Math.max(1, lookups / 2000);
+            runScan(users, queries, 2, limit);
+            start = System.nanoTime();
+            runScan(users, queries, scans, limit);
+            double scanMicros = (System.nanoTime() - start) / 1e3 / scans;
+
+            System.out.printf("%-8d %16.2f %16.0f %16.1f%n", length, indexMicros, scanMicros, results / (double) lookups);
+        }
+
+        // Paging through every match of a common prefix
+        String lastUserAlias = null;
+        int pages = 0;
+        int paged = 0;
+        start = System.nanoTime();
+        UserSearchIndex.Page page;
+        do {
+            page = index.search("jo", lastUserAlias, 100);
+            pages++;
+            paged += page.getUsers().size();
+            if (!page.getUsers().isEmpty()) {
+                lastUserAlias = page.getUsers().get(page.getUsers().size() - 1).getAlias();
+            }
+        } while (page.getHasMorePages());
+        long pageNanos = System.nanoTime() - start;
+        System.out.printf("paged through %d matches of \"jo\" in %d pages, %.1f us per page%n",
+                paged, pages, pageNanos / 1e3 / pages);
+
+        int adds = Math.max(1, userCount / 10);
+        start = System.nanoTime();
+        for (int i = 0; i < adds; i++) {
+            index.add(randomUser(random, userCount + i));
+        }
+        long addNanos = System.nanoTime() - start;
+        System.out.printf("added %d users in %.0f ms (%.2f us each)%n", adds, addNanos / 1e6, addNanos / 1e3 / adds);
+    }
+
+    private static User randomUser(Random random, int i) {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new User(firstName, lastName, "@" + firstName.toLowerCase(Locale.ROOT) + i, null);
+    }
+
+    /**
+     * Returns the start of one of a user's terms.
+     */
+    private static String prefixOf(User user, Random random, int length) {
+        String[] terms = { user.getAlias().substring(1), user.getFirstName(), user.getLastName() };
+        String term = terms[random.nextInt(terms.length)];
+        return term.substring(0, Math.min(length, term.length()));
+    }
+
+    private static long runIndex(UserSearchIndex index, String[] queries, int lookups, int limit) {
+        long results = 0;
+        for (int i = 0; i < lookups; i++) {
+            results += index.search(queries[i & (queries.length - 1)], null, limit).getUsers().size();
+        }
+        return results;
+    }
+
+    /**
+     * Finds the first matches for each query by checking every user, which is what a lookup
+     * without an index costs.
+     */
+    private static long runScan(List<User> users, String[] queries, int lookups, int limit) {
+        long results = 0;
+        for (int i = 0; i < lookups; i++) {
+            String prefix = UserSearchIndex.normalize(queries[i & (queries.length - 1)]);
+            int found = 0;
+            for (User user : users) {
+                if (user.getAlias().substring(1).toLowerCase(Locale.ROOT).startsWith(prefix)
+                        || user.getFirstName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                        || user.getLastName().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                    found++;
+                }
+            }
+            results += Math.min(found, limit);
+        }
+        return results;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
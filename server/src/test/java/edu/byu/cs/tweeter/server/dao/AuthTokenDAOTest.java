@@ -0,0 +1,116 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+public class AuthTokenDAOTest {
+
+    private static final long IDLE_TIMEOUT_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 8;
+
+    private long now;
+    private AuthTokenDAO authTokenDAO;
+
+    @BeforeEach
+    public void setup() {
+        now = 1_000_000;
+        authTokenDAO = new AuthTokenDAO(IDLE_TIMEOUT_MILLIS, WHEEL_SIZE) {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testIssuedTokenIsValid() {
+        AuthToken authToken = authTokenDAO.issue("@allen");
+
+        Assertions.assertEquals(now, authToken.getTimestamp());
+        Assertions.assertEquals("@allen", authTokenDAO.validate(authToken.getToken()));
+        Assertions.assertNull(authTokenDAO.validate("unknown"));
+        Assertions.assertNull(authTokenDAO.validate(null));
+    }
+
+    @Test
+    public void testTokensAreUnique() {
+        Set<String> tokens = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            String token = authTokenDAO.issue("@allen").getToken();
+            Assertions.assertTrue(token.length() >= 32);
+            Assertions.assertTrue(tokens.add(token));
+        }
+        Assertions.assertEquals(1000, authTokenDAO.size());
+    }
+
+    @Test
+    public void testIdleSessionExpires() {
+        String token = authTokenDAO.issue("@allen").getToken();
+
+        now += IDLE_TIMEOUT_MILLIS - 1;
+        Assertions.assertEquals(0, authTokenDAO.expireSessions());
+        Assertions.assertEquals(1, authTokenDAO.size());
+
+        now += 1;
+        Assertions.assertNull(authTokenDAO.validate(token));
+    }
+
+    @Test
+    public void testWheelRemovesExpiredSessions() {
+        authTokenDAO.issue("@allen");
+        authTokenDAO.issue("@amy");
+
+        now += IDLE_TIMEOUT_MILLIS + authTokenDAO.getTickMillis();
+        Assertions.assertEquals(2, authTokenDAO.expireSessions());
+        Assertions.assertEquals(0, authTokenDAO.size());
+    }
+
+    @Test
+    public void testUseRenewsSession() {
+        String token = authTokenDAO.issue("@allen").getToken();
+        String unusedToken = authTokenDAO.issue("@amy").getToken();
+
+        // Keep using one session for several idle timeouts, turning the wheel as time passes
+        for (int i = 0; i < 4 * WHEEL_SIZE; i++) {
+            now += authTokenDAO.getTickMillis();
+            authTokenDAO.expireSessions();
+            Assertions.assertEquals("@allen", authTokenDAO.validate(token));
+        }
+
+        Assertions.assertEquals(1, authTokenDAO.size());
+        Assertions.assertNull(authTokenDAO.validate(unusedToken));
+
+        now += IDLE_TIMEOUT_MILLIS + authTokenDAO.getTickMillis();
+        Assertions.assertEquals(1, authTokenDAO.expireSessions());
+        Assertions.assertNull(authTokenDAO.validate(token));
+    }
+
+    @Test
+    public void testLongPauseVisitsEveryBucketOnce() {
+        String token = authTokenDAO.issue("@allen").getToken();
+        authTokenDAO.issue("@amy");
+
+        now += 100 * IDLE_TIMEOUT_MILLIS;
+        Assertions.assertEquals(2, authTokenDAO.expireSessions());
+        Assertions.assertNull(authTokenDAO.validate(token));
+    }
+
+    @Test
+    public void testRevokedTokenIsInvalid() {
+        String token = authTokenDAO.issue("@allen").getToken();
+
+        Assertions.assertTrue(authTokenDAO.revoke(token));
+        Assertions.assertFalse(authTokenDAO.revoke(token));
+        Assertions.assertNull(authTokenDAO.validate(token));
+
+        // The wheel drops the revoked session without counting it as expired
+        now += 2 * IDLE_TIMEOUT_MILLIS;
+        Assertions.assertEquals(0, authTokenDAO.expireSessions());
+    }
+}
@@ -0,0 +1,100 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class FeedIteratorTest {
+
+    private final List<StatusList> stories = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        // Few timestamps, so there are many ties, within a story and across stories
+        Random random = new Random(3);
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        List<String> aliases = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = new User("User", "Number" + i, "@user" + i, null);
+            for (int j = 0; j < 40; j++) {
+                storyDAO.add(ImmutableStatus.from(new Status("Post " + j + " by " + i, user, random.nextInt(50),
+                        Collections.<String>emptyList(), Collections.<String>emptyList())));
+            }
+            aliases.add(user.getAlias());
+        }
+        for (String alias : aliases) {
+            stories.add(storyDAO.getStory(alias));
+        }
+    }
+
+    @Test
+    public void testFeedIsNewestFirst() {
+        List<Status> feed = readAll(FeedIterator.fromStart(stories), Integer.MAX_VALUE);
+
+        Assertions.assertEquals(200, feed.size());
+        for (int i = 1; i < feed.size(); i++) {
+            Status previous = feed.get(i - 1);
+            Status status = feed.get(i);
+            Assertions.assertTrue(previous.getTimestamp() > status.getTimestamp() || (previous.getTimestamp() == status.getTimestamp()
+                    && previous.getUser().getAlias().compareTo(status.getUser().getAlias()) <= 0));
+        }
+    }
+
+    @Test
+    public void testCursorPagesMatchWholeFeed() {
+        List<Status> feed = readAll(FeedIterator.fromStart(stories), Integer.MAX_VALUE);
+
+        for (int pageSize : new int[] { 1, 3, 7, 64 }) {
+            List<Status> paged = new ArrayList<>();
+            FeedIterator iterator = FeedIterator.fromStart(stories);
+            while (true) {
+                paged.addAll(readAll(iterator, pageSize));
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                iterator = FeedIterator.fromCursor(stories, iterator.getCursor());
+            }
+            Assertions.assertEquals(feed, paged, "page size " + pageSize);
+        }
+    }
+
+    @Test
+    public void testLastStatusResumesAfterIt() {
+        List<Status> feed = readAll(FeedIterator.fromStart(stories), Integer.MAX_VALUE);
+
+        for (int i = 0; i < feed.size() - 1; i++) {
+            Status last = feed.get(i);
+            // Without a cursor it resumes after the first of the poster's statuses at that time
+            if (i == 0 || last.getTimestamp() != feed.get(i - 1).getTimestamp() || !last.getUser().equals(feed.get(i - 1).getUser())) {
+                FeedIterator iterator = FeedIterator.fromStatus(stories, last);
+                Assertions.assertEquals(feed.get(i + 1), iterator.next());
+            }
+        }
+    }
+
+    @Test
+    public void testMalformedCursorIsRejected() {
+        Assertions.assertNull(FeedIterator.fromCursor(stories, "not a cursor!"));
+        String noRank = Base64.getUrlEncoder().encodeToString("1000:@user1".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertNull(FeedIterator.fromCursor(stories, noRank));
+    }
+
+    private static List<Status> readAll(FeedIterator iterator, int limit) {
+        List<Status> statuses = new ArrayList<>();
+        while (statuses.size() < limit && iterator.hasNext()) {
+            statuses.add(iterator.next());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,136 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class FollowBloomFilterTest {
+
+    @Test
+    public void testAddedFollowsAreAlwaysFound() {
+        FollowBloomFilter filter = new FollowBloomFilter(16, 20_000, 0.01);
+        followMany(filter, 20_000);
+
+        for (int i = 0; i < 20_000; i++) {
+            Assertions.assertTrue(filter.mightContain("@user" + (i / 100), "@user" + i));
+        }
+        Assertions.assertTrue(falsePositiveRate(filter) < 0.015);
+    }
+
+    @Test
+    public void testRebuildAfterGrowthKeepsFalsePositiveRate() {
+        FollowBloomFilter filter = new FollowBloomFilter(1, 64, 0.01);
+        int rebuilds = followMany(filter, 20_000);
+
+        // Doubling the capacity each time needs only a few rebuilds
+        Assertions.assertTrue(rebuilds <= 10, "rebuilds " + rebuilds);
+        for (int i = 0; i < 20_000; i++) {
+            Assertions.assertTrue(filter.mightContain("@user" + (i / 100), "@user" + i));
+        }
+        Assertions.assertTrue(falsePositiveRate(filter) < 0.015);
+    }
+
+    @Test
+    public void testRebuildForgetsRemovedFollows() {
+        FollowBloomFilter filter = new FollowBloomFilter(1, 64, 0.01);
+        TreeMap<String, Object> following = new TreeMap<>();
+        Map<String, TreeMap<String, Object>> followees = new HashMap<>();
+        followees.put("@allen", following);
+        for (int i = 0; i < 64; i++) {
+            following.put("@user" + i, Boolean.TRUE);
+            filter.add("@allen", "@user" + i);
+        }
+
+        boolean rebuild = false;
+        int removed = 0;
+        while (!rebuild) {
+            following.remove("@user" + removed);
+            rebuild = filter.remove("@allen");
+            removed++;
+            // Removed follows are still reported until the rebuild
+            Assertions.assertTrue(filter.mightContain("@allen", "@user" + (removed - 1)));
+        }
+        Assertions.assertEquals(16, removed);
+        filter.rebuild("@allen", followees);
+
+        int stillReported = 0;
+        for (int i = 0; i < removed; i++) {
+            if (filter.mightContain("@allen", "@user" + i)) {
+                stillReported++;
+            }
+        }
+        Assertions.assertTrue(stillReported <= 1, "still reported " + stillReported);
+        for (int i = removed; i < 64; i++) {
+            Assertions.assertTrue(filter.mightContain("@allen", "@user" + i));
+        }
+    }
+
+    @Test
+    public void testRebuildLooksUpOnlyThePartitionsFollowers() {
+        FollowBloomFilter filter = new FollowBloomFilter(16, 20_000, 0.01);
+        final Map<String, Integer> lookups = new HashMap<>();
+        // Fails if the rebuild reads every user's follow list
+        Map<String, TreeMap<String, Object>> followees = new HashMap<String, TreeMap<String, Object>>() {
+            @Override
+            public Set<Map.Entry<String, TreeMap<String, Object>>> entrySet() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public TreeMap<String, Object> get(Object key) {
+                lookups.merge((String) key, 1, Integer::sum);
+                return super.get(key);
+            }
+        };
+        for (int i = 0; i < 1000; i++) {
+            String follower = "@user" + (i / 10);
+            followees.computeIfAbsent(follower, key -> new TreeMap<>()).put("@user" + i, Boolean.TRUE);
+            filter.add(follower, "@user" + i);
+        }
+        lookups.clear();
+
+        filter.rebuild("@user0", followees);
+        // About one in 16 of the 100 followers, each looked up to count and then to add
+        Assertions.assertTrue(lookups.containsKey("@user0"));
+        Assertions.assertTrue(lookups.size() < 20, "looked up " + lookups.size());
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(filter.mightContain("@user" + (i / 10), "@user" + i));
+        }
+    }
+
+    /**
+     * Adds follows of 100 users each, rebuilding a partition whenever the filter says to, as
+     * {@link FollowDAO} does. Returns the number of rebuilds.
+     */
+    private static int followMany(FollowBloomFilter filter, int count) {
+        Map<String, TreeMap<String, Object>> followees = new HashMap<>();
+        int rebuilds = 0;
+        for (int i = 0; i < count; i++) {
+            String follower = "@user" + (i / 100);
+            if (!followees.containsKey(follower)) {
+                followees.put(follower, new TreeMap<String, Object>());
+            }
+            followees.get(follower).put("@user" + i, Boolean.TRUE);
+            if (filter.add(follower, "@user" + i)) {
+                filter.rebuild(follower, followees);
+                rebuilds++;
+            }
+        }
+        return rebuilds;
+    }
+
+    private static double falsePositiveRate(FollowBloomFilter filter) {
+        int falsePositives = 0;
+        int checks = 100_000;
+        for (int i = 0; i < checks; i++) {
+            if (filter.mightContain("@user" + (i % 200), "@other" + i)) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / checks;
+    }
+}
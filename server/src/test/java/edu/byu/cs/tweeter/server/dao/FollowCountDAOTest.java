@@ -0,0 +1,85 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+public class FollowCountDAOTest {
+
+    @Test
+    public void testCountsGrowPastTableCapacity() {
+        FollowCountDAO counts = new FollowCountDAO(4, 1000);
+        for (int i = 0; i < 10_000; i++) {
+            counts.recordFollow("@user" + i, "@user" + (i / 100));
+        }
+
+        Assertions.assertEquals(100, counts.getFollowerCount("@user0"));
+        Assertions.assertEquals(100, counts.getFollowerCount("@user99"));
+        Assertions.assertEquals(0, counts.getFollowerCount("@user100"));
+        Assertions.assertEquals(1, counts.getFolloweeCount("@user9999"));
+        Assertions.assertEquals(0, counts.getFolloweeCount("@nobody"));
+        Assertions.assertFalse(counts.isHot("@user0"));
+    }
+
+    @Test
+    public void testUnfollowCountedBeforeItsFollow() {
+        FollowCountDAO counts = new FollowCountDAO(4, 1000);
+        counts.add("@amy", 0, 0);
+
+        // A follow and an unfollow that race can be counted in the other order
+        counts.recordUnfollow("@allen", "@amy");
+        Assertions.assertEquals(-1, counts.getFollowerCount("@amy"));
+        Assertions.assertEquals(-1, counts.getFolloweeCount("@allen"));
+        Assertions.assertFalse(counts.isHot("@amy"));
+        counts.recordFollow("@allen", "@amy");
+
+        Assertions.assertEquals(0, counts.getFollowerCount("@amy"));
+        Assertions.assertEquals(0, counts.getFolloweeCount("@allen"));
+        Assertions.assertFalse(counts.isHot("@amy"));
+    }
+
+    @Test
+    public void testConcurrentFollowsOfHotAccountAreCounted() throws Exception {
+        final FollowCountDAO counts = new FollowCountDAO(8, 500);
+        final int threadCount = 8;
+        final int followsPerThread = 5000;
+        final CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                for (int i = 0; i < followsPerThread; i++) {
+                    String follower = "@fan" + thread + "_" + i;
+                    counts.recordFollow(follower, "@celebrity");
+                    // Every other follower changes their mind
+                    if (i % 2 == 1) {
+                        counts.recordUnfollow(follower, "@celebrity");
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        start.countDown();
+        // Reads while the counts are being written never wait and always see a possible count
+        do {
+            long current = counts.getFollowerCount("@celebrity");
+            Assertions.assertTrue(current >= 0 && current <= threadCount * followsPerThread);
+        } while (threads[threadCount - 1].isAlive());
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertTrue(counts.isHot("@celebrity"));
+        Assertions.assertEquals(threadCount * followsPerThread / 2, counts.getFollowerCount("@celebrity"));
+        Assertions.assertEquals(1, counts.getFolloweeCount("@fan3_0"));
+        Assertions.assertEquals(0, counts.getFolloweeCount("@fan3_1"));
+    }
+}
@@ -0,0 +1,136 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import edu.byu.cs.tweeter.model.domain.Recommendation;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class FollowRecommenderTest {
+
+    private static final long TTL_MILLIS = 1000;
+
+    private final User a = new User("A", "A", "@a", null);
+    private final User b = new User("B", "B", "@b", null);
+    private final User c = new User("C", "C", "@c", null);
+    private final User d = new User("D", "D", "@d", null);
+    private final User e = new User("E", "E", "@e", null);
+    private final User f = new User("F", "F", "@f", null);
+
+    private FollowDAO followDAO;
+    private long now;
+    private FollowRecommender recommender;
+
+    @BeforeEach
+    public void setup() {
+        List<User> users = Arrays.asList(a, b, c, d, e, f);
+        followDAO = new FollowDAO(users, FollowDAO.DEFAULT_MAX_CHANGES_PER_USER);
+        // @a follows @b and @c, who between them follow @d twice and @e and @f once
+        keepFollowing(users, a, b, c);
+        keepFollowing(users, b, d, e);
+        keepFollowing(users, c, a, d, f);
+
+        recommender = new FollowRecommender(followDAO, ForkJoinPool.commonPool(), TTL_MILLIS, 100, 100) {
+            @Override
+            public long currentTimeMillis() {
+                return now;
+            }
+        };
+    }
+
+    @Test
+    public void testRanksUsersFollowedByMostFollowees() {
+        Assertions.assertEquals(Arrays.asList(new Recommendation(d, 2), new Recommendation(e, 1), new Recommendation(f, 1)),
+                recommender.recommend("@a", 10));
+        Assertions.assertEquals(Arrays.asList(new Recommendation(d, 2)), recommender.recommend("@a", 1));
+        Assertions.assertNull(recommender.recommend("@nobody", 10));
+    }
+
+    @Test
+    public void testCachedRecommendationsAreKeptForTheirTimeToLive() {
+        recommender.recommend("@a", 10);
+
+        // A new followee is left out at once, but other changes wait for the cache to expire
+        followDAO.follow("@a", "@d");
+        followDAO.follow("@b", "@f");
+        Assertions.assertEquals(Arrays.asList(new Recommendation(e, 1), new Recommendation(f, 1)),
+                recommender.recommend("@a", 10));
+
+        // @d, now a followee, follows everyone
+        now += TTL_MILLIS;
+        Assertions.assertEquals(Arrays.asList(new Recommendation(f, 3), new Recommendation(e, 2)),
+                recommender.recommend("@a", 10));
+    }
+
+    @Test
+    public void testParallelCountsMatchSequentialCounts() {
+        Random random = new Random(7);
+        int userCount = 2000;
+        String[] aliases = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            aliases[i] = String.format("@u%04d", i);
+        }
+        int[][] followees = new int[userCount][];
+        for (int i = 0; i < userCount; i++) {
+            // Skewed towards low user numbers, so some users are followed by many
+            followees[i] = new int[1 + random.nextInt(60)];
+            for (int j = 0; j < followees[i].length; j++) {
+                followees[i][j] = (int) (userCount * Math.pow(random.nextDouble(), 3));
+            }
+            followees[i] = Arrays.stream(followees[i]).distinct().toArray();
+        }
+        FollowGraph graph = new FollowGraph(aliases, followees);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            FollowRecommender parallel = new FollowRecommender(followDAO, pool, TTL_MILLIS, userCount, userCount);
+            for (int user = 0; user < userCount; user += 97) {
+                Assertions.assertEquals(countSequentially(graph, user, 20), parallel.rank(graph, aliases[user], 20));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void keepFollowing(List<User> users, User follower, User... followees) {
+        for (User user : users) {
+            if (!Arrays.asList(followees).contains(user)) {
+                followDAO.unfollow(follower.getAlias(), user.getAlias());
+            }
+        }
+    }
+
+    private static Map<String, Integer> countSequentially(FollowGraph graph, int user, int limit) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (int i = 0; i < graph.getFolloweeCount(user); i++) {
+            int followee = graph.getFollowee(user, i);
+            for (int j = 0; j < graph.getFolloweeCount(followee); j++) {
+                counts.merge(graph.getFollowee(followee, j), 1, Integer::sum);
+            }
+        }
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int candidate : counts.keySet()) {
+            if (candidate != user && !graph.isFollowing(user, candidate)) {
+                candidates.add(candidate);
+            }
+        }
+        candidates.sort((x, y) -> counts.get(x).equals(counts.get(y)) ? Integer.compare(x, y) : counts.get(y) - counts.get(x));
+
+        Map<String, Integer> ranked = new LinkedHashMap<>();
+        for (int candidate : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            ranked.put(graph.getAlias(candidate), counts.get(candidate));
+        }
+        return ranked;
+    }
+}
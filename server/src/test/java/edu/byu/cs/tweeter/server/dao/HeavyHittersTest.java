@@ -0,0 +1,92 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.byu.cs.tweeter.model.domain.Trend;
+
+public class HeavyHittersTest {
+
+    private static final long WINDOW_MILLIS = 60_000;
+    private static final int BUCKET_COUNT = 6;
+    private static final double EPSILON = 0.001;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private HeavyHitters heavyHitters;
+
+    @BeforeEach
+    public void setup() {
+        heavyHitters = new HeavyHitters(10, WINDOW_MILLIS, BUCKET_COUNT, EPSILON, 0.01) {
+            @Override
+            public long currentTimeMillis() {
+                return now.get();
+            }
+        };
+    }
+
+    @Test
+    public void testFindsHeavyHittersAmongManyKeys() {
+        Random random = new Random(3);
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 0;
+        // Five heavy keys among 20,000 keys counted once or twice
+        for (int i = 0; i < 40_000; i++) {
+            String key = (i % 8 == 0) ? "@heavy" + (i % 5) : "@user" + random.nextInt(20_000);
+            heavyHitters.record(key);
+            counts.merge(key, 1, Integer::sum);
+            total++;
+        }
+
+        List<Trend> top = heavyHitters.getTop(5);
+        Assertions.assertEquals(5, top.size());
+        for (Trend trend : top) {
+            Assertions.assertTrue(trend.getTerm().startsWith("@heavy"), trend.getTerm());
+            int real = counts.get(trend.getTerm());
+            Assertions.assertTrue(trend.getCount() >= real);
+            Assertions.assertTrue(trend.getCount() <= real + EPSILON * total);
+        }
+        Assertions.assertTrue(top.get(0).getCount() >= top.get(4).getCount());
+    }
+
+    @Test
+    public void testCountsLeaveWithTheirBucket() {
+        for (int i = 0; i < 3; i++) {
+            heavyHitters.record("@old");
+        }
+        now.addAndGet(WINDOW_MILLIS / 2);
+        heavyHitters.record("@new");
+        heavyHitters.record("@new");
+        Assertions.assertEquals(Arrays.asList(new Trend("@old", 3), new Trend("@new", 2)), heavyHitters.getTop(10));
+
+        // The bucket holding @old falls out of the window
+        now.addAndGet(WINDOW_MILLIS / 2);
+        Assertions.assertEquals(Arrays.asList(new Trend("@new", 2)), heavyHitters.getTop(10));
+        Assertions.assertEquals(2, heavyHitters.getWindowTotal());
+
+        now.addAndGet(10 * WINDOW_MILLIS);
+        Assertions.assertTrue(heavyHitters.getTop(10).isEmpty());
+        Assertions.assertEquals(0, heavyHitters.getWindowTotal());
+    }
+
+    @Test
+    public void testNewHeavyHitterReplacesSmallestCandidate() {
+        HeavyHitters small = new HeavyHitters(2, WINDOW_MILLIS, BUCKET_COUNT, EPSILON, 0.01);
+        small.record("@a");
+        small.record("@a");
+        small.record("@b");
+        small.record("@c");
+        // @c only ties the smallest candidate, so the key counted first is kept
+        Assertions.assertEquals(Arrays.asList(new Trend("@a", 2), new Trend("@b", 1)), small.getTop(2));
+
+        small.record("@c");
+        Assertions.assertEquals(Arrays.asList(new Trend("@a", 2), new Trend("@c", 2)), small.getTop(2));
+    }
+}
@@ -0,0 +1,106 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class MentionIndexTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+
+    @Test
+    public void testPagesAreNewestFirst() {
+        Status first = status(allen, 1000, "@amy");
+        Status other = status(allen, 2000, "@bob");
+        Status second = status(allen, 3000, "@amy", "@bob");
+        Status third = status(amy, 4000, "@amy", "@amy");
+        MentionIndex index = new MentionIndex(Arrays.asList(first, other, second, third));
+
+        MentionIndex.Page page = index.getMentions("@amy", null, 2);
+        Assertions.assertEquals(Arrays.asList(third, second), page.getStatuses());
+        Assertions.assertTrue(page.getHasMorePages());
+
+        page = index.getMentions("@amy", second, 2);
+        Assertions.assertEquals(Arrays.asList(first), page.getStatuses());
+        Assertions.assertFalse(page.getHasMorePages());
+
+        Assertions.assertEquals(Arrays.asList(second, other), index.getMentions("@bob", null, 10).getStatuses());
+        Assertions.assertTrue(index.getMentions("@nobody", null, 10).getStatuses().isEmpty());
+        // A cursor that doesn't mention the user is rejected
+        Assertions.assertNull(index.getMentions("@amy", other, 2));
+    }
+
+    @Test
+    public void testLateStatusesAreInTimeOrder() {
+        List<Status> statuses = new ArrayList<>();
+        Random random = new Random(7);
+        MentionIndex index = new MentionIndex(new ArrayList<Status>());
+        // Mostly in time order, with some statuses arriving late, over many blocks
+        for (int i = 0; i < 20 * MentionIndex.BLOCK_SIZE; i++) {
+            long timestamp = (random.nextInt(10) == 0) ? random.nextInt(i + 1) : i;
+            User poster = new User("User", Integer.toString(i), "@user" + i, null);
+            Status status = status(poster, timestamp, "@amy");
+            statuses.add(status);
+            index.add(ImmutableStatus.from(status));
+        }
+
+        List<Status> expected = new ArrayList<>(statuses);
+        // Newest first; a sort is stable, so of two statuses with the same time the later added comes first
+        Collections.reverse(expected);
+        expected.sort(Comparator.comparingLong(Status::getTimestamp).reversed());
+
+        List<Status> paged = new ArrayList<>();
+        Status lastStatus = null;
+        MentionIndex.Page page;
+        do {
+            page = index.getMentions("@amy", lastStatus, 100);
+            paged.addAll(page.getStatuses());
+            lastStatus = page.getStatuses().get(page.getStatuses().size() - 1);
+        } while (page.getHasMorePages());
+
+        Assertions.assertEquals(expected, paged);
+    }
+
+    @Test
+    public void testLateStatusMentioningTwiceIsIndexedOnce() {
+        Status first = status(allen, 1000, "@amy");
+        Status second = status(allen, 2000, "@amy");
+        MentionIndex index = new MentionIndex(Arrays.asList(first, second));
+
+        // Older than the newest status, so it is inserted inside a block rather than appended
+        Status late = status(bob, 1500, "@amy", "@amy");
+        index.add(ImmutableStatus.from(late));
+
+        MentionIndex.Page page = index.getMentions("@amy", null, 10);
+        Assertions.assertEquals(Arrays.asList(second, late, first), page.getStatuses());
+        Assertions.assertFalse(page.getHasMorePages());
+    }
+
+    @Test
+    public void testPostingListsAreCompressed() {
+        List<Status> statuses = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Every other status mentions @amy
+            statuses.add(status(allen, i, (i % 2 == 0) ? "@amy" : "@bob"));
+        }
+        MentionIndex index = new MentionIndex(statuses);
+
+        Assertions.assertTrue(index.getPostingBytes("@amy") <= 5000, "one byte per entry");
+    }
+
+    private static Status status(User user, long timestamp, String... mentions) {
+        return new Status("Post " + timestamp, user, timestamp, Collections.<String>emptyList(), Arrays.asList(mentions));
+    }
+}
@@ -0,0 +1,75 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class StoryDAOTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+
+    @Test
+    public void testPagesAreNewestFirst() {
+        Status first = status(allen, 1000);
+        Status second = status(allen, 2000);
+        Status third = status(allen, 3000);
+        StoryDAO storyDAO = new StoryDAO(Arrays.asList(second, status(amy, 1500), third, first));
+
+        StoryDAO.Page page = storyDAO.getPage("@allen", null, 2);
+        Assertions.assertEquals(Arrays.asList(third, second), page.getStatuses());
+        Assertions.assertTrue(page.getHasMorePages());
+
+        page = storyDAO.getPage("@allen", second, 2);
+        Assertions.assertEquals(Arrays.asList(first), page.getStatuses());
+        Assertions.assertFalse(page.getHasMorePages());
+
+        Assertions.assertTrue(storyDAO.getPage("@nobody", null, 2).getStatuses().isEmpty());
+        // A status that isn't in the story is rejected
+        Assertions.assertNull(storyDAO.getPage("@allen", status(allen, 2500), 2));
+        Assertions.assertNull(storyDAO.getPage("@amy", second, 2));
+    }
+
+    @Test
+    public void testViewIsUnchangedByLaterStatuses() {
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        for (int i = 0; i < 10; i++) {
+            storyDAO.add(ImmutableStatus.from(status(allen, i * 1000)));
+        }
+        StatusList view = storyDAO.getStory("@allen");
+
+        // One after the newest status, which is written in place, and one before it
+        storyDAO.add(ImmutableStatus.from(status(allen, 20_000)));
+        storyDAO.add(ImmutableStatus.from(status(allen, 4500)));
+
+        Assertions.assertEquals(10, view.size());
+        Assertions.assertEquals(9000, view.get(9).getTimestamp());
+        StatusList current = storyDAO.getStory("@allen");
+        Assertions.assertEquals(12, current.size());
+        Assertions.assertEquals(4500, current.get(5).getTimestamp());
+        Assertions.assertEquals(20_000, current.get(11).getTimestamp());
+    }
+
+    @Test
+    public void testStoredStatusesAreCopies() {
+        Status status = status(allen, 1000);
+        StoryDAO storyDAO = new StoryDAO(Collections.singletonList(status));
+
+        // Changing the posted status, or a page's copy of it, doesn't change the story
+        status.post = "Changed";
+        storyDAO.getPage("@allen", null, 1).getStatuses().get(0).setUser(amy);
+        Status stored = storyDAO.getPage("@allen", null, 1).getStatuses().get(0);
+        Assertions.assertEquals("Post at 1000", stored.getPost());
+        Assertions.assertEquals(allen, stored.getUser());
+    }
+
+    private static Status status(User user, long timestamp) {
+        return new Status("Post at " + timestamp, user, timestamp, Collections.<String>emptyList(), Collections.<String>emptyList());
+    }
+}
@@ -0,0 +1,229 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import edu.byu.cs.tweeter.model.domain.ImmutableStatus;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class TimelineDAOTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+
+    @Test
+    public void testFeedMatchesFanOutOnReadForAnyThreshold() {
+        for (int threshold : new int[] { 1, 4, 8, Integer.MAX_VALUE }) {
+            Random random = new Random(11);
+            List<User> users = new ArrayList<>();
+            FollowDAO followDAO = new FollowDAO(Collections.<User>emptyList(), 10);
+            for (int i = 0; i < 20; i++) {
+                User user = new User("User", "Number" + i, "@user" + i, null);
+                users.add(user);
+                followDAO.addUser(user);
+            }
+            // A few users that most others follow, so some authors cross the lower thresholds
+            for (User follower : users) {
+                for (User followee : users) {
+                    int popularity = (users.indexOf(followee) < 3) ? 2 : 6;
+                    if (follower != followee && random.nextInt(popularity) == 0) {
+                        followDAO.follow(follower.getAlias(), followee.getAlias());
+                    }
+                }
+            }
+            FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, users);
+            StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+            TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, threshold, 10_000);
+
+            // Posts with few timestamps, so there are ties, mixed with follows and unfollows
+            for (int i = 0; i < 600; i++) {
+                User user = users.get(random.nextInt(users.size()));
+                if (i % 10 == 9) {
+                    String other = users.get(random.nextInt(users.size())).getAlias();
+                    if (other.equals(user.getAlias())) {
+                        continue;
+                    }
+                    if (followDAO.follow(user.getAlias(), other)) {
+                        followCountDAO.recordFollow(user.getAlias(), other);
+                        timelineDAO.followChanged(user.getAlias(), other);
+                    } else if (followDAO.unfollow(user.getAlias(), other)) {
+                        followCountDAO.recordUnfollow(user.getAlias(), other);
+                        timelineDAO.followChanged(user.getAlias(), other);
+                    }
+                } else {
+                    ImmutableStatus status = ImmutableStatus.from(new Status("Post " + i, user, random.nextInt(100),
+                            Collections.<String>emptyList(), Collections.<String>emptyList()));
+                    storyDAO.add(status);
+                    timelineDAO.post(status);
+                }
+            }
+
+            int celebrityCount = 0;
+            for (User user : users) {
+                celebrityCount += timelineDAO.isCelebrity(user.getAlias()) ? 1 : 0;
+            }
+            if (threshold == 4 || threshold == 8) {
+                Assertions.assertTrue(celebrityCount > 0 && celebrityCount < users.size(), "threshold " + threshold);
+            }
+
+            for (User user : users) {
+                List<StatusList> stories = new ArrayList<>();
+                for (User followee : followDAO.getFollowees(user.getAlias(), null, Integer.MAX_VALUE).getUsers()) {
+                    stories.add(storyDAO.getStory(followee.getAlias()));
+                }
+                List<Status> expected = readAll(FeedIterator.fromStart(stories), Integer.MAX_VALUE);
+                List<StatusList> lists = timelineDAO.getFeed(user.getAlias());
+                Assertions.assertEquals(expected, readAll(FeedIterator.fromStart(lists), Integer.MAX_VALUE),
+                        "threshold " + threshold + ", " + user.getAlias());
+
+                // Cursors from one way of building the feed work for the other
+                List<Status> paged = new ArrayList<>();
+                FeedIterator iterator = FeedIterator.fromStart(stories);
+                while (true) {
+                    paged.addAll(readAll(iterator, 7));
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    iterator = FeedIterator.fromCursor(lists, iterator.getCursor());
+                }
+                Assertions.assertEquals(expected, paged, "threshold " + threshold + ", " + user.getAlias());
+            }
+        }
+    }
+
+    @Test
+    public void testCelebrityStatusesMoveFromTimelinesToStory() {
+        FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy, bob), 10);
+        FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy, bob));
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, 3, 100);
+
+        Status first = post(storyDAO, timelineDAO, bob, 1000);
+        Assertions.assertFalse(timelineDAO.isCelebrity("@bob"));
+        Assertions.assertEquals(1, timelineDAO.getFeed("@allen").size());
+        Assertions.assertEquals(first, timelineDAO.getFeed("@allen").get(0).get(0).toStatus());
+
+        // A third follower makes the next status merged at read time, and the first one with it
+        User carl = new User("Carl", "Carlson", "@carl", null);
+        followDAO.addUser(carl);
+        followDAO.follow("@carl", "@bob");
+        followCountDAO.recordFollow("@carl", "@bob");
+        timelineDAO.followChanged("@carl", "@bob");
+        Status second = post(storyDAO, timelineDAO, bob, 2000);
+
+        Assertions.assertTrue(timelineDAO.isCelebrity("@bob"));
+        for (String alias : new String[] { "@allen", "@amy", "@carl" }) {
+            List<StatusList> lists = timelineDAO.getFeed(alias);
+            Assertions.assertEquals(2, lists.size());
+            Assertions.assertEquals(0, lists.get(0).size());
+            Assertions.assertEquals(Arrays.asList(second, first), readAll(FeedIterator.fromStart(lists), Integer.MAX_VALUE));
+        }
+        Assertions.assertEquals(1, timelineDAO.getFeed("@bob").size());
+    }
+
+    @Test
+    public void testTimelineKeepsNewestStatuses() {
+        FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy), 10);
+        FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy));
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, TimelineDAO.DEFAULT_CELEBRITY_THRESHOLD, 3);
+
+        List<Status> statuses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            statuses.add(post(storyDAO, timelineDAO, amy, i * 1000));
+        }
+        Assertions.assertEquals(Arrays.asList(statuses.get(9), statuses.get(8), statuses.get(7)),
+                readAll(FeedIterator.fromStart(timelineDAO.getFeed("@allen")), Integer.MAX_VALUE));
+
+        // Unfollowing removes them, and following again brings back the newest
+        followDAO.unfollow("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        Assertions.assertEquals(0, timelineDAO.getFeed("@allen").get(0).size());
+        followDAO.follow("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        Assertions.assertEquals(Arrays.asList(statuses.get(9), statuses.get(8), statuses.get(7)),
+                readAll(FeedIterator.fromStart(timelineDAO.getFeed("@allen")), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testLateTimelineChangeMatchesFollowGraph() {
+        FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy), 10);
+        FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy));
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, TimelineDAO.DEFAULT_CELEBRITY_THRESHOLD, 100);
+        followDAO.unfollow("@allen", "@amy");
+        Status status = post(storyDAO, timelineDAO, amy, 1000);
+
+        // A follow and an unfollow race: both reach the follow graph, then the unfollow's
+        // timeline change runs before the follow's
+        followDAO.follow("@allen", "@amy");
+        followDAO.unfollow("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        Assertions.assertEquals(0, timelineDAO.getFeed("@allen").get(0).size());
+
+        // And the other way round: unfollow then follow, with the follow's change first
+        followDAO.follow("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        followDAO.unfollow("@allen", "@amy");
+        followDAO.follow("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        timelineDAO.followChanged("@allen", "@amy");
+        Assertions.assertEquals(Collections.singletonList(status),
+                readAll(FeedIterator.fromStart(timelineDAO.getFeed("@allen")), Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testConcurrentFollowsAndUnfollowsMatchFollowGraph() throws InterruptedException {
+        final FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy), 10);
+        FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy));
+        StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        final TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO, TimelineDAO.DEFAULT_CELEBRITY_THRESHOLD, 100);
+        post(storyDAO, timelineDAO, amy, 1000);
+
+        // One thread follows and another unfollows, each then updating the timeline, as
+        // FollowService does
+        Thread[] threads = new Thread[2];
+        for (int t = 0; t < threads.length; t++) {
+            final boolean follow = t == 0;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    if (follow ? followDAO.follow("@allen", "@amy") : followDAO.unfollow("@allen", "@amy")) {
+                        timelineDAO.followChanged("@allen", "@amy");
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int expected = followDAO.isFollowing("@allen", "@amy") ? 1 : 0;
+        Assertions.assertEquals(expected, timelineDAO.getFeed("@allen").get(0).size());
+    }
+
+    private static Status post(StoryDAO storyDAO, TimelineDAO timelineDAO, User user, long timestamp) {
+        Status status = new Status("Post at " + timestamp, user, timestamp, Collections.<String>emptyList(), Collections.<String>emptyList());
+        ImmutableStatus stored = ImmutableStatus.from(status);
+        storyDAO.add(stored);
+        timelineDAO.post(stored);
+        return status;
+    }
+
+    private static List<Status> readAll(FeedIterator iterator, int limit) {
+        List<Status> statuses = new ArrayList<>();
+        while (statuses.size() < limit && iterator.hasNext()) {
+            statuses.add(iterator.next());
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.byu.cs.tweeter.server.dao;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+public class UserSearchIndexTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Allwood", "@bob", null);
+    private final User john = new User("John", "Brown", "@jb", null);
+    private final User johnny = new User("Johnny", "Smith", "@johnny", null);
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new UserSearchIndex(Arrays.asList(johnny, bob, amy, john, allen));
+    }
+
+    @Test
+    public void testMatchesAliasAndNamesInTermOrder() {
+        // "allen" (alias and first name of @allen) < "allwood" (last name of @bob)
+        Assertions.assertEquals(Arrays.asList(allen, bob), index.search("ALL", null, 10).getUsers());
+        Assertions.assertEquals(Arrays.asList(amy), index.search("@AM", null, 10).getUsers());
+        Assertions.assertEquals(Arrays.asList(john), index.search("br", null, 10).getUsers());
+        Assertions.assertTrue(index.search("z", null, 10).getUsers().isEmpty());
+    }
+
+    @Test
+    public void testFurtherWordsMatchOtherTerms() {
+        Assertions.assertEquals(Arrays.asList(john), index.search("john br", null, 10).getUsers());
+        Assertions.assertEquals(Arrays.asList(johnny), index.search("jo sm", null, 10).getUsers());
+        Assertions.assertTrue(index.search("john x", null, 10).getUsers().isEmpty());
+    }
+
+    @Test
+    public void testNarrowerLaterWordKeepsFirstWordOrder() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            users.add(new User("Name" + (i % 97), "Last" + (i % 13), "@user" + i, null));
+        }
+        UserSearchIndex index = new UserSearchIndex(users);
+
+        // Every user matches "name", but only the users named Last12 match "last12"
+        List<User> expected = new ArrayList<>();
+        for (User user : users) {
+            if (user.getLastName().equals("Last12")) {
+                expected.add(user);
+            }
+        }
+        expected.sort(Comparator.comparing((User user) -> user.getFirstName().toLowerCase())
+                .thenComparing(User::getAlias));
+
+        List<User> paged = new ArrayList<>();
+        String lastUserAlias = null;
+        UserSearchIndex.Page page;
+        do {
+            page = index.search("name last12", lastUserAlias, 40);
+            paged.addAll(page.getUsers());
+            lastUserAlias = page.getUsers().isEmpty() ? null : page.getUsers().get(page.getUsers().size() - 1).getAlias();
+        } while (page.getHasMorePages());
+        Assertions.assertEquals(expected, paged);
+        Assertions.assertTrue(index.search("name zzz", null, 40).getUsers().isEmpty());
+    }
+
+    @Test
+    public void testPagesResumeAfterLastUser() {
+        List<User> all = index.search("a", null, 10).getUsers();
+        Assertions.assertEquals(Arrays.asList(allen, bob, amy), all);
+
+        List<User> paged = new ArrayList<>();
+        String lastUserAlias = null;
+        UserSearchIndex.Page page;
+        do {
+            page = index.search("a", lastUserAlias, 1);
+            paged.addAll(page.getUsers());
+            lastUserAlias = page.getUsers().get(0).getAlias();
+        } while (page.getHasMorePages());
+        Assertions.assertEquals(all, paged);
+
+        // A cursor that doesn't match the query is rejected
+        Assertions.assertNull(index.search("a", "@jb", 1));
+        Assertions.assertNull(index.search("a", "@nobody", 1));
+    }
+
+    @Test
+    public void testAddedUsersAreFoundAlongsideIndexedUsers() {
+        User alice = new User("Alice", "Zed", "@alice", null);
+        Assertions.assertTrue(index.add(alice));
+        Assertions.assertFalse(index.add(new User("Other", "User", "@alice", null)));
+        Assertions.assertEquals(6, index.size());
+
+        Assertions.assertEquals(Arrays.asList(alice, allen, bob, amy), index.search("a", null, 10).getUsers());
+        Assertions.assertEquals(Arrays.asList(bob, amy), index.search("a", "@allen", 10).getUsers());
+    }
+
+    @Test
+    public void testManyAddsMatchABulkBuild() {
+        List<User> users = new ArrayList<>();
+        UserSearchIndex incremental = new UserSearchIndex(new ArrayList<User>());
+        // Enough users to merge the delta into the main array several times
+        for (int i = 0; i < 5000; i++) {
+            User user = new User("Name" + (i % 97), "Last" + (i % 13), "@user" + i, null);
+            users.add(user);
+            incremental.add(user);
+        }
+        UserSearchIndex bulk = new UserSearchIndex(users);
+
+        for (String query : new String[] {"user1", "name4", "last1", "user49"}) {
+            Assertions.assertEquals(bulk.search(query, null, 200).getUsers(), incremental.search(query, null, 200).getUsers());
+        }
+        Assertions.assertEquals(1111, bulk.search("user1", null, 5000).getUsers().size());
+    }
+}
@@ -0,0 +1,369 @@
+package edu.byu.cs.tweeter.server.net;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.Trend;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FeedRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.LoginRequest;
+import edu.byu.cs.tweeter.model.net.request.MentionsRequest;
+import edu.byu.cs.tweeter.model.net.request.PostStatusRequest;
+import edu.byu.cs.tweeter.model.net.request.SearchUsersRequest;
+import edu.byu.cs.tweeter.model.net.request.TrendingRequest;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.LoginResponse;
+import edu.byu.cs.tweeter.model.net.response.MentionsResponse;
+import edu.byu.cs.tweeter.model.net.response.SearchUsersResponse;
+import edu.byu.cs.tweeter.model.net.response.TrendingResponse;
+import edu.byu.cs.tweeter.server.TweeterServer;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.codec.UserPageCodec;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+public class HttpServerTest {
+
+    private HttpServer server;
+    private AuthToken authToken;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = TweeterServer.createServer(0, 4);
+
+        // Echoes the body back after sleeping for the number of milliseconds it contains, so
+        // pipelined requests finish out of order
+        server.addHandler("/echo", new HttpHandler() {
+            @Override
+            public HttpResponse handle(HttpRequest request) throws Exception {
+                Thread.sleep(Long.parseLong(request.getBodyAsString()));
+                return HttpResponse.text(HttpResponse.OK, request.getBodyAsString());
+            }
+        });
+        server.start();
+
+        authToken = login();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testPipelinedResponsesAreInRequestOrder() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            ByteArrayOutputStream requests = new ByteArrayOutputStream();
+            requests.write(RawHttpClient.post("/echo", "200"));
+            requests.write(RawHttpClient.post("/echo", "0"));
+            requests.write(RawHttpClient.post("/echo", "50"));
+            client.send(requests.toByteArray());
+
+            Assertions.assertEquals("200", client.readResponse().bodyAsString());
+            Assertions.assertEquals("0", client.readResponse().bodyAsString());
+            Assertions.assertEquals("50", client.readResponse().bodyAsString());
+        }
+    }
+
+    @Test
+    public void testConnectionIsKeptAlive() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            for (int i = 0; i < 3; i++) {
+                client.send(RawHttpClient.post("/echo", "0"));
+                RawHttpClient.Response response = client.readResponse();
+                Assertions.assertEquals(HttpResponse.OK, response.status);
+                Assertions.assertEquals("keep-alive", response.headers.get("connection"));
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionCloseIsHonored() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/echo", "0", "Connection: close"));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals("close", response.headers.get("connection"));
+            Assertions.assertNull(client.readResponse());
+        }
+    }
+
+    @Test
+    public void testMalformedRequestIsRejected() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send("NOT-HTTP\r\n\r\n".getBytes());
+
+            Assertions.assertEquals(HttpResponse.BAD_REQUEST, client.readResponse().status);
+            Assertions.assertNull(client.readResponse());
+        }
+    }
+
+    @Test
+    public void testUnknownPathReturnsNotFound() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/nothing", "{}"));
+            Assertions.assertEquals(HttpResponse.NOT_FOUND, client.readResponse().status);
+        }
+    }
+
+    @Test
+    public void testGetFollowing() throws Exception {
+        FollowingRequest request = new FollowingRequest(authToken, "@allen", 5, null);
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", JsonSerializer.serialize(request)));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+
+            FollowingResponse followingResponse = JsonSerializer.deserialize(response.bodyAsString(), FollowingResponse.class);
+            Assertions.assertTrue(followingResponse.isSuccess());
+            Assertions.assertTrue(followingResponse.getHasMorePages());
+            Assertions.assertEquals(5, followingResponse.getFollowees().size());
+            Assertions.assertNotNull(followingResponse.getVersion());
+        }
+    }
+
+    @Test
+    public void testSearchUsers() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/searchusers", JsonSerializer.serialize(new SearchUsersRequest(authToken, "Isaac", 1, null))));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+            SearchUsersResponse first = JsonSerializer.deserialize(response.bodyAsString(), SearchUsersResponse.class);
+            Assertions.assertEquals("@igor", first.getUsers().get(0).getAlias());
+            Assertions.assertTrue(first.getHasMorePages());
+
+            client.send(RawHttpClient.post("/searchusers", JsonSerializer.serialize(new SearchUsersRequest(authToken, "Isaac", 1, "@igor"))));
+
+            response = client.readResponse();
+            SearchUsersResponse second = JsonSerializer.deserialize(response.bodyAsString(), SearchUsersResponse.class);
+            Assertions.assertEquals("@isabel", second.getUsers().get(0).getAlias());
+            Assertions.assertFalse(second.getHasMorePages());
+        }
+    }
+
+    @Test
+    public void testGetMentions() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getmentions", JsonSerializer.serialize(new MentionsRequest(authToken, "@amy", 10, null))));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+            MentionsResponse mentionsResponse = JsonSerializer.deserialize(response.bodyAsString(), MentionsResponse.class);
+            Assertions.assertFalse(mentionsResponse.getHasMorePages());
+            // The fake data has each user mention the next one, twice
+            Assertions.assertEquals(2, mentionsResponse.getStatuses().size());
+            Assertions.assertTrue(mentionsResponse.getStatuses().get(0).getTimestamp() > mentionsResponse.getStatuses().get(1).getTimestamp());
+            Assertions.assertTrue(mentionsResponse.getStatuses().get(0).getMentions().contains("@amy"));
+        }
+    }
+
+    @Test
+    public void testFeedPagesFollowCursor() throws Exception {
+        List<Status> feed = new ArrayList<>();
+        String cursor = null;
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            do {
+                client.send(RawHttpClient.post("/getfeed", JsonSerializer.serialize(new FeedRequest(authToken, "@allen", 15, null, cursor))));
+
+                RawHttpClient.Response response = client.readResponse();
+                Assertions.assertEquals(HttpResponse.OK, response.status);
+                FeedResponse feedResponse = JsonSerializer.deserialize(response.bodyAsString(), FeedResponse.class);
+                feed.addAll(feedResponse.getStatuses());
+                Assertions.assertEquals(feedResponse.getHasMorePages(), feedResponse.getCursor() != null);
+                cursor = feedResponse.getCursor();
+            } while (cursor != null);
+        }
+
+        // Everyone else's statuses in the fake data, newest first, each once
+        Assertions.assertTrue(feed.size() >= 40);
+        for (int i = 1; i < feed.size(); i++) {
+            Assertions.assertTrue(feed.get(i - 1).getTimestamp() >= feed.get(i).getTimestamp());
+            Assertions.assertNotEquals("@allen", feed.get(i).getUser().getAlias());
+        }
+    }
+
+    @Test
+    public void testPostedStatusesTrend() throws Exception {
+        User allen = new User("Allen", "Anderson", "@allen", null);
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            for (int i = 0; i < 3; i++) {
+                // The server finds the mentions and URLs in the post
+                Status status = new Status("Post " + i + " @trending @trending https://trending.example", allen, 0,
+                        Collections.<String>emptyList(), Collections.<String>emptyList());
+                client.send(RawHttpClient.post("/poststatus", JsonSerializer.serialize(new PostStatusRequest(authToken, status))));
+                Assertions.assertEquals(HttpResponse.OK, client.readResponse().status);
+            }
+
+            client.send(RawHttpClient.post("/gettrending", JsonSerializer.serialize(new TrendingRequest(authToken, 50))));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+            TrendingResponse trendingResponse = JsonSerializer.deserialize(response.bodyAsString(), TrendingResponse.class);
+            // A status that mentions a user twice counts once
+            Assertions.assertTrue(trendingResponse.getMentions().contains(new Trend("@trending", 3)));
+            Assertions.assertTrue(trendingResponse.getUrls().contains(new Trend("https://trending.example", 3)));
+        }
+    }
+
+    @Test
+    public void testStatusOfAnotherUserIsRejected() throws Exception {
+        Status status = new Status("Post", new User("Amy", "Ames", "@amy", null), System.currentTimeMillis(),
+                Collections.<String>emptyList(), Collections.<String>emptyList());
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/poststatus", JsonSerializer.serialize(new PostStatusRequest(authToken, status))));
+
+            Assertions.assertEquals(HttpResponse.BAD_REQUEST, client.readResponse().status);
+        }
+    }
+
+    @Test
+    public void testBadRequestReturnsMessage() throws Exception {
+        FollowingRequest request = new FollowingRequest(authToken, null, 5, null);
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", JsonSerializer.serialize(request)));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.BAD_REQUEST, response.status);
+            Assertions.assertTrue(response.bodyAsString().contains("[Bad Request]"));
+        }
+    }
+
+    @Test
+    public void testInvalidAuthTokenIsUnauthorized() throws Exception {
+        FollowingRequest request = new FollowingRequest(new AuthToken("not-a-token"), "@allen", 5, null);
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", JsonSerializer.serialize(request)));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.UNAUTHORIZED, response.status);
+            Assertions.assertTrue(response.bodyAsString().contains("[Unauthorized]"));
+        }
+    }
+
+    @Test
+    public void testLoginRejectsUnknownUser() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/login", JsonSerializer.serialize(new LoginRequest("nobody", "password"))));
+            Assertions.assertEquals(HttpResponse.UNAUTHORIZED, client.readResponse().status);
+
+            client.send(RawHttpClient.post("/login", JsonSerializer.serialize(new LoginRequest("@amy", "password"))));
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+            Assertions.assertEquals("@amy", JsonSerializer.deserialize(response.bodyAsString(), LoginResponse.class).getUser().getAlias());
+        }
+    }
+
+    @Test
+    public void testMatchingEtagReturnsNotModified() throws Exception {
+        String body = JsonSerializer.serialize(new FollowingRequest(authToken, "@allen", 5, null));
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", body));
+            RawHttpClient.Response first = client.readResponse();
+            String etag = first.headers.get("etag");
+            Assertions.assertNotNull(etag);
+
+            client.send(RawHttpClient.post("/getfollowing", body, "If-None-Match: " + etag));
+            RawHttpClient.Response second = client.readResponse();
+            Assertions.assertEquals(HttpResponse.NOT_MODIFIED, second.status);
+            Assertions.assertEquals(etag, second.headers.get("etag"));
+            Assertions.assertEquals(0, second.body.length);
+
+            // The connection is still usable after a response without a body
+            client.send(RawHttpClient.post("/getfollowing", body, "If-None-Match: \"stale\""));
+            Assertions.assertEquals(HttpResponse.OK, client.readResponse().status);
+        }
+    }
+
+    @Test
+    public void testResponseIsGzippedWhenAccepted() throws Exception {
+        String body = JsonSerializer.serialize(new FollowingRequest(authToken, "@allen", 10, null));
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", body));
+            RawHttpClient.Response plain = client.readResponse();
+            Assertions.assertNull(plain.headers.get("content-encoding"));
+
+            client.send(RawHttpClient.post("/getfollowing", body, "Accept-Encoding: gzip"));
+            RawHttpClient.Response compressed = client.readResponse();
+            Assertions.assertEquals("gzip", compressed.headers.get("content-encoding"));
+            Assertions.assertTrue(compressed.body.length < plain.body.length);
+            // The two bodies differ, so the tag they share is weak
+            Assertions.assertTrue(plain.headers.get("etag").startsWith("W/"));
+            Assertions.assertEquals(plain.headers.get("etag"), compressed.headers.get("etag"));
+            Assertions.assertEquals(plain.bodyAsString(), gunzip(compressed.body));
+        }
+    }
+
+    @Test
+    public void testUserPageEncodingIsSentWhenAccepted() throws Exception {
+        String body = JsonSerializer.serialize(new FollowingRequest(authToken, "@allen", 10, null));
+
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/getfollowing", body, "Accept: */*"));
+            RawHttpClient.Response json = client.readResponse();
+            Assertions.assertTrue(json.headers.get("content-type").startsWith("application/json"));
+
+            client.send(RawHttpClient.post("/getfollowing", body, "Accept: " + UserPageCodec.CONTENT_TYPE + ", application/json;q=0.5"));
+            RawHttpClient.Response compact = client.readResponse();
+            Assertions.assertEquals(UserPageCodec.CONTENT_TYPE, compact.headers.get("content-type"));
+            Assertions.assertEquals("Accept", compact.headers.get("vary"));
+            Assertions.assertTrue(compact.body.length < json.body.length);
+
+            final List<User> users = new ArrayList<>();
+            PageParser.PageInfo page = UserPageCodec.decode(new ByteArrayInputStream(compact.body), new PageParser.ItemHandler<User>() {
+                @Override
+                public void handleItem(User user) {
+                    users.add(user);
+                }
+            });
+            FollowingResponse expected = JsonSerializer.deserialize(json.bodyAsString(), FollowingResponse.class);
+            Assertions.assertEquals(expected.getFollowees(), users);
+            Assertions.assertEquals(expected.getHasMorePages(), page.getHasMorePages());
+            Assertions.assertEquals(expected.getVersion(), page.getVersion());
+        }
+    }
+
+    private AuthToken login() throws Exception {
+        try (RawHttpClient client = new RawHttpClient(server.getPort())) {
+            client.send(RawHttpClient.post("/login", JsonSerializer.serialize(new LoginRequest("allen", "password"))));
+
+            RawHttpClient.Response response = client.readResponse();
+            Assertions.assertEquals(HttpResponse.OK, response.status);
+            return JsonSerializer.deserialize(response.bodyAsString(), LoginResponse.class).getAuthToken();
+        }
+    }
+
+    private static String gunzip(byte[] body) throws Exception {
+        StringBuilder text = new StringBuilder();
+        try (Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(body)), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[1024];
+            int count;
+            while ((count = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, count);
+            }
+        }
+        return text.toString();
+    }
+}
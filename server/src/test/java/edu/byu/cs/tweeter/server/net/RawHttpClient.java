@@ -0,0 +1,119 @@
+package edu.byu.cs.tweeter.server.net;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A minimal blocking HTTP/1.1 client for tests and benchmarks. It writes raw requests, so tests
+ * can pipeline several requests in one write, and reads responses one at a time.
+ */
+public class RawHttpClient implements AutoCloseable {
+
+    private final Socket socket;
+    private final InputStream in;
+    private final OutputStream out;
+
+    public RawHttpClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new BufferedInputStream(socket.getInputStream());
+        out = socket.getOutputStream();
+    }
+
+    public static byte[] post(String path, String body, String... extraHeaders) {
+        byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+        StringBuilder request = new StringBuilder();
+        request.append("POST ").append(path).append(" HTTP/1.1\r\n");
+        request.append("Host: localhost\r\n");
+        request.append("Content-Type: application/json\r\n");
+        request.append("Content-Length: ").append(bodyBytes.length).append("\r\n");
+        for (String header : extraHeaders) {
+            request.append(header).append("\r\n");
+        }
+        request.append("\r\n");
+
+        byte[] head = request.toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] bytes = new byte[head.length + bodyBytes.length];
+        System.arraycopy(head, 0, bytes, 0, head.length);
+        System.arraycopy(bodyBytes, 0, bytes, head.length, bodyBytes.length);
+        return bytes;
+    }
+
+    public void send(byte[] requests) throws IOException {
+        out.write(requests);
+        out.flush();
+    }
+
+    /**
+     * Reads one response.
+     *
+     * @return the response, or null if the server closed the connection.
+     */
+    public Response readResponse() throws IOException {
+        String statusLine = readLine();
+        if (statusLine == null) {
+            return null;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        String line;
+        while ((line = readLine()) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+        }
+
+        int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+        byte[] body = new byte[length];
+        int read = 0;
+        while (read < length) {
+            int count = in.read(body, read, length - read);
+            if (count < 0) {
+                throw new IOException("Connection closed in the middle of a response");
+            }
+            read += count;
+        }
+
+        return new Response(Integer.parseInt(statusLine.split(" ")[1]), headers, body);
+    }
+
+    private String readLine() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) >= 0) {
+            if (b == '\n') {
+                return line.toString(StandardCharsets.ISO_8859_1.name()).trim();
+            }
+            line.write(b);
+        }
+        return (line.size() == 0) ? null : line.toString(StandardCharsets.ISO_8859_1.name());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    public static class Response {
+        public final int status;
+        public final Map<String, String> headers;
+        public final byte[] body;
+
+        Response(int status, Map<String, String> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public String bodyAsString() {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package edu.byu.cs.tweeter.server.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.FollowChange;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.FollowCountsRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest;
+import edu.byu.cs.tweeter.model.net.request.FollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.IsFollowingRequest;
+import edu.byu.cs.tweeter.model.net.request.UnfollowRequest;
+import edu.byu.cs.tweeter.model.net.response.FollowCountsResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingDeltaResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.server.dao.AuthTokenDAO;
+import edu.byu.cs.tweeter.server.dao.FollowCountDAO;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.StoryDAO;
+import edu.byu.cs.tweeter.server.dao.TimelineDAO;
+
+public class FollowServiceTest {
+
+    private static final int MAX_CHANGES_PER_USER = 3;
+
+    private AuthTokenDAO authTokenDAO;
+    private AuthToken authToken;
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+    private final User bonnie = new User("Bonnie", "Beatty", "@bonnie", null);
+
+    private FollowService followService;
+
+    @BeforeEach
+    public void setup() {
+        final FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy, bob, bonnie), MAX_CHANGES_PER_USER);
+        final FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy, bob, bonnie));
+        final TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, new StoryDAO(Collections.<Status>emptyList()),
+                TimelineDAO.DEFAULT_CELEBRITY_THRESHOLD, TimelineDAO.DEFAULT_TIMELINE_CAPACITY);
+        authTokenDAO = new AuthTokenDAO(AuthTokenDAO.DEFAULT_IDLE_TIMEOUT_MILLIS, AuthTokenDAO.DEFAULT_WHEEL_SIZE);
+        authToken = authTokenDAO.issue("@allen");
+        followService = new FollowService() {
+            @Override
+            public FollowDAO getFollowDAO() {
+                return followDAO;
+            }
+
+            @Override
+            public FollowCountDAO getFollowCountDAO() {
+                return followCountDAO;
+            }
+
+            @Override
+            public TimelineDAO getTimelineDAO() {
+                return timelineDAO;
+            }
+
+            @Override
+            public AuthTokenDAO getAuthTokenDAO() {
+                return authTokenDAO;
+            }
+        };
+    }
+
+    @Test
+    public void testPagesAreOrderedByAlias() {
+        FollowingResponse first = followService.getFollowees(new FollowingRequest(authToken, "@bob", 2, null));
+        Assertions.assertEquals(Arrays.asList(allen, amy), first.getFollowees());
+        Assertions.assertTrue(first.getHasMorePages());
+
+        FollowingResponse second = followService.getFollowees(new FollowingRequest(authToken, "@bob", 2, "@amy"));
+        Assertions.assertEquals(Arrays.asList(bonnie), second.getFollowees());
+        Assertions.assertFalse(second.getHasMorePages());
+    }
+
+    @Test
+    public void testCountsFollowFollowsAndUnfollows() {
+        FollowCountsResponse counts = followService.getFollowCounts(new FollowCountsRequest(authToken, "@bob"));
+        Assertions.assertEquals(3, counts.getFollowerCount());
+        Assertions.assertEquals(3, counts.getFolloweeCount());
+
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@bob"));
+        followService.unfollow(new UnfollowRequest(tokenFor("@amy"), "@amy", "@bob"));
+        // Unfollowing again changes nothing
+        followService.unfollow(new UnfollowRequest(tokenFor("@amy"), "@amy", "@bob"));
+        followService.unfollow(new UnfollowRequest(tokenFor("@bob"), "@bob", "@allen"));
+
+        counts = followService.getFollowCounts(new FollowCountsRequest(authToken, "@bob"));
+        Assertions.assertEquals(1, counts.getFollowerCount());
+        Assertions.assertEquals(2, counts.getFolloweeCount());
+        Assertions.assertEquals(2, followService.getFollowCounts(new FollowCountsRequest(authToken, "@allen")).getFollowerCount());
+    }
+
+    @Test
+    public void testIsFollowingChecksEachUserOnAPage() {
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@bob"));
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@amy"));
+        followService.follow(new FollowRequest(authToken, "@allen", "@amy"));
+
+        boolean[] following = followService.isFollowing(new IsFollowingRequest(authToken, "@allen",
+                Arrays.asList("@amy", "@bob", "@bonnie", "@allen", "@nobody"))).getFollowing();
+        Assertions.assertArrayEquals(new boolean[] { true, false, true, false, false }, following);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.isFollowing(new IsFollowingRequest(authToken, "@nobody", Arrays.asList("@amy"))));
+    }
+
+    @Test
+    public void testDeltaContainsOnlyChangesSinceVersion() {
+        String version = followService.getFollowees(new FollowingRequest(authToken, "@allen", 10, null)).getVersion();
+
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@bob"));
+        // Changes to other users' lists are not included
+        followService.unfollow(new UnfollowRequest(tokenFor("@amy"), "@amy", "@bob"));
+        followService.follow(new FollowRequest(authToken, "@allen", "@bob"));
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@amy"));
+
+        FollowingDeltaResponse delta = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", version));
+
+        Assertions.assertTrue(delta.isSuccess());
+        Assertions.assertFalse(delta.isResyncRequired());
+        Assertions.assertEquals(Arrays.asList(
+                new FollowChange(FollowChange.Type.UNFOLLOW, bob),
+                new FollowChange(FollowChange.Type.FOLLOW, bob),
+                new FollowChange(FollowChange.Type.UNFOLLOW, amy)), delta.getChanges());
+
+        // Nothing has changed since the new version
+        FollowingDeltaResponse empty = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", delta.getVersion()));
+        Assertions.assertFalse(empty.isResyncRequired());
+        Assertions.assertTrue(empty.getChanges().isEmpty());
+        Assertions.assertEquals(delta.getVersion(), empty.getVersion());
+    }
+
+    @Test
+    public void testApplyingDeltaMatchesFullReload() {
+        FollowingResponse original = followService.getFollowees(new FollowingRequest(authToken, "@allen", 10, null));
+        List<User> cached = new ArrayList<>(original.getFollowees());
+
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@amy"));
+        followService.follow(new FollowRequest(authToken, "@allen", "@amy"));
+        followService.unfollow(new UnfollowRequest(authToken, "@allen", "@bonnie"));
+
+        FollowingDeltaResponse delta = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", original.getVersion()));
+        for (FollowChange change : delta.getChanges()) {
+            cached.remove(change.getFollowee());
+            if (change.getType() == FollowChange.Type.FOLLOW) {
+                cached.add(change.getFollowee());
+            }
+        }
+        cached.sort(null);
+
+        Assertions.assertEquals(followService.getFollowees(new FollowingRequest(authToken, "@allen", 10, null)).getFollowees(), cached);
+    }
+
+    @Test
+    public void testCompactedLogRequiresResync() {
+        String version = followService.getFollowees(new FollowingRequest(authToken, "@allen", 10, null)).getVersion();
+
+        for (int i = 0; i <= MAX_CHANGES_PER_USER; i++) {
+            followService.unfollow(new UnfollowRequest(authToken, "@allen", "@amy"));
+            followService.follow(new FollowRequest(authToken, "@allen", "@amy"));
+        }
+
+        FollowingDeltaResponse delta = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", version));
+
+        Assertions.assertTrue(delta.isSuccess());
+        Assertions.assertTrue(delta.isResyncRequired());
+        Assertions.assertTrue(delta.getChanges().isEmpty());
+    }
+
+    @Test
+    public void testUnknownVersionRequiresResync() {
+        FollowingDeltaResponse otherEpoch = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", "0123abcd.0"));
+        Assertions.assertTrue(otherEpoch.isResyncRequired());
+
+        FollowingDeltaResponse missing = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", null));
+        Assertions.assertTrue(missing.isResyncRequired());
+    }
+
+    @Test
+    public void testRepeatedFollowIsNotLogged() {
+        String version = followService.getFollowees(new FollowingRequest(authToken, "@allen", 10, null)).getVersion();
+
+        followService.follow(new FollowRequest(authToken, "@allen", "@amy"));
+
+        FollowingDeltaResponse delta = followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@allen", version));
+        Assertions.assertTrue(delta.getChanges().isEmpty());
+        Assertions.assertEquals(version, delta.getVersion());
+    }
+
+    @Test
+    public void testFollowsCanOnlyBeChangedByTheLoggedInUser() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.follow(new FollowRequest(authToken, "@amy", "@bonnie")));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.unfollow(new UnfollowRequest(authToken, "@amy", "@bob")));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.getFollowingDelta(new FollowingDeltaRequest(authToken, "@amy", null)));
+
+        Assertions.assertEquals(3, followService.getFollowCounts(new FollowCountsRequest(authToken, "@bob")).getFollowerCount());
+    }
+
+    @Test
+    public void testFollowingSelfIsRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.follow(new FollowRequest(authToken, "@allen", "@allen")));
+        Assertions.assertThrows(IllegalArgumentException.class, () ->
+                followService.follow(new FollowRequest(authToken, "@allen", "@nobody")));
+    }
+
+    private AuthToken tokenFor(String alias) {
+        return authTokenDAO.issue(alias);
+    }
+}
@@ -0,0 +1,118 @@
+package edu.byu.cs.tweeter.server.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.request.MentionsRequest;
+import edu.byu.cs.tweeter.model.net.request.PostStatusRequest;
+import edu.byu.cs.tweeter.model.net.request.StoryRequest;
+import edu.byu.cs.tweeter.server.dao.AuthTokenDAO;
+import edu.byu.cs.tweeter.server.dao.FollowCountDAO;
+import edu.byu.cs.tweeter.server.dao.FollowDAO;
+import edu.byu.cs.tweeter.server.dao.HeavyHitters;
+import edu.byu.cs.tweeter.server.dao.MentionIndex;
+import edu.byu.cs.tweeter.server.dao.StoryDAO;
+import edu.byu.cs.tweeter.server.dao.TimelineDAO;
+import edu.byu.cs.tweeter.server.dao.TrendingDAO;
+
+public class StatusServiceTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private AuthToken authToken;
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+    private final User bob = new User("Bob", "Bobson", "@bob", null);
+
+    private StatusService statusService;
+
+    @BeforeEach
+    public void setup() {
+        final FollowDAO followDAO = new FollowDAO(Arrays.asList(allen, amy, bob), 3);
+        final FollowCountDAO followCountDAO = FollowCountDAO.load(followDAO, Arrays.asList(allen, amy, bob));
+        final StoryDAO storyDAO = new StoryDAO(Collections.<Status>emptyList());
+        final TimelineDAO timelineDAO = new TimelineDAO(followDAO, followCountDAO, storyDAO,
+                TimelineDAO.DEFAULT_CELEBRITY_THRESHOLD, TimelineDAO.DEFAULT_TIMELINE_CAPACITY);
+        final MentionIndex mentionIndex = new MentionIndex(Collections.<Status>emptyList());
+        final TrendingDAO trendingDAO = new TrendingDAO(new HeavyHitters(10, 60_000, 6, 0.01, 0.01),
+                new HeavyHitters(10, 60_000, 6, 0.01, 0.01));
+        final AuthTokenDAO authTokenDAO = new AuthTokenDAO(AuthTokenDAO.DEFAULT_IDLE_TIMEOUT_MILLIS, AuthTokenDAO.DEFAULT_WHEEL_SIZE);
+        authToken = authTokenDAO.issue("@allen");
+        statusService = new StatusService() {
+            @Override
+            public StoryDAO getStoryDAO() {
+                return storyDAO;
+            }
+
+            @Override
+            public FollowDAO getFollowDAO() {
+                return followDAO;
+            }
+
+            @Override
+            public TimelineDAO getTimelineDAO() {
+                return timelineDAO;
+            }
+
+            @Override
+            public MentionIndex getMentionIndex() {
+                return mentionIndex;
+            }
+
+            @Override
+            public TrendingDAO getTrendingDAO() {
+                return trendingDAO;
+            }
+
+            @Override
+            public AuthTokenDAO getAuthTokenDAO() {
+                return authTokenDAO;
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return NOW;
+            }
+        };
+    }
+
+    @Test
+    public void testServerStampsPostedStatus() {
+        // Everything but the post is the client's claim and is replaced
+        User claimed = new User("Someone", "Else", "@allen", "https://example.com/fake.png");
+        Status status = new Status("Hi @amy and @bob (see https://byu.edu/x.) or mail a@b.com @amy", claimed, 1,
+                Collections.singletonList("https://spam.example"), Collections.singletonList("@bob"));
+        statusService.postStatus(new PostStatusRequest(authToken, status));
+
+        List<Status> story = statusService.getStory(new StoryRequest(authToken, "@allen", 10, null)).getStatuses();
+        Assertions.assertEquals(1, story.size());
+        Status posted = story.get(0);
+        Assertions.assertEquals(status.getPost(), posted.getPost());
+        Assertions.assertEquals(allen, posted.getUser());
+        Assertions.assertEquals(NOW, posted.getTimestamp());
+        Assertions.assertEquals(Arrays.asList("@amy", "@bob"), posted.getMentions());
+        Assertions.assertEquals(Collections.singletonList("https://byu.edu/x"), posted.getUrls());
+
+        Assertions.assertEquals(1, statusService.getMentions(new MentionsRequest(authToken, "@amy", 10, null)).getStatuses().size());
+    }
+
+    @Test
+    public void testStatusNeedsAPostAndTheLoggedInUser() {
+        Status noUser = new Status("Hello", null, 0, null, null);
+        statusService.postStatus(new PostStatusRequest(authToken, noUser));
+        Assertions.assertEquals(allen, statusService.getStory(new StoryRequest(authToken, "@allen", 10, null)).getStatuses().get(0).getUser());
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> statusService.postStatus(
+                new PostStatusRequest(authToken, new Status(null, allen, 0, null, null))));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> statusService.postStatus(
+                new PostStatusRequest(authToken, new Status("Hello", amy, 0, null, null))));
+    }
+}
@@ -0,0 +1,63 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents one change to the list of users a user is following: either a user was followed or
+ * a user was unfollowed.
+ */
+public class FollowChange implements Serializable {
+
+    public enum Type {
+        FOLLOW,
+        UNFOLLOW
+    }
+
+    /**
+     * Whether the user was followed or unfollowed.
+     */
+    public Type type;
+    /**
+     * The user who was followed or unfollowed.
+     */
+    public User followee;
+
+    public FollowChange() {
+    }
+
+    public FollowChange(Type type, User followee) {
+        this.type = type;
+        this.followee = followee;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public User getFollowee() {
+        return followee;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FollowChange that = (FollowChange) o;
+        return type == that.type &&
+                Objects.equals(followee, that.followee);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, followee);
+    }
+
+    @Override
+    public String toString() {
+        return "FollowChange{" +
+                "type=" + type +
+                ", followee=" + (followee == null ? null : followee.getAlias()) +
+                '}';
+    }
+}
@@ -0,0 +1,186 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable status, for use as a key in caches and indexes. Its hash code is computed once,
+ * when it is built, and equality checks the hash codes before comparing the fields. The URLs
+ * and mentions are kept as {@link ImmutableStringList}s.
+ * <p>
+ * {@link Status} remains the type sent in requests and responses; {@link #from} and
+ * {@link #toStatus} convert between the two.
+ */
+public final class ImmutableStatus implements Serializable {
+
+    private final String post;
+    private final User user;
+    private final long timestamp;
+    private final ImmutableStringList urls;
+    private final ImmutableStringList mentions;
+    private final int hash;
+
+    private ImmutableStatus(Builder builder) {
+        this.post = Objects.requireNonNull(builder.post, "post");
+        this.user = Objects.requireNonNull(builder.user, "user");
+        this.timestamp = builder.timestamp;
+        this.urls = builder.urls;
+        this.mentions = builder.mentions;
+
+        int hash = post.hashCode();
+        hash = 31 * hash + user.hashCode();
+        hash = 31 * hash + Long.hashCode(timestamp);
+        hash = 31 * hash + urls.hashCode();
+        hash = 31 * hash + mentions.hashCode();
+        this.hash = hash;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns an immutable copy of a status.
+     *
+     * @param status the status.
+     * @return the copy.
+     */
+    public static ImmutableStatus from(Status status) {
+        return builder()
+                .post(status.getPost())
+                .user(status.getUser())
+                .timestamp(status.getTimestamp())
+                .urls(status.getUrls())
+                .mentions(status.getMentions())
+                .build();
+    }
+
+    /**
+     * Returns a mutable copy, e.g. to send in a response.
+     *
+     * @return the copy.
+     */
+    public Status toStatus() {
+        return new Status(post, user, timestamp, urls, mentions);
+    }
+
+    public String getPost() {
+        return post;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public List<String> getUrls() {
+        return urls;
+    }
+
+    public List<String> getMentions() {
+        return mentions;
+    }
+
+    /**
+     * Returns a copy with a different user (e.g. with the user's current details).
+     *
+     * @param user the user.
+     * @return the copy.
+     */
+    public ImmutableStatus withUser(User user) {
+        return toBuilder().user(user).build();
+    }
+
+    public Builder toBuilder() {
+        return builder().post(post).user(user).timestamp(timestamp).urls(urls).mentions(mentions);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ImmutableStatus that = (ImmutableStatus) o;
+        return hash == that.hash &&
+                timestamp == that.timestamp &&
+                post.equals(that.post) &&
+                user.equals(that.user) &&
+                mentions.equals(that.mentions) &&
+                urls.equals(that.urls);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableStatus{" +
+                "post='" + post + '\'' +
+                ", user=" + user +
+                ", timestamp=" + timestamp +
+                ", mentions=" + mentions +
+                ", urls=" + urls +
+                '}';
+    }
+
+    /**
+     * Builds an {@link ImmutableStatus}. The post and user are required.
+     */
+    public static final class Builder {
+        private String post;
+        private User user;
+        private long timestamp;
+        private ImmutableStringList urls = ImmutableStringList.of();
+        private ImmutableStringList mentions = ImmutableStringList.of();
+
+        private Builder() {
+        }
+
+        public Builder post(String post) {
+            this.post = post;
+            return this;
+        }
+
+        public Builder user(User user) {
+            this.user = user;
+            return this;
+        }
+
+        public Builder timestamp(long timestamp) {
+            this.timestamp = timestamp;
+            return this;
+        }
+
+        /**
+         * Sets the URLs in the post. They are copied.
+         *
+         * @param urls the URLs (can be null, for none).
+         * @return this builder.
+         */
+        public Builder urls(Collection<String> urls) {
+            this.urls = ImmutableStringList.copyOf(urls);
+            return this;
+        }
+
+        /**
+         * Sets the user mentions in the post. They are copied.
+         *
+         * @param mentions the mentions (can be null, for none).
+         * @return this builder.
+         */
+        public Builder mentions(Collection<String> mentions) {
+            this.mentions = ImmutableStringList.copyOf(mentions);
+            return this;
+        }
+
+        public ImmutableStatus build() {
+            return new ImmutableStatus(this);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of strings, stored as an exact-size array, with its hash code computed when
+ * it is created. It is equal to, and hashes the same as, any other {@link List} with the same
+ * strings.
+ */
+public final class ImmutableStringList extends AbstractList<String> implements RandomAccess, Serializable {
+
+    private static final ImmutableStringList EMPTY = new ImmutableStringList(new String[0]);
+
+    private final String[] values;
+    private final int hash;
+
+    private ImmutableStringList(String[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);  // The same as List.hashCode
+    }
+
+    public static ImmutableStringList of() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns an immutable copy of some strings.
+     *
+     * @param values the strings (can be null, for an empty list).
+     * @return the list (the same instance if the strings are already an ImmutableStringList).
+     */
+    public static ImmutableStringList copyOf(Collection<String> values) {
+        if (values instanceof ImmutableStringList) {
+            return (ImmutableStringList) values;
+        } else if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        return new ImmutableStringList(values.toArray(new String[0]));
+    }
+
+    @Override
+    public String get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof ImmutableStringList) {
+            ImmutableStringList that = (ImmutableStringList) o;
+            return hash == that.hash && Arrays.equals(values, that.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
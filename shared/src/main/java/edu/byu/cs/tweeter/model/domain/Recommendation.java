@@ -0,0 +1,58 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents a user recommended to follow, with the number of users the recipient follows who
+ * already follow them.
+ */
+public class Recommendation implements Serializable {
+
+    /**
+     * The recommended user.
+     */
+    public User user;
+    /**
+     * The number of the recipient's followees who follow the recommended user.
+     */
+    public int connectionCount;
+
+    public Recommendation() {
+    }
+
+    public Recommendation(User user, int connectionCount) {
+        this.user = user;
+        this.connectionCount = connectionCount;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public int getConnectionCount() {
+        return connectionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Recommendation that = (Recommendation) o;
+        return connectionCount == that.connectionCount &&
+                Objects.equals(user, that.user);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(user, connectionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "Recommendation{" +
+                "user=" + user +
+                ", connectionCount=" + connectionCount +
+                '}';
+    }
+}
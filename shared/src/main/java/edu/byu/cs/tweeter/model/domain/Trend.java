@@ -0,0 +1,59 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Represents a mention or URL that is trending, with an estimate of how many recent statuses
+ * contain it.
+ */
+public class Trend implements Serializable {
+
+    /**
+     * The mentioned alias or the URL.
+     */
+    public String term;
+    /**
+     * The estimated number of recent statuses containing the term. Never lower than the real
+     * number.
+     */
+    public int count;
+
+    public Trend() {
+    }
+
+    public Trend(String term, int count) {
+        this.term = term;
+        this.count = count;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Trend trend = (Trend) o;
+        return count == trend.count &&
+                Objects.equals(term, trend.term);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(term, count);
+    }
+
+    @Override
+    public String toString() {
+        return "Trend{" +
+                "term='" + term + '\'' +
+                ", count=" + count +
+                '}';
+    }
+}
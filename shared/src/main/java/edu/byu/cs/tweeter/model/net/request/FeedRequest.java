@@ -0,0 +1,71 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Status;
+
+/**
+ * Contains all the information needed to make a request to have the server return the next page of
+ * statuses posted by the users a user is following.
+ */
+public class FeedRequest extends PagedRequest {
+
+    private Status lastStatus;
+    private String cursor;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FeedRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose feed is to be returned.
+     * @param limit the maximum number of statuses to return.
+     * @param lastStatus the last status that was returned in the previous request (null if there
+     *                   was no previous request or if no statuses were returned in the previous
+     *                   request).
+     */
+    public FeedRequest(AuthToken authToken, String userAlias, int limit, Status lastStatus) {
+        super(authToken, userAlias, limit);
+        this.lastStatus = lastStatus;
+    }
+
+    /**
+     * Creates an instance that can resume from the cursor of a previous page.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose feed is to be returned.
+     * @param limit the maximum number of statuses to return.
+     * @param lastStatus the last status that was returned in the previous request (can be null).
+     * @param cursor the cursor returned with the previous page (null for the first page). Used
+     *               instead of the last status when both are given.
+     */
+    public FeedRequest(AuthToken authToken, String userAlias, int limit, Status lastStatus, String cursor) {
+        this(authToken, userAlias, limit, lastStatus);
+        this.cursor = cursor;
+    }
+
+    public Status getLastStatus() {
+        return lastStatus;
+    }
+
+    public void setLastStatus(Status lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+
+    /**
+     * Returns the cursor returned with the previous page. When set, it is used instead of the
+     * last status.
+     *
+     * @return the cursor, or null.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,45 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server return the number of
+ * followers and followees of a user.
+ */
+public class FollowCountsRequest {
+
+    private AuthToken authToken;
+    private String userAlias;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowCountsRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose counts are to be returned.
+     */
+    public FollowCountsRequest(AuthToken authToken, String userAlias) {
+        this.authToken = authToken;
+        this.userAlias = userAlias;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getUserAlias() {
+        return userAlias;
+    }
+
+    public void setUserAlias(String userAlias) {
+        this.userAlias = userAlias;
+    }
+}
@@ -0,0 +1,40 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server return the next page of
+ * followers of a user.
+ */
+public class FollowersRequest extends PagedRequest {
+
+    private String lastFollowerAlias;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowersRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose followers are to be returned.
+     * @param limit the maximum number of followers to return.
+     * @param lastFollowerAlias the alias of the last follower that was returned in the previous
+     *                          request (null if there was no previous request or if no followers
+     *                          were returned in the previous request).
+     */
+    public FollowersRequest(AuthToken authToken, String userAlias, int limit, String lastFollowerAlias) {
+        super(authToken, userAlias, limit);
+        this.lastFollowerAlias = lastFollowerAlias;
+    }
+
+    public String getLastFollowerAlias() {
+        return lastFollowerAlias;
+    }
+
+    public void setLastFollowerAlias(String lastFollowerAlias) {
+        this.lastFollowerAlias = lastFollowerAlias;
+    }
+}
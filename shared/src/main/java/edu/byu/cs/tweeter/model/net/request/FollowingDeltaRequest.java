@@ -0,0 +1,56 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to ask the server which follows and unfollows a user has
+ * made since a version of their following list that the client already has.
+ */
+public class FollowingDeltaRequest {
+
+    private AuthToken authToken;
+    private String userAlias;
+    private String sinceVersion;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowingDeltaRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose following list is cached.
+     * @param sinceVersion the version token returned with the cached list.
+     */
+    public FollowingDeltaRequest(AuthToken authToken, String userAlias, String sinceVersion) {
+        this.authToken = authToken;
+        this.userAlias = userAlias;
+        this.sinceVersion = sinceVersion;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getUserAlias() {
+        return userAlias;
+    }
+
+    public void setUserAlias(String userAlias) {
+        this.userAlias = userAlias;
+    }
+
+    public String getSinceVersion() {
+        return sinceVersion;
+    }
+
+    public void setSinceVersion(String sinceVersion) {
+        this.sinceVersion = sinceVersion;
+    }
+}
@@ -0,0 +1,40 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server return the next page of
+ * users that a user is following.
+ */
+public class FollowingRequest extends PagedRequest {
+
+    private String lastFolloweeAlias;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowingRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose followees are to be returned.
+     * @param limit the maximum number of followees to return.
+     * @param lastFolloweeAlias the alias of the last followee that was returned in the previous
+     *                          request (null if there was no previous request or if no followees
+     *                          were returned in the previous request).
+     */
+    public FollowingRequest(AuthToken authToken, String userAlias, int limit, String lastFolloweeAlias) {
+        super(authToken, userAlias, limit);
+        this.lastFolloweeAlias = lastFolloweeAlias;
+    }
+
+    public String getLastFolloweeAlias() {
+        return lastFolloweeAlias;
+    }
+
+    public void setLastFolloweeAlias(String lastFolloweeAlias) {
+        this.lastFolloweeAlias = lastFolloweeAlias;
+    }
+}
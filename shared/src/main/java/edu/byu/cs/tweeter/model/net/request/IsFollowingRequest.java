@@ -0,0 +1,58 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server say whether a user
+ * follows each of a list of users, e.g. the users on a page.
+ */
+public class IsFollowingRequest {
+
+    private AuthToken authToken;
+    private String followerAlias;
+    private List<String> followeeAliases;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private IsFollowingRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param followerAlias the alias of the possible follower.
+     * @param followeeAliases the aliases of the possible followees.
+     */
+    public IsFollowingRequest(AuthToken authToken, String followerAlias, List<String> followeeAliases) {
+        this.authToken = authToken;
+        this.followerAlias = followerAlias;
+        this.followeeAliases = followeeAliases;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getFollowerAlias() {
+        return followerAlias;
+    }
+
+    public void setFollowerAlias(String followerAlias) {
+        this.followerAlias = followerAlias;
+    }
+
+    public List<String> getFolloweeAliases() {
+        return followeeAliases;
+    }
+
+    public void setFolloweeAliases(List<String> followeeAliases) {
+        this.followeeAliases = followeeAliases;
+    }
+}
@@ -0,0 +1,41 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Status;
+
+/**
+ * Contains all the information needed to make a request to have the server return the next page of
+ * statuses that mention a user.
+ */
+public class MentionsRequest extends PagedRequest {
+
+    private Status lastStatus;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private MentionsRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose mentions are to be returned.
+     * @param limit the maximum number of statuses to return.
+     * @param lastStatus the last status that was returned in the previous request (null if there
+     *                   was no previous request or if no statuses were returned in the previous
+     *                   request).
+     */
+    public MentionsRequest(AuthToken authToken, String userAlias, int limit, Status lastStatus) {
+        super(authToken, userAlias, limit);
+        this.lastStatus = lastStatus;
+    }
+
+    public Status getLastStatus() {
+        return lastStatus;
+    }
+
+    public void setLastStatus(Status lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+}
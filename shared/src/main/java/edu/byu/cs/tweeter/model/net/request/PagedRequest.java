@@ -0,0 +1,55 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains the information shared by all requests for a page of items belonging to a user.
+ */
+public abstract class PagedRequest {
+
+    private AuthToken authToken;
+    private String userAlias;
+    private int limit;
+
+    /**
+     * Allows construction of the object from Json.
+     */
+    protected PagedRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param userAlias the alias of the user whose items are to be returned.
+     * @param limit the maximum number of items to return.
+     */
+    protected PagedRequest(AuthToken authToken, String userAlias, int limit) {
+        this.authToken = authToken;
+        this.userAlias = userAlias;
+        this.limit = limit;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getUserAlias() {
+        return userAlias;
+    }
+
+    public void setUserAlias(String userAlias) {
+        this.userAlias = userAlias;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
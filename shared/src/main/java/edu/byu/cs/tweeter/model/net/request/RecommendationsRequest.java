@@ -0,0 +1,45 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server recommend users for
+ * the logged-in user to follow.
+ */
+public class RecommendationsRequest {
+
+    private AuthToken authToken;
+    private int limit;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private RecommendationsRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param limit the maximum number of users to recommend.
+     */
+    public RecommendationsRequest(AuthToken authToken, int limit) {
+        this.authToken = authToken;
+        this.limit = limit;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
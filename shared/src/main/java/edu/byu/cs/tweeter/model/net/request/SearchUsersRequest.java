@@ -0,0 +1,69 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have the server return the next page of
+ * users whose alias, first name or last name starts with a query.
+ */
+public class SearchUsersRequest {
+
+    private AuthToken authToken;
+    private String query;
+    private int limit;
+    private String lastUserAlias;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private SearchUsersRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param query the text typed so far.
+     * @param limit the maximum number of users to return.
+     * @param lastUserAlias the alias of the last user that was returned in the previous request
+     *                      (null if there was no previous request or if no users were returned in
+     *                      the previous request).
+     */
+    public SearchUsersRequest(AuthToken authToken, String query, int limit, String lastUserAlias) {
+        this.authToken = authToken;
+        this.query = query;
+        this.limit = limit;
+        this.lastUserAlias = lastUserAlias;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getLastUserAlias() {
+        return lastUserAlias;
+    }
+
+    public void setLastUserAlias(String lastUserAlias) {
+        this.lastUserAlias = lastUserAlias;
+    }
+}
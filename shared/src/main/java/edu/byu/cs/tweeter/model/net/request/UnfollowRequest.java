@@ -0,0 +1,55 @@
+package edu.byu.cs.tweeter.model.net.request;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Contains all the information needed to make a request to have one user stop following another.
+ */
+public class UnfollowRequest {
+
+    private AuthToken authToken;
+    private String followerAlias;
+    private String followeeAlias;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private UnfollowRequest() {}
+
+    /**
+     * Creates an instance.
+     *
+     * @param authToken the session auth token.
+     * @param followerAlias the alias of the user doing the following.
+     * @param followeeAlias the alias of the user to unfollow.
+     */
+    public UnfollowRequest(AuthToken authToken, String followerAlias, String followeeAlias) {
+        this.authToken = authToken;
+        this.followerAlias = followerAlias;
+        this.followeeAlias = followeeAlias;
+    }
+
+    public AuthToken getAuthToken() {
+        return authToken;
+    }
+
+    public void setAuthToken(AuthToken authToken) {
+        this.authToken = authToken;
+    }
+
+    public String getFollowerAlias() {
+        return followerAlias;
+    }
+
+    public void setFollowerAlias(String followerAlias) {
+        this.followerAlias = followerAlias;
+    }
+
+    public String getFolloweeAlias() {
+        return followeeAlias;
+    }
+
+    public void setFolloweeAlias(String followeeAlias) {
+        this.followeeAlias = followeeAlias;
+    }
+}
@@ -0,0 +1,95 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.Status;
+
+/**
+ * A paged response for a {@link edu.byu.cs.tweeter.model.net.request.FeedRequest}.
+ */
+public class FeedResponse extends PagedResponse {
+
+    private List<Status> statuses;
+    private String cursor;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FeedResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful. Sets the
+     * success and more pages indicators to false.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public FeedResponse(String message) {
+        super(false, message, false);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param statuses the statuses in the user's feed.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     */
+    public FeedResponse(List<Status> statuses, boolean hasMorePages) {
+        super(true, hasMorePages);
+        this.statuses = statuses;
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param statuses the statuses in the user's feed.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     * @param cursor the cursor to send back for the next page (null if there is none).
+     */
+    public FeedResponse(List<Status> statuses, boolean hasMorePages, String cursor) {
+        this(statuses, hasMorePages);
+        this.cursor = cursor;
+    }
+
+    /**
+     * Returns the statuses in the user's feed contained in this response.
+     *
+     * @return the statuses.
+     */
+    public List<Status> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * Returns the cursor to send back in a {@link edu.byu.cs.tweeter.model.net.request.FeedRequest}
+     * for the next page.
+     *
+     * @return the cursor, or null if there are no more pages.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        FeedResponse that = (FeedResponse) param;
+
+        return (Objects.equals(statuses, that.statuses) &&
+                Objects.equals(cursor, that.cursor) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statuses, cursor);
+    }
+}
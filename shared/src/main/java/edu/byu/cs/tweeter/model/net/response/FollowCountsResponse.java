@@ -0,0 +1,44 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+/**
+ * A response for a {@link edu.byu.cs.tweeter.model.net.request.FollowCountsRequest}.
+ */
+public class FollowCountsResponse extends Response {
+
+    private long followerCount;
+    private long followeeCount;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowCountsResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public FollowCountsResponse(String message) {
+        super(false, message);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param followerCount the number of users following the user.
+     * @param followeeCount the number of users the user is following.
+     */
+    public FollowCountsResponse(long followerCount, long followeeCount) {
+        super(true);
+        this.followerCount = followerCount;
+        this.followeeCount = followeeCount;
+    }
+
+    public long getFollowerCount() {
+        return followerCount;
+    }
+
+    public long getFolloweeCount() {
+        return followeeCount;
+    }
+}
@@ -0,0 +1,71 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * A paged response for a {@link edu.byu.cs.tweeter.model.net.request.FollowersRequest}.
+ */
+public class FollowersResponse extends PagedResponse {
+
+    private List<User> followers;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowersResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful. Sets the
+     * success and more pages indicators to false.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public FollowersResponse(String message) {
+        super(false, message, false);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param followers the followers of the user.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     */
+    public FollowersResponse(List<User> followers, boolean hasMorePages) {
+        super(true, hasMorePages);
+        this.followers = followers;
+    }
+
+    /**
+     * Returns the followers of the user contained in this response.
+     *
+     * @return the followers.
+     */
+    public List<User> getFollowers() {
+        return followers;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        FollowersResponse that = (FollowersResponse) param;
+
+        return (Objects.equals(followers, that.followers) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(followers);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.FollowChange;
+
+/**
+ * A response for a {@link edu.byu.cs.tweeter.model.net.request.FollowingDeltaRequest}. Either
+ * contains the changes made since the requested version, in the order they were made, or
+ * indicates that the server no longer has those changes and the client has to reload the whole
+ * list.
+ */
+public class FollowingDeltaResponse extends Response {
+
+    private String version;
+    private boolean resyncRequired;
+    private List<FollowChange> changes;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowingDeltaResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public FollowingDeltaResponse(String message) {
+        super(false, message);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param version the version token for the list after the changes are applied.
+     * @param resyncRequired true if the changes are not available and the list must be reloaded.
+     * @param changes the changes (empty when a resync is required).
+     */
+    public FollowingDeltaResponse(String version, boolean resyncRequired, List<FollowChange> changes) {
+        super(true);
+        this.version = version;
+        this.resyncRequired = resyncRequired;
+        this.changes = changes;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public boolean isResyncRequired() {
+        return resyncRequired;
+    }
+
+    public List<FollowChange> getChanges() {
+        return changes;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        FollowingDeltaResponse that = (FollowingDeltaResponse) param;
+
+        return (Objects.equals(version, that.version) &&
+                resyncRequired == that.resyncRequired &&
+                Objects.equals(changes, that.changes) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(version, resyncRequired, changes);
+    }
+}
@@ -0,0 +1,94 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * A paged response for a {@link edu.byu.cs.tweeter.model.net.request.FollowingRequest}.
+ */
+public class FollowingResponse extends PagedResponse {
+
+    private List<User> followees;
+    /**
+     * The version token of the user's following list when this page was read (null if the
+     * server does not track versions). A client that has every page can later ask for only the
+     * changes made since this version.
+     */
+    private String version;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private FollowingResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful. Sets the
+     * success and more pages indicators to false.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public FollowingResponse(String message) {
+        super(false, message, false);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param followees the users the user is following.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     */
+    public FollowingResponse(List<User> followees, boolean hasMorePages) {
+        this(followees, hasMorePages, null);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param followees the users the user is following.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     * @param version the version token of the following list.
+     */
+    public FollowingResponse(List<User> followees, boolean hasMorePages, String version) {
+        super(true, hasMorePages);
+        this.followees = followees;
+        this.version = version;
+    }
+
+    /**
+     * Returns the users the user is following contained in this response.
+     *
+     * @return the followees.
+     */
+    public List<User> getFollowees() {
+        return followees;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        FollowingResponse that = (FollowingResponse) param;
+
+        return (Objects.equals(followees, that.followees) &&
+                Objects.equals(version, that.version) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(followees);
+    }
+}
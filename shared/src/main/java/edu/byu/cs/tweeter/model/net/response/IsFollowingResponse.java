@@ -0,0 +1,38 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+/**
+ * A response for a {@link edu.byu.cs.tweeter.model.net.request.IsFollowingRequest}.
+ */
+public class IsFollowingResponse extends Response {
+
+    private boolean[] following;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private IsFollowingResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public IsFollowingResponse(String message) {
+        super(false, message);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param following for each followee in the request, in order, whether the follower follows
+     *                  them.
+     */
+    public IsFollowingResponse(boolean[] following) {
+        super(true);
+        this.following = following;
+    }
+
+    public boolean[] getFollowing() {
+        return following;
+    }
+}
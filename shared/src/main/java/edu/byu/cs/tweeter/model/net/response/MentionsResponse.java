@@ -0,0 +1,71 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.Status;
+
+/**
+ * A paged response for a {@link edu.byu.cs.tweeter.model.net.request.MentionsRequest}.
+ */
+public class MentionsResponse extends PagedResponse {
+
+    private List<Status> statuses;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private MentionsResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful. Sets the
+     * success and more pages indicators to false.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public MentionsResponse(String message) {
+        super(false, message, false);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param statuses the statuses that mention the user.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     */
+    public MentionsResponse(List<Status> statuses, boolean hasMorePages) {
+        super(true, hasMorePages);
+        this.statuses = statuses;
+    }
+
+    /**
+     * Returns the statuses contained in this response.
+     *
+     * @return the statuses.
+     */
+    public List<Status> getStatuses() {
+        return statuses;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        MentionsResponse that = (MentionsResponse) param;
+
+        return (Objects.equals(statuses, that.statuses) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(statuses);
+    }
+}
@@ -0,0 +1,34 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+/**
+ * A response that can indicate whether there is more data available from the server.
+ */
+public class PagedResponse extends Response {
+
+    private boolean hasMorePages;
+
+    /**
+     * Allows construction of the object from Json.
+     */
+    protected PagedResponse() {}
+
+    PagedResponse(boolean success, boolean hasMorePages) {
+        super(success);
+        this.hasMorePages = hasMorePages;
+    }
+
+    PagedResponse(boolean success, String message, boolean hasMorePages) {
+        super(success, message);
+        this.hasMorePages = hasMorePages;
+    }
+
+    /**
+     * An indicator of whether more data is available from the server. A value of true indicates
+     * that a subsequent request will return at least one more item.
+     *
+     * @return true if more data is available; otherwise, false.
+     */
+    public boolean getHasMorePages() {
+        return hasMorePages;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.Recommendation;
+
+/**
+ * A response for a {@link edu.byu.cs.tweeter.model.net.request.RecommendationsRequest}.
+ */
+public class RecommendationsResponse extends Response {
+
+    private List<Recommendation> recommendations;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private RecommendationsResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public RecommendationsResponse(String message) {
+        super(false, message);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param recommendations the recommended users, most connected first.
+     */
+    public RecommendationsResponse(List<Recommendation> recommendations) {
+        super(true);
+        this.recommendations = recommendations;
+    }
+
+    public List<Recommendation> getRecommendations() {
+        return recommendations;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        RecommendationsResponse that = (RecommendationsResponse) param;
+
+        return (Objects.equals(recommendations, that.recommendations) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(recommendations);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * A paged response for a {@link edu.byu.cs.tweeter.model.net.request.SearchUsersRequest}.
+ */
+public class SearchUsersResponse extends PagedResponse {
+
+    private List<User> users;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private SearchUsersResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful. Sets the
+     * success and more pages indicators to false.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public SearchUsersResponse(String message) {
+        super(false, message, false);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param users the matching users.
+     * @param hasMorePages an indicator of whether more data is available for the request.
+     */
+    public SearchUsersResponse(List<User> users, boolean hasMorePages) {
+        super(true, hasMorePages);
+        this.users = users;
+    }
+
+    /**
+     * Returns the matching users contained in this response.
+     *
+     * @return the users.
+     */
+    public List<User> getUsers() {
+        return users;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        SearchUsersResponse that = (SearchUsersResponse) param;
+
+        return (Objects.equals(users, that.users) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(users);
+    }
+}
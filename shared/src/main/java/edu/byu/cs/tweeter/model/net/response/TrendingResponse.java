@@ -0,0 +1,72 @@
+package edu.byu.cs.tweeter.model.net.response;
+
+import java.util.List;
+import java.util.Objects;
+
+import edu.byu.cs.tweeter.model.domain.Trend;
+
+/**
+ * A response for a {@link edu.byu.cs.tweeter.model.net.request.TrendingRequest}.
+ */
+public class TrendingResponse extends Response {
+
+    private List<Trend> mentions;
+    private List<Trend> urls;
+
+    /**
+     * Allows construction of the object from Json. Private so it won't be called in normal code.
+     */
+    private TrendingResponse() {}
+
+    /**
+     * Creates a response indicating that the corresponding request was unsuccessful.
+     *
+     * @param message a message describing why the request was unsuccessful.
+     */
+    public TrendingResponse(String message) {
+        super(false, message);
+    }
+
+    /**
+     * Creates a response indicating that the corresponding request was successful.
+     *
+     * @param mentions the trending mentions, most frequent first.
+     * @param urls the trending URLs, most frequent first.
+     */
+    public TrendingResponse(List<Trend> mentions, List<Trend> urls) {
+        super(true);
+        this.mentions = mentions;
+        this.urls = urls;
+    }
+
+    public List<Trend> getMentions() {
+        return mentions;
+    }
+
+    public List<Trend> getUrls() {
+        return urls;
+    }
+
+    @Override
+    public boolean equals(Object param) {
+        if (this == param) {
+            return true;
+        }
+
+        if (param == null || getClass() != param.getClass()) {
+            return false;
+        }
+
+        TrendingResponse that = (TrendingResponse) param;
+
+        return (Objects.equals(mentions, that.mentions) &&
+                Objects.equals(urls, that.urls) &&
+                Objects.equals(this.getMessage(), that.getMessage()) &&
+                this.isSuccess() == that.isSuccess());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mentions, urls);
+    }
+}
@@ -0,0 +1,32 @@
+package edu.byu.cs.tweeter.util;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.Reader;
+
+import edu.byu.cs.tweeter.util.json.TweeterTypeAdapterFactory;
+
+/**
+ * Converts request and response objects to and from JSON. Domain objects and paged responses are
+ * handled by the adapters in {@link TweeterTypeAdapterFactory} rather than by reflection.
+ */
+public class JsonSerializer {
+
+    // Gson instances are thread-safe, so a single instance is shared by all callers
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new TweeterTypeAdapterFactory())
+            .create();
+
+    public static String serialize(Object requestInfo) {
+        return gson.toJson(requestInfo);
+    }
+
+    public static <T> T deserialize(String value, Class<T> returnType) {
+        return gson.fromJson(value, returnType);
+    }
+
+    public static <T> T deserialize(Reader reader, Class<T> returnType) {
+        return gson.fromJson(reader, returnType);
+    }
+}
@@ -0,0 +1,335 @@
+package edu.byu.cs.tweeter.util.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+/**
+ * A compact binary encoding for a successful page of users, used instead of JSON when the client
+ * sends {@link #CONTENT_TYPE} in its Accept header.
+ * <p>
+ * Most of the bytes in a JSON page of users are repeated: every user spells out the four field
+ * names, a few image URLs are shared by many users, and an alias usually repeats the user's first
+ * name. This encoding removes the repetition:
+ * <ul>
+ *     <li>Strings that occur more than once in the page (names and image URLs) are written once in
+ *     a dictionary at the start of the page and referred to by index.</li>
+ *     <li>An alias that is just "@" followed by the lower-case first name, or first and last name,
+ *     is written as a single byte saying so.</li>
+ *     <li>Other aliases are written as the number of leading characters shared with the previous
+ *     alias and the remaining characters. Pages are ordered by alias, so neighbours often share
+ *     a long prefix.</li>
+ *     <li>All counts, lengths and references are unsigned LEB128 varints, so small values take
+ *     one byte.</li>
+ * </ul>
+ * Layout:
+ * <pre>
+ * page       = magic(2) formatVersion(1) flags(1) [version] dictionary users
+ * flags      = bit 0: hasMorePages, bit 1: version present
+ * dictionary = varint(count) string*
+ * users      = varint(count) user*
+ * user       = ref(firstName) ref(lastName) ref(imageUrl) alias
+ * ref        = varint: 0 = null, 1 = string follows, n + 2 = dictionary[n]
+ * alias      = varint: 0 = from first name, 1 = from first and last name,
+ *              p + 2 = first p characters of the previous alias, followed by string
+ * string     = varint(byte length) UTF-8 bytes
+ * </pre>
+ */
+public class UserPageCodec {
+
+    public static final String CONTENT_TYPE = "application/x-tweeter-user-page";
+
+    private static final int MAGIC_0 = 'T';
+    private static final int MAGIC_1 = 'U';
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int FLAG_HAS_MORE_PAGES = 1;
+    private static final int FLAG_VERSION = 2;
+
+    private static final int REF_NULL = 0;
+    private static final int REF_LITERAL = 1;
+    private static final int REF_DICTIONARY = 2;
+
+    private static final int ALIAS_FIRST_NAME = 0;
+    private static final int ALIAS_FULL_NAME = 1;
+    private static final int ALIAS_PREFIX = 2;
+
+    /**
+     * Longer strings and larger counts are rejected when decoding, so a corrupt page fails
+     * instead of allocating a huge array.
+     */
+    private static final int MAX_LENGTH = 1 << 24;
+
+    private UserPageCodec() {
+    }
+
+    /**
+     * Encodes a page of users.
+     *
+     * @param users the users, in page order.
+     * @param hasMorePages whether there are more pages after this one.
+     * @param version the version token of the list the page was read from (can be null).
+     * @return the encoded page.
+     */
+    public static byte[] encode(List<User> users, boolean hasMorePages, String version) {
+        Encoder out = new Encoder(32 + users.size() * 16);
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(FORMAT_VERSION);
+        out.write((hasMorePages ? FLAG_HAS_MORE_PAGES : 0) | (version != null ? FLAG_VERSION : 0));
+        if (version != null) {
+            out.writeString(version);
+        }
+
+        Map<String, Integer> dictionary = buildDictionary(users);
+        out.writeVarint(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            out.writeString(value);
+        }
+
+        out.writeVarint(users.size());
+        String previousAlias = "";
+        for (User user : users) {
+            out.writeRef(user.getFirstName(), dictionary);
+            out.writeRef(user.getLastName(), dictionary);
+            out.writeRef(user.getImageUrl(), dictionary);
+
+            String alias = user.getAlias();
+            if (alias == null) {
+                // Aliases identify users, so a page never has a user without one
+                throw new IllegalArgumentException("User has no alias: " + user);
+            } else if (user.getFirstName() != null && alias.equals(aliasFromFirstName(user.getFirstName()))) {
+                out.writeVarint(ALIAS_FIRST_NAME);
+            } else if (user.getFirstName() != null && user.getLastName() != null
+                    && alias.equals(aliasFromFullName(user.getFirstName(), user.getLastName()))) {
+                out.writeVarint(ALIAS_FULL_NAME);
+            } else {
+                int prefix = commonPrefixLength(previousAlias, alias);
+                out.writeVarint(ALIAS_PREFIX + prefix);
+                out.writeString(alias.substring(prefix));
+            }
+            previousAlias = alias;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a page of users, passing each user to a handler as soon as it has been read.
+     *
+     * @param in the encoded page.
+     * @param handler receives each user in order.
+     * @return the page's envelope fields. The page is always successful; errors are sent as
+     *         JSON.
+     * @throws IOException if the page could not be read or is not a valid page.
+     */
+    public static PageParser.PageInfo decode(InputStream in, PageParser.ItemHandler<User> handler) throws IOException {
+        Decoder decoder = new Decoder(in);
+        if (decoder.read() != MAGIC_0 || decoder.read() != MAGIC_1) {
+            throw new IOException("Not a user page");
+        }
+        int formatVersion = decoder.read();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported user page format " + formatVersion);
+        }
+        int flags = decoder.read();
+        String version = ((flags & FLAG_VERSION) != 0) ? decoder.readString() : null;
+
+        String[] dictionary = new String[decoder.readLength()];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = decoder.readString();
+        }
+
+        int count = decoder.readLength();
+        String previousAlias = "";
+        for (int i = 0; i < count; i++) {
+            String firstName = decoder.readRef(dictionary);
+            String lastName = decoder.readRef(dictionary);
+            String imageUrl = decoder.readRef(dictionary);
+
+            int aliasHeader = decoder.readLength();
+            String alias;
+            if (aliasHeader == ALIAS_FIRST_NAME && firstName != null) {
+                alias = aliasFromFirstName(firstName);
+            } else if (aliasHeader == ALIAS_FULL_NAME && firstName != null && lastName != null) {
+                alias = aliasFromFullName(firstName, lastName);
+            } else if (aliasHeader >= ALIAS_PREFIX && aliasHeader - ALIAS_PREFIX <= previousAlias.length()) {
+                alias = previousAlias.substring(0, aliasHeader - ALIAS_PREFIX) + decoder.readString();
+            } else {
+                throw new IOException("Invalid alias for user " + i);
+            }
+            previousAlias = alias;
+
+            handler.handleItem(new User(firstName, lastName, alias, imageUrl));
+        }
+
+        return new PageParser.PageInfo(true, null, (flags & FLAG_HAS_MORE_PAGES) != 0, version, count);
+    }
+
+    /**
+     * Returns the strings that occur more than once in the page's names and image URLs, most
+     * frequent first (so they get the one-byte references), mapped to their indexes.
+     */
+    private static Map<String, Integer> buildDictionary(List<User> users) {
+        final Map<String, int[]> counts = new LinkedHashMap<>();
+        for (User user : users) {
+            count(counts, user.getFirstName());
+            count(counts, user.getLastName());
+            count(counts, user.getImageUrl());
+        }
+
+        List<String> repeated = new ArrayList<>();
+        for (Map.Entry<String, int[]> entry : counts.entrySet()) {
+            if (entry.getValue()[0] > 1) {
+                repeated.add(entry.getKey());
+            }
+        }
+        // The sort is stable, so equally frequent strings stay in order of first use
+        Collections.sort(repeated, new Comparator<String>() {
+            @Override
+            public int compare(String a, String b) {
+                return Integer.compare(counts.get(b)[0], counts.get(a)[0]);
+            }
+        });
+
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : repeated) {
+            dictionary.put(value, dictionary.size());
+        }
+        return dictionary;
+    }
+
+    private static void count(Map<String, int[]> counts, String value) {
+        if (value != null) {
+            int[] count = counts.get(value);
+            if (count == null) {
+                counts.put(value, new int[] { 1 });
+            } else {
+                count[0]++;
+            }
+        }
+    }
+
+    private static String aliasFromFirstName(String firstName) {
+        return "@" + firstName.toLowerCase(Locale.ROOT);
+    }
+
+    private static String aliasFromFullName(String firstName, String lastName) {
+        return "@" + (firstName + lastName).toLowerCase(Locale.ROOT);
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int length = 0;
+        while (length < max && a.charAt(length) == b.charAt(length)) {
+            length++;
+        }
+        // Don't split a surrogate pair between the prefix and the written characters
+        if (length > 0 && Character.isHighSurrogate(b.charAt(length - 1))) {
+            length--;
+        }
+        return length;
+    }
+
+    private static class Encoder extends ByteArrayOutputStream {
+
+        Encoder(int size) {
+            super(size);
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7f) != 0) {
+                write((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeRef(String value, Map<String, Integer> dictionary) {
+            if (value == null) {
+                writeVarint(REF_NULL);
+                return;
+            }
+
+            Integer index = dictionary.get(value);
+            if (index != null) {
+                writeVarint(REF_DICTIONARY + index);
+            } else {
+                writeVarint(REF_LITERAL);
+                writeString(value);
+            }
+        }
+    }
+
+    private static class Decoder {
+        private final DataInputStream in;
+
+        Decoder(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        int read() throws IOException {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("User page ended early");
+            }
+            return b;
+        }
+
+        /**
+         * Reads a varint that is used as a count, length or index.
+         */
+        int readLength() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = read();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    if (value < 0 || value > MAX_LENGTH) {
+                        throw new IOException("Invalid length " + value);
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Varint is too long");
+        }
+
+        String readString() throws IOException {
+            int length = readLength();
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        String readRef(String[] dictionary) throws IOException {
+            int ref = readLength();
+            if (ref == REF_NULL) {
+                return null;
+            } else if (ref == REF_LITERAL) {
+                return readString();
+            } else if (ref - REF_DICTIONARY < dictionary.length) {
+                return dictionary[ref - REF_DICTIONARY];
+            }
+            throw new IOException("Invalid dictionary reference " + ref);
+        }
+    }
+}
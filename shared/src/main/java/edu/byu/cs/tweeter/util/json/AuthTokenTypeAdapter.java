@@ -0,0 +1,57 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+
+/**
+ * Reads and writes {@link AuthToken} objects without reflection.
+ */
+public class AuthTokenTypeAdapter extends TypeAdapter<AuthToken> {
+
+    @Override
+    public void write(JsonWriter out, AuthToken authToken) throws IOException {
+        if (authToken == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("token").value(authToken.getToken());
+        out.name("timestamp").value(authToken.getTimestamp());
+        out.endObject();
+    }
+
+    @Override
+    public AuthToken read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String token = null;
+        long timestamp = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "token":
+                    token = JsonValues.nextStringOrNull(in);
+                    break;
+                case "timestamp":
+                    timestamp = in.nextLong();
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new AuthToken(token, timestamp);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import edu.byu.cs.tweeter.model.domain.Follow;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Reads and writes {@link Follow} objects without reflection.
+ */
+public class FollowTypeAdapter extends TypeAdapter<Follow> {
+
+    private final TypeAdapter<User> userAdapter;
+
+    public FollowTypeAdapter(TypeAdapter<User> userAdapter) {
+        this.userAdapter = userAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Follow follow) throws IOException {
+        if (follow == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("follower");
+        userAdapter.write(out, follow.getFollower());
+        out.name("followee");
+        userAdapter.write(out, follow.getFollowee());
+        out.endObject();
+    }
+
+    @Override
+    public Follow read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        User follower = null;
+        User followee = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "follower":
+                    follower = userAdapter.read(in);
+                    break;
+                case "followee":
+                    followee = userAdapter.read(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new Follow(follower, followee);
+    }
+}
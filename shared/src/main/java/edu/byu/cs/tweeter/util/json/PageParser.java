@@ -0,0 +1,168 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Parses a paged response (such as a {@link edu.byu.cs.tweeter.model.net.response.FollowingResponse})
+ * as a stream. Each item is passed to an {@link ItemHandler} as soon as it has been decoded, so a
+ * caller can start using the first items of a large page before the rest have been read, and the
+ * page never has to be held as a JSON tree.
+ *
+ * @param <T> the type of the items in the page.
+ */
+public class PageParser<T> {
+
+    /**
+     * Receives the items of a page in order.
+     *
+     * @param <T> the type of the items.
+     */
+    public interface ItemHandler<T> {
+        void handleItem(T item);
+    }
+
+    private final String itemsField;
+    private final TypeAdapter<T> itemAdapter;
+
+    /**
+     * Creates an instance.
+     *
+     * @param itemsField the name of the field holding the items, e.g. "followees".
+     * @param itemAdapter the adapter that reads one item.
+     */
+    public PageParser(String itemsField, TypeAdapter<T> itemAdapter) {
+        this.itemsField = itemsField;
+        this.itemAdapter = itemAdapter;
+    }
+
+    public String getItemsField() {
+        return itemsField;
+    }
+
+    public TypeAdapter<T> getItemAdapter() {
+        return itemAdapter;
+    }
+
+    /**
+     * Parses a page from a character stream.
+     *
+     * @param reader the JSON.
+     * @param handler receives each item as it is decoded.
+     * @return the page's envelope fields.
+     */
+    public PageInfo parse(Reader reader, ItemHandler<T> handler) throws IOException {
+        return parse(new JsonReader(reader), handler);
+    }
+
+    /**
+     * Parses a page. The fields of the envelope may appear in any order.
+     *
+     * @param in the JSON.
+     * @param handler receives each item as it is decoded.
+     * @return the page's envelope fields.
+     */
+    public PageInfo parse(JsonReader in, ItemHandler<T> handler) throws IOException {
+        boolean success = false;
+        String message = null;
+        boolean hasMorePages = false;
+        String version = null;
+        String cursor = null;
+        int itemCount = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (name.equals(itemsField)) {
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                in.beginArray();
+                while (in.hasNext()) {
+                    handler.handleItem(itemAdapter.read(in));
+                    itemCount++;
+                }
+                in.endArray();
+            } else if (name.equals("success")) {
+                success = in.nextBoolean();
+            } else if (name.equals("message")) {
+                message = JsonValues.nextStringOrNull(in);
+            } else if (name.equals("hasMorePages")) {
+                hasMorePages = in.nextBoolean();
+            } else if (name.equals("version")) {
+                version = JsonValues.nextStringOrNull(in);
+            } else if (name.equals("cursor")) {
+                cursor = JsonValues.nextStringOrNull(in);
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new PageInfo(success, message, hasMorePages, version, cursor, itemCount);
+    }
+
+    /**
+     * The fields of a paged response other than its items.
+     */
+    public static class PageInfo {
+        private final boolean success;
+        private final String message;
+        private final boolean hasMorePages;
+        private final String version;
+        private final String cursor;
+        private final int itemCount;
+
+        public PageInfo(boolean success, String message, boolean hasMorePages, String version, int itemCount) {
+            this(success, message, hasMorePages, version, null, itemCount);
+        }
+
+        public PageInfo(boolean success, String message, boolean hasMorePages, String version, String cursor, int itemCount) {
+            this.success = success;
+            this.message = message;
+            this.hasMorePages = hasMorePages;
+            this.version = version;
+            this.cursor = cursor;
+            this.itemCount = itemCount;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public boolean getHasMorePages() {
+            return hasMorePages;
+        }
+
+        /**
+         * Returns the version token of the paged list, for pages that carry one.
+         *
+         * @return the version, or null.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * Returns the cursor to send back for the next page, for pages that carry one.
+         *
+         * @return the cursor, or null.
+         */
+        public String getCursor() {
+            return cursor;
+        }
+
+        public int getItemCount() {
+            return itemCount;
+        }
+    }
+}
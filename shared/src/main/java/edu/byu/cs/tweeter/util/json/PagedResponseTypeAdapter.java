@@ -0,0 +1,112 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.net.response.PagedResponse;
+
+/**
+ * Reads and writes a paged response envelope without reflection. Reading goes through a
+ * {@link PageParser}, so the items are decoded straight into the response's list.
+ *
+ * @param <R> the response type.
+ * @param <T> the type of the items in the page.
+ */
+public abstract class PagedResponseTypeAdapter<R extends PagedResponse, T> extends TypeAdapter<R> {
+
+    private final PageParser<T> parser;
+
+    protected PagedResponseTypeAdapter(PageParser<T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Creates a successful response.
+     *
+     * @param items the items of the page.
+     * @param page the envelope fields of the page.
+     */
+    protected abstract R createResponse(List<T> items, PageParser.PageInfo page);
+
+    /**
+     * Creates an unsuccessful response.
+     */
+    protected abstract R createFailedResponse(String message);
+
+    protected abstract List<T> getItems(R response);
+
+    /**
+     * Returns the response's version token. Only responses for versioned lists override this.
+     */
+    protected String getVersion(R response) {
+        return null;
+    }
+
+    /**
+     * Returns the cursor of the next page. Only responses for lists paged by cursor override
+     * this.
+     */
+    protected String getCursor(R response) {
+        return null;
+    }
+
+    @Override
+    public void write(JsonWriter out, R response) throws IOException {
+        if (response == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("success").value(response.isSuccess());
+        out.name("message").value(response.getMessage());
+        out.name("hasMorePages").value(response.getHasMorePages());
+        out.name("version").value(getVersion(response));
+        // Left out when there is none, since most pages don't carry one
+        String cursor = getCursor(response);
+        if (cursor != null) {
+            out.name("cursor").value(cursor);
+        }
+
+        List<T> items = getItems(response);
+        out.name(parser.getItemsField());
+        if (items == null) {
+            out.nullValue();
+        } else {
+            TypeAdapter<T> itemAdapter = parser.getItemAdapter();
+            out.beginArray();
+            for (T item : items) {
+                itemAdapter.write(out, item);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public R read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        final List<T> items = new ArrayList<>();
+        PageParser.PageInfo page = parser.parse(in, new PageParser.ItemHandler<T>() {
+            @Override
+            public void handleItem(T item) {
+                items.add(item);
+            }
+        });
+
+        if (!page.isSuccess()) {
+            return createFailedResponse(page.getMessage());
+        }
+        return createResponse(items, page);
+    }
+}
@@ -0,0 +1,83 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Reads and writes {@link Status} objects without reflection.
+ */
+public class StatusTypeAdapter extends TypeAdapter<Status> {
+
+    private final TypeAdapter<User> userAdapter;
+
+    public StatusTypeAdapter(TypeAdapter<User> userAdapter) {
+        this.userAdapter = userAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Status status) throws IOException {
+        if (status == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("post").value(status.getPost());
+        out.name("user");
+        userAdapter.write(out, status.getUser());
+        out.name("timestamp").value(status.getTimestamp());
+        out.name("urls");
+        JsonValues.writeStringList(out, status.getUrls());
+        out.name("mentions");
+        JsonValues.writeStringList(out, status.getMentions());
+        out.endObject();
+    }
+
+    @Override
+    public Status read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String post = null;
+        User user = null;
+        long timestamp = 0;
+        List<String> urls = null;
+        List<String> mentions = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "post":
+                    post = JsonValues.nextStringOrNull(in);
+                    break;
+                case "user":
+                    user = userAdapter.read(in);
+                    break;
+                case "timestamp":
+                    timestamp = in.nextLong();
+                    break;
+                case "urls":
+                    urls = JsonValues.nextStringListOrNull(in);
+                    break;
+                case "mentions":
+                    mentions = JsonValues.nextStringListOrNull(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new Status(post, user, timestamp, urls, mentions);
+    }
+}
@@ -0,0 +1,183 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Follow;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowersResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.model.net.response.MentionsResponse;
+import edu.byu.cs.tweeter.model.net.response.SearchUsersResponse;
+import edu.byu.cs.tweeter.model.net.response.StoryResponse;
+
+/**
+ * Supplies the hand-written adapters for the domain types and the paged responses, so Gson does
+ * not fall back to reflection for the objects that make up most of the data sent between the
+ * client and the server. Other types are left to Gson's default adapters.
+ */
+public class TweeterTypeAdapterFactory implements TypeAdapterFactory {
+
+    public static final TypeAdapter<User> USER_ADAPTER = new UserTypeAdapter();
+    public static final TypeAdapter<Status> STATUS_ADAPTER = new StatusTypeAdapter(USER_ADAPTER);
+    public static final TypeAdapter<AuthToken> AUTH_TOKEN_ADAPTER = new AuthTokenTypeAdapter();
+    public static final TypeAdapter<Follow> FOLLOW_ADAPTER = new FollowTypeAdapter(USER_ADAPTER);
+
+    public static final PageParser<User> FOLLOWEES_PARSER = new PageParser<>("followees", USER_ADAPTER);
+    public static final PageParser<User> FOLLOWERS_PARSER = new PageParser<>("followers", USER_ADAPTER);
+    public static final PageParser<User> USERS_PARSER = new PageParser<>("users", USER_ADAPTER);
+    public static final PageParser<Status> STATUSES_PARSER = new PageParser<>("statuses", STATUS_ADAPTER);
+
+    private static final TypeAdapter<FollowingResponse> FOLLOWING_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<FollowingResponse, User>(FOLLOWEES_PARSER) {
+                @Override
+                protected FollowingResponse createResponse(List<User> items, PageParser.PageInfo page) {
+                    return new FollowingResponse(items, page.getHasMorePages(), page.getVersion());
+                }
+
+                @Override
+                protected FollowingResponse createFailedResponse(String message) {
+                    return new FollowingResponse(message);
+                }
+
+                @Override
+                protected List<User> getItems(FollowingResponse response) {
+                    return response.getFollowees();
+                }
+
+                @Override
+                protected String getVersion(FollowingResponse response) {
+                    return response.getVersion();
+                }
+            };
+
+    private static final TypeAdapter<FollowersResponse> FOLLOWERS_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<FollowersResponse, User>(FOLLOWERS_PARSER) {
+                @Override
+                protected FollowersResponse createResponse(List<User> items, PageParser.PageInfo page) {
+                    return new FollowersResponse(items, page.getHasMorePages());
+                }
+
+                @Override
+                protected FollowersResponse createFailedResponse(String message) {
+                    return new FollowersResponse(message);
+                }
+
+                @Override
+                protected List<User> getItems(FollowersResponse response) {
+                    return response.getFollowers();
+                }
+            };
+
+    private static final TypeAdapter<SearchUsersResponse> SEARCH_USERS_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<SearchUsersResponse, User>(USERS_PARSER) {
+                @Override
+                protected SearchUsersResponse createResponse(List<User> items, PageParser.PageInfo page) {
+                    return new SearchUsersResponse(items, page.getHasMorePages());
+                }
+
+                @Override
+                protected SearchUsersResponse createFailedResponse(String message) {
+                    return new SearchUsersResponse(message);
+                }
+
+                @Override
+                protected List<User> getItems(SearchUsersResponse response) {
+                    return response.getUsers();
+                }
+            };
+
+    private static final TypeAdapter<StoryResponse> STORY_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<StoryResponse, Status>(STATUSES_PARSER) {
+                @Override
+                protected StoryResponse createResponse(List<Status> items, PageParser.PageInfo page) {
+                    return new StoryResponse(items, page.getHasMorePages());
+                }
+
+                @Override
+                protected StoryResponse createFailedResponse(String message) {
+                    return new StoryResponse(message);
+                }
+
+                @Override
+                protected List<Status> getItems(StoryResponse response) {
+                    return response.getStatuses();
+                }
+            };
+
+    private static final TypeAdapter<FeedResponse> FEED_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<FeedResponse, Status>(STATUSES_PARSER) {
+                @Override
+                protected FeedResponse createResponse(List<Status> items, PageParser.PageInfo page) {
+                    return new FeedResponse(items, page.getHasMorePages(), page.getCursor());
+                }
+
+                @Override
+                protected FeedResponse createFailedResponse(String message) {
+                    return new FeedResponse(message);
+                }
+
+                @Override
+                protected List<Status> getItems(FeedResponse response) {
+                    return response.getStatuses();
+                }
+
+                @Override
+                protected String getCursor(FeedResponse response) {
+                    return response.getCursor();
+                }
+            };
+
+    private static final TypeAdapter<MentionsResponse> MENTIONS_RESPONSE_ADAPTER =
+            new PagedResponseTypeAdapter<MentionsResponse, Status>(STATUSES_PARSER) {
+                @Override
+                protected MentionsResponse createResponse(List<Status> items, PageParser.PageInfo page) {
+                    return new MentionsResponse(items, page.getHasMorePages());
+                }
+
+                @Override
+                protected MentionsResponse createFailedResponse(String message) {
+                    return new MentionsResponse(message);
+                }
+
+                @Override
+                protected List<Status> getItems(MentionsResponse response) {
+                    return response.getStatuses();
+                }
+            };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (rawType == User.class) {
+            return (TypeAdapter<T>) USER_ADAPTER;
+        } else if (rawType == Status.class) {
+            return (TypeAdapter<T>) STATUS_ADAPTER;
+        } else if (rawType == AuthToken.class) {
+            return (TypeAdapter<T>) AUTH_TOKEN_ADAPTER;
+        } else if (rawType == Follow.class) {
+            return (TypeAdapter<T>) FOLLOW_ADAPTER;
+        } else if (rawType == FollowingResponse.class) {
+            return (TypeAdapter<T>) FOLLOWING_RESPONSE_ADAPTER;
+        } else if (rawType == FollowersResponse.class) {
+            return (TypeAdapter<T>) FOLLOWERS_RESPONSE_ADAPTER;
+        } else if (rawType == SearchUsersResponse.class) {
+            return (TypeAdapter<T>) SEARCH_USERS_RESPONSE_ADAPTER;
+        } else if (rawType == StoryResponse.class) {
+            return (TypeAdapter<T>) STORY_RESPONSE_ADAPTER;
+        } else if (rawType == FeedResponse.class) {
+            return (TypeAdapter<T>) FEED_RESPONSE_ADAPTER;
+        } else if (rawType == MentionsResponse.class) {
+            return (TypeAdapter<T>) MENTIONS_RESPONSE_ADAPTER;
+        }
+        return null;
+    }
+}
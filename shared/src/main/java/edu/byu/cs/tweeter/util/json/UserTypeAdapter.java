@@ -0,0 +1,68 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+import edu.byu.cs.tweeter.model.domain.User;
+
+/**
+ * Reads and writes {@link User} objects without reflection. The JSON has the same shape Gson's
+ * reflective adapter produces, so either side of a connection can use either adapter.
+ */
+public class UserTypeAdapter extends TypeAdapter<User> {
+
+    @Override
+    public void write(JsonWriter out, User user) throws IOException {
+        if (user == null) {
+            out.nullValue();
+            return;
+        }
+
+        out.beginObject();
+        out.name("firstName").value(user.getFirstName());
+        out.name("lastName").value(user.getLastName());
+        out.name("alias").value(user.getAlias());
+        out.name("imageUrl").value(user.getImageUrl());
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+
+        String firstName = null;
+        String lastName = null;
+        String alias = null;
+        String imageUrl = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "firstName":
+                    firstName = JsonValues.nextStringOrNull(in);
+                    break;
+                case "lastName":
+                    lastName = JsonValues.nextStringOrNull(in);
+                    break;
+                case "alias":
+                    alias = JsonValues.nextStringOrNull(in);
+                    break;
+                case "imageUrl":
+                    imageUrl = JsonValues.nextStringOrNull(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new User(firstName, lastName, alias, imageUrl);
+    }
+}
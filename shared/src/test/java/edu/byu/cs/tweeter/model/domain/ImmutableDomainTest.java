@@ -0,0 +1,54 @@
+package edu.byu.cs.tweeter.model.domain;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ImmutableDomainTest {
+
+    private final User allen = new User("Allen", "Anderson", "@allen", null);
+    private final User amy = new User("Amy", "Ames", "@amy", null);
+
+    @Test
+    public void testStringListIsAListOfItsValues() {
+        List<String> source = new ArrayList<>(Arrays.asList("a", "b"));
+        ImmutableStringList list = ImmutableStringList.copyOf(source);
+        source.add("c");
+
+        Assertions.assertEquals(Arrays.asList("a", "b"), list);
+        Assertions.assertEquals(list, Arrays.asList("a", "b"));
+        Assertions.assertEquals(Arrays.asList("a", "b").hashCode(), list.hashCode());
+        Assertions.assertSame(list, ImmutableStringList.copyOf(list));
+        Assertions.assertSame(ImmutableStringList.of(), ImmutableStringList.copyOf(null));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> list.add("c"));
+    }
+
+    @Test
+    public void testStatusMatchesMutableStatus() {
+        List<String> urls = new ArrayList<>(Arrays.asList("http://byu.edu"));
+        Status status = new Status("Hi @amy http://byu.edu", allen, 1000, urls, Arrays.asList("@amy"));
+
+        ImmutableStatus immutable = ImmutableStatus.from(status);
+        urls.clear();
+        status.setUser(amy);
+
+        Assertions.assertSame(allen, immutable.getUser());
+        Assertions.assertEquals(Arrays.asList("http://byu.edu"), immutable.getUrls());
+        Assertions.assertEquals(immutable, ImmutableStatus.builder()
+                .post("Hi @amy http://byu.edu").user(allen).timestamp(1000)
+                .urls(Arrays.asList("http://byu.edu")).mentions(Arrays.asList("@amy")).build());
+        Assertions.assertNotEquals(immutable, immutable.toBuilder().timestamp(1001).build());
+        Assertions.assertEquals(immutable, ImmutableStatus.from(immutable.toStatus()));
+        Assertions.assertEquals(amy, immutable.withUser(amy).getUser());
+        Assertions.assertThrows(NullPointerException.class, () -> ImmutableStatus.builder().post("x").build());
+
+        Set<ImmutableStatus> statuses = new HashSet<>();
+        statuses.add(immutable);
+        Assertions.assertTrue(statuses.contains(ImmutableStatus.from(immutable.toStatus())));
+    }
+}
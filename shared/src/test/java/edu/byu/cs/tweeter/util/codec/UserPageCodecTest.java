@@ -0,0 +1,96 @@
+package edu.byu.cs.tweeter.util.codec;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.util.FakeData;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+import edu.byu.cs.tweeter.util.json.PageParser;
+
+public class UserPageCodecTest {
+
+    private final List<User> decoded = new ArrayList<>();
+
+    private final PageParser.ItemHandler<User> collector = new PageParser.ItemHandler<User>() {
+        @Override
+        public void handleItem(User user) {
+            decoded.add(user);
+        }
+    };
+
+    @Test
+    public void testFakeDataRoundTrip() throws IOException {
+        List<User> users = FakeData.getInstance().getFakeUsers();
+
+        byte[] encoded = UserPageCodec.encode(users, true, "abc.42");
+        PageParser.PageInfo page = UserPageCodec.decode(new ByteArrayInputStream(encoded), collector);
+
+        assertSameUsers(users, decoded);
+        Assertions.assertTrue(page.isSuccess());
+        Assertions.assertTrue(page.getHasMorePages());
+        Assertions.assertEquals("abc.42", page.getVersion());
+        Assertions.assertEquals(users.size(), page.getItemCount());
+
+        int jsonLength = JsonSerializer.serialize(new FollowingResponse(users, true)).length();
+        Assertions.assertTrue(encoded.length < jsonLength / 3, encoded.length + " vs " + jsonLength);
+    }
+
+    @Test
+    public void testUnusualUsersRoundTrip() throws IOException {
+        List<User> users = Arrays.asList(
+                new User(null, null, "@nameless", null),
+                new User("Zo\u00EB", "\u00C5ngstr\u00F6m", "@zo\u00EB\u00E5ngstr\u00F6m", "https://example.com/\u00E4.png"),
+                new User("Ann", "Lee", "@ann_lee", "https://example.com/a.png"),
+                new User("Ann", "Lee", "@ann_lee2", "https://example.com/a.png"),
+                // Shares a prefix with the previous alias that ends inside a surrogate pair
+                new User("Emoji", "One", "@\uD83D\uDE00a", null),
+                new User("Emoji", "Two", "@\uD83D\uDE01b", null),
+                new User("", "", "@", ""));
+
+        UserPageCodec.decode(new ByteArrayInputStream(UserPageCodec.encode(users, false, null)), collector);
+
+        assertSameUsers(users, decoded);
+    }
+
+    @Test
+    public void testEmptyPage() throws IOException {
+        PageParser.PageInfo page = UserPageCodec.decode(new ByteArrayInputStream(
+                UserPageCodec.encode(Collections.<User>emptyList(), false, null)), collector);
+
+        Assertions.assertTrue(decoded.isEmpty());
+        Assertions.assertFalse(page.getHasMorePages());
+        Assertions.assertNull(page.getVersion());
+    }
+
+    @Test
+    public void testTruncatedPageIsRejected() {
+        byte[] encoded = UserPageCodec.encode(FakeData.getInstance().getFakeUsers(), false, null);
+        final byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+
+        Assertions.assertThrows(IOException.class, () ->
+                UserPageCodec.decode(new ByteArrayInputStream(truncated), collector));
+        Assertions.assertThrows(IOException.class, () ->
+                UserPageCodec.decode(new ByteArrayInputStream("{\"success\":true}".getBytes()), collector));
+    }
+
+    private static void assertSameUsers(List<User> expected, List<User> actual) {
+        Assertions.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            User e = expected.get(i);
+            User a = actual.get(i);
+            Assertions.assertEquals(e.getAlias(), a.getAlias());
+            Assertions.assertEquals(e.getFirstName(), a.getFirstName());
+            Assertions.assertEquals(e.getLastName(), a.getLastName());
+            Assertions.assertEquals(e.getImageUrl(), a.getImageUrl());
+        }
+    }
+}
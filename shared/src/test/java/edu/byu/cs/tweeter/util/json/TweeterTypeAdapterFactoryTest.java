@@ -0,0 +1,116 @@
+package edu.byu.cs.tweeter.util.json;
+
+import com.google.gson.Gson;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.byu.cs.tweeter.model.domain.AuthToken;
+import edu.byu.cs.tweeter.model.domain.Follow;
+import edu.byu.cs.tweeter.model.domain.Status;
+import edu.byu.cs.tweeter.model.domain.User;
+import edu.byu.cs.tweeter.model.net.response.FeedResponse;
+import edu.byu.cs.tweeter.model.net.response.FollowingResponse;
+import edu.byu.cs.tweeter.util.FakeData;
+import edu.byu.cs.tweeter.util.JsonSerializer;
+
+public class TweeterTypeAdapterFactoryTest {
+
+    /**
+     * Gson without the custom adapters, used to check the two produce compatible JSON.
+     */
+    private final Gson reflectiveGson = new Gson();
+
+    private final User allen = new User("Allen", "Anderson", "@allen", "https://example.com/allen.png");
+    private final User amy = new User("Amy", "Ames", "@amy", "https://example.com/amy.png");
+
+    @Test
+    public void testUserRoundTrip() {
+        User copy = JsonSerializer.deserialize(JsonSerializer.serialize(allen), User.class);
+
+        Assertions.assertEquals(allen, copy);
+        Assertions.assertEquals(allen.getFirstName(), copy.getFirstName());
+        Assertions.assertEquals(allen.getLastName(), copy.getLastName());
+        Assertions.assertEquals(allen.getImageUrl(), copy.getImageUrl());
+    }
+
+    @Test
+    public void testStatusRoundTrip() {
+        Status status = new Status("Hello @amy http://byu.edu", allen, 1234567890L,
+                Arrays.asList("http://byu.edu"), Arrays.asList("@amy"));
+
+        Status copy = JsonSerializer.deserialize(JsonSerializer.serialize(status), Status.class);
+
+        Assertions.assertEquals(status, copy);
+    }
+
+    @Test
+    public void testAuthTokenAndFollowRoundTrip() {
+        AuthToken authToken = new AuthToken("abc", 42L);
+        AuthToken tokenCopy = JsonSerializer.deserialize(JsonSerializer.serialize(authToken), AuthToken.class);
+        Assertions.assertEquals("abc", tokenCopy.getToken());
+        Assertions.assertEquals(42L, tokenCopy.getTimestamp());
+
+        Follow follow = new Follow(allen, amy);
+        Assertions.assertEquals(follow, JsonSerializer.deserialize(JsonSerializer.serialize(follow), Follow.class));
+    }
+
+    @Test
+    public void testReadsJsonWrittenByReflection() {
+        List<Status> statuses = FakeData.getInstance().getFakeStatuses();
+        FeedResponse response = new FeedResponse(statuses, true);
+
+        FeedResponse copy = JsonSerializer.deserialize(reflectiveGson.toJson(response), FeedResponse.class);
+
+        Assertions.assertEquals(response, copy);
+        Assertions.assertTrue(copy.getHasMorePages());
+    }
+
+    @Test
+    public void testReflectionReadsJsonWrittenByAdapters() {
+        FollowingResponse response = new FollowingResponse(FakeData.getInstance().getFakeUsers(), false);
+
+        FollowingResponse copy = reflectiveGson.fromJson(JsonSerializer.serialize(response), FollowingResponse.class);
+
+        Assertions.assertEquals(response, copy);
+    }
+
+    @Test
+    public void testFailedResponseRoundTrip() {
+        FollowingResponse response = new FollowingResponse("[Bad Request] Missing alias");
+
+        FollowingResponse copy = JsonSerializer.deserialize(JsonSerializer.serialize(response), FollowingResponse.class);
+
+        Assertions.assertFalse(copy.isSuccess());
+        Assertions.assertEquals("[Bad Request] Missing alias", copy.getMessage());
+        Assertions.assertNull(copy.getFollowees());
+    }
+
+    @Test
+    public void testPageParserStreamsItemsInOrder() throws IOException {
+        // Items before the envelope fields, and an unknown field, are both allowed
+        String json = "{\"followees\":" + reflectiveGson.toJson(Arrays.asList(allen, amy)) +
+                ",\"extra\":{\"a\":[1,2]},\"hasMorePages\":true,\"success\":true}";
+
+        final List<User> users = new ArrayList<>();
+        PageParser.PageInfo page = TweeterTypeAdapterFactory.FOLLOWEES_PARSER.parse(new StringReader(json),
+                new PageParser.ItemHandler<User>() {
+                    @Override
+                    public void handleItem(User user) {
+                        users.add(user);
+                    }
+                });
+
+        Assertions.assertEquals(Arrays.asList(allen, amy), users);
+        Assertions.assertEquals(2, page.getItemCount());
+        Assertions.assertTrue(page.isSuccess());
+        Assertions.assertTrue(page.getHasMorePages());
+        Assertions.assertNull(page.getMessage());
+    }
+}